@@ -0,0 +1,295 @@
+package org.carlspring.strongbox.services.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.aql.grammar.AqlMapping;
+import org.carlspring.strongbox.data.criteria.Expression;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.data.criteria.Predicate.BooleanOperator;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.cache.ArtifactEventCacheSupport;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.search.SearchResult;
+import org.carlspring.strongbox.storage.search.SearchResults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Caches the AQL search results by the compiled query, its parameters and its page.
+ * <p>
+ * An entry is evicted when an artifact is stored, updated, moved or deleted in a repository which the query may
+ * match: queries restricted to some storages or repositories only care about those, the others care about all.
+ * The entries also expire after {@code strongbox.aql.cache.ttl-seconds}, which also bounds how stale the relative
+ * date queries can get.
+ * <p>
+ * The callers get their own copy of the results, so that they can't change the cached ones.
+ *
+ * @see ArtifactEventCacheSupport
+ */
+@Component
+public class AqlSearchResultsCache
+{
+
+    private final OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>();
+
+    private final ArtifactEventCacheSupport cacheSupport;
+
+    private final Cache<String, CachedSearchResults> cache;
+
+    @Inject
+    public AqlSearchResultsCache(@Value("${strongbox.aql.cache.max-entries:500}") long maxEntries,
+                                 @Value("${strongbox.aql.cache.ttl-seconds:60}") long ttlSeconds)
+    {
+        this.cacheSupport = new ArtifactEventCacheSupport(ttlSeconds);
+        this.cache = cacheSupport.newCache(maxEntries);
+    }
+
+    public SearchResults get(Selector<ArtifactEntry> selector,
+                             Search search)
+        throws IOException
+    {
+        String key = calculateKey(selector);
+
+        CachedSearchResults cached = cache.getIfPresent(key);
+        if (cached != null)
+        {
+            StrongboxMetrics.increment(StrongboxMetrics.AQL_CACHE, Tags.of("result", "hit"));
+
+            return copyOf(cached.results);
+        }
+        StrongboxMetrics.increment(StrongboxMetrics.AQL_CACHE, Tags.of("result", "miss"));
+
+        long searchGeneration = cacheSupport.getGeneration();
+        SearchResults results = search.search();
+
+        cacheSupport.put(cache, key, new CachedSearchResults(copyOf(results), Scope.of(selector.getPredicate())),
+                         searchGeneration);
+
+        return results;
+    }
+
+    private static SearchResults copyOf(SearchResults results)
+    {
+        SearchResults result = new SearchResults();
+        result.setResults(results.getResults()
+                                 .stream()
+                                 .map(SearchResult::new)
+                                 .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!cacheSupport.isInvalidating(event))
+        {
+            return;
+        }
+
+        invalidate(event.getPath());
+        if (event.getTargetPath() != null)
+        {
+            invalidate(event.getTargetPath());
+        }
+    }
+
+    private void invalidate(Path path)
+    {
+        if (!(path instanceof RepositoryPath))
+        {
+            invalidateAll();
+
+            return;
+        }
+
+        Repository repository = ((RepositoryPath) path).getRepository();
+        invalidate(repository.getStorage().getId(), repository.getId());
+    }
+
+    public void invalidate(String storageId,
+                           String repositoryId)
+    {
+        cacheSupport.invalidate(
+                () -> cache.asMap().values().removeIf(cached -> cached.scope.matches(storageId, repositoryId)));
+    }
+
+    public void invalidateAll()
+    {
+        cacheSupport.invalidate(cache::invalidateAll);
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * The key doesn't depend on the spelling of the AQL query, only on what it compiles to.
+     */
+    String calculateKey(Selector<ArtifactEntry> selector)
+    {
+        Paginator paginator = selector.getPaginator();
+        Map<String, Object> parameters = new TreeMap<>(queryTemplate.exposeParameterMap(selector.getPredicate()));
+
+        return String.format("%s %s [skip=%s, limit=%s, order=%s %s]",
+                             queryTemplate.calculateQueryString(selector),
+                             parameters,
+                             paginator.getSkip(),
+                             paginator.getLimit(),
+                             paginator.getProperty(),
+                             paginator.getOrder());
+    }
+
+    @FunctionalInterface
+    public interface Search
+    {
+
+        SearchResults search()
+            throws IOException;
+
+    }
+
+    private static class CachedSearchResults
+    {
+
+        private final SearchResults results;
+
+        private final Scope scope;
+
+        private CachedSearchResults(SearchResults results,
+                                    Scope scope)
+        {
+            this.results = results;
+            this.scope = scope;
+        }
+
+    }
+
+    /**
+     * The storages and repositories a query is restricted to, {@code null} meaning any.
+     */
+    static class Scope
+    {
+
+        private static final Scope ANY = new Scope(null, null);
+
+        private final Set<String> storageIds;
+
+        private final Set<String> repositoryIds;
+
+        private Scope(Set<String> storageIds,
+                      Set<String> repositoryIds)
+        {
+            this.storageIds = storageIds;
+            this.repositoryIds = repositoryIds;
+        }
+
+        boolean matches(String storageId,
+                        String repositoryId)
+        {
+            return (storageIds == null || storageIds.contains(storageId)) &&
+                   (repositoryIds == null || repositoryIds.contains(repositoryId));
+        }
+
+        static Scope of(Predicate p)
+        {
+            if (p == null || p.isEmpty() || p.isNegated())
+            {
+                return ANY;
+            }
+
+            Scope result = of(p.getExpression());
+            boolean or = BooleanOperator.OR.equals(p.getOperator());
+            for (Predicate child : p.getChildPredicateList())
+            {
+                result = or ? result.or(of(child)) : result.and(of(child));
+            }
+
+            return result;
+        }
+
+        private static Scope of(Expression e)
+        {
+            if (e == null || !ExpOperator.EQ.equals(e.getOperator()) || e.getValue() == null)
+            {
+                return ANY;
+            }
+
+            String value = String.valueOf(e.getValue());
+            if (AqlMapping.STORAGE.property().equals(e.getProperty()))
+            {
+                return new Scope(Collections.singleton(value), null);
+            }
+            else if (AqlMapping.REPOSITORY.property().equals(e.getProperty()))
+            {
+                return new Scope(null, Collections.singleton(value));
+            }
+
+            return ANY;
+        }
+
+        private Scope and(Scope other)
+        {
+            return new Scope(intersect(storageIds, other.storageIds), intersect(repositoryIds, other.repositoryIds));
+        }
+
+        private Scope or(Scope other)
+        {
+            return new Scope(union(storageIds, other.storageIds), union(repositoryIds, other.repositoryIds));
+        }
+
+        private static Set<String> intersect(Set<String> a,
+                                             Set<String> b)
+        {
+            if (a == null || b == null)
+            {
+                return a == null ? b : a;
+            }
+
+            Set<String> result = new HashSet<>(a);
+            result.retainAll(b);
+
+            return result;
+        }
+
+        private static Set<String> union(Set<String> a,
+                                         Set<String> b)
+        {
+            if (a == null || b == null)
+            {
+                return null;
+            }
+
+            Set<String> result = new HashSet<>(a);
+            result.addAll(b);
+
+            return result;
+        }
+
+    }
+
+}
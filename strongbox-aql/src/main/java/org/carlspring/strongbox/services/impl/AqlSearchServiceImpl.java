@@ -39,8 +39,17 @@ public class AqlSearchServiceImpl implements AqlSearchService
     @Inject
     private SnippetGenerator snippetGenerator;
 
+    @Inject
+    private AqlSearchResultsCache aqlSearchResultsCache;
+
     public SearchResults search(Selector<ArtifactEntry> selector)
         throws IOException
+    {
+        return aqlSearchResultsCache.get(selector, () -> doSearch(selector));
+    }
+
+    private SearchResults doSearch(Selector<ArtifactEntry> selector)
+        throws IOException
     {
         SearchResults result = new SearchResults();
 
@@ -0,0 +1,109 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
+import org.carlspring.strongbox.data.criteria.Selector;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.storage.search.SearchResult;
+import org.carlspring.strongbox.storage.search.SearchResults;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AqlSearchResultsCacheTest
+{
+
+    private final AqlSearchResultsCache cache = new AqlSearchResultsCache(100, 60);
+
+    @Test
+    public void testKeyDoesNotDependOnSpelling()
+    {
+        assertThat(cache.calculateKey(selector("storage:storage0 +repository:releases")))
+                .isEqualTo(cache.calculateKey(selector("STORAGE:storage0   +Repository:releases")));
+
+        assertThat(cache.calculateKey(selector("storage:storage0 +repository:releases")))
+                .isNotEqualTo(cache.calculateKey(selector("storage:storage0 +repository:snapshots")));
+    }
+
+    @Test
+    public void testCachedResults()
+            throws IOException
+    {
+        AtomicInteger searches = new AtomicInteger();
+        AqlSearchResultsCache.Search search = () -> {
+            searches.incrementAndGet();
+
+            return new SearchResults();
+        };
+
+        SearchResults results = cache.get(selector("repository:releases"), search);
+
+        assertThat(cache.get(selector("repository:releases"), search).getResults()).isEqualTo(results.getResults());
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    public void testCachedResultsCanNotBeChangedByTheCallers()
+            throws IOException
+    {
+        AqlSearchResultsCache.Search search = () -> {
+            SearchResults results = new SearchResults();
+            results.getResults().add(new SearchResult("storage0", "releases", null, "http://localhost/a.jar"));
+
+            return results;
+        };
+
+        SearchResults missed = cache.get(selector("repository:releases"), search);
+        missed.getResults().clear();
+
+        SearchResults hit = cache.get(selector("repository:releases"), search);
+        assertThat(hit.getResults()).hasSize(1);
+        hit.getResults().iterator().next().setUrl("http://localhost/b.jar");
+        hit.getResults().add(new SearchResult("storage0", "releases", null, "http://localhost/c.jar"));
+
+        SearchResults result = cache.get(selector("repository:releases"), search);
+        assertThat(result.getResults()).hasSize(1);
+        assertThat(result.getResults().iterator().next().getUrl()).isEqualTo("http://localhost/a.jar");
+    }
+
+    @Test
+    public void testInvalidationIsScopedToTheRepositories()
+            throws IOException
+    {
+        cache.get(selector("storage:storage0 +repository:releases"), SearchResults::new);
+        cache.get(selector("repository:releases or repository:snapshots"), SearchResults::new);
+        cache.get(selector("groupId:org.carlspring"), SearchResults::new);
+
+        assertThat(cache.size()).isEqualTo(3);
+
+        cache.invalidate("storage0", "third-party");
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.invalidate("storage1", "releases");
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.invalidate("storage0", "snapshots");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testResultsRacingWithAnInvalidationAreNotCached()
+            throws IOException
+    {
+        cache.get(selector("repository:releases"), () -> {
+            cache.invalidate("storage0", "releases");
+
+            return new SearchResults();
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    private Selector<ArtifactEntry> selector(String query)
+    {
+        return new AqlQueryParser(query).parseQuery();
+    }
+
+}
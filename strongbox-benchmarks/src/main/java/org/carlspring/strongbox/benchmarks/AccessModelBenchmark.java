@@ -0,0 +1,94 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.users.domain.AccessModelData;
+import org.carlspring.strongbox.users.domain.Privileges;
+import org.carlspring.strongbox.users.dto.PathPrivilegesDto;
+import org.carlspring.strongbox.users.dto.RepositoryPrivilegesDto;
+import org.carlspring.strongbox.users.dto.StoragePrivilegesDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link AccessModelData#getPathAuthorities(String, Set)}, which is evaluated for every secured artifact request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessModelBenchmark
+{
+
+    @Param({ "1", "10" })
+    private int storageCount;
+
+    @Param({ "10", "50" })
+    private int repositoryCount;
+
+    @Param({ "5", "20" })
+    private int pathCount;
+
+    private Set<StoragePrivilegesDto> storages;
+
+    private String matchingUrl;
+
+    private String notMatchingUrl;
+
+    @Setup
+    public void setup()
+    {
+        storages = new LinkedHashSet<>();
+        for (int s = 0; s < storageCount; s++)
+        {
+            StoragePrivilegesDto storage = new StoragePrivilegesDto("storage" + s);
+            for (int r = 0; r < repositoryCount; r++)
+            {
+                RepositoryPrivilegesDto repository = new RepositoryPrivilegesDto("releases" + r);
+                repository.getRepositoryPrivileges().add(Privileges.ARTIFACTS_RESOLVE);
+                for (int p = 0; p < pathCount; p++)
+                {
+                    PathPrivilegesDto path = new PathPrivilegesDto(String.format("org/carlspring/path%s/", p));
+                    path.setWildcard(p % 2 == 0);
+                    path.getPrivileges().add(Privileges.ARTIFACTS_DEPLOY);
+                    repository.getPathPrivileges().add(path);
+                }
+                storage.getRepositoryPrivileges().add(repository);
+            }
+            storages.add(storage);
+        }
+
+        int lastStorage = storageCount - 1;
+        int lastRepository = repositoryCount - 1;
+        matchingUrl = String.format("/storages/storage%s/releases%s/org/carlspring/path0/foo/1.0/foo-1.0.jar",
+                                    lastStorage, lastRepository);
+        notMatchingUrl = String.format("/storages/storage%s/snapshots/org/carlspring/foo/1.0/foo-1.0.jar",
+                                       lastStorage);
+    }
+
+    @Benchmark
+    public Set<Privileges> matchingPath()
+    {
+        return AccessModelData.getPathAuthorities(matchingUrl, storages);
+    }
+
+    @Benchmark
+    public Set<Privileges> notMatchingPath()
+    {
+        return AccessModelData.getPathAuthorities(notMatchingUrl, storages);
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Artifact path to {@link org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates} parsing, which is
+ * done for almost every artifact request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArtifactCoordinatesBenchmark
+{
+
+    private String[] mavenPaths;
+
+    private String[] npmPaths;
+
+    private MavenArtifactCoordinates[] mavenCoordinates;
+
+    @Setup
+    public void setup()
+    {
+        List<String> versions = BenchmarkFixtures.versions(30);
+
+        mavenPaths = new String[versions.size()];
+        mavenCoordinates = new MavenArtifactCoordinates[versions.size()];
+        npmPaths = new String[versions.size()];
+        for (int i = 0; i < versions.size(); i++)
+        {
+            String artifactId = BenchmarkFixtures.artifactId(i);
+            String version = versions.get(i);
+
+            mavenPaths[i] = String.format("%s/%s/%s/%s-%s.jar",
+                                          BenchmarkFixtures.GROUP_ID.replace('.', '/'),
+                                          artifactId,
+                                          version,
+                                          artifactId,
+                                          version);
+            mavenCoordinates[i] = new MavenArtifactCoordinates(BenchmarkFixtures.GROUP_ID, artifactId, version);
+            npmPaths[i] = i % 2 == 0 ?
+                          String.format("%s/%s/%s/%s-%s.tgz", artifactId, artifactId, version, artifactId, version) :
+                          String.format("@benchmarks/%s/%s/%s-%s.tgz", artifactId, version, artifactId, version);
+        }
+    }
+
+    @Benchmark
+    public void parseMavenPath(Blackhole blackhole)
+    {
+        for (String path : mavenPaths)
+        {
+            blackhole.consume(new MavenArtifactCoordinates(MavenArtifactUtils.convertPathToArtifact(path)));
+        }
+    }
+
+    @Benchmark
+    public void mavenToPath(Blackhole blackhole)
+    {
+        for (MavenArtifactCoordinates coordinates : mavenCoordinates)
+        {
+            blackhole.consume(coordinates.toPath());
+        }
+    }
+
+    @Benchmark
+    public void parseNpmPath(Blackhole blackhole)
+    {
+        for (String path : npmPaths)
+        {
+            blackhole.consume(NpmArtifactCoordinates.parse(path));
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+
+/**
+ * Generates the local fixtures the benchmarks run against, so that the suite never needs network access.
+ * <p>
+ * All the content is generated from a fixed seed, which keeps the fixtures (and the results) comparable between
+ * runs.
+ */
+public final class BenchmarkFixtures
+{
+
+    public static final String FIXTURES_DIRECTORY_PROPERTY = "strongbox.benchmarks.fixtures";
+
+    public static final String GROUP_ID = "org.carlspring.strongbox.benchmarks";
+
+    private static final long SEED = 20190101L;
+
+    private BenchmarkFixtures()
+    {
+    }
+
+    public static Path getFixturesDirectory()
+    {
+        return Paths.get(System.getProperty(FIXTURES_DIRECTORY_PROPERTY, "target/benchmark-fixtures"))
+                    .toAbsolutePath()
+                    .normalize();
+    }
+
+    /**
+     * Generates (if not generated yet) a file with the given size filled with pseudo random bytes.
+     */
+    public static Path generateFile(String name,
+                                    int size)
+        throws IOException
+    {
+        Path file = getFixturesDirectory().resolve("files").resolve(name);
+        if (Files.exists(file) && Files.size(file) == size)
+        {
+            return file;
+        }
+
+        Files.createDirectories(file.getParent());
+
+        Random random = new Random(SEED);
+        byte[] buffer = new byte[8192];
+        try (OutputStream os = Files.newOutputStream(file))
+        {
+            int remaining = size;
+            while (remaining > 0)
+            {
+                random.nextBytes(buffer);
+
+                int len = Math.min(remaining, buffer.length);
+                os.write(buffer, 0, len);
+                remaining -= len;
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * Generates (if not generated yet) a Maven 2 layout repository with `artifactCount` artifacts having
+     * `versionCount` versions each, including the artifact level `maven-metadata.xml` files.
+     *
+     * @return the repository base directory
+     */
+    public static Path generateMavenRepository(String repositoryId,
+                                               int artifactCount,
+                                               int versionCount)
+        throws IOException
+    {
+        Path repositoryBasedir = getFixturesDirectory().resolve("storages")
+                                                       .resolve("storage0")
+                                                       .resolve(repositoryId);
+        Path marker = repositoryBasedir.resolve(String.format(".generated-%s-%s", artifactCount, versionCount));
+        if (Files.exists(marker))
+        {
+            return repositoryBasedir;
+        }
+
+        Random random = new Random(SEED);
+        byte[] content = new byte[1024];
+        for (int i = 0; i < artifactCount; i++)
+        {
+            String artifactId = artifactId(i);
+            Path artifactBasePath = repositoryBasedir.resolve(GROUP_ID.replace('.', '/')).resolve(artifactId);
+
+            for (String version : versions(versionCount))
+            {
+                Path versionPath = artifactBasePath.resolve(version);
+                Files.createDirectories(versionPath);
+
+                random.nextBytes(content);
+                Files.write(versionPath.resolve(String.format("%s-%s.jar", artifactId, version)), content);
+            }
+
+            writeMetadata(artifactBasePath.resolve("maven-metadata.xml"),
+                          generateMetadata(artifactId, versions(versionCount)));
+        }
+
+        Files.createDirectories(repositoryBasedir);
+        Files.createFile(marker);
+
+        return repositoryBasedir;
+    }
+
+    public static Metadata generateMetadata(String artifactId,
+                                            List<String> versions)
+    {
+        Versioning versioning = new Versioning();
+        versioning.setVersions(new ArrayList<>(versions));
+        versioning.setLatest(versions.get(versions.size() - 1));
+        versioning.setRelease(versioning.getLatest());
+        versioning.setLastUpdated("20190101000000");
+
+        Metadata metadata = new Metadata();
+        metadata.setGroupId(GROUP_ID);
+        metadata.setArtifactId(artifactId);
+        metadata.setVersioning(versioning);
+
+        return metadata;
+    }
+
+    public static void writeMetadata(Path path,
+                                     Metadata metadata)
+        throws IOException
+    {
+        Files.createDirectories(path.getParent());
+
+        try (OutputStream os = Files.newOutputStream(path))
+        {
+            new MetadataXpp3Writer().write(os, metadata);
+        }
+    }
+
+    public static String artifactId(int i)
+    {
+        return String.format("benchmark-artifact-%s", i);
+    }
+
+    /**
+     * @return a mix of release, milestone and snapshot versions in ascending order
+     */
+    public static List<String> versions(int count)
+    {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; result.size() < count; i++)
+        {
+            int major = i / 10 + 1;
+            int minor = i % 10;
+            switch (i % 3)
+            {
+                case 0:
+                    result.add(String.format("%s.%s.0", major, minor));
+                    break;
+                case 1:
+                    result.add(String.format("%s.%s.1-M1", major, minor));
+                    break;
+                default:
+                    result.add(String.format("%s.%s.2-SNAPSHOT", major, minor));
+                    break;
+            }
+        }
+
+        return result;
+    }
+
+}
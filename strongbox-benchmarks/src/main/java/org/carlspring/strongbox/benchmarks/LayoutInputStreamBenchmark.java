@@ -0,0 +1,73 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a stored file through the {@link LayoutInputStream} with the default (MD5 and SHA-1) digests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LayoutInputStreamBenchmark
+{
+
+    @Param({ "4096", "1048576", "16777216" })
+    private int fileSize;
+
+    @Param({ "1024", "65536" })
+    private int bufferSize;
+
+    private Path file;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        file = BenchmarkFixtures.generateFile(String.format("layout-input-stream-%s.bin", fileSize), fileSize);
+    }
+
+    @Benchmark
+    public Map<String, String> readAndDigest()
+        throws IOException, NoSuchAlgorithmException
+    {
+        byte[] buffer = new byte[bufferSize];
+        try (InputStream fis = Files.newInputStream(file);
+             LayoutInputStream is = new LayoutInputStream(fis))
+        {
+            while (is.read(buffer, 0, buffer.length) != -1)
+            {
+                // just read it all
+            }
+
+            for (String algorithm : is.getDigests().keySet())
+            {
+                is.getMessageDigestAsHexadecimalString(algorithm);
+            }
+
+            return is.getHexDigests();
+        }
+    }
+
+}
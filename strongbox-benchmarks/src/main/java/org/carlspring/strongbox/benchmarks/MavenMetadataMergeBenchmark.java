@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading an artifact level `maven-metadata.xml` and merging another one into it with
+ * {@link MavenMetadataManager#merge(Metadata, Metadata)}, like it's done for the group and proxy repositories.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MavenMetadataMergeBenchmark
+{
+
+    @Param({ "10", "100", "1000" })
+    private int versionCount;
+
+    private MavenMetadataManager mavenMetadataManager;
+
+    private Path metadataPath;
+
+    private Path mergeMetadataPath;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        mavenMetadataManager = new MavenMetadataManager();
+
+        Path repositoryBasedir = BenchmarkFixtures.generateMavenRepository("metadata-merge-" + versionCount, 1,
+                                                                           versionCount);
+        String artifactId = BenchmarkFixtures.artifactId(0);
+        metadataPath = repositoryBasedir.resolve(BenchmarkFixtures.GROUP_ID.replace('.', '/'))
+                                        .resolve(artifactId)
+                                        .resolve("maven-metadata.xml");
+
+        // Every second version is also published into the merged metadata, and there are as many new ones.
+        List<String> versions = BenchmarkFixtures.versions(versionCount * 2).subList(versionCount / 2,
+                                                                                    versionCount * 2);
+        mergeMetadataPath = metadataPath.resolveSibling("maven-metadata-merge.xml");
+        BenchmarkFixtures.writeMetadata(mergeMetadataPath, BenchmarkFixtures.generateMetadata(artifactId, versions));
+    }
+
+    @Benchmark
+    public Metadata readAndMerge()
+        throws IOException, XmlPullParserException
+    {
+        Metadata metadata = mavenMetadataManager.readMetadata(Files.newInputStream(metadataPath));
+        Metadata mergeMetadata = mavenMetadataManager.readMetadata(Files.newInputStream(mergeMetadataPath));
+
+        return mavenMetadataManager.merge(metadata, mergeMetadata);
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link RepositoryPath} resolution and relativization against a generated Maven repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryPathBenchmark
+{
+
+    /**
+     * The digests of the Maven layout, see {@code AbstractLayoutProvider.getDigestAlgorithmSet()}.
+     */
+    private static final Set<String> DIGEST_ALGORITHMS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(Arrays.asList(MessageDigestAlgorithms.MD5, MessageDigestAlgorithms.SHA_1)));
+
+    private RootRepositoryPath rootPath;
+
+    private String[] paths;
+
+    private RepositoryPath[] resolvedPaths;
+
+    @Setup
+    public void setup()
+        throws IOException
+    {
+        Path basedir = BenchmarkFixtures.generateMavenRepository("repository-path", 10, 10);
+
+        RepositoryDto repository = new RepositoryDto();
+        repository.setId("repository-path");
+        repository.setBasedir(basedir.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new PropertiesBooter(),
+                                                           new RepositoryData(repository),
+                                                           FileSystems.getDefault(),
+                                                           null)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                return DIGEST_ALGORITHMS;
+            }
+        };
+        rootPath = fileSystem.getRootDirectory();
+
+        List<String> versions = BenchmarkFixtures.versions(10);
+        paths = new String[versions.size()];
+        resolvedPaths = new RepositoryPath[versions.size()];
+        for (int i = 0; i < versions.size(); i++)
+        {
+            String artifactId = BenchmarkFixtures.artifactId(i);
+            paths[i] = String.format("%s/%s/%s/%s-%s.jar",
+                                     BenchmarkFixtures.GROUP_ID.replace('.', '/'),
+                                     artifactId,
+                                     versions.get(i),
+                                     artifactId,
+                                     versions.get(i));
+            resolvedPaths[i] = rootPath.resolve(paths[i]);
+        }
+    }
+
+    @Benchmark
+    public void resolve(Blackhole blackhole)
+    {
+        for (String path : paths)
+        {
+            blackhole.consume(rootPath.resolve(path));
+        }
+    }
+
+    @Benchmark
+    public void resolveAndNormalize(Blackhole blackhole)
+    {
+        for (String path : paths)
+        {
+            blackhole.consume(rootPath.resolve(path).normalize());
+        }
+    }
+
+    @Benchmark
+    public void relativize(Blackhole blackhole)
+        throws IOException
+    {
+        for (RepositoryPath path : resolvedPaths)
+        {
+            // `RepositoryFiles.relativizePath()` caches the result within the path, so the uncached URI is used here
+            blackhole.consume(RepositoryFiles.relativizeUri(path));
+        }
+    }
+
+    @Benchmark
+    public void parentTraversal(Blackhole blackhole)
+    {
+        for (RepositoryPath path : resolvedPaths)
+        {
+            blackhole.consume(path.getParent().getParent().resolve("maven-metadata.xml"));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.carlspring.strongbox.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.artifact.coordinates.versioning.SemanticVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SemanticVersion} parsing and comparison, as used for the npm and NuGet version ordering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemanticVersionBenchmark
+{
+
+    private static final String[] VERSIONS = new String[]{ "1.0.0",
+                                                           "1.0.0-alpha",
+                                                           "1.0.0-alpha.1",
+                                                           "1.0.0-alpha.beta",
+                                                           "1.0.0-beta.2",
+                                                           "1.0.0-beta.11",
+                                                           "1.0.0-rc.1",
+                                                           "2.1.7+build.5114f85",
+                                                           "10.20.30-SNAPSHOT" };
+
+    private List<SemanticVersion> parsed;
+
+    @Setup
+    public void setup()
+    {
+        parsed = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            for (String version : VERSIONS)
+            {
+                parsed.add(SemanticVersion.parse(version.replaceFirst("^\\d+", String.valueOf(i))));
+            }
+        }
+        Collections.shuffle(parsed, new java.util.Random(1L));
+    }
+
+    @Benchmark
+    public SemanticVersion[] parse()
+    {
+        SemanticVersion[] result = new SemanticVersion[VERSIONS.length];
+        for (int i = 0; i < VERSIONS.length; i++)
+        {
+            result[i] = SemanticVersion.parse(VERSIONS[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public List<SemanticVersion> sort()
+    {
+        List<SemanticVersion> result = new ArrayList<>(parsed);
+        Collections.sort(result);
+
+        return result;
+    }
+
+}
@@ -54,6 +54,20 @@ public class RestArtifactResolver
         return true;
     }
 
+    /**
+     * Called when the remote repository answered a request after the given latency.
+     */
+    public void recordSuccess(long latencyMillis)
+    {
+    }
+
+    /**
+     * Called when a request failed to reach the remote repository.
+     */
+    public void recordFailure()
+    {
+    }
+
     @Override
     public void close()
     {
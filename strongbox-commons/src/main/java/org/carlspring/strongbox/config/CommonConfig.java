@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 @ComponentScan({ "org.carlspring.strongbox.booters",
                  "org.carlspring.strongbox.configuration",
                  "org.carlspring.strongbox.io",
+                 "org.carlspring.strongbox.metrics",
                  "org.carlspring.strongbox.net",
                  "org.carlspring.strongbox.db",
                  "org.carlspring.strongbox.resource",
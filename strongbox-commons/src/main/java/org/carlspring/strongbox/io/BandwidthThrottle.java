@@ -0,0 +1,66 @@
+package org.carlspring.strongbox.io;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of the I/O shared by several threads to the given number of bytes per second. Up to one second of
+ * unused bandwidth can be used at once.
+ */
+public class BandwidthThrottle
+{
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long bytesPerSecond;
+
+    private long nextFree = System.nanoTime();
+
+    public BandwidthThrottle(long bytesPerSecond)
+    {
+        if (bytesPerSecond <= 0)
+        {
+            throw new IllegalArgumentException("The bandwidth should be positive.");
+        }
+
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public long getBytesPerSecond()
+    {
+        return bytesPerSecond;
+    }
+
+    /**
+     * Blocks until the given number of bytes can be transferred.
+     */
+    public void acquire(long bytes)
+        throws InterruptedIOException
+    {
+        long delay;
+        synchronized (this)
+        {
+            long now = System.nanoTime();
+            nextFree = Math.max(nextFree, now - NANOS_PER_SECOND) +
+                       (long) ((double) bytes * NANOS_PER_SECOND / bytesPerSecond);
+            delay = nextFree - now;
+        }
+
+        if (delay <= 0)
+        {
+            return;
+        }
+
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while throttled.");
+        }
+    }
+
+}
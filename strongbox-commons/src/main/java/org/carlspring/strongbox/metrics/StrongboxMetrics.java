@@ -0,0 +1,152 @@
+package org.carlspring.strongbox.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Static entry point for the Strongbox meters.
+ * <p>
+ * Most of the instrumented code paths (query templates, proxy streams, locks) are plain objects created with
+ * {@code new}, so the {@link MeterRegistry} is bound here once by {@link StrongboxMetricsBinder} instead of being
+ * injected. Until a registry is bound every method is a single volatile read, so the instrumentation costs
+ * nothing when metrics are disabled.
+ */
+public final class StrongboxMetrics
+{
+
+    public static final String TAG_STORAGE = "storage";
+
+    public static final String TAG_REPOSITORY = "repository";
+
+    public static final String TAG_LAYOUT = "layout";
+
+    public static final String TAG_URL = "url";
+
+    public static final String LOCK_WAIT = "strongbox.storage.lock.wait";
+
+    public static final String PROXY_UPSTREAM_LATENCY = "strongbox.proxy.upstream.latency";
+
+    public static final String PROXY_UPSTREAM_TRANSFER = "strongbox.proxy.upstream.transfer";
+
+    public static final String PROXY_UPSTREAM_BYTES = "strongbox.proxy.upstream.bytes";
+
+    public static final String PROXY_UPSTREAM_RETRIES = "strongbox.proxy.upstream.retries";
+
+    public static final String PROXY_CHECKSUM_MISMATCHES = "strongbox.proxy.checksum.mismatches";
+
+    public static final String PROXY_REMOTE_STATE = "strongbox.proxy.remote.state";
+
+    public static final String PROXY_REMOTE_TRANSITIONS = "strongbox.proxy.remote.transitions";
+
+    public static final String GROUP_MEMBER_PROBE = "strongbox.group.member.probe";
+
+    public static final String DB_QUERY = "strongbox.db.query";
+
+    public static final String AQL_CACHE = "strongbox.aql.cache";
+
+    public static final String BROWSE_CACHE = "strongbox.browse.cache";
+
+    public static final String CHECKSUM_CACHE = "strongbox.checksum.cache";
+
+    public static final String SMALL_FILE_CACHE = "strongbox.storage.small-file.cache";
+
+    public static final String EVENT_QUEUE = "strongbox.event.queue";
+
+    public static final String EVENT_EXECUTION = "strongbox.event.execution";
+
+    public static final String EVENT_PENDING = "strongbox.event.pending";
+
+    private static volatile MeterRegistry registry;
+
+    private StrongboxMetrics()
+    {
+    }
+
+    static void bind(MeterRegistry meterRegistry)
+    {
+        registry = meterRegistry;
+    }
+
+    static void unbind()
+    {
+        registry = null;
+    }
+
+    public static boolean isEnabled()
+    {
+        return registry != null;
+    }
+
+    /**
+     * @return the start mark to pass into {@link #recordTime(String, Tags, long)}, or {@code 0} if metrics are
+     *         disabled.
+     */
+    public static long start()
+    {
+        return registry == null ? 0L : System.nanoTime();
+    }
+
+    public static void recordTime(String name,
+                                  Tags tags,
+                                  long start)
+    {
+        MeterRegistry r = registry;
+        if (r == null || start == 0L)
+        {
+            return;
+        }
+
+        r.timer(name, tags).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public static void increment(String name,
+                                 Tags tags)
+    {
+        increment(name, tags, 1d);
+    }
+
+    public static void increment(String name,
+                                 Tags tags,
+                                 double amount)
+    {
+        MeterRegistry r = registry;
+        if (r == null)
+        {
+            return;
+        }
+
+        r.counter(name, tags).increment(amount);
+    }
+
+    public static <T> T gauge(String name,
+                              Tags tags,
+                              T stateObject,
+                              ToDoubleFunction<T> valueFunction)
+    {
+        MeterRegistry r = registry;
+        if (r == null)
+        {
+            return stateObject;
+        }
+
+        return r.gauge(name, tags, stateObject, valueFunction);
+    }
+
+    public static Tags repositoryTags(String storageId,
+                                      String repositoryId,
+                                      String layout)
+    {
+        return Tags.of(TAG_STORAGE, nullSafe(storageId),
+                       TAG_REPOSITORY, nullSafe(repositoryId),
+                       TAG_LAYOUT, nullSafe(layout));
+    }
+
+    private static String nullSafe(String value)
+    {
+        return value == null ? "none" : value;
+    }
+
+}
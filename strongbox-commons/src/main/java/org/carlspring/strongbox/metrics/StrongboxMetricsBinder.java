@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.metrics;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the application {@link MeterRegistry} (if there is one) to {@link StrongboxMetrics}.
+ */
+@Component
+public class StrongboxMetricsBinder
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(StrongboxMetricsBinder.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final boolean enabled;
+
+    public StrongboxMetricsBinder(ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                  @Value("${strongbox.metrics.enabled:true}") boolean enabled)
+    {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void bind()
+    {
+        if (!enabled)
+        {
+            logger.info("Strongbox metrics are disabled.");
+
+            return;
+        }
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry == null)
+        {
+            logger.info("No MeterRegistry available, Strongbox metrics will not be collected.");
+
+            return;
+        }
+
+        StrongboxMetrics.bind(meterRegistry);
+
+        logger.info(String.format("Strongbox metrics bound to [%s].", meterRegistry.getClass().getSimpleName()));
+    }
+
+    @PreDestroy
+    public void unbind()
+    {
+        StrongboxMetrics.unbind();
+    }
+
+}
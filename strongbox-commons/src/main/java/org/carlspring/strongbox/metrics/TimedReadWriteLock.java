@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * {@link ReadWriteLock} decorator which records the time spent waiting to acquire the read and write locks.
+ */
+public class TimedReadWriteLock implements ReadWriteLock
+{
+
+    private final Lock readLock;
+
+    private final Lock writeLock;
+
+    public TimedReadWriteLock(ReadWriteLock target,
+                              String name,
+                              Tags tags)
+    {
+        this.readLock = new TimedLock(target.readLock(), name, tags.and("mode", "read"));
+        this.writeLock = new TimedLock(target.writeLock(), name, tags.and("mode", "write"));
+    }
+
+    /**
+     * @return the given lock wrapped into a {@link TimedReadWriteLock}, or the lock itself if metrics are disabled.
+     */
+    public static ReadWriteLock wrap(ReadWriteLock target,
+                                     String name,
+                                     Tags tags)
+    {
+        return StrongboxMetrics.isEnabled() ? new TimedReadWriteLock(target, name, tags) : target;
+    }
+
+    @Override
+    public Lock readLock()
+    {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock()
+    {
+        return writeLock;
+    }
+
+    private static class TimedLock implements Lock
+    {
+
+        private final Lock target;
+
+        private final String name;
+
+        private final Tags tags;
+
+        TimedLock(Lock target,
+                  String name,
+                  Tags tags)
+        {
+            this.target = target;
+            this.name = name;
+            this.tags = tags;
+        }
+
+        @Override
+        public void lock()
+        {
+            long start = StrongboxMetrics.start();
+            target.lock();
+            StrongboxMetrics.recordTime(name, tags, start);
+        }
+
+        @Override
+        public void lockInterruptibly()
+            throws InterruptedException
+        {
+            long start = StrongboxMetrics.start();
+            target.lockInterruptibly();
+            StrongboxMetrics.recordTime(name, tags, start);
+        }
+
+        @Override
+        public boolean tryLock()
+        {
+            return target.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time,
+                               TimeUnit unit)
+            throws InterruptedException
+        {
+            long start = StrongboxMetrics.start();
+            boolean result = target.tryLock(time, unit);
+            StrongboxMetrics.recordTime(name, tags.and("acquired", String.valueOf(result)), start);
+
+            return result;
+        }
+
+        @Override
+        public void unlock()
+        {
+            target.unlock();
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            return target.newCondition();
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.BlobStoreService;
+import org.carlspring.strongbox.storage.blob.BlobStoreReport;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes the blobs which are not referenced by any repository file and reports the space the blob store saves.
+ */
+public class BlobStoreGarbageCollectionCronJob
+        extends JavaCronJob
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStoreGarbageCollectionCronJob.class);
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))));
+
+    @Inject
+    private BlobStoreService blobStoreService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+
+        if (storageId != null)
+        {
+            collectGarbage(storageId);
+
+            return;
+        }
+
+        for (String storage : configurationManager.getConfiguration().getStorages().keySet())
+        {
+            collectGarbage(storage);
+        }
+    }
+
+    private void collectGarbage(String storageId)
+            throws IOException
+    {
+        BlobStoreReport report = blobStoreService.collectGarbage(storageId);
+
+        logger.info(String.format("Blob store of storage [%s]: %s", storageId, report));
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(BlobStoreGarbageCollectionCronJob.class.getName())
+                                .name("Blob Store Garbage Collection Cron Job")
+                                .description("Deletes the unreferenced blobs of the storage blob store")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
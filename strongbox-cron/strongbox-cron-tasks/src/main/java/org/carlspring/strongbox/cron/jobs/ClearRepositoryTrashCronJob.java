@@ -2,12 +2,15 @@ package org.carlspring.strongbox.cron.jobs;
 
 import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
 import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.providers.io.TrashPurgeReport;
 import org.carlspring.strongbox.services.RepositoryManagementService;
 
 import javax.inject.Inject;
+import java.time.Duration;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
  * @author Kate Novik.
@@ -21,30 +24,58 @@ public class ClearRepositoryTrashCronJob
 
     private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
 
+    private static final String PROPERTY_RETENTION_IN_DAYS = "retentionInDays";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
             new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
-                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))));
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_RETENTION_IN_DAYS))));
 
     @Inject
     private RepositoryManagementService repositoryManagementService;
 
+    @Value("${strongbox.trash.retention-days:0}")
+    private int defaultRetentionInDays;
+
     @Override
     public void executeTask(CronTaskConfigurationDto config)
             throws Throwable
     {
         String storageId = config.getProperty(PROPERTY_STORAGE_ID);
         String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        String retentionInDaysText = config.getProperty(PROPERTY_RETENTION_IN_DAYS);
 
+        int retentionInDays = defaultRetentionInDays;
+        if (retentionInDaysText != null)
+        {
+            try
+            {
+                retentionInDays = Integer.parseInt(retentionInDaysText);
+            }
+            catch (NumberFormatException ex)
+            {
+                logger.error("Invalid integer value [" + retentionInDaysText +
+                             "] of 'retentionInDays' property. Cron job won't be fired.", ex);
+                return;
+            }
+        }
+
+        Duration retention = Duration.ofDays(Math.max(retentionInDays, 0));
+
+        TrashPurgeReport report;
         if (storageId == null && repositoryId == null)
         {
-            repositoryManagementService.deleteTrash();
+            report = repositoryManagementService.purgeTrash(retention);
         }
         else
         {
-            repositoryManagementService.deleteTrash(storageId, repositoryId);
+            report = repositoryManagementService.purgeTrash(storageId, repositoryId, retention);
         }
+
+        logger.info("Purged the trash older than " + retention.toDays() + " days: " + report);
     }
 
     @Override
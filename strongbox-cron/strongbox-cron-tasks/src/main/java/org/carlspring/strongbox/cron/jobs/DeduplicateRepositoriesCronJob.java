@@ -0,0 +1,92 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.BlobStoreService;
+import org.carlspring.strongbox.storage.Storage;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves the existing repository files into the storage blob stores.
+ */
+public class DeduplicateRepositoriesCronJob
+        extends JavaCronJob
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicateRepositoriesCronJob.class);
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))));
+
+    @Inject
+    private BlobStoreService blobStoreService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+
+        if (storageId == null)
+        {
+            for (String storage : configurationManager.getConfiguration().getStorages().keySet())
+            {
+                deduplicateStorage(storage);
+            }
+        }
+        else if (repositoryId == null)
+        {
+            deduplicateStorage(storageId);
+        }
+        else
+        {
+            blobStoreService.deduplicate(storageId, repositoryId);
+
+            logger.info(String.format("Blob store of storage [%s]: %s", storageId,
+                                      blobStoreService.getReport(storageId)));
+        }
+    }
+
+    private void deduplicateStorage(String storageId)
+            throws IOException
+    {
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        for (String repositoryId : storage.getRepositories().keySet())
+        {
+            blobStoreService.deduplicate(storageId, repositoryId);
+        }
+
+        logger.info(String.format("Blob store of storage [%s]: %s", storageId, blobStoreService.getReport(storageId)));
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(DeduplicateRepositoriesCronJob.class.getName())
+                                .name("Deduplicate Repositories Cron Job")
+                                .description("Moves the existing repository files into the storage blob store")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
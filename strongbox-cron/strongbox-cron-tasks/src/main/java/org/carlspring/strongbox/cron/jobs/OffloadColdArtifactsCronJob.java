@@ -0,0 +1,114 @@
+package org.carlspring.strongbox.cron.jobs;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.cron.domain.CronTaskConfigurationDto;
+import org.carlspring.strongbox.cron.jobs.fields.*;
+import org.carlspring.strongbox.services.ArtifactTieringService;
+import org.carlspring.strongbox.storage.Storage;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Moves the artifacts of the hosted repositories which are rarely read to the secondary volume.
+ */
+public class OffloadColdArtifactsCronJob
+        extends JavaCronJob
+{
+
+    private static final String PROPERTY_STORAGE_ID = "storageId";
+
+    private static final String PROPERTY_REPOSITORY_ID = "repositoryId";
+
+    private static final String PROPERTY_LAST_ACCESSED_TIME_IN_DAYS = "lastAccessedTimeInDays";
+
+    private static final String PROPERTY_MAX_DOWNLOAD_COUNT = "maxDownloadCount";
+
+    private static final Set<CronJobField> FIELDS = ImmutableSet.of(
+            new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
+            new CronJobRepositoryIdAutocompleteField(new CronJobStringTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
+            new CronJobIntegerTypeField(
+                    new CronJobRequiredField(new CronJobNamedField(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS))),
+            new CronJobIntegerTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_MAX_DOWNLOAD_COUNT))));
+
+    @Inject
+    private ArtifactTieringService artifactTieringService;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Override
+    public void executeTask(CronTaskConfigurationDto config)
+            throws Throwable
+    {
+        String storageId = config.getProperty(PROPERTY_STORAGE_ID);
+        String repositoryId = config.getProperty(PROPERTY_REPOSITORY_ID);
+        String lastAccessedTimeInDaysText = config.getRequiredProperty(PROPERTY_LAST_ACCESSED_TIME_IN_DAYS);
+        String maxDownloadCountText = config.getProperty(PROPERTY_MAX_DOWNLOAD_COUNT);
+
+        int lastAccessedTimeInDays;
+        Integer maxDownloadCount = null;
+        try
+        {
+            lastAccessedTimeInDays = Integer.parseInt(lastAccessedTimeInDaysText);
+            if (maxDownloadCountText != null)
+            {
+                maxDownloadCount = Integer.valueOf(maxDownloadCountText);
+            }
+        }
+        catch (NumberFormatException ex)
+        {
+            logger.error("Invalid integer value of 'lastAccessedTimeInDays' [" + lastAccessedTimeInDaysText +
+                         "] or 'maxDownloadCount' [" + maxDownloadCountText + "] property. Cron job won't be fired.",
+                         ex);
+            return;
+        }
+
+        if (storageId == null)
+        {
+            for (String storage : configurationManager.getConfiguration().getStorages().keySet())
+            {
+                offloadStorage(storage, lastAccessedTimeInDays, maxDownloadCount);
+            }
+        }
+        else if (repositoryId == null)
+        {
+            offloadStorage(storageId, lastAccessedTimeInDays, maxDownloadCount);
+        }
+        else
+        {
+            artifactTieringService.offload(storageId, repositoryId, lastAccessedTimeInDays, maxDownloadCount);
+        }
+    }
+
+    private void offloadStorage(String storageId,
+                                int lastAccessedTimeInDays,
+                                Integer maxDownloadCount)
+            throws IOException
+    {
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        for (String repositoryId : storage.getRepositories().keySet())
+        {
+            artifactTieringService.offload(storageId, repositoryId, lastAccessedTimeInDays, maxDownloadCount);
+        }
+    }
+
+    @Override
+    public CronJobDefinition getCronJobDefinition()
+    {
+        return CronJobDefinition.newBuilder()
+                                .jobClass(OffloadColdArtifactsCronJob.class.getName())
+                                .name("Offload Cold Artifacts Cron Job")
+                                .description("Moves the rarely read artifacts of the hosted repositories to the " +
+                                             "secondary volume")
+                                .fields(FIELDS)
+                                .build();
+    }
+
+}
@@ -29,6 +29,8 @@ public class RegenerateChecksumCronJob
 
     private static final String PROPERTY_FORCE_REGENERATION = "forceRegeneration";
 
+    private static final String PROPERTY_REPAIR_MISMATCHES = "repairMismatches";
+
     private static final Set<CronJobField> FIELDS = ImmutableSet.of(
             new CronJobStorageIdAutocompleteField(new CronJobStringTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_STORAGE_ID)))),
@@ -36,6 +38,8 @@ public class RegenerateChecksumCronJob
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPOSITORY_ID)))),
             new CronJobBooleanTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_FORCE_REGENERATION))),
+            new CronJobBooleanTypeField(
+                    new CronJobOptionalField(new CronJobNamedField(PROPERTY_REPAIR_MISMATCHES))),
             new CronJobStringTypeField(
                     new CronJobOptionalField(new CronJobNamedField(PROPERTY_BASE_PATH))));
 
@@ -60,21 +64,28 @@ public class RegenerateChecksumCronJob
          */
         boolean forceRegeneration = Boolean.valueOf(config.getProperty(PROPERTY_FORCE_REGENERATION));
 
+        /**
+         * The values of repairMismatches are:
+         * - true  - to re-write the existing checksums which don't match,
+         * - false - to only report the existing checksums which don't match
+         */
+        boolean repairMismatches = Boolean.valueOf(config.getProperty(PROPERTY_REPAIR_MISMATCHES));
+
         if (storageId == null)
         {
             Map<String, Storage> storages = getStorages();
             for (String storage : storages.keySet())
             {
-                regenerateRepositoriesChecksum(storage, forceRegeneration);
+                regenerateRepositoriesChecksum(storage, forceRegeneration, repairMismatches);
             }
         }
         else if (repositoryId == null)
         {
-            regenerateRepositoriesChecksum(storageId, forceRegeneration);
+            regenerateRepositoriesChecksum(storageId, forceRegeneration, repairMismatches);
         }
         else
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration);
+            checksumService.regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration, repairMismatches);
         }
     }
 
@@ -95,17 +106,20 @@ public class RegenerateChecksumCronJob
      * @param storageId         path of storage
      * @param forceRegeneration true - to re-write existing checksum and to regenerate missing checksum,
      *                          false - to regenerate missing checksum only
+     * @param repairMismatches  true - to re-write the existing checksums which don't match,
+     *                          false - to only report them
      * @throws IOException
      */
     private void regenerateRepositoriesChecksum(String storageId,
-                                                boolean forceRegeneration)
+                                                boolean forceRegeneration,
+                                                boolean repairMismatches)
             throws IOException
     {
         Map<String, ? extends Repository> repositories = getRepositories(storageId);
 
         for (String repositoryId : repositories.keySet())
         {
-            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration);
+            checksumService.regenerateChecksum(storageId, repositoryId, null, forceRegeneration, repairMismatches);
         }
     }
 
@@ -3,11 +3,13 @@ package org.carlspring.strongbox.data.criteria;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import javax.persistence.EntityManager;
 
 import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
 import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,6 +17,8 @@ import com.orientechnologies.orient.core.record.impl.ODocument;
 import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * {@link QueryTemplate} implementation for OrientDB engine.
  * 
@@ -25,6 +29,11 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 {
     private static final Logger logger = LoggerFactory.getLogger(OQueryTemplate.class);
 
+    /**
+     * The method calls of a property, like {@code .toLowerCase()}, which are left out of its parameter name.
+     */
+    private static final Pattern METHOD_CALL = Pattern.compile("\\.\\w+\\([^)]*\\)");
+
     protected EntityManager entityManager;
 
     public OQueryTemplate()
@@ -52,8 +61,20 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
         logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
 
-        Object result = getEmDelegate().command(oQuery)
-                                       .execute(parameterMap);
+        long start = StrongboxMetrics.start();
+        Object result;
+        try
+        {
+            result = getEmDelegate().command(oQuery)
+                                    .execute(parameterMap);
+        }
+        finally
+        {
+            StrongboxMetrics.recordTime(StrongboxMetrics.DB_QUERY,
+                                        Tags.of("entity", s.getTargetClass().getSimpleName()),
+                                        start);
+        }
+
         if (result instanceof Collection && !((Collection) result).isEmpty()
                 && ((Collection) result).iterator().next() instanceof ODocument)
         {
@@ -223,7 +244,7 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         {
             return "";
         }
-        property = property.replace(".toLowerCase()", "");
+        property = METHOD_CALL.matcher(property).replaceAll("");
         property = property.replace("@", "");
         return String.format("%s_%s", property.substring(property.lastIndexOf(".") + 1), n);
     }
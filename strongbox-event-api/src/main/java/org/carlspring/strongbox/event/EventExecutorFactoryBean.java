@@ -31,8 +31,8 @@ public class EventExecutorFactoryBean implements FactoryBean<Executor>
                                     .orElse(new SyncTaskExecutor());
         
         logger.info(String.format("Using [%s] executor for Async events.", executor.getClass()));
-        
-        return executor;
+
+        return new MeteredEventExecutor(executor);
     }
 
     private Executor lookupExecutor()
@@ -0,0 +1,77 @@
+package org.carlspring.strongbox.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
+
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * {@link Executor} decorator which measures how long async events wait in the queue, how long their listeners
+ * run, and how many of them are pending.
+ */
+public class MeteredEventExecutor implements Executor
+{
+
+    private final Executor target;
+
+    private final Tags tags;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile boolean gaugeRegistered;
+
+    public MeteredEventExecutor(Executor target)
+    {
+        this.target = target;
+        this.tags = Tags.of("executor", target.getClass().getSimpleName());
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        if (!StrongboxMetrics.isEnabled())
+        {
+            target.execute(command);
+
+            return;
+        }
+
+        if (!gaugeRegistered)
+        {
+            // The executor is created before the meter registry gets bound, so the gauge is registered lazily.
+            StrongboxMetrics.gauge(StrongboxMetrics.EVENT_PENDING, tags, pending, AtomicInteger::get);
+            gaugeRegistered = true;
+        }
+
+        long submitted = StrongboxMetrics.start();
+        pending.incrementAndGet();
+
+        try
+        {
+            target.execute(() -> {
+                pending.decrementAndGet();
+                StrongboxMetrics.recordTime(StrongboxMetrics.EVENT_QUEUE, tags, submitted);
+
+                long started = StrongboxMetrics.start();
+                try
+                {
+                    command.run();
+                }
+                finally
+                {
+                    StrongboxMetrics.recordTime(StrongboxMetrics.EVENT_EXECUTION, tags, started);
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            // Rejected, the task will never run.
+            pending.decrementAndGet();
+
+            throw e;
+        }
+    }
+
+}
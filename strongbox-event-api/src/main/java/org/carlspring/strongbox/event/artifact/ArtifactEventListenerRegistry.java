@@ -138,6 +138,28 @@ public class ArtifactEventListenerRegistry extends AbstractEventListenerRegistry
         dispatchEvent(event);
     }
 
+    public void dispatchArtifactPathDeletingEvent(Path path)
+    {
+        ArtifactEvent event = new ArtifactEvent(path,
+                                                ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETING.getType());
+
+        logger.debug("Dispatching ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETING event for " +
+                      path + "...");
+
+        dispatchEvent(event);
+    }
+
+    public void dispatchArtifactDirectoryDeletedEvent(Path path)
+    {
+        ArtifactEvent event = new ArtifactEvent(path,
+                                                ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_DELETED.getType());
+
+        logger.debug("Dispatching ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_DELETED event for " +
+                      path + "...");
+
+        dispatchEvent(event);
+    }
+
     public void dispatchArtifactArchivingEvent(Path path)
     {
         ArtifactEvent event = new ArtifactEvent(path,
@@ -226,4 +248,15 @@ public class ArtifactEventListenerRegistry extends AbstractEventListenerRegistry
         dispatchEvent(event);
     }
 
+    public void dispatchArtifactChecksumExpiredEvent(Path path)
+    {
+        ArtifactEvent event = new ArtifactEvent(path,
+                                                ArtifactEventTypeEnum.EVENT_ARTIFACT_CHECKSUM_EXPIRED.getType());
+
+        logger.debug("Dispatching ArtifactEventTypeEnum.EVENT_ARTIFACT_CHECKSUM_EXPIRED event for " +
+                      path + "...");
+
+        dispatchEvent(event);
+    }
+
 }
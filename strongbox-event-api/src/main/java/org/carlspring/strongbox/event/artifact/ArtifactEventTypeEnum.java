@@ -101,7 +101,22 @@ public enum ArtifactEventTypeEnum
     /**
      * Occurs when an artifact file has been physically stored.
      */
-    EVENT_ARTIFACT_FILE_STORED(22);
+    EVENT_ARTIFACT_FILE_STORED(22),
+
+    /**
+     * Occurs when the checksums of an uploaded artifact have not been claimed by an uploaded checksum file in time.
+     */
+    EVENT_ARTIFACT_CHECKSUM_EXPIRED(23),
+
+    /**
+     * Occurs when a path is about to be deleted.
+     */
+    EVENT_ARTIFACT_PATH_DELETING(24),
+
+    /**
+     * Occurs when a directory has been deleted.
+     */
+    EVENT_ARTIFACT_DIRECTORY_DELETED(25);
 
 
     private int type;
@@ -61,6 +61,16 @@ public abstract class AsyncArtifactEntryHandler
             return;
         }
 
+        handle(repositoryPath);
+    }
+
+    /**
+     * Handles the event of the artifact at the given path, in a new thread and transaction.
+     */
+    protected void handle(RepositoryPath repositoryPath)
+        throws IOException,
+        InterruptedException
+    {
         // TODO: this is needed just as workadound to have new transaction
         // within this async event (expected to be replaced with
         // just Propagation.REQUIRES_NEW after SB-1200)
@@ -81,7 +91,23 @@ public abstract class AsyncArtifactEntryHandler
         threadWithNewTransactionContext.join();
     }
 
-    private void handleLocked(RepositoryPath repositoryPath)
+    /**
+     * Handles the event under the {@link ArtifactEntry} lock of the path, the caller should be a thread without a
+     * transaction.
+     */
+    protected void handleLocked(RepositoryPath repositoryPath)
+        throws IOException,
+        InterruptedException
+    {
+        handleLocked(repositoryPath, this::handleEvent);
+    }
+
+    /**
+     * Same as {@link #handleLocked(RepositoryPath)}, but the {@link ArtifactEntry} is updated by the given handler
+     * instead of {@link #handleEvent(RepositoryPath)}, so that it can carry what was computed before the lock.
+     */
+    protected void handleLocked(RepositoryPath repositoryPath,
+                                ArtifactEntryUpdate update)
         throws IOException,
         InterruptedException
     {
@@ -91,7 +117,7 @@ public abstract class AsyncArtifactEntryHandler
         lock.lock();
         try
         {
-            handleWithRetry(repositoryPath);
+            handleWithRetry(repositoryPath, update);
         } 
         finally
         {
@@ -109,7 +135,8 @@ public abstract class AsyncArtifactEntryHandler
      * @throws InterruptedException
      * @throws IOException
      */
-    private void handleWithRetry(RepositoryPath repositoryPath)
+    private void handleWithRetry(RepositoryPath repositoryPath,
+                                 ArtifactEntryUpdate update)
         throws InterruptedException,
         IOException
     {
@@ -120,7 +147,7 @@ public abstract class AsyncArtifactEntryHandler
             try
             {
 
-                handleTransactional(repositoryPath);
+                handleTransactional(repositoryPath, update);
 
                 return;
             }
@@ -149,12 +176,13 @@ public abstract class AsyncArtifactEntryHandler
         }
     }
 
-    private void handleTransactional(RepositoryPath repositoryPath)
+    private void handleTransactional(RepositoryPath repositoryPath,
+                                     ArtifactEntryUpdate update)
     {
         new TransactionTemplate(transactionManager).execute(t -> {
             try
             {
-                ArtifactEntry result = handleEvent(repositoryPath);
+                ArtifactEntry result = update.apply(repositoryPath);
                 if (result == null)
                 {
                     logger.debug(String.format("No [%s] result for event [%s] and path [%s].",
@@ -177,4 +205,16 @@ public abstract class AsyncArtifactEntryHandler
     protected abstract ArtifactEntry handleEvent(RepositoryPath repositoryPath)
         throws IOException;
 
+    @FunctionalInterface
+    protected interface ArtifactEntryUpdate
+    {
+
+        /**
+         * @return the updated {@link ArtifactEntry} to save, or {@code null} if there is nothing to save
+         */
+        ArtifactEntry apply(RepositoryPath repositoryPath)
+            throws IOException;
+
+    }
+
 }
@@ -3,11 +3,15 @@ package org.carlspring.strongbox.artifact.archive;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 
 /**
  * @author Przemyslaw Fusik
@@ -31,6 +35,24 @@ public interface ArchiveListingFunction
         return result;
     }
 
+    /**
+     * Lists a zip based archive from its central directory, without reading through the entries.
+     */
+    default Set<String> getZipEntryNames(final RepositoryPath path)
+            throws IOException
+    {
+        final Set<String> result = new HashSet<>();
+        try (ZipFile zipFile = new ZipFile(Files.newByteChannel(path)))
+        {
+            final Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+            while (entries.hasMoreElements())
+            {
+                result.add(entries.nextElement().getName());
+            }
+        }
+        return result;
+    }
+
     default boolean supports(RepositoryPath path)
     {
         return true;
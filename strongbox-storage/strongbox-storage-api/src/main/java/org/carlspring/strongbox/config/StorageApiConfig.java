@@ -2,6 +2,7 @@ package org.carlspring.strongbox.config;
 
 import org.carlspring.strongbox.booters.StorageBooter;
 import org.carlspring.strongbox.booters.TempDirBooter;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
@@ -9,6 +10,7 @@ import javax.inject.Inject;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -34,12 +36,20 @@ public class StorageApiConfig
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
-    @Bean
+    @Inject
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
+    @Value("${strongbox.checksum.cache.max-entries:10000}")
+    private long maxCachedChecksums;
+
+    @Bean(initMethod = "startMonitor", destroyMethod = "stopMonitor")
     ChecksumCacheManager checksumCacheManager()
     {
         ChecksumCacheManager checksumCacheManager = new ChecksumCacheManager();
         checksumCacheManager.setCachedChecksumExpiredCheckInterval(300000);
         checksumCacheManager.setCachedChecksumLifetime(60000);
+        checksumCacheManager.setMaxSize(maxCachedChecksums);
+        checksumCacheManager.setArtifactEventListenerRegistry(artifactEventListenerRegistry);
 
         return checksumCacheManager;
     }
@@ -2,11 +2,16 @@ package org.carlspring.strongbox.dependency.snippet;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,8 +21,40 @@ public class SnippetGenerator
     @Inject
     private CompatibleDependencyFormatRegistry compatibleDependencyFormatRegistry;
 
+    /**
+     * The snippets only depend on the layout and the coordinates, and the search results keep asking for the same
+     * ones.
+     */
+    @Value("${strongbox.snippet.cache.max-entries:10000}")
+    private long maxCachedSnippets;
+
+    private Cache<String, List<CodeSnippet>> snippetsCache;
+
+    @PostConstruct
+    public void init()
+    {
+        snippetsCache = CacheBuilder.newBuilder()
+                                    .maximumSize(Math.max(maxCachedSnippets, 0))
+                                    .build();
+    }
+
     public List<CodeSnippet> generateSnippets(String layout,
                                               ArtifactCoordinates coordinates)
+    {
+        String key = layout + ":" + coordinates.toPath();
+
+        List<CodeSnippet> snippets = snippetsCache.getIfPresent(key);
+        if (snippets == null)
+        {
+            snippets = Collections.unmodifiableList(doGenerateSnippets(layout, coordinates));
+            snippetsCache.put(key, snippets);
+        }
+
+        return snippets;
+    }
+
+    private List<CodeSnippet> doGenerateSnippets(String layout,
+                                                 ArtifactCoordinates coordinates)
     {
         Map<String, DependencySynonymFormatter> implementations = compatibleDependencyFormatRegistry.getProviderImplementations(layout);
 
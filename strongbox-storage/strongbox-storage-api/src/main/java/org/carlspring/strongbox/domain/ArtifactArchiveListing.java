@@ -5,12 +5,27 @@ import javax.persistence.EntityManager;
 
 import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.HashSet;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
 
 /**
+ * The names of the entries of an archive artifact.
+ * <p>
+ * Archives list thousands of entries, so the names are kept sorted, newline separated and gzipped in a single
+ * binary property, and only decoded when the listing is requested.
+ *
  * @author Przemyslaw Fusik
  */
 @Embeddable
@@ -18,30 +33,87 @@ public class ArtifactArchiveListing
         implements Serializable
 {
 
-    private Set<String> filenames = new LinkedHashSet<>();
+    private byte[] compactFilenames;
+
+    private int filenamesCount;
 
     public Set<String> getFilenames()
     {
-        return filenames;
+        byte[] compact = getCompactFilenames();
+        if (compact == null || compact.length == 0)
+        {
+            return new LinkedHashSet<>();
+        }
+
+        try (GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(compact)))
+        {
+            String filenames = new String(IOUtils.toByteArray(is), StandardCharsets.UTF_8);
+
+            return new LinkedHashSet<>(Arrays.asList(filenames.split("\n")));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
     }
 
     public void setFilenames(final Set<String> filenames)
     {
-        this.filenames = filenames;
+        if (filenames == null || filenames.isEmpty())
+        {
+            this.compactFilenames = null;
+            this.filenamesCount = 0;
+
+            return;
+        }
+
+        Set<String> sorted = new TreeSet<>(filenames);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream os = new GZIPOutputStream(bytes))
+        {
+            os.write(String.join("\n", sorted).getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        this.compactFilenames = bytes.toByteArray();
+        this.filenamesCount = sorted.size();
+    }
+
+    public byte[] getCompactFilenames()
+    {
+        return compactFilenames;
+    }
+
+    public void setCompactFilenames(final byte[] compactFilenames)
+    {
+        this.compactFilenames = compactFilenames;
+    }
+
+    public int getFilenamesCount()
+    {
+        return filenamesCount;
+    }
+
+    public void setFilenamesCount(final int filenamesCount)
+    {
+        this.filenamesCount = filenamesCount;
     }
 
     public ArtifactArchiveListing detach(EntityManager entityManager) {
         ArtifactArchiveListing result = ((OObjectDatabaseTx)entityManager.getDelegate()).detach(this, true);
-        result.filenames = new HashSet<>(result.filenames);
-        
+        result.compactFilenames = result.compactFilenames == null ? null : result.compactFilenames.clone();
+
         return result;
     }
-    
+
     @Override
     public String toString()
     {
         final StringBuilder sb = new StringBuilder("ArtifactArchiveListing{");
-        sb.append("filenames=").append(filenames);
+        sb.append("filenamesCount=").append(filenamesCount);
         sb.append('}');
         return sb.toString();
     }
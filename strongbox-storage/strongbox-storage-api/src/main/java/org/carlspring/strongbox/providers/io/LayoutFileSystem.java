@@ -30,7 +30,11 @@ public abstract class LayoutFileSystem
 
     public static final String TRASH = ".trash";
     public static final String TEMP = ".temp";
+    public static final String QUARANTINE = ".quarantine";
     public static final String INDEX = ".index";
+    public static final String BLOBS = ".blobs";
+    public static final String UPLOADS = ".uploads";
+    public static final String DELETIONS = ".deletions";
 
     private final Repository repository;
     private final StorageFileSystemProvider provider;
@@ -104,6 +108,42 @@ public abstract class LayoutFileSystem
         return getRootDirectory().resolve(TEMP).toAbsolutePath();
     }
 
+    /**
+     * The chunks of the resumable uploads are staged here, on the same volume as the repository, until the upload
+     * is finished. They are plain files, which are not visible through the repository.
+     */
+    public Path getUploadsPath()
+    {
+        return getTempPath().getTarget().resolve(UPLOADS);
+    }
+
+    /**
+     * The times when the files were moved into the trash are recorded here, because the files themselves can't
+     * hold them. They are plain files, which are not visible through the repository.
+     *
+     * @see TrashDeletions
+     */
+    public Path getDeletionsPath()
+    {
+        return getTempPath().getTarget().resolve(DELETIONS);
+    }
+
+    /**
+     * The downloads which failed the checksum verification are kept here for inspection.
+     */
+    public RepositoryPath getQuarantinePath()
+    {
+        return getRootDirectory().resolve(QUARANTINE).toAbsolutePath();
+    }
+
+    /**
+     * The blob store is shared by all the repositories of the storage, so it's located under the storage root.
+     */
+    public Path getBlobStorePath()
+    {
+        return super.getRootDirectory().resolve(BLOBS);
+    }
+
     public RepositoryPath getPath(String first,
                                   String... more)
     {
@@ -112,4 +152,13 @@ public abstract class LayoutFileSystem
 
     public abstract Set<String> getDigestAlgorithmSet();
 
+    /**
+     * @return {@code true} if the clients of the layout upload the checksum files next to the artifacts they deploy,
+     *         so that the digests of a deployed artifact are kept until its checksums are uploaded and verified
+     */
+    public boolean isChecksumUploaded()
+    {
+        return false;
+    }
+
 }
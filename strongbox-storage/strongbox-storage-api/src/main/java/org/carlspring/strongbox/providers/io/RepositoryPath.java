@@ -221,7 +221,8 @@ public class RepositoryPath
         }
 
         RepositoryPath result = getFileSystem().getRootDirectory().relativize(this);
-        if (result.startsWith(LayoutFileSystem.TRASH) || result.startsWith(LayoutFileSystem.TEMP))
+        if (result.startsWith(LayoutFileSystem.TRASH) || result.startsWith(LayoutFileSystem.TEMP)
+                || result.startsWith(LayoutFileSystem.QUARANTINE))
         {
             result = result.subpath(1, result.getNameCount());
         }
@@ -10,6 +10,9 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
+import org.carlspring.strongbox.metrics.TimedReadWriteLock;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -49,8 +52,19 @@ public class RepositoryPathLock
                                   .map(p -> String.format("%s?%s", lock, p))
                                   .orElseGet(() -> lock.toString());
         logger.debug(String.format("Get lock for [%s]", lock));
-        
-        return lockService.getReentrantReadWriteLock(lockName);
+
+        ReadWriteLock result = lockService.getReentrantReadWriteLock(lockName);
+        if (!StrongboxMetrics.isEnabled())
+        {
+            return result;
+        }
+
+        Repository repository = repositoryPath.getRepository();
+        return TimedReadWriteLock.wrap(result,
+                                       StrongboxMetrics.LOCK_WAIT,
+                                       StrongboxMetrics.repositoryTags(repository.getStorage().getId(),
+                                                                       repository.getId(),
+                                                                       repository.getLayout()));
     }
 
     private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
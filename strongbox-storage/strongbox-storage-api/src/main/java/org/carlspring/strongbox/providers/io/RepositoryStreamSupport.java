@@ -3,7 +3,9 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -13,6 +15,7 @@ import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.io.output.ProxyOutputStream;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.LazyInputStream;
 import org.carlspring.strongbox.io.LazyOutputStream;
 import org.carlspring.strongbox.io.RepositoryStreamCallback;
@@ -20,6 +23,7 @@ import org.carlspring.strongbox.io.RepositoryStreamContext;
 import org.carlspring.strongbox.io.RepositoryStreamReadContext;
 import org.carlspring.strongbox.io.RepositoryStreamWriteContext;
 import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -109,7 +113,7 @@ public class RepositoryStreamSupport
         protected RepositoryOutputStream(Path path,
                                          OutputStream out) throws IOException
         {
-            super(new CountingOutputStream(out));
+            super(new TransferCountingOutputStream(out));
 
             RepositoryStreamWriteContext ctx = new RepositoryStreamWriteContext();
             ctx.setStream(this);
@@ -141,6 +145,38 @@ public class RepositoryStreamSupport
         }
 
 
+        /**
+         * Writes a file staged on the volume of the repository by moving it into place, rather than copying it
+         * through this stream. The digests computed for the layout are taken from the given ones, keyed by
+         * algorithm; the file is copied if some of them are missing.
+         *
+         * @return the number of bytes written
+         */
+        public long transferFrom(Path stagedFile,
+                                 Map<String, byte[]> digests)
+            throws IOException
+        {
+            TempOutputStream tos = StreamUtils.findSource(TempOutputStream.class, out);
+            LayoutOutputStream los = StreamUtils.findSource(LayoutOutputStream.class, out);
+            if (tos == null || los == null || los.getCacheOutputStream() != null ||
+                !digests.keySet().containsAll(los.getDigestAlgorithms()))
+            {
+                return Files.copy(stagedFile, this);
+            }
+
+            long size = Files.size(stagedFile);
+            if (size > 0)
+            {
+                beforeWrite((int) Math.min(size, Integer.MAX_VALUE));
+            }
+            ((TransferCountingOutputStream) out).count(size);
+
+            los.setDigests(digests);
+            tos.adopt(stagedFile);
+
+            return size;
+        }
+
         public void flush()
             throws IOException
         {
@@ -181,6 +217,29 @@ public class RepositoryStreamSupport
 
     }
 
+    /**
+     * Also counts the bytes which are {@link RepositoryOutputStream#transferFrom(Path, Map) transferred} without
+     * being written through the stream.
+     */
+    private static class TransferCountingOutputStream
+            extends CountingOutputStream
+    {
+
+        private TransferCountingOutputStream(OutputStream out)
+        {
+            super(out);
+        }
+
+        private void count(long bytes)
+        {
+            for (long remaining = bytes; remaining > 0; remaining -= Integer.MAX_VALUE)
+            {
+                beforeWrite((int) Math.min(remaining, Integer.MAX_VALUE));
+            }
+        }
+
+    }
+
     public class RepositoryInputStream
             extends ProxyInputStream
     {
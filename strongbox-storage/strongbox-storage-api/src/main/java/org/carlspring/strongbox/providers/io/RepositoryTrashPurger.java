@@ -0,0 +1,351 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.io.BandwidthThrottle;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the files which have been in the trash of a repository for longer than a retention period.
+ * <p>
+ * The trash is walked once, and the expired files are deleted on a bounded worker pool
+ * ({@code strongbox.trash.purge.parallelism}), optionally limited to
+ * {@code strongbox.trash.purge.max-files-per-second}. The directories left empty are deleted afterwards. The files
+ * which are still retained can be undeleted as before.
+ * <p>
+ * The files trashed without a recorded deletion time are recorded as deleted by the first purge which finds them, so
+ * they are retained for the full period from then on. Only the last link of a file counts as reclaimed space, the
+ * content of a hard linked file is still in use elsewhere.
+ *
+ * @see TrashDeletions
+ */
+@Component
+public class RepositoryTrashPurger
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryTrashPurger.class);
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    @Value("${strongbox.trash.purge.parallelism:4}")
+    private int parallelism;
+
+    @Value("${strongbox.trash.purge.max-files-per-second:0}")
+    private long maxFilesPerSecond;
+
+    private ExecutorService executor;
+
+    private BandwidthThrottle throttle;
+
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(parallelism, 1), r -> {
+            Thread thread = new Thread(r, "trash-purge-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        // The throttle counts files here, not bytes.
+        throttle = maxFilesPerSecond > 0 ? new BandwidthThrottle(maxFilesPerSecond) : null;
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param repositoryRoot the root of the repository
+     * @param retention      the files deleted earlier than this are purged, {@link Duration#ZERO} purges everything
+     */
+    public TrashPurgeReport purge(RootRepositoryPath repositoryRoot,
+                                  Duration retention)
+        throws IOException
+    {
+        TrashPurgeReport report = new TrashPurgeReport();
+
+        Repository repository = repositoryRoot.getFileSystem().getRepository();
+        if (!repository.isTrashEnabled())
+        {
+            return report;
+        }
+
+        Path trash = repositoryRoot.getFileSystem().getTrashPath().getTarget();
+        if (!Files.exists(trash))
+        {
+            return report;
+        }
+
+        long now = System.currentTimeMillis();
+        Purge purge = new Purge(new TrashDeletions(repositoryRoot.getFileSystem()),
+                                FileTime.fromMillis(now),
+                                FileTime.fromMillis(now - retention.toMillis()),
+                                report);
+        try
+        {
+            Files.walkFileTree(trash, purge);
+        }
+        finally
+        {
+            purge.awaitInFlight();
+        }
+
+        purge.deleteEmptyDirectories(trash);
+
+        logger.info(String.format("Purged the trash of [%s:%s]: %s",
+                                  repository.getStorage().getId(), repository.getId(), report));
+
+        return report;
+    }
+
+    private class Purge
+            extends SimpleFileVisitor<Path>
+    {
+
+        private final TrashDeletions deletions;
+
+        private final FileTime now;
+
+        private final FileTime expiration;
+
+        private final TrashPurgeReport report;
+
+        private final int maxInFlight = Math.max(parallelism, 1) * 16;
+
+        private final Semaphore inFlightPermits = new Semaphore(maxInFlight);
+
+        private final Set<Path> purgedDirectories = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The deletion times of the directories being walked, a directory inherits the time of its parent unless it
+         * was trashed on its own.
+         */
+        private final Deque<FileTime> directoryDeletionTimes = new LinkedList<>();
+
+        Purge(TrashDeletions deletions,
+              FileTime now,
+              FileTime expiration,
+              TrashPurgeReport report)
+        {
+            this.deletions = deletions;
+            this.now = now;
+            this.expiration = expiration;
+            this.report = report;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir,
+                                                 BasicFileAttributes attrs)
+            throws IOException
+        {
+            FileTime deletionTime = deletions.get(dir);
+            directoryDeletionTimes.push(deletionTime != null ? deletionTime : directoryDeletionTimes.peek());
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir,
+                                                  IOException e)
+            throws IOException
+        {
+            directoryDeletionTimes.pop();
+
+            return super.postVisitDirectory(dir, e);
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file,
+                                         BasicFileAttributes attrs)
+            throws IOException
+        {
+            if (getDeletionTime(file).compareTo(expiration) > 0)
+            {
+                report.addRetainedFile();
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            if (throttle != null)
+            {
+                throttle.acquire(1);
+            }
+
+            acquire();
+            executor.execute(() -> {
+                try
+                {
+                    long size = isLastLink(file) ? attrs.size() : 0;
+
+                    Files.delete(file);
+
+                    report.addPurgedFile(size);
+                    purgedDirectories.add(file.getParent());
+
+                    deletions.clear(file);
+                }
+                catch (NoSuchFileException e)
+                {
+                    // Undeleted meanwhile.
+                }
+                catch (IOException e)
+                {
+                    report.addFailedFile();
+
+                    logger.warn(String.format("Failed to purge [%s]", file), e);
+                }
+                finally
+                {
+                    inFlightPermits.release();
+                }
+            });
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file,
+                                               IOException e)
+        {
+            report.addFailedFile();
+
+            logger.warn(String.format("Failed to read [%s]", file), e);
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        private FileTime getDeletionTime(Path file)
+            throws IOException
+        {
+            FileTime deletionTime = deletions.get(file);
+            if (deletionTime == null)
+            {
+                deletionTime = directoryDeletionTimes.peek();
+            }
+            if (deletionTime == null)
+            {
+                deletionTime = now;
+                try
+                {
+                    deletions.mark(file, deletionTime);
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Failed to record the deletion time of [%s]", file), e);
+                }
+            }
+
+            return deletionTime;
+        }
+
+        private boolean isLastLink(Path file)
+            throws IOException
+        {
+            try
+            {
+                return ((Number) Files.getAttribute(file, LINK_COUNT_ATTRIBUTE)).longValue() <= 1;
+            }
+            catch (UnsupportedOperationException | IllegalArgumentException e)
+            {
+                // No hard links without the unix attributes.
+                return true;
+            }
+        }
+
+        /**
+         * Deletes the directories which became empty, deepest first, up to the trash root.
+         */
+        void deleteEmptyDirectories(Path trash)
+        {
+            List<Path> directories = purgedDirectories.stream()
+                                                      .sorted(Comparator.comparingInt(Path::getNameCount).reversed())
+                                                      .collect(Collectors.toList());
+            for (Path directory : directories)
+            {
+                for (Path dir = directory; dir != null && dir.startsWith(trash) && !dir.equals(trash); dir = dir.getParent())
+                {
+                    try
+                    {
+                        Files.delete(dir);
+                        deletions.clear(dir);
+                    }
+                    catch (DirectoryNotEmptyException | NoSuchFileException e)
+                    {
+                        break;
+                    }
+                    catch (IOException e)
+                    {
+                        logger.warn(String.format("Failed to purge [%s]", dir), e);
+
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void acquire()
+            throws InterruptedIOException
+        {
+            try
+            {
+                inFlightPermits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Trash purge interrupted.");
+            }
+        }
+
+        void awaitInFlight()
+            throws InterruptedIOException
+        {
+            try
+            {
+                inFlightPermits.acquire(maxInFlight);
+                inFlightPermits.release(maxInFlight);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Trash purge interrupted.");
+            }
+        }
+
+    }
+
+}
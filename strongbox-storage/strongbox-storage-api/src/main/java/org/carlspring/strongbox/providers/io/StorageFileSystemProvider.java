@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.providers.io;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.channels.FileChannel;
@@ -23,20 +24,37 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.spi.FileSystemProvider;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.carlspring.strongbox.storage.blob.BlobStore;
+import org.carlspring.strongbox.storage.cache.SmallFileCache;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.tiering.ColdStore;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.FileSystemUtils;
 
 /**
@@ -59,12 +77,69 @@ public abstract class StorageFileSystemProvider
 
     private FileSystemProvider target;
 
+    private BlobStore blobStore;
+
+    private ColdStore coldStore;
+
+    private SmallFileCache smallFileCache;
+
+    /**
+     * How many quarantined attempts are kept for each path, the older ones are deleted.
+     */
+    private int quarantineMaxEntriesPerPath = 3;
+
     public StorageFileSystemProvider(FileSystemProvider target)
     {
         super();
         this.target = target;
     }
 
+    @Autowired(required = false)
+    public void setBlobStore(BlobStore blobStore)
+    {
+        this.blobStore = blobStore;
+    }
+
+    @Autowired(required = false)
+    public void setColdStore(ColdStore coldStore)
+    {
+        this.coldStore = coldStore;
+    }
+
+    @Autowired(required = false)
+    public void setSmallFileCache(SmallFileCache smallFileCache)
+    {
+        this.smallFileCache = smallFileCache;
+    }
+
+    @Value("${strongbox.storage.quarantine.max-entries-per-path:3}")
+    public void setQuarantineMaxEntriesPerPath(int quarantineMaxEntriesPerPath)
+    {
+        this.quarantineMaxEntriesPerPath = quarantineMaxEntriesPerPath;
+    }
+
+    protected boolean isDeduplicationEnabled()
+    {
+        return blobStore != null && blobStore.isEnabled();
+    }
+
+    /**
+     * @return the content of the file from the {@link SmallFileCache}, or {@code null} if it's not a small file
+     */
+    protected byte[] readSmallFile(RepositoryPath path)
+        throws IOException
+    {
+        return smallFileCache != null ? smallFileCache.get(path.getTarget()) : null;
+    }
+
+    private void invalidateSmallFile(Path target)
+    {
+        if (smallFileCache != null)
+        {
+            smallFileCache.invalidate(target);
+        }
+    }
+
     public String getScheme()
     {
         return STRONGBOX_SCHEME;
@@ -213,6 +288,7 @@ public abstract class StorageFileSystemProvider
         
         FileSystemUtils.deleteRecursively(unwrap(root).resolve(LayoutFileSystem.TEMP));
         FileSystemUtils.deleteRecursively(unwrap(root).resolve(LayoutFileSystem.TRASH));
+        FileSystemUtils.deleteRecursively(unwrap(root).resolve(LayoutFileSystem.QUARANTINE));
         Files.delete(unwrap(root));
         
         logger.debug(String.format("Hidden folders deleted [%s]", path));
@@ -306,9 +382,12 @@ public abstract class StorageFileSystemProvider
                                 boolean force)
         throws IOException
     {
+        invalidateSmallFile(repositoryPath.getTarget());
+
         Repository repository = repositoryPath.getFileSystem().getRepository();
         if (!repository.isTrashEnabled() || RepositoryFiles.isTrash(repositoryPath))
         {
+            deleteOffloaded(repositoryPath);
             Files.deleteIfExists(repositoryPath.getTarget());
 
             return;
@@ -323,6 +402,29 @@ public abstract class StorageFileSystemProvider
         if (force && repository.allowsForceDeletion())
         {
             deleteTrash(repositoryPath);
+
+            return;
+        }
+
+        markDeleted(trashPath);
+    }
+
+    /**
+     * Records the time when the path was moved into the trash, the times of the file itself are kept for the
+     * undelete.
+     *
+     * @see TrashDeletions
+     */
+    protected void markDeleted(RepositoryPath trashPath)
+    {
+        try
+        {
+            new TrashDeletions(trashPath.getFileSystem()).mark(trashPath.getTarget(),
+                                                               FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to record the deletion time of [%s]", trashPath), e);
         }
     }
 
@@ -344,6 +446,7 @@ public abstract class StorageFileSystemProvider
         if (!Files.isDirectory(trashPath.getTarget()))
         {
             Files.move(trashPath.getTarget(), path.getTarget(), StandardCopyOption.REPLACE_EXISTING);
+            invalidateSmallFile(path.getTarget());
         }
         else
         {
@@ -352,6 +455,8 @@ public abstract class StorageFileSystemProvider
                                        path.getTarget(),
                                        StandardCopyOption.REPLACE_EXISTING));
         }
+
+        new TrashDeletions(trashPath.getFileSystem()).clear(trashPath.getTarget());
     }
 
     public RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath)
@@ -371,15 +476,188 @@ public abstract class StorageFileSystemProvider
         }
         if (Files.exists(path.getTarget()))
         {
+            deleteOffloaded(path);
             Files.delete(path.getTarget());
         }
         Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+        invalidateSmallFile(path.getTarget());
 
         //path.artifactEntry = tempPath.artifactEntry;
 
         return path;
     }
 
+    /**
+     * Writes a set of small files, such as the checksums of an artifact, in one step: they are all written into the
+     * temporary directory before any of them is moved into place, so that none is replaced unless all were written.
+     */
+    public void writeAll(Map<RepositoryPath, byte[]> contents)
+        throws IOException
+    {
+        List<TempRepositoryPath> tempPaths = new ArrayList<>(contents.size());
+        try
+        {
+            for (Map.Entry<RepositoryPath, byte[]> entry : contents.entrySet())
+            {
+                TempRepositoryPath tempPath = RepositoryFiles.temporary(entry.getKey());
+                tempPaths.add(tempPath);
+
+                Files.write(unwrap(tempPath), entry.getValue());
+            }
+        }
+        catch (IOException e)
+        {
+            for (TempRepositoryPath tempPath : tempPaths)
+            {
+                Files.deleteIfExists(unwrap(tempPath));
+            }
+
+            throw e;
+        }
+
+        for (TempRepositoryPath tempPath : tempPaths)
+        {
+            moveFromTemporaryDirectory(tempPath);
+        }
+    }
+
+    /**
+     * Turns an existing file into a reference to the blob of its content, see {@link BlobStore#link}.
+     *
+     * @return {@code true} if the file is a blob reference now
+     */
+    public boolean linkBlob(RepositoryPath path,
+                            Path blobStorePath)
+        throws IOException
+    {
+        if (!isDeduplicationEnabled() || !Files.exists(path.getTarget()))
+        {
+            return false;
+        }
+
+        return blobStore.link(blobStorePath, path.getTarget(), blobStore.digest(path.getTarget()));
+    }
+
+    /**
+     * @return whether the content of the file was moved to the secondary volume, see {@link ColdStore}
+     */
+    public boolean isOffloaded(RepositoryPath path)
+        throws IOException
+    {
+        return coldStore != null && coldStore.isOffloaded(path.getTarget());
+    }
+
+    /**
+     * Moves the content of the file to the secondary volume, the file is replaced with a link to it.
+     *
+     * @return {@code true} if the file is offloaded now
+     */
+    public boolean offload(RepositoryPath path)
+        throws IOException
+    {
+        if (coldStore == null || !coldStore.isEnabled())
+        {
+            return false;
+        }
+
+        Repository repository = path.getFileSystem().getRepository();
+        Path coldPath = coldStore.resolve(repository.getStorage().getId(), repository.getId())
+                                 .resolve(path.getRoot().relativize(path.getTarget()).toString());
+
+        return coldStore.offload(path.getTarget(), coldPath, unwrap(path.getFileSystem().getTempPath()));
+    }
+
+    /**
+     * Moves the content of an offloaded file back into the repository.
+     *
+     * @return {@code true} if the file was offloaded
+     */
+    public boolean promote(RepositoryPath path)
+        throws IOException
+    {
+        return coldStore != null && coldStore.promote(path.getTarget(), unwrap(path.getFileSystem().getTempPath()));
+    }
+
+    /**
+     * Deletes the offloaded content of the repository files which were purged from the trash.
+     *
+     * @return the number of the deleted files
+     */
+    public long collectOffloadedGarbage(RootRepositoryPath root)
+        throws IOException
+    {
+        if (coldStore == null || !coldStore.isEnabled())
+        {
+            return 0;
+        }
+
+        Repository repository = root.getFileSystem().getRepository();
+
+        return coldStore.collectGarbage(coldStore.resolve(repository.getStorage().getId(), repository.getId()),
+                                        unwrap(root),
+                                        unwrap(root.getFileSystem().getTrashPath()));
+    }
+
+    private void deleteOffloaded(RepositoryPath path)
+        throws IOException
+    {
+        if (coldStore != null)
+        {
+            coldStore.delete(path.getTarget());
+        }
+    }
+
+    /**
+     * Moves the temporary file into the quarantine, with a timestamp suffix so that the previous attempts are kept.
+     * Only the latest {@code strongbox.storage.quarantine.max-entries-per-path} attempts of a path are kept.
+     */
+    protected RepositoryPath moveToQuarantine(TempRepositoryPath tempPath)
+        throws IOException
+    {
+        RepositoryPath quarantinePath = rebase(tempPath.getTempTarget(),
+                                               tempPath.getFileSystem().getQuarantinePath());
+        quarantinePath = quarantinePath.resolveSibling(String.format("%s.%s",
+                                                                     quarantinePath.getFileName(),
+                                                                     System.currentTimeMillis()));
+
+        logger.warn(String.format("Quarantining [%s] into [%s].", tempPath.getTempTarget(), quarantinePath));
+
+        Files.createDirectories(quarantinePath.getParent().getTarget());
+        Files.move(tempPath.getTarget(), quarantinePath.getTarget(), StandardCopyOption.ATOMIC_MOVE);
+
+        pruneQuarantine(quarantinePath.getParent().getTarget(), tempPath.getTempTarget().getFileName().toString());
+
+        return quarantinePath;
+    }
+
+    private void pruneQuarantine(Path directory,
+                                 String fileName)
+        throws IOException
+    {
+        String prefix = fileName + ".";
+
+        // The attempts are ordered by their timestamp suffix, latest first.
+        List<Path> attempts;
+        try (Stream<Path> pathStream = Files.list(directory))
+        {
+            attempts = pathStream.filter(p -> p.getFileName().toString().startsWith(prefix) &&
+                                              NumberUtils.isDigits(p.getFileName().toString().substring(prefix.length())))
+                                 .sorted(Comparator.comparing((Path p) -> Long.valueOf(p.getFileName()
+                                                                                        .toString()
+                                                                                        .substring(prefix.length())))
+                                                   .reversed())
+                                 .collect(Collectors.toList());
+        }
+
+        int keep = Math.max(quarantineMaxEntriesPerPath, 1);
+        for (Path attempt : attempts.subList(Math.min(keep, attempts.size()), attempts.size()))
+        {
+            logger.debug(String.format("Deleting the old quarantined attempt [%s].", attempt));
+
+            Files.deleteIfExists(attempt);
+        }
+    }
+
     public void deleteTrash(RepositoryPath path)
         throws IOException
     {
@@ -399,6 +677,8 @@ public abstract class StorageFileSystemProvider
             FileSystemUtils.deleteRecursively(trashPath.getTarget());
             Files.createDirectories(trashPath);
         }
+
+        new TrashDeletions(trashPath.getFileSystem()).clear(trashPath.getTarget());
     }
 
     protected RepositoryPath getTrashPath(RepositoryPath path)
@@ -457,6 +737,7 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().copy(unwrap(source), unwrap(target), options);
+        invalidateSmallFile(unwrap(target));
     }
 
     public void move(Path source,
@@ -465,6 +746,8 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().move(unwrap(source), unwrap(target), options);
+        invalidateSmallFile(unwrap(source));
+        invalidateSmallFile(unwrap(target));
     }
 
     public boolean isSameFile(Path path,
@@ -651,11 +934,17 @@ public abstract class StorageFileSystemProvider
     }
 
     
-    private class TempOutputStream extends ProxyOutputStream
+    public class TempOutputStream extends ProxyOutputStream
     {
 
         private TempRepositoryPath path;
 
+        private MessageDigest messageDigest;
+
+        private boolean quarantined;
+
+        private Path adoptedFile;
+
         public TempOutputStream(TempRepositoryPath path,
                                 OpenOption... options)
             throws IOException
@@ -663,6 +952,12 @@ public abstract class StorageFileSystemProvider
             super(StorageFileSystemProvider.super.newOutputStream(unwrap(path), options));
 
             this.path = path;
+
+            if (isDeduplicationEnabled())
+            {
+                messageDigest = blobStore.newMessageDigest();
+                out = new DigestOutputStream(out, messageDigest);
+            }
         }
 
         @Override
@@ -673,6 +968,21 @@ public abstract class StorageFileSystemProvider
 
             try
             {
+                if (adoptedFile != null)
+                {
+                    Files.move(adoptedFile, path.getTarget(), StandardCopyOption.REPLACE_EXISTING,
+                               StandardCopyOption.ATOMIC_MOVE);
+                    digestAdoptedFile();
+                }
+
+                if (quarantined)
+                {
+                    moveToQuarantine(path);
+
+                    return;
+                }
+
+                linkBlob();
                 moveFromTemporaryDirectory(path);
             } 
             finally
@@ -684,6 +994,57 @@ public abstract class StorageFileSystemProvider
             }
         }
 
+        /**
+         * Makes {@link #close()} move the written file into the quarantine instead of its original location.
+         */
+        public void quarantine()
+        {
+            quarantined = true;
+        }
+
+        /**
+         * Makes {@link #close()} commit the given file instead of the written one. The file is moved, so it has to
+         * be on the volume of the repository.
+         */
+        public void adopt(Path file)
+        {
+            adoptedFile = unwrap(file);
+        }
+
+        /**
+         * The blob of an adopted file is found by its digest, which wasn't computed while writing.
+         */
+        private void digestAdoptedFile()
+            throws IOException
+        {
+            if (messageDigest == null)
+            {
+                return;
+            }
+
+            try (InputStream is = new DigestInputStream(Files.newInputStream(path.getTarget()), messageDigest))
+            {
+                IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+            }
+        }
+
+        /**
+         * Turns the temporary file into a blob reference, so that the blob store is updated by the same atomic
+         * move which commits the file.
+         */
+        private void linkBlob()
+            throws IOException
+        {
+            if (messageDigest == null || Files.size(path.getTarget()) < blobStore.getMinSize())
+            {
+                return;
+            }
+
+            blobStore.link(path.getFileSystem().getBlobStorePath(),
+                           path.getTarget(),
+                           MessageDigestUtils.convertToHexadecimalString(messageDigest));
+        }
+
     }
 
     private static class LayoutDirectoryStreamFilter implements Filter<Path>
@@ -703,7 +1064,8 @@ public abstract class StorageFileSystemProvider
             throws IOException
         {
             if (p.isAbsolute() && !p.startsWith(root.resolve(LayoutFileSystem.TRASH))
-                    && !p.startsWith(root.resolve(LayoutFileSystem.TEMP)))
+                    && !p.startsWith(root.resolve(LayoutFileSystem.TEMP))
+                    && !p.startsWith(root.resolve(LayoutFileSystem.QUARANTINE)))
             {
                 return delegate == null ? true : delegate.accept(p);
             }
@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * The times when the files were moved into the trash of a repository.
+ * <p>
+ * None of the times of a trashed file can hold its deletion time: the last access time changes with every read (or
+ * never, on a {@code noatime} mount), the last modified time is kept for the undelete, and the hard linked files
+ * share all their times. So the deletion time of a trash path is recorded in a marker of its own, under
+ * {@link LayoutFileSystem#getDeletionsPath()}, at the same relative path. A directory moved into the trash as a
+ * whole has a single marker, which applies to everything under it.
+ *
+ * @see RepositoryTrashPurger
+ */
+class TrashDeletions
+{
+
+    private static final String MARKER = ".deleted";
+
+    private final Path trash;
+
+    private final Path deletions;
+
+    TrashDeletions(LayoutFileSystem fileSystem)
+    {
+        this(fileSystem.getTrashPath().getTarget(), fileSystem.getDeletionsPath());
+    }
+
+    TrashDeletions(Path trash,
+                   Path deletions)
+    {
+        this.trash = trash;
+        this.deletions = deletions;
+    }
+
+    void mark(Path trashPath,
+              FileTime deletionTime)
+        throws IOException
+    {
+        Path marker = resolve(trashPath).resolve(MARKER);
+
+        Files.createDirectories(marker.getParent());
+        Files.write(marker, Long.toString(deletionTime.toMillis()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the time when the path was moved into the trash, or {@code null} if it wasn't recorded
+     */
+    FileTime get(Path trashPath)
+        throws IOException
+    {
+        try
+        {
+            String deletionTime = new String(Files.readAllBytes(resolve(trashPath).resolve(MARKER)),
+                                             StandardCharsets.US_ASCII);
+
+            return FileTime.fromMillis(Long.parseLong(deletionTime.trim()));
+        }
+        catch (NoSuchFileException | NumberFormatException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the markers of the path and of everything under it.
+     */
+    void clear(Path trashPath)
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(resolve(trashPath));
+    }
+
+    private Path resolve(Path trashPath)
+    {
+        return deletions.resolve(trash.relativize(trashPath).toString());
+    }
+
+}
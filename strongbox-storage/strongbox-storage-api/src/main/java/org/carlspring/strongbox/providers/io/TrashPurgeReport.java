@@ -0,0 +1,72 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The outcome of purging the trash of one or more repositories.
+ *
+ * @see RepositoryTrashPurger
+ */
+public class TrashPurgeReport
+{
+
+    private final AtomicLong purgedFiles = new AtomicLong();
+
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    private final AtomicLong retainedFiles = new AtomicLong();
+
+    private final AtomicLong failedFiles = new AtomicLong();
+
+    public void addPurgedFile(long size)
+    {
+        purgedFiles.incrementAndGet();
+        reclaimedBytes.addAndGet(size);
+    }
+
+    public void addRetainedFile()
+    {
+        retainedFiles.incrementAndGet();
+    }
+
+    public void addFailedFile()
+    {
+        failedFiles.incrementAndGet();
+    }
+
+    public void add(TrashPurgeReport other)
+    {
+        purgedFiles.addAndGet(other.getPurgedFiles());
+        reclaimedBytes.addAndGet(other.getReclaimedBytes());
+        retainedFiles.addAndGet(other.getRetainedFiles());
+        failedFiles.addAndGet(other.getFailedFiles());
+    }
+
+    public long getPurgedFiles()
+    {
+        return purgedFiles.get();
+    }
+
+    public long getReclaimedBytes()
+    {
+        return reclaimedBytes.get();
+    }
+
+    public long getRetainedFiles()
+    {
+        return retainedFiles.get();
+    }
+
+    public long getFailedFiles()
+    {
+        return failedFiles.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("purged=%s, reclaimedBytes=%s, retained=%s, failed=%s",
+                             getPurgedFiles(), getReclaimedBytes(), getRetainedFiles(), getFailedFiles());
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.providers.layout;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -9,6 +10,7 @@ import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +23,7 @@ import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.io.ByteRangeInputStream;
+import org.carlspring.strongbox.io.DigestExecutor;
 import org.carlspring.strongbox.io.LayoutInputStream;
 import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.LazyInputStream;
@@ -32,6 +35,7 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
 import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.RepositoryUsageService;
 import org.carlspring.strongbox.storage.ArtifactResolutionException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -51,6 +55,8 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutFileSystemProvider.class);
 
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
     @Inject
     private ArtifactEventListenerRegistry artifactEventListenerRegistry;
     
@@ -60,6 +66,12 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     @Inject
     private ArtifactEntryService artifactEntryService;
 
+    @Inject
+    private DigestExecutor digestExecutor;
+
+    @Inject
+    private RepositoryUsageService repositoryUsageService;
+
 
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -88,9 +100,13 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                                                       path.toString()));
                 }
                 
-                ByteRangeInputStream bris = new ByteRangeInputStream(super.newInputStream(path, options));
+                // The small files, such as the metadata and the checksums, are served from memory.
+                byte[] content = options.length == 0 ? readSmallFile((RepositoryPath) path) : null;
+
+                ByteRangeInputStream bris = new ByteRangeInputStream(content != null ? new ByteArrayInputStream(content)
+                                                                                     : super.newInputStream(path, options));
                 bris.setReloadableInputStreamHandler(new FSReloadableInputStreamHandler(path.toFile()));
-                bris.setLength(Files.size(path));
+                bris.setLength(content != null ? content.length : Files.size(path));
 
                 return decorateStream((RepositoryPath) path, bris);
             }
@@ -121,6 +137,21 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
 
         return path.resolveSibling(path.getFileName().toString().concat(checksumExtension));
     }
+
+    /**
+     * @return the files which the clients usually request right after the artifact, by default its checksums
+     */
+    public Set<RepositoryPath> getCompanionPaths(RepositoryPath artifactPath)
+        throws IOException
+    {
+        Set<RepositoryPath> result = new LinkedHashSet<>();
+        for (String digestAlgorithm : artifactPath.getFileSystem().getDigestAlgorithmSet())
+        {
+            result.add(getChecksumPath(artifactPath, digestAlgorithm));
+        }
+
+        return result;
+    }
     
     @Override
     public LazyOutputStream newOutputStream(Path path,
@@ -171,6 +202,8 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                   logger.error(String.format("Digest algorithm not supported: alg-[%s]", e), t);
                               }
                           });
+        result.setDigestExecutor(digestExecutor);
+        
         return result;
     }
     
@@ -210,7 +243,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     {
         try (InputStream is = newInputStream(path))
         {
-            byte[] buffer = new byte[1024];
+            byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
             while (is.read(buffer) > 0)
             {
                 //calculate checksum while reading the stream
@@ -258,10 +291,23 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         }
 
         boolean directory = Files.isDirectory(path);
-        super.delete(path, force);
-        if (!directory)
+        artifactEventListenerRegistry.dispatchArtifactPathDeletingEvent(path);
+        try
+        {
+            super.delete(path, force);
+            if (directory)
+            {
+                artifactEventListenerRegistry.dispatchArtifactDirectoryDeletedEvent(path);
+            }
+            else
+            {
+                artifactEventListenerRegistry.dispatchArtifactPathDeletedEvent(path);
+            }
+        }
+        finally
         {
-            artifactEventListenerRegistry.dispatchArtifactPathDeletedEvent(path);
+            // A failed delete is left to the next reconciliation of the usage.
+            repositoryUsageService.release(repositoryPath);
         }
 
         logger.debug(String.format("Deleted [%s]", path));
@@ -26,6 +26,7 @@ import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -116,7 +117,9 @@ public class GroupRepositoryProvider
                 continue;
             }
 
+            long start = StrongboxMetrics.start();
             subRepositoryPath = resolvePathFromGroupMemberOrTraverse(subRepositoryPath);
+            recordMemberProbe(groupRepository, subRepository, subRepositoryPath != null, start);
             if (subRepositoryPath == null)
             {
                 continue;
@@ -130,6 +133,25 @@ public class GroupRepositoryProvider
         return null;
     }
 
+    private void recordMemberProbe(Repository groupRepository,
+                                   Repository subRepository,
+                                   boolean found,
+                                   long start)
+    {
+        if (!StrongboxMetrics.isEnabled())
+        {
+            return;
+        }
+
+        StrongboxMetrics.recordTime(StrongboxMetrics.GROUP_MEMBER_PROBE,
+                                    StrongboxMetrics.repositoryTags(groupRepository.getStorage().getId(),
+                                                                    groupRepository.getId(),
+                                                                    groupRepository.getLayout())
+                                                    .and("member", subRepository.getStorageIdAndRepositoryId())
+                                                    .and("result", found ? "hit" : "miss"),
+                                    start);
+    }
+
     private boolean isRepositoryResolvable(Repository groupRepository,
                                            Repository subRepository,
                                            RepositoryPath repositoryPath)
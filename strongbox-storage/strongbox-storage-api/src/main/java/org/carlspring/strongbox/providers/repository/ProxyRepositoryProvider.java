@@ -12,6 +12,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryCompanionPrefetcher;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -43,6 +44,9 @@ public class ProxyRepositoryProvider
     @Inject
     private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
 
+    @Inject
+    private ProxyRepositoryCompanionPrefetcher proxyRepositoryCompanionPrefetcher;
+
     @Inject
     private HostedRepositoryProvider hostedRepositoryProvider;
 
@@ -71,6 +75,10 @@ public class ProxyRepositoryProvider
         if (targetPath == null)
         {
             targetPath = resolvePathExclusive(repositoryPath);
+            if (targetPath != null)
+            {
+                proxyRepositoryCompanionPrefetcher.prefetch(targetPath);
+            }
         }
         else if (RepositoryFiles.hasExpired(targetPath))
         {
@@ -0,0 +1,134 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persisted progress of a {@link LocalStorageProxyRepositoryExpiredArtifactsCleaner} run: the keyset cursor of each
+ * repository and the repositories which are already done. The progress is kept only while the run is not finished,
+ * and it's valid only for the same cleanup criteria, so an interrupted run is resumed by the next run with the same
+ * criteria.
+ *
+ * @see LocalStorageProxyRepositoryExpiredArtifactsCleaner
+ */
+class ExpiredArtifactsCleanupProgress
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiredArtifactsCleanupProgress.class);
+
+    private static final String PROPERTY_CRITERIA = "criteria";
+
+    private static final String PREFIX_CURSOR = "cursor.";
+
+    private static final String PREFIX_DONE = "done.";
+
+    private final Path file;
+
+    private final Properties properties = new Properties();
+
+    private ExpiredArtifactsCleanupProgress(Path file)
+    {
+        this.file = file;
+    }
+
+    static ExpiredArtifactsCleanupProgress load(Path file,
+                                                Integer lastAccessedTimeInDays,
+                                                Long minSizeInBytes)
+    {
+        ExpiredArtifactsCleanupProgress result = new ExpiredArtifactsCleanupProgress(file);
+        String criteria = String.format("%s/%s", lastAccessedTimeInDays, minSizeInBytes);
+
+        if (Files.exists(file))
+        {
+            try (InputStream is = Files.newInputStream(file))
+            {
+                result.properties.load(is);
+            }
+            catch (IOException e)
+            {
+                logger.warn(String.format("Failed to read cleanup progress [%s], starting over.", file), e);
+
+                result.properties.clear();
+            }
+        }
+
+        if (!Objects.equals(criteria, result.properties.getProperty(PROPERTY_CRITERIA)))
+        {
+            result.properties.clear();
+            result.properties.setProperty(PROPERTY_CRITERIA, criteria);
+        }
+        else
+        {
+            logger.info(String.format("Resuming expired artifacts cleanup from [%s].", file));
+        }
+
+        return result;
+    }
+
+    synchronized String getCursor(String storageId,
+                                  String repositoryId)
+    {
+        return properties.getProperty(PREFIX_CURSOR + key(storageId, repositoryId));
+    }
+
+    synchronized boolean isDone(String storageId,
+                                String repositoryId)
+    {
+        return properties.containsKey(PREFIX_DONE + key(storageId, repositoryId));
+    }
+
+    synchronized void saveCursor(String storageId,
+                                 String repositoryId,
+                                 String uuid)
+        throws IOException
+    {
+        properties.setProperty(PREFIX_CURSOR + key(storageId, repositoryId), uuid);
+        store();
+    }
+
+    synchronized void saveDone(String storageId,
+                               String repositoryId)
+        throws IOException
+    {
+        properties.remove(PREFIX_CURSOR + key(storageId, repositoryId));
+        properties.setProperty(PREFIX_DONE + key(storageId, repositoryId), Boolean.TRUE.toString());
+        store();
+    }
+
+    synchronized void complete()
+        throws IOException
+    {
+        properties.clear();
+        Files.deleteIfExists(file);
+    }
+
+    private void store()
+        throws IOException
+    {
+        Files.createDirectories(file.getParent());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(temp))
+        {
+            properties.store(os, "Expired proxy artifacts cleanup progress");
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String key(String storageId,
+                              String repositoryId)
+    {
+        return String.format("%s:%s", storageId, repositoryId);
+    }
+
+}
@@ -1,11 +1,12 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
-import org.carlspring.strongbox.providers.search.SearchException;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
@@ -17,17 +18,32 @@ import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteReposi
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Iterator;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
 
 /**
+ * Deletes the expired artifacts from the proxy repositories.
+ * <p>
+ * The proxy repositories are cleaned in parallel (bounded by {@code strongbox.proxy.cleanup.parallelism}), and the
+ * expired {@link ArtifactEntry}s of each repository are streamed in pages ordered by {@code uuid}, each page being
+ * deleted in its own transaction. The last {@code uuid} of each page is persisted, so that a run which was
+ * interrupted is resumed by the next run with the same criteria.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -51,74 +67,200 @@ public class LocalStorageProxyRepositoryExpiredArtifactsCleaner
     @Inject
     private ArtifactManagementService artifactManagementService;
 
-    @Transactional(rollbackFor = Exception.class)
-    public void cleanup(final Integer lastAccessedTimeInDays,
-                        final Long minSizeInBytes)
-            throws IOException, SearchException
-    {
-        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
-                                                                   .withLastAccessedTimeInDays(lastAccessedTimeInDays)
-                                                                   .withMinSizeInBytes(minSizeInBytes)
-                                                                   .build();
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
 
-        final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
-                                                                                      PagingCriteria.ALL);
-        filterAccessibleProxiedArtifacts(artifactEntries);
+    @Value("${strongbox.proxy.cleanup.page-size:100}")
+    private int pageSize;
+
+    @Value("${strongbox.proxy.cleanup.parallelism:4}")
+    private int parallelism;
+
+    public synchronized void cleanup(final Integer lastAccessedTimeInDays,
+                                     final Long minSizeInBytes)
+            throws IOException
+    {
+        final ExpiredArtifactsCleanupProgress progress = ExpiredArtifactsCleanupProgress.load(getProgressFile(),
+                                                                                              lastAccessedTimeInDays,
+                                                                                              minSizeInBytes);
 
-        if (CollectionUtils.isEmpty(artifactEntries))
+        final List<Repository> repositories = getProxyRepositories(progress);
+        if (repositories.isEmpty())
         {
+            progress.complete();
+
             return;
         }
 
-        logger.debug("Cleaning artifacts {}", artifactEntries);
-        deleteFromStorage(artifactEntries);
-    }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(Math.max(parallelism, 1),
+                                                                               repositories.size()));
+        IOException failure = null;
+        try
+        {
+            final List<Future<Long>> results = new ArrayList<>();
+            for (final Repository repository : repositories)
+            {
+                results.add(executor.submit(() -> cleanup(repository,
+                                                          lastAccessedTimeInDays,
+                                                          minSizeInBytes,
+                                                          progress)));
+            }
 
-    private void filterAccessibleProxiedArtifacts(final List<ArtifactEntry> artifactEntries)
-    {
-        if (CollectionUtils.isEmpty(artifactEntries))
+            for (final Future<Long> result : results)
+            {
+                try
+                {
+                    result.get();
+                }
+                catch (ExecutionException e)
+                {
+                    logger.error("Failed to cleanup expired artifacts.", e.getCause());
+
+                    failure = e.getCause() instanceof IOException ? (IOException) e.getCause()
+                                                                  : new IOException(e.getCause());
+                }
+            }
+        }
+        catch (InterruptedException e)
         {
-            return;
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Expired artifacts cleanup interrupted.");
+        }
+        finally
+        {
+            executor.shutdownNow();
         }
-        for (final Iterator<ArtifactEntry> it = artifactEntries.iterator(); it.hasNext(); )
+
+        if (failure != null)
         {
-            final ArtifactEntry artifactEntry = it.next();
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            if (!repository.isProxyRepository())
+            // The progress is kept, the next run will resume from where the failed repositories stopped.
+            throw failure;
+        }
+
+        progress.complete();
+    }
+
+    private Long cleanup(final Repository repository,
+                         final Integer lastAccessedTimeInDays,
+                         final Long minSizeInBytes,
+                         final ExpiredArtifactsCleanupProgress progress)
+            throws IOException
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final RootRepositoryPath repositoryRoot = repositoryPathResolver.resolve(repository);
+
+        String cursor = progress.getCursor(storageId, repositoryId);
+        long deleted = 0;
+        while (true)
+        {
+            if (!isRemoteRepositoryAlive(repository))
             {
-                it.remove();
-                continue;
+                return deleted;
             }
-            final RemoteRepository remoteRepository = ((RepositoryData)repository).getRemoteRepository();
-            if (remoteRepository == null)
+
+            final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                       .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                       .withMinSizeInBytes(minSizeInBytes)
+                                                                       .withStorageId(storageId)
+                                                                       .withRepositoryId(repositoryId)
+                                                                       .withUuidGreaterThan(cursor)
+                                                                       .build();
+
+            final List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
+                                                                                          new PagingCriteria(0, pageSize));
+            if (artifactEntries.isEmpty())
             {
-                logger.warn("Repository {} is not associated with remote repository", repository.getId());
-                it.remove();
-                continue;
+                break;
             }
-            if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+
+            deleted += deleteFromStorage(repositoryRoot, artifactEntries);
+
+            cursor = artifactEntries.get(artifactEntries.size() - 1).getUuid();
+            progress.saveCursor(storageId, repositoryId, cursor);
+
+            if (artifactEntries.size() < pageSize)
             {
-                logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
-                it.remove();
-                continue;
+                break;
             }
         }
 
+        progress.saveDone(storageId, repositoryId);
+
+        logger.debug("Cleaned {} expired artifacts from [{}:{}]", deleted, storageId, repositoryId);
+
+        return deleted;
     }
 
-    private void deleteFromStorage(final List<ArtifactEntry> artifactEntries)
-            throws IOException
+    private List<Repository> getProxyRepositories(final ExpiredArtifactsCleanupProgress progress)
+    {
+        final List<Repository> result = new ArrayList<>();
+        for (final Storage storage : configurationManager.getConfiguration().getStorages().values())
+        {
+            for (final Repository repository : storage.getRepositories().values())
+            {
+                if (!repository.isProxyRepository() || progress.isDone(storage.getId(), repository.getId()))
+                {
+                    continue;
+                }
+                if (((RepositoryData) repository).getRemoteRepository() == null)
+                {
+                    logger.warn("Repository {} is not associated with remote repository", repository.getId());
+                    continue;
+                }
+
+                result.add(repository);
+            }
+        }
+
+        return result;
+    }
+
+    private boolean isRemoteRepositoryAlive(final Repository repository)
     {
-        for (final ArtifactEntry artifactEntry : artifactEntries)
+        final RemoteRepository remoteRepository = ((RepositoryData) repository).getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
         {
-            final Storage storage = configurationManager.getConfiguration().getStorage(artifactEntry.getStorageId());
-            final Repository repository = storage.getRepository(artifactEntry.getRepositoryId());
-            
-            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository).resolve(artifactEntry);
+            logger.warn("Remote repository {} is down. Artifacts won't be cleaned up.", remoteRepository.getUrl());
 
-            artifactManagementService.delete(repositoryPath, true);
+            return false;
         }
+
+        return true;
+    }
+
+    private long deleteFromStorage(final RootRepositoryPath repositoryRoot,
+                                   final List<ArtifactEntry> artifactEntries)
+    {
+        logger.debug("Cleaning artifacts {}", artifactEntries);
+
+        return new TransactionTemplate(transactionManager).execute(t -> {
+            long deleted = 0;
+            for (final ArtifactEntry artifactEntry : artifactEntries)
+            {
+                final RepositoryPath repositoryPath = repositoryRoot.resolve(artifactEntry);
+                try
+                {
+                    artifactManagementService.delete(repositoryPath, true);
+                    deleted++;
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Failed to cleanup expired artifact [%s].", repositoryPath), e);
+                }
+            }
+
+            return deleted;
+        });
+    }
+
+    private Path getProgressFile()
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(), "cleanup", "expired-proxy-artifacts.properties");
     }
 
 }
@@ -1,26 +1,42 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.ArtifactManagementService.ChecksumSource;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
 import org.carlspring.strongbox.storage.repository.RepositoryData;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.Response;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -31,6 +47,14 @@ public class ProxyRepositoryArtifactResolver
 {
     private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryArtifactResolver.class);
 
+    /**
+     * The digest algorithms of the remote checksum files, strongest first.
+     */
+    private static final List<String> CHECKSUM_ALGORITHMS = Arrays.asList(MessageDigestAlgorithms.SHA_512,
+                                                                          MessageDigestAlgorithms.SHA_256,
+                                                                          MessageDigestAlgorithms.SHA_1,
+                                                                          MessageDigestAlgorithms.MD5);
+
     @Inject
     private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
 
@@ -46,6 +70,13 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    /**
+     * How many times a download is attempted while it doesn't match the remote checksum, {@code 0} disables the
+     * verification.
+     */
+    @Value("${strongbox.proxy.checksum-verification.attempts:2}")
+    private int checksumVerificationAttempts;
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -65,15 +96,57 @@ public class ProxyRepositoryArtifactResolver
             return null;
         }
 
-        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
-
         ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try
         {
-            return doFetch(repositoryPath, is);
+            // The cached checksum may be stale: on a mismatch, the download is verified against the remote checksum,
+            // and only quarantined if it doesn't match that one either.
+            AtomicReference<Map<String, String>> remoteChecksums = new AtomicReference<>();
+            ChecksumSource currentChecksums = () -> {
+                remoteChecksums.set(fetchRemoteChecksums(remoteRepository, repositoryPath));
+
+                return remoteChecksums.get();
+            };
+
+            Map<String, String> expectedChecksums = getCachedChecksums(repositoryPath);
+            if (expectedChecksums.isEmpty())
+            {
+                expectedChecksums = fetchRemoteChecksums(remoteRepository, repositoryPath);
+                currentChecksums = null;
+            }
+
+            for (int attempt = 1;; attempt++)
+            {
+                RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+                try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+                {
+                    return doFetch(repositoryPath, is, expectedChecksums, currentChecksums);
+                }
+                catch (ArtifactChecksumMismatchException e)
+                {
+                    if (remoteChecksums.get() != null)
+                    {
+                        // The next attempts are verified against the remote checksum only.
+                        expectedChecksums = remoteChecksums.get();
+                        currentChecksums = null;
+                    }
+
+                    StrongboxMetrics.increment(StrongboxMetrics.PROXY_CHECKSUM_MISMATCHES,
+                                               StrongboxMetrics.repositoryTags(repository.getStorage().getId(),
+                                                                               repository.getId(),
+                                                                               repository.getLayout()));
+
+                    if (attempt >= checksumVerificationAttempts)
+                    {
+                        throw e;
+                    }
+
+                    logger.warn(String.format("%s Retrying, attempt [%s].", e.getMessage(), attempt + 1));
+                }
+            }
         }
         finally
         {
@@ -81,8 +154,117 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    /**
+     * The checksum files of the artifact which are already cached, usually prefetched with an earlier download, are
+     * used instead of fetching them again. Only one checksum is needed, the strongest one available is used.
+     *
+     * @return the checksum keyed by its digest algorithm, or an empty map if none is cached
+     */
+    protected Map<String, String> getCachedChecksums(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (checksumVerificationAttempts <= 0 || !RepositoryFiles.isArtifact(repositoryPath))
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<String, RepositoryPath> checksumPaths = repositoryPath.getFileSystem()
+                                                                  .provider()
+                                                                  .resolveChecksumPathMap(repositoryPath);
+        for (String algorithm : CHECKSUM_ALGORITHMS)
+        {
+            RepositoryPath checksumPath = checksumPaths.get(algorithm);
+            if (checksumPath == null || !Files.exists(checksumPath))
+            {
+                continue;
+            }
+
+            String checksum = readChecksum(new String(Files.readAllBytes(checksumPath), StandardCharsets.UTF_8));
+            if (checksum != null)
+            {
+                return Collections.singletonMap(algorithm, checksum);
+            }
+        }
+
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Fetches the checksum which the remote repository publishes next to the artifact, so that the download can be
+     * verified while it's stored. Only one checksum is needed, the strongest one available is used.
+     *
+     * @return the checksum keyed by its digest algorithm, or an empty map if there is nothing to verify against
+     */
+    protected Map<String, String> fetchRemoteChecksums(RemoteRepository remoteRepository,
+                                                       RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (checksumVerificationAttempts <= 0 || !RepositoryFiles.isArtifact(repositoryPath))
+        {
+            return Collections.emptyMap();
+        }
+
+        Set<String> digestAlgorithms = repositoryPath.getFileSystem().getDigestAlgorithmSet();
+        String resource = RepositoryFiles.resolveResource(repositoryPath).toString();
+
+        try (RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository))
+        {
+            for (String algorithm : CHECKSUM_ALGORITHMS)
+            {
+                if (!digestAlgorithms.contains(algorithm))
+                {
+                    continue;
+                }
+
+                String checksum = fetchRemoteChecksum(client, resource + getChecksumExtension(algorithm));
+                if (checksum != null)
+                {
+                    return Collections.singletonMap(algorithm, checksum);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to fetch the remote checksums of [%s], it won't be verified.",
+                                      repositoryPath), e);
+        }
+
+        return Collections.emptyMap();
+    }
+
+    private String fetchRemoteChecksum(RestArtifactResolver client,
+                                       String resource)
+        throws IOException
+    {
+        try (CloseableRestResponse closeableRestResponse = client.get(resource))
+        {
+            Response response = closeableRestResponse.getResponse();
+            if (response.getStatus() != 200 || !response.hasEntity())
+            {
+                return null;
+            }
+
+            return readChecksum(response.readEntity(String.class));
+        }
+    }
+
+    private static String readChecksum(String content)
+    {
+        // Checksum files may carry the file name after the checksum.
+        String[] tokens = StringUtils.split(content);
+
+        return tokens == null || tokens.length == 0 ? null : tokens[0];
+    }
+
+    private static String getChecksumExtension(String algorithm)
+    {
+        return ".".concat(algorithm.toLowerCase().replaceAll("-", ""));
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
-                                   InputStream is)
+                                   InputStream is,
+                                   Map<String, String> expectedChecksums,
+                                   ChecksumSource currentChecksums)
         throws IOException
     {
         //We need this to force initialize lazy connection to remote repository.
@@ -90,7 +272,8 @@ public class ProxyRepositoryArtifactResolver
         logger.debug(String.format("Got [%s] avaliable bytes for [%s].", available, repositoryPath));
         
         
-        RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath);
+        RepositoryPath result = onSuccessfulProxyRepositoryResponse(is, repositoryPath, expectedChecksums,
+                                                                    currentChecksums);
         
         RepositoryFileAttributes artifactFileAttributes = Files.readAttributes(repositoryPath,
                                                                                RepositoryFileAttributes.class);
@@ -103,15 +286,14 @@ public class ProxyRepositoryArtifactResolver
     }
 
     protected RepositoryPath onSuccessfulProxyRepositoryResponse(InputStream is,
-                                                                 RepositoryPath repositoryPath)
+                                                                 RepositoryPath repositoryPath,
+                                                                 Map<String, String> expectedChecksums,
+                                                                 ChecksumSource currentChecksums)
             throws IOException
     {
-         artifactManagementService.store(repositoryPath, is);
-         
-        // TODO: Add a policy for validating the checksums of downloaded artifacts
-        // TODO: Validate the local checksum against the remote's checksums
-        // sbespalov: we have checksum validation within ArtifactManagementService.store() method, but it's not strict for now (see SB-949)
-        
+        // The download is verified against the checksums while it's stored, and quarantined on a mismatch.
+        artifactManagementService.store(repositoryPath, is, expectedChecksums, currentChecksums);
+
         // Serve the downloaded artifact
         return repositoryPath;
     }
@@ -0,0 +1,293 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.data.service.support.search.Sort;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.remote.CacheEvictionPolicyEnum;
+import org.carlspring.strongbox.storage.repository.remote.CacheQuota;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+
+/**
+ * Enforces the {@link CacheQuota} of the proxy repositories.
+ * <p>
+ * Every artifact fetched from a remote repository schedules a quota check of its proxy repository (the checks of a
+ * repository are coalesced, so there is at most one pending check per repository). If the cache is above the high
+ * watermark, the artifacts picked by the {@link CacheEvictionPolicyEnum} of the quota are evicted in batches until
+ * the cache is below the low watermark.
+ */
+@Component
+public class ProxyRepositoryCacheEvictionService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryCacheEvictionService.class);
+
+    /**
+     * The size weighted policy ranks this many times more candidates than it evicts at once.
+     */
+    private static final int SIZE_WEIGHTED_CANDIDATES_FACTOR = 4;
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.proxy.eviction.batch-size:100}")
+    private int batchSize;
+
+    private final Set<String> pendingChecks = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "proxy-cache-eviction");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE.getType())
+        {
+            return;
+        }
+
+        final Repository repository = event.getPath().getRepository();
+        final CacheQuota cacheQuota = getCacheQuota(repository);
+        if (cacheQuota == null || !cacheQuota.isLimited())
+        {
+            return;
+        }
+
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        final String key = String.format("%s:%s", storageId, repositoryId);
+        if (!pendingChecks.add(key))
+        {
+            return;
+        }
+
+        executor.execute(() -> {
+            // Removed before the check, so that the artifacts fetched meanwhile schedule the next one.
+            pendingChecks.remove(key);
+            try
+            {
+                enforceQuota(storageId, repositoryId);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to enforce cache quota of [%s].", key), e);
+            }
+        });
+    }
+
+    /**
+     * @return the number of the evicted artifacts
+     */
+    public long enforceQuota(final String storageId,
+                             final String repositoryId)
+    {
+        final Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        final Repository repository = storage == null ? null : storage.getRepository(repositoryId);
+        final CacheQuota cacheQuota = getCacheQuota(repository);
+        if (cacheQuota == null || !cacheQuota.isLimited())
+        {
+            return 0;
+        }
+
+        final Pair<Long, Long> artifactsAndSize = artifactEntryService.countArtifactsAndSize(storageId, repositoryId);
+        final Usage usage = new Usage(artifactsAndSize.getValue0(), artifactsAndSize.getValue1());
+        if (!cacheQuota.isAboveHighWatermark(usage.sizeInBytes, usage.artifacts))
+        {
+            return 0;
+        }
+
+        final RemoteRepository remoteRepository = ((RepositoryData) repository).getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            logger.warn("Remote repository {} is down. Artifacts won't be evicted.", remoteRepository.getUrl());
+
+            return 0;
+        }
+
+        logger.info("Cache of [{}:{}] is above the high watermark ({} artifacts, {} bytes), evicting by [{}]...",
+                    storageId, repositoryId, usage.artifacts, usage.sizeInBytes, cacheQuota.getEvictionPolicy());
+
+        final RootRepositoryPath repositoryRoot = repositoryPathResolver.resolve(repository);
+        long evicted = 0;
+        while (cacheQuota.isAboveLowWatermark(usage.sizeInBytes, usage.artifacts))
+        {
+            final List<ArtifactEntry> victims = findVictims(storageId, repositoryId, cacheQuota.getEvictionPolicy());
+            final long batchEvicted = evict(repositoryRoot, victims, cacheQuota, usage);
+            if (batchEvicted == 0)
+            {
+                break;
+            }
+
+            evicted += batchEvicted;
+        }
+
+        logger.info("Evicted {} artifacts from [{}:{}], {} artifacts ({} bytes) left.",
+                    evicted, storageId, repositoryId, usage.artifacts, usage.sizeInBytes);
+
+        return evicted;
+    }
+
+    private List<ArtifactEntry> findVictims(final String storageId,
+                                            final String repositoryId,
+                                            final CacheEvictionPolicyEnum evictionPolicy)
+    {
+        final ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria().withStorageId(storageId)
+                                                                                          .withRepositoryId(repositoryId)
+                                                                                          .build();
+        switch (evictionPolicy)
+        {
+            case LFU:
+                return artifactEntryService.findMatching(searchCriteria,
+                                                         new PagingCriteria(0, batchSize,
+                                                                            Sort.by(Sort.Order.asc("downloadCount"),
+                                                                                    Sort.Order.asc("lastUsed"))));
+            case SIZE_WEIGHTED:
+                final List<ArtifactEntry> candidates = artifactEntryService.findMatching(searchCriteria,
+                                                                                         new PagingCriteria(0,
+                                                                                                            batchSize * SIZE_WEIGHTED_CANDIDATES_FACTOR,
+                                                                                                            Sort.by(Sort.Order.asc("lastUsed"))));
+                final long now = System.currentTimeMillis();
+                candidates.sort(Comparator.comparingDouble((ArtifactEntry e) -> sizeWeight(e, now)).reversed());
+
+                return candidates.subList(0, Math.min(batchSize, candidates.size()));
+            default:
+                return artifactEntryService.findMatching(searchCriteria,
+                                                         new PagingCriteria(0, batchSize,
+                                                                            Sort.by(Sort.Order.asc("lastUsed"))));
+        }
+    }
+
+    private static double sizeWeight(final ArtifactEntry artifactEntry,
+                                     final long now)
+    {
+        final long lastUsed = artifactEntry.getLastUsed() == null ? 0L : artifactEntry.getLastUsed().getTime();
+
+        return (double) sizeOf(artifactEntry) * Math.max(now - lastUsed, 1L);
+    }
+
+    private long evict(final RootRepositoryPath repositoryRoot,
+                       final List<ArtifactEntry> victims,
+                       final CacheQuota cacheQuota,
+                       final Usage usage)
+    {
+        return new TransactionTemplate(transactionManager).execute(t -> {
+            long evicted = 0;
+            for (final ArtifactEntry victim : victims)
+            {
+                if (!cacheQuota.isAboveLowWatermark(usage.sizeInBytes, usage.artifacts))
+                {
+                    break;
+                }
+
+                final RepositoryPath repositoryPath = repositoryRoot.resolve(victim);
+                try
+                {
+                    artifactManagementService.delete(repositoryPath, true);
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Failed to evict [%s].", repositoryPath), e);
+
+                    continue;
+                }
+
+                usage.sizeInBytes -= sizeOf(victim);
+                usage.artifacts--;
+                evicted++;
+            }
+
+            return evicted;
+        });
+    }
+
+    private static long sizeOf(final ArtifactEntry artifactEntry)
+    {
+        return artifactEntry.getSizeInBytes() == null ? 0L : artifactEntry.getSizeInBytes();
+    }
+
+    private CacheQuota getCacheQuota(final Repository repository)
+    {
+        if (repository == null || !repository.isProxyRepository())
+        {
+            return null;
+        }
+
+        final RemoteRepository remoteRepository = ((RepositoryData) repository).getRemoteRepository();
+
+        return remoteRepository == null ? null : remoteRepository.getCacheQuota();
+    }
+
+    private static class Usage
+    {
+
+        private long artifacts;
+
+        private long sizeInBytes;
+
+        Usage(long artifacts,
+              long sizeInBytes)
+        {
+            this.artifacts = artifacts;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+    }
+
+}
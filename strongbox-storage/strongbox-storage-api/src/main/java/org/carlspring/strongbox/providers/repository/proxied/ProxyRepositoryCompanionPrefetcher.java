@@ -0,0 +1,197 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.remote.PrefetchRules;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefetches the companion files of an artifact (descriptor, checksums, signature) right after the artifact was
+ * fetched from the remote repository, so that the requests which the clients make next are served from the cache.
+ * <p>
+ * The layout decides which files are companions, and the {@link PrefetchRules} of the remote repository enable the
+ * prefetching and narrow the companions down. The companions which are already cached are skipped. The prefetching is
+ * best effort: it runs on a bounded pool ({@code strongbox.proxy.prefetch.parallelism}) with a bounded queue
+ * ({@code strongbox.proxy.prefetch.queue-size}), and the companions which don't fit into the queue are left to be
+ * fetched on demand.
+ *
+ * @see LayoutFileSystemProvider#getCompanionPaths(RepositoryPath)
+ */
+@Component
+public class ProxyRepositoryCompanionPrefetcher
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyRepositoryCompanionPrefetcher.class);
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Value("${strongbox.proxy.prefetch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${strongbox.proxy.prefetch.queue-size:1000}")
+    private int queueSize;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(parallelism, 1),
+                                          Math.max(parallelism, 1),
+                                          0L,
+                                          TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(Math.max(queueSize, 1)),
+                                          r -> {
+                                              Thread thread = new Thread(r, "proxy-prefetch-" +
+                                                                            threadNumber.incrementAndGet());
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          });
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules the prefetching of the companions of an artifact which has just been fetched from the remote
+     * repository.
+     */
+    public void prefetch(RepositoryPath artifactPath)
+    {
+        Repository repository = artifactPath.getRepository();
+        RemoteRepository remoteRepository = ((RepositoryData) repository).getRemoteRepository();
+        PrefetchRules prefetchRules = remoteRepository != null ? remoteRepository.getPrefetchRules() : null;
+        if (prefetchRules == null || !prefetchRules.isEnabled())
+        {
+            return;
+        }
+
+        try
+        {
+            if (!RepositoryFiles.isArtifact(artifactPath))
+            {
+                return;
+            }
+
+            LayoutFileSystemProvider provider = (LayoutFileSystemProvider) artifactPath.getFileSystem().provider();
+            for (RepositoryPath companionPath : provider.getCompanionPaths(artifactPath))
+            {
+                if (prefetchRules.includes(companionPath.getFileName().toString()))
+                {
+                    schedule(companionPath);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to resolve the companions of [%s].", artifactPath), e);
+        }
+    }
+
+    private void schedule(RepositoryPath companionPath)
+        throws IOException
+    {
+        if (Files.exists(companionPath))
+        {
+            return;
+        }
+
+        String key = companionPath.toUri().toString();
+        if (!inFlight.add(key))
+        {
+            return;
+        }
+
+        try
+        {
+            executor.execute(() -> {
+                try
+                {
+                    fetch(companionPath);
+                }
+                finally
+                {
+                    inFlight.remove(key);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            inFlight.remove(key);
+
+            logger.debug(String.format("The prefetch queue is full, skipping [%s].", companionPath));
+        }
+    }
+
+    private void fetch(RepositoryPath companionPath)
+    {
+        try
+        {
+            // The same lock as the on demand fetch, so that a companion is never fetched twice.
+            ReadWriteLock lockSource = repositoryPathLock.lock(companionPath, "pre-remote-fetch");
+            Lock lock = lockSource.writeLock();
+            lock.lock();
+
+            try
+            {
+                if (Files.exists(companionPath))
+                {
+                    return;
+                }
+
+                proxyRepositoryArtifactResolver.fetchRemoteResource(companionPath);
+
+                logger.debug(String.format("Prefetched [%s].", companionPath));
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            logger.debug(String.format("The remote repository doesn't have [%s].", companionPath));
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Failed to prefetch [%s].", companionPath), e);
+        }
+    }
+
+}
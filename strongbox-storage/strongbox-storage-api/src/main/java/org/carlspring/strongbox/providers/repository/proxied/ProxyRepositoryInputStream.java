@@ -3,16 +3,21 @@ package org.carlspring.strongbox.providers.repository.proxied;
 import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * @author sbespalov
  *
@@ -32,6 +37,8 @@ public class ProxyRepositoryInputStream extends FilterInputStream
 
     private RepositoryPath repositoryPath;
 
+    private Tags metricTags;
+
     public ProxyRepositoryInputStream(RestArtifactResolver proxyTargetClient,
                                       RepositoryPath path)
         throws IOException
@@ -42,6 +49,11 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         this.client = proxyTargetClient;
         this.remoteArtifactStreamFetcher = new RemoteArtifactStreamFetcher(client);
 
+        Repository repository = path.getRepository();
+        this.metricTags = StrongboxMetrics.repositoryTags(repository.getStorage().getId(),
+                                                          repository.getId(),
+                                                          repository.getLayout());
+
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
@@ -49,6 +61,7 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         context.setAttempts(1);
         context.setCurrentOffset(0);
         context.setStopWatch(stopWatch);
+        context.setTransferStart(StrongboxMetrics.start());
         artifactCopyContext.set(context);
     }
 
@@ -135,17 +148,51 @@ public class ProxyRepositoryInputStream extends FilterInputStream
             ArtifactCopyContext ctx = artifactCopyContext.get();
 
             long offset = 0;
+            // The remote connection is established lazily, so the first read is
+            // what measures the upstream latency.
+            long start = ctx.isConnected() ? 0L : StrongboxMetrics.start();
+            long connectStart = ctx.isConnected() ? 0L : System.nanoTime();
             try
             {
                 offset = f.read();
+                if (!ctx.isConnected())
+                {
+                    ctx.setConnected(true);
+                    StrongboxMetrics.recordTime(StrongboxMetrics.PROXY_UPSTREAM_LATENCY, metricTags, start);
+                    client.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart));
+                }
             }
             catch (ArtifactNotFoundException e)
             {
+                // The remote repository is fine, the artifact is just not there.
+                if (!ctx.isConnected())
+                {
+                    client.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart));
+                }
+
                 throw e;
             }
             catch (IOException e)
             {
-                offset = retryReadIfPossible(f, e);
+                try
+                {
+                    offset = retryReadIfPossible(f, e);
+                }
+                catch (ArtifactNotFoundException notFound)
+                {
+                    throw notFound;
+                }
+                catch (IOException retryException)
+                {
+                    // A failure the retries have recovered from doesn't count, nor do the nested retries giving up.
+                    if (!ctx.isFailureRecorded())
+                    {
+                        ctx.setFailureRecorded(true);
+                        client.recordFailure();
+                    }
+
+                    throw retryException;
+                }
             }
 
             ctx.setCurrentOffset(ctx.getCurrentOffset() + offset);
@@ -161,6 +208,7 @@ public class ProxyRepositoryInputStream extends FilterInputStream
     {
         ArtifactCopyContext ctx = artifactCopyContext.get();
         ctx.setAttempts(ctx.getAttempts() + 1);
+        StrongboxMetrics.increment(StrongboxMetrics.PROXY_UPSTREAM_RETRIES, metricTags);
 
         logger.debug("Retrying remote stream reading because of [{}]... Attempt number = [{}], Current Offset = [{}] Duration Time = [{}]",
                      lastException, ctx.getAttempts(), ctx.getCurrentOffset(),
@@ -273,6 +321,9 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         private int attempts;
         private long currentOffset;
         private Boolean rangeRequestSupported;
+        private boolean connected;
+        private boolean failureRecorded;
+        private long transferStart;
 
         public StopWatch getStopWatch()
         {
@@ -314,10 +365,43 @@ public class ProxyRepositoryInputStream extends FilterInputStream
             this.rangeRequestSupported = rangeRequestSupported;
         }
 
+        public boolean isConnected()
+        {
+            return connected;
+        }
+
+        public void setConnected(boolean connected)
+        {
+            this.connected = connected;
+        }
+
+        public boolean isFailureRecorded()
+        {
+            return failureRecorded;
+        }
+
+        public void setFailureRecorded(boolean failureRecorded)
+        {
+            this.failureRecorded = failureRecorded;
+        }
+
+        public long getTransferStart()
+        {
+            return transferStart;
+        }
+
+        public void setTransferStart(long transferStart)
+        {
+            this.transferStart = transferStart;
+        }
+
         @Override
         public void close()
             throws IOException
         {
+            StrongboxMetrics.recordTime(StrongboxMetrics.PROXY_UPSTREAM_TRANSFER, metricTags, transferStart);
+            StrongboxMetrics.increment(StrongboxMetrics.PROXY_UPSTREAM_BYTES, metricTags, currentOffset);
+
             try
             {
                 try
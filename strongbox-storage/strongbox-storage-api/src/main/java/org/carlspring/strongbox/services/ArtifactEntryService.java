@@ -69,6 +69,12 @@ public interface ArtifactEntryService
                         Map<String, String> coordinates,
                         boolean strict);
 
+    /**
+     * @return the number of the repository artifacts and their total size in bytes
+     */
+    Pair<Long, Long> countArtifactsAndSize(String storageId,
+                                           String repositoryId);
+
     boolean artifactExists(String storageId,
                            String repositoryId,
                            String path);
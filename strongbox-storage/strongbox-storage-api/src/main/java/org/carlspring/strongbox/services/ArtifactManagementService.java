@@ -7,6 +7,11 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -14,6 +19,9 @@ import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
+import io.micrometer.core.instrument.Tags;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.IOUtils;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.configuration.Configuration;
@@ -22,16 +30,20 @@ import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.io.LayoutOutputStream;
 import org.carlspring.strongbox.io.StreamUtils;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryOutputStream;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider.TempOutputStream;
 import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.checksum.ArtifactChecksum;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
 import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
@@ -79,6 +91,9 @@ public class ArtifactManagementService
 
     @Inject
     protected RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    protected RepositoryUsageService repositoryUsageService;
     
     @Transactional
     public long validateAndStore(RepositoryPath repositoryPath,
@@ -88,7 +103,54 @@ public class ArtifactManagementService
         ArtifactCoordinatesValidationException
     {
         performRepositoryAcceptanceValidation(repositoryPath);
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os), Collections.emptyMap(), null);
+    }
+
+    /**
+     * Same as {@link #validateAndStore(RepositoryPath, InputStream)}, but the artifact is only stored if its digests
+     * match the given checksums, as with {@link #store(RepositoryPath, InputStream, Map)}.
+     */
+    @Transactional
+    public long validateAndStore(RepositoryPath repositoryPath,
+                                 InputStream is,
+                                 Map<String, String> expectedChecksums)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        performRepositoryAcceptanceValidation(repositoryPath);
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os), expectedChecksums, null);
+    }
+
+    /**
+     * Same as {@link #validateAndStore(RepositoryPath, InputStream, Map)}, but the content is a file staged on the
+     * volume of the repository, which is moved into place rather than copied, with the digests which were computed
+     * while it was staged. The layout digests, keyed by algorithm, are {@link LayoutFileSystem#getDigestAlgorithmSet()
+     * listed by its file system}; the file is copied if some of them are missing.
+     */
+    @Transactional
+    public long validateAndStore(RepositoryPath repositoryPath,
+                                 Path stagedFile,
+                                 Map<String, byte[]> digests,
+                                 Map<String, String> expectedChecksums)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        performRepositoryAcceptanceValidation(repositoryPath);
+        return doStore(repositoryPath, os -> os.transferFrom(stagedFile, digests), expectedChecksums, null);
+    }
+
+    /**
+     * Checks whether the artifact would be accepted by {@link #validateAndStore(RepositoryPath, InputStream)}, so that
+     * an upload can be rejected before its content is transferred.
+     */
+    public void validate(RepositoryPath repositoryPath)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        performRepositoryAcceptanceValidation(repositoryPath);
     }
 
     @Transactional
@@ -96,11 +158,41 @@ public class ArtifactManagementService
                       InputStream is)
         throws IOException
     {
-        return doStore(repositoryPath, is);
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os), Collections.emptyMap(), null);
+    }
+
+    /**
+     * Stores the artifact only if its digests match the given checksums, which are keyed by the digest algorithm.
+     * Otherwise the file is quarantined and an {@link ArtifactChecksumMismatchException} is thrown.
+     */
+    @Transactional
+    public long store(RepositoryPath repositoryPath,
+                      InputStream is,
+                      Map<String, String> expectedChecksums)
+        throws IOException
+    {
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os), expectedChecksums, null);
+    }
+
+    /**
+     * Same as {@link #store(RepositoryPath, InputStream, Map)}, but the given checksums may be stale, like cached
+     * ones: on a mismatch the digest is verified against the current checksums instead, and the file is only
+     * quarantined if it doesn't match them either.
+     */
+    @Transactional
+    public long store(RepositoryPath repositoryPath,
+                      InputStream is,
+                      Map<String, String> cachedChecksums,
+                      ChecksumSource currentChecksums)
+        throws IOException
+    {
+        return doStore(repositoryPath, os -> IOUtils.copy(is, os), cachedChecksums, currentChecksums);
     }
 
     private long doStore(RepositoryPath repositoryPath,
-                         InputStream is)
+                         ContentTransfer transfer,
+                         Map<String, String> expectedChecksums,
+                         ChecksumSource currentChecksums)
             throws IOException
     {
         long result;
@@ -111,33 +203,50 @@ public class ArtifactManagementService
             updatedArtifactFile = RepositoryFiles.isArtifact(repositoryPath);
         }
         
-        try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
-        {
-            result = writeArtifact(repositoryPath, is, aos);
-            logger.debug(String.format("Stored [%s] bytes for [%s].", result, repositoryPath));
-            aos.flush();
-        }
-        catch (IOException e)
-        {
-           throw e; 
-        }
-        catch (Exception e)
+        try
         {
-            throw new ArtifactStorageException(e);
-        }
+            Map<String, String> digestMap;
+            try (final RepositoryOutputStream aos = artifactResolutionService.getOutputStream(repositoryPath))
+            {
+                result = writeArtifact(repositoryPath, transfer, aos, expectedChecksums, currentChecksums);
+                logger.debug(String.format("Stored [%s] bytes for [%s].", result, repositoryPath));
+                aos.flush();
 
-        if (updatedArtifactFile)
-        {
-            artifactEventListenerRegistry.dispatchArtifactUpdatedEvent(repositoryPath);
-        }
-        else
-        {
-            artifactEventListenerRegistry.dispatchArtifactStoredEvent(repositoryPath);
-        }
+                digestMap = StreamUtils.findSource(LayoutOutputStream.class, aos).getDigestMap();
+            }
+            catch (IOException e)
+            {
+               throw e; 
+            }
+            catch (Exception e)
+            {
+                throw new ArtifactStorageException(e);
+            }
+
+            // The sidecars follow the artifact, so that they never describe content which wasn't committed.
+            if (Boolean.FALSE.equals(RepositoryFiles.isChecksum(repositoryPath)) && !digestMap.isEmpty())
+            {
+                writeChecksums(repositoryPath, digestMap);
+            }
+
+            if (updatedArtifactFile)
+            {
+                artifactEventListenerRegistry.dispatchArtifactUpdatedEvent(repositoryPath);
+            }
+            else
+            {
+                artifactEventListenerRegistry.dispatchArtifactStoredEvent(repositoryPath);
+            }
 
-        if (RepositoryFiles.isMetadata(repositoryPath))
+            if (RepositoryFiles.isMetadata(repositoryPath))
+            {
+                artifactEventListenerRegistry.dispatchArtifactMetadataStoredEvent(repositoryPath);
+            }
+        }
+        finally
         {
-            artifactEventListenerRegistry.dispatchArtifactMetadataStoredEvent(repositoryPath);
+            // Whatever the outcome, the usage recorded when the upload started is no longer needed.
+            repositoryUsageService.release(repositoryPath);
         }
 
         
@@ -145,8 +254,10 @@ public class ArtifactManagementService
     }
 
     private long writeArtifact(RepositoryPath repositoryPath,
-                               InputStream is,
-                               OutputStream os)
+                               ContentTransfer transfer,
+                               RepositoryOutputStream os,
+                               Map<String, String> expectedChecksums,
+                               ChecksumSource currentChecksums)
             throws IOException
     {
         LayoutOutputStream aos = StreamUtils.findSource(LayoutOutputStream.class, os);
@@ -166,16 +277,20 @@ public class ArtifactManagementService
             artifactEventListenerRegistry.dispatchArtifactUploadingEvent(repositoryPath);
         }
         
-        long totalAmountOfBytes = IOUtils.copy(is, os);
+        long totalAmountOfBytes = transfer.transferTo(os);
 
         URI repositoryPathId = repositoryPath.toUri();
         Map<String, String> digestMap = aos.getDigestMap();
-        if (Boolean.FALSE.equals(checksumAttribute) && !digestMap.isEmpty())
-        {
-            // Store artifact digests in cache if we have them.
-            addChecksumsToCacheManager(digestMap, repositoryPathId);
 
-            writeChecksums(repositoryPath, digestMap);
+        // Verified before the file is committed, so a corrupted download never replaces a good one.
+        verifyChecksums(repositoryPathId, os, digestMap, expectedChecksums, currentChecksums);
+
+        // Only the deployments are followed by their checksums; the digests of the proxied downloads, and of the
+        // layouts which don't upload checksums, would never be claimed.
+        if (Boolean.FALSE.equals(checksumAttribute) && !digestMap.isEmpty() && repository.isHostedRepository() &&
+            repositoryPath.getFileSystem().isChecksumUploaded())
+        {
+            addChecksumsToCacheManager(digestMap, repositoryPath);
         }
 
         if (Boolean.TRUE.equals(checksumAttribute))
@@ -191,24 +306,97 @@ public class ArtifactManagementService
         return totalAmountOfBytes;
     }
 
+    private void verifyChecksums(URI artifactUri,
+                                 OutputStream os,
+                                 Map<String, String> digestMap,
+                                 Map<String, String> expectedChecksums,
+                                 ChecksumSource currentChecksums)
+        throws IOException
+    {
+        ArtifactChecksumMismatchException mismatch = findMismatch(artifactUri, digestMap, expectedChecksums);
+        if (mismatch != null && currentChecksums != null)
+        {
+            logger.info(String.format("%s Verifying against the current checksums.", mismatch.getMessage()));
+
+            mismatch = findMismatch(artifactUri, digestMap, currentChecksums.get());
+        }
+
+        if (mismatch == null)
+        {
+            return;
+        }
+
+        TempOutputStream tos = StreamUtils.findSource(TempOutputStream.class, os);
+        if (tos != null)
+        {
+            tos.quarantine();
+        }
+
+        throw mismatch;
+    }
+
+    private static ArtifactChecksumMismatchException findMismatch(URI artifactUri,
+                                                                  Map<String, String> digestMap,
+                                                                  Map<String, String> expectedChecksums)
+    {
+        for (Map.Entry<String, String> expected : expectedChecksums.entrySet())
+        {
+            String actualChecksum = digestMap.get(expected.getKey());
+            if (actualChecksum == null || Arrays.equals(decodeChecksum(actualChecksum),
+                                                        decodeChecksum(expected.getValue())))
+            {
+                continue;
+            }
+
+            return new ArtifactChecksumMismatchException(artifactUri,
+                                                         expected.getKey(),
+                                                         expected.getValue(),
+                                                         actualChecksum);
+        }
+
+        return null;
+    }
+
+    /**
+     * The layouts stringify the digests either as hex or as Base64, so the checksums are compared as bytes.
+     */
+    private static byte[] decodeChecksum(String checksum)
+    {
+        String value = checksum.trim();
+        try
+        {
+            if (value.length() % 2 == 0 && value.matches("[0-9a-fA-F]+"))
+            {
+                return Hex.decodeHex(value.toCharArray());
+            }
+
+            return Base64.getDecoder().decode(value);
+        }
+        catch (DecoderException | IllegalArgumentException e)
+        {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Writes all the checksums of the artifact in one step, rather than one file after another.
+     */
     private void writeChecksums(RepositoryPath repositoryPath,
                                 Map<String, String> digestMap)
     {
         LayoutFileSystemProvider provider = (LayoutFileSystemProvider) repositoryPath.getFileSystem().provider();
 
-        digestMap.entrySet()
-                 .stream()
-                 .forEach(entry -> {
-                     final RepositoryPath checksumPath = provider.getChecksumPath(repositoryPath, entry.getKey());
-                     try
-                     {
-                         Files.write(checksumPath, entry.getValue().getBytes(StandardCharsets.UTF_8));
-                     }
-                     catch (IOException ex)
-                     {
-                         logger.error(ex.getMessage(), ex);
-                     }
-                 });
+        Map<RepositoryPath, byte[]> checksums = new LinkedHashMap<>();
+        digestMap.forEach((algorithm, checksum) -> checksums.put(provider.getChecksumPath(repositoryPath, algorithm),
+                                                                 checksum.getBytes(StandardCharsets.UTF_8)));
+        try
+        {
+            provider.writeAll(checksums);
+        }
+        catch (IOException ex)
+        {
+            logger.error(String.format("Failed to write the checksums of [%s].", repositoryPath), ex);
+        }
     }
 
     private void validateUploadedChecksumAgainstCache(byte[] checksum,
@@ -220,8 +408,21 @@ public class ArtifactManagementService
         String artifactBasePath = artifactPath.substring(0, artifactPath.lastIndexOf('.'));
         String checksumExtension = artifactPath.substring(artifactPath.lastIndexOf('.') + 1, artifactPath.length());
 
-        if (!matchesChecksum(checksum, artifactBasePath, checksumExtension))
+        if (checksumCacheManager.getArtifactChecksum(artifactBasePath) == null)
+        {
+            logger.debug(String.format("No cached checksums to validate [%s] against.", artifactPath));
+
+            return;
+        }
+
+        if (matchesChecksum(checksum, artifactBasePath, checksumExtension))
+        {
+            StrongboxMetrics.increment(StrongboxMetrics.CHECKSUM_CACHE, Tags.of("result", "claimed"));
+        }
+        else
         {
+            StrongboxMetrics.increment(StrongboxMetrics.CHECKSUM_CACHE, Tags.of("result", "mismatched"));
+
             logger.error(String.format("The checksum for %s [%s] is invalid!",
                                        artifactPath,
                                        new String(checksum, StandardCharsets.UTF_8)));
@@ -266,11 +467,11 @@ public class ArtifactManagementService
     }
 
     private void addChecksumsToCacheManager(Map<String, String> digestMap,
-                                            URI artifactPath)
+                                            RepositoryPath artifactPath)
     {
         digestMap.entrySet()
                  .stream()
-                 .forEach(e -> checksumCacheManager.addArtifactChecksum(artifactPath.toString(), e.getKey(), e.getValue()));
+                 .forEach(e -> checksumCacheManager.addArtifactChecksum(artifactPath, e.getKey(), e.getValue()));
     }
 
     private boolean performRepositoryAcceptanceValidation(RepositoryPath path)
@@ -281,6 +482,7 @@ public class ArtifactManagementService
         Repository repository = path.getFileSystem().getRepository();
 
         artifactOperationsValidator.validate(path);
+        repositoryUsageService.checkQuota(path);
 
         if (!RepositoryFiles.isArtifact(path))
         {
@@ -366,4 +568,29 @@ public class ArtifactManagementService
         }
     }
 
+    @FunctionalInterface
+    /**
+     * Provides the checksums, keyed by the digest algorithm, to verify against, usually fetched from a remote
+     * repository.
+     */
+    @FunctionalInterface
+    public interface ChecksumSource
+    {
+
+        Map<String, String> get()
+            throws IOException;
+
+    }
+
+    private interface ContentTransfer
+    {
+
+        /**
+         * @return the number of bytes written
+         */
+        long transferTo(RepositoryOutputStream os)
+            throws IOException;
+
+    }
+
 }
@@ -0,0 +1,37 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+
+/**
+ * Moves the artifacts which are rarely read to the secondary volume, and back.
+ *
+ * @see org.carlspring.strongbox.storage.tiering.ColdStore
+ */
+public interface ArtifactTieringService
+{
+
+    /**
+     * Offloads the artifacts of a hosted repository which were last used more than the given number of days ago,
+     * then deletes the offloaded content of the files which were purged from the repository meanwhile.
+     *
+     * @param maxDownloadCount only the artifacts downloaded at most this many times are offloaded, {@code null} for
+     *                         any number of times
+     * @return the number of the offloaded artifacts
+     */
+    long offload(String storageId,
+                 String repositoryId,
+                 int lastAccessedTimeInDays,
+                 Integer maxDownloadCount)
+            throws IOException;
+
+    /**
+     * Moves an offloaded artifact back into its repository.
+     *
+     * @return {@code true} if the artifact was offloaded
+     */
+    boolean promote(RepositoryPath repositoryPath)
+            throws IOException;
+
+}
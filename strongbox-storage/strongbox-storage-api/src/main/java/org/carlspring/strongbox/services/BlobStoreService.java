@@ -0,0 +1,30 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.storage.blob.BlobStoreReport;
+
+import java.io.IOException;
+
+/**
+ * Maintenance operations of the storage blob stores.
+ *
+ * @see org.carlspring.strongbox.storage.blob.BlobStore
+ */
+public interface BlobStoreService
+{
+
+    /**
+     * Moves the content of the existing repository files into the blob store of the repository storage.
+     *
+     * @return the number of files which are blob references now
+     */
+    long deduplicate(String storageId,
+                     String repositoryId)
+            throws IOException;
+
+    BlobStoreReport collectGarbage(String storageId)
+            throws IOException;
+
+    BlobStoreReport getReport(String storageId)
+            throws IOException;
+
+}
@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.services;
 
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerationReport;
+
 import java.io.IOException;
 
 /**
@@ -8,18 +10,42 @@ import java.io.IOException;
 public interface ChecksumService
 {
 
+    /**
+     * Regenerate checksum for artifact using artifactPath (string), without repairing the mismatching checksums.
+     *
+     * @param storageId         String
+     * @param repositoryId      String
+     * @param basePath      String
+     * @param forceRegeneration boolean
+     * @return the report of the regeneration, including the existing checksums which didn't match
+     */
+    default ChecksumRegenerationReport regenerateChecksum(String storageId,
+                                                          String repositoryId,
+                                                          String basePath,
+                                                          boolean forceRegeneration)
+            throws IOException
+    {
+        return regenerateChecksum(storageId, repositoryId, basePath, forceRegeneration, false);
+    }
+
     /**
      * Regenerate checksum for artifact using artifactPath (string)
+     * <p>
+     * An existing checksum which doesn't match is only reported and left as it is, unless
+     * {@code repairMismatches} is set.
      *
      * @param storageId         String
      * @param repositoryId      String
      * @param basePath      String
      * @param forceRegeneration boolean
+     * @param repairMismatches  true - to also re-write the existing checksums which didn't match
+     * @return the report of the regeneration, including the existing checksums which didn't match
      */
-    void regenerateChecksum(String storageId,
-                            String repositoryId,
-                            String basePath,
-                            boolean forceRegeneration)
+    ChecksumRegenerationReport regenerateChecksum(String storageId,
+                                                  String repositoryId,
+                                                  String basePath,
+                                                  boolean forceRegeneration,
+                                                  boolean repairMismatches)
             throws IOException;
 
 }
@@ -2,10 +2,12 @@ package org.carlspring.strongbox.services;
 
 import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.TrashPurgeReport;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategyException;
 import org.carlspring.strongbox.storage.Storage;
 
 import java.io.IOException;
+import java.time.Duration;
 
 /**
  * @author mtodorov
@@ -27,6 +29,21 @@ public interface RepositoryManagementService
     void deleteTrash()
             throws IOException;
 
+    /**
+     * Purges the files which have been in the trash of the repository for longer than the retention period.
+     */
+    TrashPurgeReport purgeTrash(String storageId,
+                                String repositoryId,
+                                Duration retention)
+            throws IOException;
+
+    /**
+     * Purges the files which have been in the trash of the repositories allowing deletion for longer than the
+     * retention period.
+     */
+    TrashPurgeReport purgeTrash(Duration retention)
+            throws IOException;
+
     void undelete(RepositoryPath repositoryPath)
             throws IOException;
 
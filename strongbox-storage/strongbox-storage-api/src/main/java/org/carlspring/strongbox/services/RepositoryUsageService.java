@@ -0,0 +1,45 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
+import org.carlspring.strongbox.storage.quota.RepositoryUsage;
+
+import java.io.IOException;
+
+/**
+ * Keeps count of the size and the number of the files of each repository, for the repository quotas
+ * ({@code repositoryMaxSize} and {@code repositoryMaxFiles}).
+ * <p>
+ * The quotas cap the deployments to the hosted repositories, and can't be set on the other ones. The usage of a
+ * proxy repository is reported, but its cache is capped by the {@code cacheQuota} of its remote repository instead.
+ */
+public interface RepositoryUsageService
+{
+
+    /**
+     * @return the usage of the repository, which is counted first if it wasn't yet
+     */
+    RepositoryUsage getUsage(String storageId,
+                             String repositoryId)
+            throws IOException;
+
+    /**
+     * Counts the files of the repository again.
+     */
+    RepositoryUsage reconcile(String storageId,
+                              String repositoryId)
+            throws IOException;
+
+    /**
+     * @throws RepositoryQuotaExceededException if the repository is hosted, and has no room for the file
+     */
+    void checkQuota(RepositoryPath repositoryPath)
+            throws IOException;
+
+    /**
+     * Forgets what was recorded of the path when it started to be stored or deleted, once that's over, whether it
+     * succeeded or not.
+     */
+    void release(RepositoryPath repositoryPath);
+
+}
@@ -116,27 +116,45 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
         if (!searchCriteria.isEmpty())
         {
-            StringBuilder criteriaQueryClasuse = new StringBuilder();
-            sb.append(" WHERE ");
+            List<String> criteriaQueryClauses = new ArrayList<>();
             parameterMap = new HashMap<>();
 
             if (searchCriteria.getMinSizeInBytes() != null && searchCriteria.getMinSizeInBytes() > 0)
             {
-                criteriaQueryClasuse.append(" sizeInBytes >= :minSizeInBytes ");
+                criteriaQueryClauses.add(" sizeInBytes >= :minSizeInBytes ");
                 parameterMap.put("minSizeInBytes", searchCriteria.getMinSizeInBytes());
             }
             if (searchCriteria.getLastAccessedTimeInDays() != null && searchCriteria.getLastAccessedTimeInDays() > 0)
             {
-                if (criteriaQueryClasuse.length() > 0)
-                {
-                    criteriaQueryClasuse.append(" AND ");
-                }
                 Date lastUsed = DateUtils.addDays(new Date(), -searchCriteria.getLastAccessedTimeInDays());
-                criteriaQueryClasuse.append(" lastUsed < :lastUsed ");
+                criteriaQueryClauses.add(" lastUsed < :lastUsed ");
                 parameterMap.put("lastUsed", lastUsed);
             }
+            if (searchCriteria.getMaxDownloadCount() != null && searchCriteria.getMaxDownloadCount() >= 0)
+            {
+                criteriaQueryClauses.add(" downloadCount <= :maxDownloadCount ");
+                parameterMap.put("maxDownloadCount", searchCriteria.getMaxDownloadCount());
+            }
+            if (searchCriteria.getStorageId() != null)
+            {
+                criteriaQueryClauses.add(" storageId = :storageId ");
+                parameterMap.put("storageId", searchCriteria.getStorageId());
+            }
+            if (searchCriteria.getRepositoryId() != null)
+            {
+                criteriaQueryClauses.add(" repositoryId = :repositoryId ");
+                parameterMap.put("repositoryId", searchCriteria.getRepositoryId());
+            }
+            if (searchCriteria.getUuidGreaterThan() != null)
+            {
+                criteriaQueryClauses.add(" uuid > :uuidGreaterThan ");
+                parameterMap.put("uuidGreaterThan", searchCriteria.getUuidGreaterThan());
+            }
 
-            sb.append(criteriaQueryClasuse);
+            if (!criteriaQueryClauses.isEmpty())
+            {
+                sb.append(" WHERE ").append(String.join(" AND ", criteriaQueryClauses));
+            }
         }
 
         appendPagingCriteria(sb, pagingCriteria);
@@ -234,6 +252,32 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                               strict);
     }
 
+    @Override
+    public Pair<Long, Long> countArtifactsAndSize(String storageId,
+                                                  String repositoryId)
+    {
+        String sQuery = String.format("SELECT count(*) AS count, sum(sizeInBytes) AS size FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId",
+                                      getEntityClass().getSimpleName());
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put("storageId", storageId);
+        parameterMap.put("repositoryId", repositoryId);
+
+        List<ODocument> result = getDelegate().command(oQuery).execute(parameterMap);
+        if (result.isEmpty())
+        {
+            return Pair.with(0L, 0L);
+        }
+
+        ODocument document = result.iterator().next();
+        Number count = document.field("count");
+        Number size = document.field("size");
+
+        return Pair.with(count == null ? 0L : count.longValue(), size == null ? 0L : size.longValue());
+    }
+
     public List<Pair<String, String>> toList(String storageId,
                                              String repositoryId)
     {
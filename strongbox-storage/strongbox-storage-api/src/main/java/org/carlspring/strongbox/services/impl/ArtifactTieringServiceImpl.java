@@ -0,0 +1,229 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactTieringService;
+import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.tiering.ColdStore;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import static org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria.Builder.anArtifactEntrySearchCriteria;
+
+/**
+ * The cold artifacts are picked from the {@link ArtifactEntry}s by {@code lastUsed} and {@code downloadCount}, in
+ * pages ordered by {@code uuid}. With {@code strongbox.storage.tiering.promote-on-read}, a download of an offloaded
+ * artifact moves it back in the background, once the download is over.
+ */
+@Component("artifactTieringService")
+public class ArtifactTieringServiceImpl
+        implements ArtifactTieringService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactTieringServiceImpl.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private ColdStore coldStore;
+
+    @Value("${strongbox.storage.tiering.page-size:100}")
+    private int pageSize;
+
+    private final Set<RepositoryPath> pendingPromotions = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "artifact-promotion");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized long offload(String storageId,
+                                     String repositoryId,
+                                     int lastAccessedTimeInDays,
+                                     Integer maxDownloadCount)
+            throws IOException
+    {
+        if (!coldStore.isEnabled())
+        {
+            logger.warn("No strongbox.storage.tiering.directory is set, artifacts won't be offloaded.");
+
+            return 0;
+        }
+
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        Objects.requireNonNull(storage, String.format("Storage [%s] not found", storageId));
+        Repository repository = storage.getRepository(repositoryId);
+        Objects.requireNonNull(repository, String.format("Repository [%s] not found", repositoryId));
+
+        if (!repository.isHostedRepository())
+        {
+            return 0;
+        }
+
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        long offloaded = 0;
+        String cursor = null;
+        while (true)
+        {
+            ArtifactEntrySearchCriteria searchCriteria = anArtifactEntrySearchCriteria()
+                                                                 .withLastAccessedTimeInDays(lastAccessedTimeInDays)
+                                                                 .withMaxDownloadCount(maxDownloadCount)
+                                                                 .withStorageId(storageId)
+                                                                 .withRepositoryId(repositoryId)
+                                                                 .withUuidGreaterThan(cursor)
+                                                                 .build();
+
+            List<ArtifactEntry> artifactEntries = artifactEntryService.findMatching(searchCriteria,
+                                                                                    new PagingCriteria(0, pageSize));
+            if (artifactEntries.isEmpty())
+            {
+                break;
+            }
+
+            for (ArtifactEntry artifactEntry : artifactEntries)
+            {
+                if (offload(root.resolve(artifactEntry)))
+                {
+                    offloaded++;
+                }
+            }
+
+            cursor = artifactEntries.get(artifactEntries.size() - 1).getUuid();
+            if (artifactEntries.size() < pageSize)
+            {
+                break;
+            }
+        }
+
+        long collected = root.getFileSystem().provider().collectOffloadedGarbage(root);
+
+        logger.info(String.format("Offloaded [%s] artifacts of [%s:%s], deleted [%s] purged ones.",
+                                  offloaded, storageId, repositoryId, collected));
+
+        return offloaded;
+    }
+
+    private boolean offload(RepositoryPath path)
+        throws IOException
+    {
+        // The lock keeps the file from being replaced between the copy and the link.
+        Lock lock = repositoryPathLock.lock(path).writeLock();
+        lock.lock();
+        try
+        {
+            return Files.exists(path) && path.getFileSystem().provider().offload(path);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to offload [%s].", path), e);
+
+            return false;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean promote(RepositoryPath path)
+            throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(path).writeLock();
+        lock.lock();
+        try
+        {
+            return path.getFileSystem().provider().promote(path);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED.getType() ||
+            !coldStore.isPromoteOnRead())
+        {
+            return;
+        }
+
+        final RepositoryPath path = event.getPath();
+        try
+        {
+            if (!path.getFileSystem().provider().isOffloaded(path) || !pendingPromotions.add(path))
+            {
+                return;
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to check whether [%s] is offloaded.", path), e);
+
+            return;
+        }
+
+        // The promotion waits for the lock, which the download may still hold.
+        executor.execute(() -> {
+            try
+            {
+                promote(path);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to promote [%s].", path), e);
+            }
+            finally
+            {
+                pendingPromotions.remove(path);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.BlobStoreService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.blob.BlobStore;
+import org.carlspring.strongbox.storage.blob.BlobStoreReport;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+@Component("blobStoreService")
+public class BlobStoreServiceImpl
+        implements BlobStoreService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStoreServiceImpl.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private BlobStore blobStore;
+
+
+    @Override
+    public long deduplicate(String storageId,
+                            String repositoryId)
+            throws IOException
+    {
+        Repository repository = getStorage(storageId).getRepository(repositoryId);
+        Objects.requireNonNull(repository, String.format("Repository [%s] not found", repositoryId));
+
+        if (repository.isGroupRepository())
+        {
+            return 0;
+        }
+
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        if (!Files.exists(root))
+        {
+            return 0;
+        }
+
+        Path blobStorePath = root.getFileSystem().getBlobStorePath();
+        AtomicLong linked = new AtomicLong();
+
+        logger.info(String.format("Moving [%s] into blob store [%s]...", root, blobStorePath));
+
+        // The walk goes through the repository file system, so trash and temporary files are skipped.
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+                throws IOException
+            {
+                if (attrs.size() >= blobStore.getMinSize() && link((RepositoryPath) file, blobStorePath))
+                {
+                    linked.incrementAndGet();
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        logger.info(String.format("[%s] files of [%s] are blob references.", linked.get(), root));
+
+        return linked.get();
+    }
+
+    private boolean link(RepositoryPath path,
+                         Path blobStorePath)
+        throws IOException
+    {
+        // The lock keeps the file from being replaced between the digest and the link.
+        Lock lock = repositoryPathLock.lock(path).writeLock();
+        lock.lock();
+        try
+        {
+            return path.getFileSystem().provider().linkBlob(path, blobStorePath);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public BlobStoreReport collectGarbage(String storageId)
+            throws IOException
+    {
+        BlobStoreReport report = new BlobStoreReport();
+        for (Path blobStorePath : getBlobStorePaths(storageId))
+        {
+            report.add(blobStore.collectGarbage(blobStorePath));
+        }
+
+        return report;
+    }
+
+    @Override
+    public BlobStoreReport getReport(String storageId)
+            throws IOException
+    {
+        BlobStoreReport report = new BlobStoreReport();
+        for (Path blobStorePath : getBlobStorePaths(storageId))
+        {
+            report.add(blobStore.report(blobStorePath));
+        }
+
+        return report;
+    }
+
+    /**
+     * All the repositories of a storage share the same blob store, unless the storage root is resolved
+     * differently for some of them.
+     */
+    private Set<Path> getBlobStorePaths(String storageId)
+    {
+        Set<Path> result = new LinkedHashSet<>();
+        for (Repository repository : getStorage(storageId).getRepositories().values())
+        {
+            result.add(repositoryPathResolver.resolve(repository).getFileSystem().getBlobStorePath());
+        }
+
+        return result;
+    }
+
+    private Storage getStorage(String storageId)
+    {
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        Objects.requireNonNull(storage, String.format("Storage [%s] not found", storageId));
+
+        return storage;
+    }
+
+}
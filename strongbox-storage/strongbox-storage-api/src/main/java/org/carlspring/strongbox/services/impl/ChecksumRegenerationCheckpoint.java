@@ -0,0 +1,148 @@
+package org.carlspring.strongbox.services.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persisted progress of a checksum regeneration run of a repository.
+ * <p>
+ * The files are regenerated in the order of a sorted depth first walk, and the checkpoint is the first file which
+ * may not be done yet, so all the files before it are done. The checkpoint is valid only for the same regeneration
+ * criteria, and it's deleted when the run is finished.
+ *
+ * @see ChecksumServiceImpl
+ */
+class ChecksumRegenerationCheckpoint
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ChecksumRegenerationCheckpoint.class);
+
+    private static final String PROPERTY_CRITERIA = "criteria";
+
+    private static final String PROPERTY_RESUME_FROM = "resume-from";
+
+    private final Path file;
+
+    private final Properties properties = new Properties();
+
+    private ChecksumRegenerationCheckpoint(Path file)
+    {
+        this.file = file;
+    }
+
+    static ChecksumRegenerationCheckpoint load(Path file,
+                                               String basePath,
+                                               boolean forceRegeneration,
+                                               boolean repairMismatches)
+    {
+        ChecksumRegenerationCheckpoint result = new ChecksumRegenerationCheckpoint(file);
+        String criteria = String.format("%s/%s/%s", basePath, forceRegeneration, repairMismatches);
+
+        if (Files.exists(file))
+        {
+            try (InputStream is = Files.newInputStream(file))
+            {
+                result.properties.load(is);
+            }
+            catch (IOException e)
+            {
+                logger.warn(String.format("Failed to read checksum regeneration checkpoint [%s], starting over.",
+                                          file),
+                            e);
+
+                result.properties.clear();
+            }
+        }
+
+        if (!Objects.equals(criteria, result.properties.getProperty(PROPERTY_CRITERIA)))
+        {
+            result.properties.clear();
+            result.properties.setProperty(PROPERTY_CRITERIA, criteria);
+        }
+        else if (result.getResumeFrom() != null)
+        {
+            logger.info(String.format("Resuming checksum regeneration from [%s].", result.getResumeFrom()));
+        }
+
+        return result;
+    }
+
+    synchronized String getResumeFrom()
+    {
+        return properties.getProperty(PROPERTY_RESUME_FROM);
+    }
+
+    /**
+     * @return {@code true} if the file at the given path was done by a previous run
+     */
+    boolean isFileDone(String path)
+    {
+        String resumeFrom = getResumeFrom();
+
+        return resumeFrom != null && compare(path, resumeFrom) < 0;
+    }
+
+    /**
+     * @return {@code true} if all the files in the directory at the given path were done by a previous run
+     */
+    boolean isDirectoryDone(String path)
+    {
+        String resumeFrom = getResumeFrom();
+
+        return resumeFrom != null && !resumeFrom.startsWith(path + "/") && compare(path, resumeFrom) < 0;
+    }
+
+    synchronized void save(String resumeFrom)
+        throws IOException
+    {
+        properties.setProperty(PROPERTY_RESUME_FROM, resumeFrom);
+
+        Files.createDirectories(file.getParent());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(temp))
+        {
+            properties.store(os, "Checksum regeneration checkpoint");
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    synchronized void complete()
+        throws IOException
+    {
+        properties.remove(PROPERTY_RESUME_FROM);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Compares the paths name by name, which is the order of the walk.
+     */
+    static int compare(String a,
+                       String b)
+    {
+        String[] aNames = a.split("/");
+        String[] bNames = b.split("/");
+
+        for (int i = 0; i < Math.min(aNames.length, bNames.length); i++)
+        {
+            int result = aNames[i].compareTo(bNames[i]);
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+
+        return Integer.compare(aNames.length, bNames.length);
+    }
+
+}
@@ -1,26 +1,68 @@
 package org.carlspring.strongbox.services.impl;
 
-import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
-import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
+import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.io.BandwidthThrottle;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.services.ChecksumService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerationReport;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * Regenerates the checksums of the files placed under a directory containing metadata (like the artifact
+ * directories).
+ * <p>
+ * The repository is walked in sorted order and the files are digested on a bounded worker pool, in one pass with
+ * all the digest algorithms of the repository. The reads can be throttled with
+ * {@code strongbox.checksum.regeneration.max-bytes-per-second}. The progress is checkpointed, so an interrupted run
+ * is resumed by the next run with the same arguments, and the existing checksums which differ from the regenerated
+ * ones are written to a mismatch report. A mismatching checksum file is kept as it is, so that it can be looked into,
+ * unless the run was asked to repair the mismatches.
+ *
  * @author Kate Novik.
  */
 @Component
@@ -29,49 +71,398 @@ public class ChecksumServiceImpl
 {
     private final Logger logger = LoggerFactory.getLogger(ChecksumServiceImpl.class);
 
+    /**
+     * The checkpoint is saved every this many files.
+     */
+    private static final int CHECKPOINT_INTERVAL = 1000;
+
     @Inject
     private ConfigurationManager configurationManager;
-    
+
     @Inject
     private LayoutProviderRegistry layoutProviderRegistry;
-    
+
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Value("${strongbox.checksum.regeneration.parallelism:4}")
+    private int parallelism;
+
+    @Value("${strongbox.checksum.regeneration.buffer-size:1048576}")
+    private int bufferSize;
+
+    @Value("${strongbox.checksum.regeneration.max-bytes-per-second:0}")
+    private long maxBytesPerSecond;
+
+    private ExecutorService executor;
+
+    private BandwidthThrottle throttle;
+
+    private final Map<String, Object> repositoryLocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(parallelism, 1), r -> {
+            Thread thread = new Thread(r, "checksum-regeneration-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        throttle = maxBytesPerSecond > 0 ? new BandwidthThrottle(maxBytesPerSecond) : null;
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
     @Override
-    public void regenerateChecksum(String storageId,
-                                   String repositoryId,
-                                   String basePath,
-                                   boolean forceRegeneration)
+    public ChecksumRegenerationReport regenerateChecksum(String storageId,
+                                                         String repositoryId,
+                                                         String basePath,
+                                                         boolean forceRegeneration,
+                                                         boolean repairMismatches)
         throws IOException
     {
         Storage storage = getConfiguration().getStorage(storageId);
         Repository repository = storage.getRepository(repositoryId);
 
+        ChecksumRegenerationReport report = new ChecksumRegenerationReport();
+
         LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
         if (layoutProvider == null)
         {
             logger.warn("Trying to regenerate checksum for repository {} but layoutProvider was not found in registry {} ",
                         repository.getId(), repository.getLayout());
-            return;
+            return report;
         }
-        
-        
+
+
         RepositoryPath repositoryBasePath = Optional.ofNullable(basePath)
                                                     .map(p -> repositoryPathResolver.resolve(repository, basePath))
                                                     .orElseGet(() -> repositoryPathResolver.resolve(repository));
-        
-        ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
-        operation.setBasePath(repositoryBasePath);
-        operation.setForceRegeneration(forceRegeneration);
-
-        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
-        locator.setOperation(operation);
-        locator.locateArtifactDirectories();
+        if (!Files.exists(repositoryBasePath))
+        {
+            return report;
+        }
+        if (!Files.isDirectory(repositoryBasePath))
+        {
+            repositoryBasePath = repositoryBasePath.getParent();
+        }
+
+        String key = String.format("%s-%s", storageId, repositoryId);
+        synchronized (repositoryLocks.computeIfAbsent(key, k -> new Object()))
+        {
+            ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.load(getChecksumsDirectory().resolve(key + ".checkpoint"),
+                                                                                            basePath,
+                                                                                            forceRegeneration,
+                                                                                            repairMismatches);
+
+            new Regeneration(checkpoint, forceRegeneration, repairMismatches, report).run(repositoryBasePath);
+
+            if (!report.getMismatches().isEmpty())
+            {
+                Path reportFile = getChecksumsDirectory().resolve(String.format("%s-mismatches-%s.txt",
+                                                                                key,
+                                                                                new SimpleDateFormat("yyyyMMddHHmmss").format(new Date())));
+                report.writeMismatches(reportFile);
+
+                logger.warn(String.format("Found [%s] checksum mismatches in [%s], see [%s].",
+                                          report.getMismatches().size(), repositoryBasePath, reportFile));
+            }
+
+            checkpoint.complete();
+        }
+
+        logger.info(String.format("Regenerated checksums of [%s]: %s", repositoryBasePath, report));
+
+        return report;
+    }
+
+    private void regenerateChecksum(RepositoryPath path,
+                                    boolean forceRegeneration,
+                                    boolean repairMismatches,
+                                    ChecksumRegenerationReport report)
+        throws IOException
+    {
+        LayoutFileSystemProvider provider = (LayoutFileSystemProvider) path.getFileSystem().provider();
+
+        Map<String, RepositoryPath> checksumPaths = new LinkedHashMap<>();
+        for (String algorithm : path.getFileSystem().getDigestAlgorithmSet())
+        {
+            RepositoryPath checksumPath = provider.getChecksumPath(path, algorithm);
+            if (forceRegeneration || !Files.exists(checksumPath))
+            {
+                checksumPaths.put(algorithm, checksumPath);
+            }
+        }
+
+        report.addFile();
+        if (checksumPaths.isEmpty())
+        {
+            report.addSkippedFile();
+
+            return;
+        }
+
+        Map<String, String> digests = digest(path, checksumPaths.keySet(), report);
+        for (Map.Entry<String, RepositoryPath> entry : checksumPaths.entrySet())
+        {
+            String checksum = digests.get(entry.getKey());
+            RepositoryPath checksumPath = entry.getValue();
+
+            if (Files.exists(checksumPath))
+            {
+                String previousChecksum = readChecksum(checksumPath);
+                if (checksum.equalsIgnoreCase(previousChecksum))
+                {
+                    continue;
+                }
+
+                // An empty checksum file is as good as a missing one.
+                if (StringUtils.isNotEmpty(previousChecksum))
+                {
+                    report.addMismatch(RepositoryFiles.relativizePath(path), entry.getKey(), previousChecksum, checksum);
+
+                    if (!repairMismatches)
+                    {
+                        continue;
+                    }
+                }
+            }
+
+            Files.write(checksumPath, checksum.getBytes(StandardCharsets.UTF_8));
+            report.addWrittenChecksum();
+        }
+    }
+
+    private Map<String, String> digest(Path file,
+                                       Set<String> algorithms,
+                                       ChecksumRegenerationReport report)
+        throws IOException
+    {
+        Map<String, MessageDigest> messageDigests = new LinkedHashMap<>();
+        for (String algorithm : algorithms)
+        {
+            try
+            {
+                messageDigests.put(algorithm, MessageDigest.getInstance(algorithm));
+            }
+            catch (NoSuchAlgorithmException e)
+            {
+                throw new IOException(e);
+            }
+        }
+
+        byte[] buffer = new byte[bufferSize];
+        // Read through the plain channel of the file, not the layout streams.
+        try (InputStream is = Channels.newInputStream(Files.newByteChannel(file)))
+        {
+            int length;
+            while ((length = is.read(buffer)) != -1)
+            {
+                if (throttle != null)
+                {
+                    throttle.acquire(length);
+                }
+
+                for (MessageDigest messageDigest : messageDigests.values())
+                {
+                    messageDigest.update(buffer, 0, length);
+                }
+
+                report.addBytesRead(length);
+            }
+        }
+
+        Map<String, String> result = new LinkedHashMap<>();
+        messageDigests.forEach((algorithm, messageDigest) -> result.put(algorithm,
+                                                                        MessageDigestUtils.convertToHexadecimalString(messageDigest)));
+
+        return result;
+    }
+
+    private String readChecksum(RepositoryPath checksumPath)
+        throws IOException
+    {
+        try (InputStream is = Files.newInputStream(checksumPath))
+        {
+            // The checksum may be followed by the file name.
+            return StringUtils.substringBefore(StringUtils.trimToEmpty(MessageDigestUtils.readChecksumFile(is)), " ");
+        }
+    }
+
+    private Path getChecksumsDirectory()
+    {
+        return Paths.get(propertiesBooter.getVaultDirectory(), "checksums");
     }
 
     public Configuration getConfiguration()
     {
         return configurationManager.getConfiguration();
     }
+
+    /**
+     * A single run: the walk submits the files to the worker pool, at most twice as many files as there are workers
+     * are in flight at once.
+     */
+    private class Regeneration
+    {
+
+        private final ChecksumRegenerationCheckpoint checkpoint;
+
+        private final boolean forceRegeneration;
+
+        private final boolean repairMismatches;
+
+        private final ChecksumRegenerationReport report;
+
+        private final int maxInFlight = Math.max(parallelism, 1) * 2;
+
+        private final Semaphore inFlightPermits = new Semaphore(maxInFlight);
+
+        private final ConcurrentSkipListMap<Long, String> inFlight = new ConcurrentSkipListMap<>();
+
+        private long sequence;
+
+        Regeneration(ChecksumRegenerationCheckpoint checkpoint,
+                     boolean forceRegeneration,
+                     boolean repairMismatches,
+                     ChecksumRegenerationReport report)
+        {
+            this.checkpoint = checkpoint;
+            this.forceRegeneration = forceRegeneration;
+            this.repairMismatches = repairMismatches;
+            this.report = report;
+        }
+
+        void run(RepositoryPath basePath)
+            throws IOException
+        {
+            try
+            {
+                walk(basePath, false);
+            }
+            finally
+            {
+                awaitInFlight();
+            }
+        }
+
+        private void walk(RepositoryPath directory,
+                          boolean containsMetadata)
+            throws IOException
+        {
+            List<RepositoryPath> children;
+            try (Stream<Path> pathStream = Files.list(directory))
+            {
+                children = pathStream.map(RepositoryPath.class::cast)
+                                     .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                                     .collect(Collectors.toList());
+            }
+
+            // Only the files under a directory which contains metadata are regenerated.
+            boolean regenerate = containsMetadata || children.stream().anyMatch(this::isMetadata);
+
+            for (RepositoryPath child : children)
+            {
+                if (Files.isDirectory(child))
+                {
+                    // Skip directories which start with a dot (like, for example: .index)
+                    if (!child.getFileName().toString().startsWith(".") &&
+                        !checkpoint.isDirectoryDone(RepositoryFiles.relativizePath(child)))
+                    {
+                        walk(child, regenerate);
+                    }
+                }
+                else if (regenerate &&
+                         !Boolean.TRUE.equals(RepositoryFiles.isChecksum(child)) &&
+                         !checkpoint.isFileDone(RepositoryFiles.relativizePath(child)))
+                {
+                    submit(child);
+                }
+            }
+        }
+
+        private boolean isMetadata(RepositoryPath path)
+        {
+            try
+            {
+                return Boolean.TRUE.equals(RepositoryFiles.isMetadata(path));
+            }
+            catch (IOException e)
+            {
+                logger.error(String.format("Failed to read attributes for [%s]", path), e);
+            }
+
+            return false;
+        }
+
+        private void submit(RepositoryPath path)
+            throws IOException
+        {
+            try
+            {
+                inFlightPermits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Checksum regeneration interrupted.");
+            }
+
+            long id = sequence++;
+            inFlight.put(id, RepositoryFiles.relativizePath(path));
+
+            if (id % CHECKPOINT_INTERVAL == 0)
+            {
+                // All the files before the oldest one in flight are done.
+                checkpoint.save(inFlight.firstEntry().getValue());
+            }
+
+            executor.execute(() -> {
+                try
+                {
+                    regenerateChecksum(path, forceRegeneration, repairMismatches, report);
+                }
+                catch (Exception e)
+                {
+                    report.addFailedFile();
+
+                    logger.error(String.format("Failed to write checksum for [%s]", path), e);
+                }
+                finally
+                {
+                    inFlight.remove(id);
+                    inFlightPermits.release();
+                }
+            });
+        }
+
+        private void awaitInFlight()
+            throws InterruptedIOException
+        {
+            try
+            {
+                inFlightPermits.acquire(maxInFlight);
+                inFlightPermits.release(maxInFlight);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Checksum regeneration interrupted.");
+            }
+        }
+
+    }
+
 }
@@ -19,8 +19,8 @@ import javax.inject.Inject;
 import java.io.IOException;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 
@@ -29,6 +29,8 @@ import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -41,7 +43,9 @@ public class ConfigurationManagementServiceImpl
         implements ConfigurationManagementService
 {
 
-    private final ReadWriteLock configurationLock = new ReentrantReadWriteLock();
+    private static final Logger logger = LoggerFactory.getLogger(ConfigurationManagementServiceImpl.class);
+
+    private final ReentrantReadWriteLock configurationLock = new ReentrantReadWriteLock();
 
     @Inject
     private ConfigurationFileManager configurationFileManager;
@@ -67,6 +71,22 @@ public class ConfigurationManagementServiceImpl
      */
     private MutableConfiguration configuration;
 
+    /**
+     * The immutable snapshot of the {@link #configuration}, published after each successful modification.
+     */
+    private final AtomicReference<Configuration> snapshot = new AtomicReference<>();
+
+    /**
+     * Protected by the write lock of the {@link #configurationLock}.
+     */
+    private long snapshotVersion;
+
+    /**
+     * Whether the current modification has written the configuration file already, protected by the write lock of
+     * the {@link #configurationLock}.
+     */
+    private boolean storedInModification;
+
     @PostConstruct
     public void init()
     {
@@ -106,20 +126,15 @@ public class ConfigurationManagementServiceImpl
         }
     }
 
+    /**
+     * Returns the current configuration snapshot, without locking and without copying.
+     * <p>
+     * A modification in progress isn't visible here until it has succeeded, not even to the modifying thread.
+     */
     @Override
     public Configuration getConfiguration()
     {
-        final Lock readLock = configurationLock.readLock();
-        readLock.lock();
-
-        try
-        {
-            return new Configuration(configuration);
-        }
-        finally
-        {
-            readLock.unlock();
-        }
+        return snapshot.get();
     }
 
     @Override
@@ -223,7 +238,8 @@ public class ConfigurationManagementServiceImpl
     {
         modifyInLock(configuration ->
                      {
-                         List<Repository> includedInGroupRepositories = getConfiguration().getGroupRepositoriesContaining(
+                         // Nested in another modification, the changes made so far aren't in the snapshot yet.
+                         List<Repository> includedInGroupRepositories = new Configuration(configuration).getGroupRepositoriesContaining(
                                  storageId, repositoryId);
 
                          if (!includedInGroupRepositories.isEmpty())
@@ -505,6 +521,29 @@ public class ConfigurationManagementServiceImpl
                      });
     }
 
+    @Override
+    public void setRepositoryQuota(final String storageId,
+                                   final String repositoryId,
+                                   final long maxSize,
+                                   final long maxFiles) throws IOException
+    {
+        modifyInLock(configuration ->
+                     {
+                         RepositoryDto repository = configuration.getStorage(storageId)
+                                                                 .getRepository(repositoryId);
+                         // The cache of a proxy repository is capped by the cacheQuota of its remote instead.
+                         if (!repository.isHostedRepository() && (maxSize > 0 || maxFiles > 0))
+                         {
+                             throw new IllegalArgumentException(
+                                     String.format("Repository [%s] is not hosted, its quota can't be set.",
+                                                   repository.getStorageIdAndRepositoryId()));
+                         }
+
+                         repository.setRepositoryMaxSize(maxSize);
+                         repository.setRepositoryMaxFiles(maxFiles);
+                     });
+    }
+
     @Override
     public void set(final MutableRemoteRepositoryRetryArtifactDownloadConfiguration remoteRepositoryRetryArtifactDownloadConfiguration) throws IOException
     {
@@ -603,19 +642,73 @@ public class ConfigurationManagementServiceImpl
         final Lock writeLock = configurationLock.writeLock();
         writeLock.lock();
 
+        // Nested modifications are applied to the same configuration, so they're published, or rolled back, once,
+        // by the outermost one.
+        final boolean outermost = configurationLock.getWriteHoldCount() == 1;
+        final MutableConfiguration previous = outermost ? SerializationUtils.clone(configuration) : null;
+        if (outermost)
+        {
+            storedInModification = false;
+        }
+
+        boolean succeeded = false;
         try
         {
             operation.accept(configuration);
 
             if (storeInFile)
             {
+                storedInModification = true;
                 configurationFileManager.store(configuration);
             }
+
+            succeeded = true;
         }
         finally
         {
-            writeLock.unlock();
+            try
+            {
+                if (outermost && succeeded)
+                {
+                    publishSnapshot();
+                }
+                else if (outermost)
+                {
+                    rollback(previous);
+                }
+            }
+            finally
+            {
+                writeLock.unlock();
+            }
         }
     }
 
+    /**
+     * Restores the configuration of the last published snapshot, after a failed modification.
+     */
+    private void rollback(final MutableConfiguration previous)
+    {
+        configuration = previous;
+
+        if (!storedInModification || previous == null)
+        {
+            return;
+        }
+
+        try
+        {
+            configurationFileManager.store(previous);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error("Failed to restore the configuration file after a failed modification.", e);
+        }
+    }
+
+    private void publishSnapshot()
+    {
+        snapshot.set(configuration != null ? new Configuration(configuration, ++snapshotVersion) : null);
+    }
+
 }
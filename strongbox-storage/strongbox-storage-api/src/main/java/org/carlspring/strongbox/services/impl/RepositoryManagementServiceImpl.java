@@ -2,6 +2,7 @@ package org.carlspring.strongbox.services.impl;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.Map;
 
 import javax.inject.Inject;
@@ -17,7 +18,9 @@ import org.carlspring.strongbox.providers.ProviderImplementationException;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryTrashPurger;
 import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.providers.io.TrashPurgeReport;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategyException;
@@ -59,6 +62,9 @@ public class RepositoryManagementServiceImpl
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private RepositoryTrashPurger repositoryTrashPurger;
+
 
     @Override
     public void createRepository(String storageId,
@@ -111,6 +117,22 @@ public class RepositoryManagementServiceImpl
     @Override
     public void deleteTrash(String storageId, String repositoryId)
             throws IOException
+    {
+        purgeTrash(storageId, repositoryId, Duration.ZERO);
+    }
+
+    @Override
+    public void deleteTrash()
+            throws IOException
+    {
+        purgeTrash(Duration.ZERO);
+    }
+
+    @Override
+    public TrashPurgeReport purgeTrash(String storageId,
+                                       String repositoryId,
+                                       Duration retention)
+            throws IOException
     {
         artifactOperationsValidator.checkStorageExists(storageId);
         artifactOperationsValidator.checkRepositoryExists(storageId, repositoryId);
@@ -122,15 +144,16 @@ public class RepositoryManagementServiceImpl
 
             artifactOperationsValidator.checkAllowsDeletion(repository);
 
-            
             RootRepositoryPath repositoryPath = repositoryPathResolver.resolve(repository);
-            RepositoryFiles.deleteTrash(repositoryPath);
+            TrashPurgeReport report = repositoryTrashPurger.purge(repositoryPath, retention);
 
             RepositoryEvent event = new RepositoryEvent(storageId,
                                                         repositoryId,
                                                         RepositoryEventTypeEnum.EVENT_REPOSITORY_EMTPY_TRASH.getType());
 
             repositoryEventListenerRegistry.dispatchEvent(event);
+
+            return report;
         }
         catch (IOException e)
         {
@@ -139,9 +162,10 @@ public class RepositoryManagementServiceImpl
     }
 
     @Override
-    public void deleteTrash()
+    public TrashPurgeReport purgeTrash(Duration retention)
             throws ArtifactStorageException
     {
+        TrashPurgeReport report = new TrashPurgeReport();
         try
         {
             for (Map.Entry<String, Storage> entry : getConfiguration().getStorages().entrySet())
@@ -155,7 +179,7 @@ public class RepositoryManagementServiceImpl
                     {
                         logger.debug("Emptying trash for repository " + repository.getId() + "...");
 
-                        deleteTrash(repository.getStorage().getId(), repository.getId());;
+                        report.add(purgeTrash(repository.getStorage().getId(), repository.getId(), retention));
                     }
                     else
                     {
@@ -173,6 +197,8 @@ public class RepositoryManagementServiceImpl
         {
             throw new ArtifactStorageException(e.getMessage(), e);
         }
+
+        return report;
     }
 
     @Override
@@ -0,0 +1,476 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.RepositoryUsageService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
+import org.carlspring.strongbox.storage.quota.RepositoryUsage;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * A repository is counted by walking it the first time its usage is needed, and then again every
+ * {@code strongbox.storage.quota.reconcile-interval-minutes}. In between, the counters of the hosted repositories
+ * follow the stored, updated and deleted paths, each taken along with its checksum files. The changes which happen
+ * during a walk are recorded and added to its result, so they're not lost, although a file changed before the walk
+ * reaches it is counted twice until the next reconciliation. The files which are written without an event (such as the
+ * generated metadata), and the files of the proxy and group repositories, are only counted by the reconciliation.
+ * <p>
+ * What a path takes before it's stored or deleted is kept until the store or the delete is over, when it's either
+ * claimed by the event which follows or {@link #release(RepositoryPath) released}.
+ * <p>
+ * The trash and the temporary files are not counted.
+ */
+@Component("repositoryUsageService")
+public class RepositoryUsageServiceImpl
+        implements RepositoryUsageService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryUsageServiceImpl.class);
+
+    @Inject
+    private ConfigurationManager configurationManager;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Value("${strongbox.storage.quota.reconcile-interval-minutes:360}")
+    private long reconcileIntervalMinutes;
+
+    /**
+     * Key:     storageId:repositoryId
+     */
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The files being uploaded, with what they took before.
+     */
+    private final Map<RepositoryPath, Counters> pendingUploads = new ConcurrentHashMap<>();
+
+    /**
+     * The paths being deleted, with what they take, which is uncounted once they're deleted.
+     */
+    private final Map<RepositoryPath, Counters> pendingDeletions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    public void startReconciler()
+    {
+        if (reconcileIntervalMinutes <= 0)
+        {
+            return;
+        }
+
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "repository-usage-reconciler");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileAll,
+                                          reconcileIntervalMinutes,
+                                          reconcileIntervalMinutes,
+                                          TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stopReconciler()
+    {
+        if (reconciler != null)
+        {
+            reconciler.shutdownNow();
+        }
+    }
+
+    @Override
+    public RepositoryUsage getUsage(String storageId,
+                                    String repositoryId)
+            throws IOException
+    {
+        return getUsage(getRepository(storageId, repositoryId));
+    }
+
+    @Override
+    public RepositoryUsage reconcile(String storageId,
+                                     String repositoryId)
+            throws IOException
+    {
+        return reconcile(getRepository(storageId, repositoryId));
+    }
+
+    @Override
+    public void checkQuota(RepositoryPath repositoryPath)
+            throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+        // The quotas can't be set on the proxy repositories, their caches are capped by the cacheQuota of the remote.
+        if (!repository.isHostedRepository() ||
+            repository.getRepositoryMaxSize() <= 0 && repository.getRepositoryMaxFiles() <= 0)
+        {
+            return;
+        }
+
+        RepositoryUsage usage = getUsage(repository);
+        if (usage.isSizeExceeded())
+        {
+            throw new RepositoryQuotaExceededException(String.format("Repository [%s] has reached its quota of [%s] bytes.",
+                                                                     repository.getStorageIdAndRepositoryId(),
+                                                                     usage.getMaxSize()),
+                                                       usage);
+        }
+
+        // A redeployment doesn't take another file.
+        if (usage.isFilesExceeded() && !Files.exists(repositoryPath))
+        {
+            throw new RepositoryQuotaExceededException(String.format("Repository [%s] has reached its quota of [%s] files.",
+                                                                     repository.getStorageIdAndRepositoryId(),
+                                                                     usage.getMaxFiles()),
+                                                       usage);
+        }
+    }
+
+    @Override
+    public void release(RepositoryPath repositoryPath)
+    {
+        pendingUploads.remove(repositoryPath);
+        pendingDeletions.remove(repositoryPath);
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        int type = event.getType();
+        boolean uploading = type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPLOADING.getType();
+        boolean stored = type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType() ||
+                         type == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType();
+        boolean deleting = type == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETING.getType();
+        boolean deleted = type == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() ||
+                          type == ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_DELETED.getType();
+        if (!uploading && !stored && !deleting && !deleted)
+        {
+            return;
+        }
+
+        RepositoryPath path = event.getPath();
+        Repository repository = path.getRepository();
+        if (!repository.isHostedRepository())
+        {
+            return;
+        }
+
+        // Neither counted nor being counted yet, the walk will find the file.
+        Counters repositoryCounters = counters.get(repository.getStorageIdAndRepositoryId());
+        if (repositoryCounters == null)
+        {
+            return;
+        }
+
+        try
+        {
+            if (uploading)
+            {
+                pendingUploads.put(path, count(path));
+            }
+            else if (stored)
+            {
+                Counters previous = Optional.ofNullable(pendingUploads.remove(path)).orElseGet(Counters::new);
+                Counters current = count(path);
+
+                repositoryCounters.add(current.getSize() - previous.getSize(),
+                                       current.getFiles() - previous.getFiles());
+            }
+            else if (deleting)
+            {
+                // The size can't be read after the fact, it's taken off once the delete succeeded.
+                pendingDeletions.put(path, count(path));
+            }
+            else
+            {
+                Counters previous = pendingDeletions.remove(path);
+                if (previous != null)
+                {
+                    repositoryCounters.add(-previous.getSize(), -previous.getFiles());
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to count [%s], the usage of [%s] is corrected by the next reconciliation.",
+                                      path, repository.getStorageIdAndRepositoryId()), e);
+        }
+    }
+
+    private RepositoryUsage getUsage(Repository repository)
+            throws IOException
+    {
+        Counters repositoryCounters = counters.computeIfAbsent(repository.getStorageIdAndRepositoryId(),
+                                                               key -> new Counters());
+        if (!repositoryCounters.isCounted())
+        {
+            synchronized (repositoryCounters.walkLock)
+            {
+                if (!repositoryCounters.isCounted())
+                {
+                    recount(repository, repositoryCounters);
+                }
+            }
+        }
+
+        return toUsage(repository, repositoryCounters);
+    }
+
+    private RepositoryUsage reconcile(Repository repository)
+            throws IOException
+    {
+        Counters repositoryCounters = counters.computeIfAbsent(repository.getStorageIdAndRepositoryId(),
+                                                               key -> new Counters());
+        synchronized (repositoryCounters.walkLock)
+        {
+            recount(repository, repositoryCounters);
+        }
+
+        return toUsage(repository, repositoryCounters);
+    }
+
+    /**
+     * Walks the repository, while the events record what changes meanwhile.
+     */
+    private void recount(Repository repository,
+                         Counters repositoryCounters)
+            throws IOException
+    {
+        repositoryCounters.startWalk();
+        try
+        {
+            repositoryCounters.finishWalk(walk(repository));
+        }
+        finally
+        {
+            repositoryCounters.stopWalk();
+        }
+    }
+
+    /**
+     * Recounts the repositories which were counted, and forgets the ones which were removed.
+     */
+    private void reconcileAll()
+    {
+        for (String key : counters.keySet())
+        {
+            String[] ids = key.split(":", 2);
+            Storage storage = configurationManager.getConfiguration().getStorage(ids[0]);
+            Repository repository = storage != null ? storage.getRepository(ids[1]) : null;
+            if (repository == null)
+            {
+                counters.remove(key);
+                continue;
+            }
+
+            try
+            {
+                RepositoryUsage usage = reconcile(repository);
+
+                logger.debug(String.format("Reconciled the usage of [%s].", usage));
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to reconcile the usage of [%s].", key), e);
+            }
+        }
+    }
+
+    private Repository getRepository(String storageId,
+                                     String repositoryId)
+    {
+        Storage storage = configurationManager.getConfiguration().getStorage(storageId);
+        Objects.requireNonNull(storage, String.format("Storage [%s] not found", storageId));
+        Repository repository = storage.getRepository(repositoryId);
+        Objects.requireNonNull(repository, String.format("Repository [%s] not found", repositoryId));
+
+        return repository;
+    }
+
+    private Counters walk(Repository repository)
+            throws IOException
+    {
+        RepositoryPath root = repositoryPathResolver.resolve(repository);
+        Counters result = new Counters();
+        if (Files.exists(root))
+        {
+            walk(root, result);
+        }
+
+        logger.debug(String.format("Counted [%s] bytes in [%s] files of [%s].",
+                                   result.getSize(), result.getFiles(), repository.getStorageIdAndRepositoryId()));
+
+        return result;
+    }
+
+    /**
+     * The walk goes through the repository file system, so trash and temporary files are skipped. The offloaded files
+     * are taken by the size of their content.
+     */
+    private void walk(RepositoryPath directory,
+                      Counters result)
+            throws IOException
+    {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+                throws IOException
+            {
+                result.add(attrs.isSymbolicLink() ? Files.size(file) : attrs.size(), 1);
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    /**
+     * Counts what a path takes: the whole directory, or the file along with its checksum files.
+     */
+    private Counters count(RepositoryPath path)
+            throws IOException
+    {
+        Counters result = new Counters();
+        if (!Files.exists(path))
+        {
+            return result;
+        }
+
+        if (Files.isDirectory(path))
+        {
+            walk(path, result);
+
+            return result;
+        }
+
+        result.add(Files.size(path), 1);
+        if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
+        {
+            return result;
+        }
+
+        for (RepositoryPath checksumPath : path.getFileSystem().provider().resolveChecksumPathMap(path).values())
+        {
+            if (Files.exists(checksumPath))
+            {
+                result.add(Files.size(checksumPath), 1);
+            }
+        }
+
+        return result;
+    }
+
+    private RepositoryUsage toUsage(Repository repository,
+                                    Counters repositoryCounters)
+    {
+        return new RepositoryUsage(repository.getStorage().getId(),
+                                   repository.getId(),
+                                   repositoryCounters.getSize(),
+                                   repositoryCounters.getFiles(),
+                                   repository.getRepositoryMaxSize(),
+                                   repository.getRepositoryMaxFiles());
+    }
+
+    /**
+     * The usage of a repository, or of some of its files.
+     */
+    private static class Counters
+    {
+
+        /**
+         * Held by the walks of the repository, one at a time.
+         */
+        private final Object walkLock = new Object();
+
+        private long size;
+
+        private long files;
+
+        private boolean counted;
+
+        /**
+         * What changed since the walk in progress started.
+         */
+        private Counters walkDeltas;
+
+        private synchronized void add(long size,
+                                      long files)
+        {
+            this.size += size;
+            this.files += files;
+
+            if (walkDeltas != null)
+            {
+                walkDeltas.add(size, files);
+            }
+        }
+
+        private synchronized void startWalk()
+        {
+            walkDeltas = new Counters();
+        }
+
+        private synchronized void finishWalk(Counters walked)
+        {
+            size = walked.size + walkDeltas.size;
+            files = walked.files + walkDeltas.files;
+            counted = true;
+        }
+
+        private synchronized void stopWalk()
+        {
+            walkDeltas = null;
+        }
+
+        private synchronized boolean isCounted()
+        {
+            return counted;
+        }
+
+        private synchronized long getSize()
+        {
+            return size;
+        }
+
+        private synchronized long getFiles()
+        {
+            return files;
+        }
+
+    }
+
+}
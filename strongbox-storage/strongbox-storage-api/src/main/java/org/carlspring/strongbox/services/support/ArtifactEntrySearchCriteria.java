@@ -10,9 +10,21 @@ public class ArtifactEntrySearchCriteria
 
     private Long minSizeInBytes;
 
+    private Integer maxDownloadCount;
+
+    private String storageId;
+
+    private String repositoryId;
+
+    /**
+     * Keyset pagination cursor: only the entries with greater {@code uuid} match.
+     */
+    private String uuidGreaterThan;
+
     public boolean isEmpty()
     {
-        return lastAccessedTimeInDays == null && minSizeInBytes == null;
+        return lastAccessedTimeInDays == null && minSizeInBytes == null && maxDownloadCount == null &&
+               storageId == null && repositoryId == null && uuidGreaterThan == null;
     }
 
     public Integer getLastAccessedTimeInDays()
@@ -25,11 +37,35 @@ public class ArtifactEntrySearchCriteria
         return minSizeInBytes;
     }
 
+    public Integer getMaxDownloadCount()
+    {
+        return maxDownloadCount;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public String getUuidGreaterThan()
+    {
+        return uuidGreaterThan;
+    }
+
     public static final class Builder
     {
 
         private Integer lastAccessedTimeInDays;
         private Long minSizeInBytes;
+        private Integer maxDownloadCount;
+        private String storageId;
+        private String repositoryId;
+        private String uuidGreaterThan;
 
         private Builder()
         {
@@ -52,11 +88,39 @@ public class ArtifactEntrySearchCriteria
             return this;
         }
 
+        public Builder withMaxDownloadCount(Integer maxDownloadCount)
+        {
+            this.maxDownloadCount = maxDownloadCount;
+            return this;
+        }
+
+        public Builder withStorageId(String storageId)
+        {
+            this.storageId = storageId;
+            return this;
+        }
+
+        public Builder withRepositoryId(String repositoryId)
+        {
+            this.repositoryId = repositoryId;
+            return this;
+        }
+
+        public Builder withUuidGreaterThan(String uuidGreaterThan)
+        {
+            this.uuidGreaterThan = uuidGreaterThan;
+            return this;
+        }
+
         public ArtifactEntrySearchCriteria build()
         {
             ArtifactEntrySearchCriteria artifactEntrySearchCriteria = new ArtifactEntrySearchCriteria();
             artifactEntrySearchCriteria.lastAccessedTimeInDays = this.lastAccessedTimeInDays;
             artifactEntrySearchCriteria.minSizeInBytes = this.minSizeInBytes;
+            artifactEntrySearchCriteria.maxDownloadCount = this.maxDownloadCount;
+            artifactEntrySearchCriteria.storageId = this.storageId;
+            artifactEntrySearchCriteria.repositoryId = this.repositoryId;
+            artifactEntrySearchCriteria.uuidGreaterThan = this.uuidGreaterThan;
             return artifactEntrySearchCriteria;
         }
     }
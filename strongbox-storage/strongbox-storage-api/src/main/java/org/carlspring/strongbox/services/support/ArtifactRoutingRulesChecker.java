@@ -1,21 +1,22 @@
 package org.carlspring.strongbox.services.support;
 
+import org.carlspring.strongbox.configuration.Configuration;
 import org.carlspring.strongbox.configuration.ConfigurationManager;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.repository.Repository;
-import org.carlspring.strongbox.storage.routing.RepositoryIdentifiable;
-import org.carlspring.strongbox.storage.routing.RoutingRule;
 import org.carlspring.strongbox.storage.routing.RoutingRules;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 /**
+ * The routing rules are compiled into a {@link RoutingRulesIndex}, keyed by the snapshot version of the
+ * configuration. The index is rebuilt only when a configuration change modifies the {@link RoutingRules}.
+ *
  * @author Przemyslaw Fusik
  * @see <a href="https://strongbox.github.io/user-guide/artifact-routing-rules.html">Artifact Routing Rules</a>
  */
@@ -26,85 +27,34 @@ public class ArtifactRoutingRulesChecker
     @Inject
     private ConfigurationManager configurationManager;
 
+    private final AtomicReference<RoutingRulesIndex> index = new AtomicReference<>();
+
     public boolean isDenied(Repository groupRepository,
                             RepositoryPath repositoryPath)
             throws IOException
     {
-        final RoutingRules routingRules = configurationManager.getConfiguration().getRoutingRules();
-        final boolean hasDenyRules = hasCandidates(groupRepository, repositoryPath, routingRules.getDenied());
-        final boolean hasAcceptRules = hasCandidates(groupRepository, repositoryPath, routingRules.getAccepted());
-
-        return hasDenyRules && !hasAcceptRules;
-    }
-
-    private boolean hasCandidates(Repository groupRepository,
-                                  RepositoryPath repositoryPath,
-                                  List<RoutingRule> routingRules)
-            throws IOException
-    {
-
         String artifactPath = RepositoryFiles.relativizePath(repositoryPath);
-        Repository subRepository = repositoryPath.getRepository();
-
-        return routingRules.stream()
-                           .anyMatch(rule -> {
-                               boolean result = false;
-
-                               if ((isMatch(rule, groupRepository))
-                                   && rule.getRegex().matcher(artifactPath).matches())
-                               {
-                                   // an empty collection means the rule is applied to **all** repositories in the group.
-                                   if (rule.getRepositories().size() == 0)
-                                   {
-                                       result = true;
-                                   }
-                                   else
-                                   {
-                                       result = rule.getRepositories()
-                                                    .stream()
-                                                    .anyMatch(r -> isMatch(r, subRepository));
-                                   }
-                               }
-
-                               return result;
-                           });
 
+        return getIndex().isDenied(groupRepository, repositoryPath.getRepository(), artifactPath);
     }
 
-    private boolean isMatch(RepositoryIdentifiable rule,
-                            Repository repository)
+    private RoutingRulesIndex getIndex()
     {
-        boolean result = false;
+        final Configuration configuration = configurationManager.getConfiguration();
 
-        // exact match == storageId:repositoryId
-        if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), repository.getStorageIdAndRepositoryId()))
+        RoutingRulesIndex current = index.get();
+        if (current != null && current.getSnapshotVersion() == configuration.getSnapshotVersion())
         {
-            result = true;
-        }
-        // wildcard == *:*
-        else if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), StringUtils.EMPTY))
-        {
-            result = true;
-        }
-        // wildcard == storageId:*
-        else if (equalsIgnoreCase(rule.getRepositoryId(), StringUtils.EMPTY) &&
-                 equalsIgnoreCase(rule.getStorageId(), repository.getStorage().getId()))
-        {
-            result = true;
-        }
-        // wildcard == *:repositoryId
-        else if (equalsIgnoreCase(rule.getStorageId(), StringUtils.EMPTY) &&
-                 equalsIgnoreCase(rule.getRepositoryId(), repository.getId()))
-        {
-            result = true;
+            return current;
         }
 
+        RoutingRulesIndex result = current == null ?
+                                   new RoutingRulesIndex(configuration.getRoutingRules(),
+                                                         configuration.getSnapshotVersion()) :
+                                   current.update(configuration.getRoutingRules(), configuration.getSnapshotVersion());
+        index.compareAndSet(current, result);
+
         return result;
     }
 
-    private boolean equalsIgnoreCase(final String a,
-                                     final String b)
-    {
-        return StringUtils.trimToEmpty(a).equalsIgnoreCase(StringUtils.trimToEmpty(b));
-    }
 }
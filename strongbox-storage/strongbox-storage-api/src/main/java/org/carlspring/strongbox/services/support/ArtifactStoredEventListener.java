@@ -10,15 +10,29 @@ import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
 import org.carlspring.strongbox.storage.repository.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
+ * Lists the entries of the stored archive artifacts of the repositories which have the archive listing enabled.
+ * <p>
+ * The archives are listed by a pool of {@code strongbox.archive-listing.parallelism} threads, apart from the other
+ * artifact events, and the archives larger than {@code strongbox.archive-listing.max-size-mb} are skipped.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -33,16 +47,119 @@ public class ArtifactStoredEventListener extends AsyncArtifactEntryHandler
     @Inject
     protected ConfigurationManager configurationManager;
 
+    @Value("${strongbox.archive-listing.parallelism:2}")
+    private int parallelism;
+
+    @Value("${strongbox.archive-listing.queue-size:1000}")
+    private int queueSize;
+
+    @Value("${strongbox.archive-listing.max-size-mb:100}")
+    private long maxSizeMb;
+
+    private ThreadPoolExecutor executor;
+
     public ArtifactStoredEventListener()
     {
         super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED);
     }
 
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(parallelism, 1),
+                                          Math.max(parallelism, 1),
+                                          0L,
+                                          TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(Math.max(queueSize, 1)),
+                                          r -> {
+                                              Thread thread = new Thread(r, "archive-listing-" +
+                                                                            threadNumber.incrementAndGet());
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          });
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    protected void handle(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        if (!repositoryPath.getRepository().isArchiveListingEnabled())
+        {
+            return;
+        }
+
+        long size = Files.size(repositoryPath);
+        if (size > maxSizeMb * 1024 * 1024)
+        {
+            logger.debug(String.format("Skipping the archive listing of [%s], [%s] bytes is over the limit.",
+                                       repositoryPath, size));
+
+            return;
+        }
+
+        try
+        {
+            executor.execute(() -> list(repositoryPath));
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.warn(String.format("Skipping the archive listing of [%s], the queue is full.", repositoryPath));
+        }
+    }
+
+    private void list(RepositoryPath repositoryPath)
+    {
+        try
+        {
+            // Read the archive before taking the lock, most artifacts aren't archives.
+            final Set<String> archiveFilenames = listArchiveFilenames(repositoryPath);
+            if (archiveFilenames.isEmpty())
+            {
+                return;
+            }
+
+            handleLocked(repositoryPath, path -> updateListing(path, archiveFilenames));
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to list the archive [%s].", repositoryPath), e);
+        }
+    }
+
     @Override
     protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
+    {
+        final Set<String> archiveFilenames = listArchiveFilenames(repositoryPath);
+        if (archiveFilenames.isEmpty())
+        {
+            return null;
+        }
+
+        return updateListing(repositoryPath, archiveFilenames);
+    }
+
+    private Set<String> listArchiveFilenames(RepositoryPath repositoryPath)
+    {
+        final Repository repository = repositoryPath.getRepository();
+        final LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
+
+        return layoutProvider.listArchiveFilenames(repositoryPath);
+    }
+
+    private ArtifactEntry updateListing(RepositoryPath repositoryPath,
+                                        Set<String> archiveFilenames)
+        throws IOException
     {
         ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
+
         if (artifactEntry == null)
         {
             logger.warn(String.format("No [%s] for [%s].",
@@ -51,14 +168,6 @@ public class ArtifactStoredEventListener extends AsyncArtifactEntryHandler
 
             return null;
         }
-        
-        final Repository repository = repositoryPath.getRepository();
-        final LayoutProvider layoutProvider = layoutProviderRegistry.getProvider(repository.getLayout());
-        final Set<String> archiveFilenames = layoutProvider.listArchiveFilenames(repositoryPath);
-        if (archiveFilenames.isEmpty())
-        {
-            return null;
-        }
 
         ArtifactArchiveListing artifactArchiveListing = artifactEntry.getArtifactArchiveListing();
         if (artifactArchiveListing == null)
@@ -0,0 +1,109 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The patterns of several routing rules, merged into a single alternation so that a path is matched against all of
+ * them in one pass.
+ * <p>
+ * The patterns which can't be merged without changing their meaning (numbered or named back references, or named
+ * groups clashing with each other) are kept, and matched one by one.
+ */
+class RoutingRulePatterns
+{
+
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
+    private static final RoutingRulePatterns NONE = new RoutingRulePatterns(ImmutableList.of());
+
+    private final List<Pattern> patterns;
+
+    private RoutingRulePatterns(List<Pattern> patterns)
+    {
+        this.patterns = patterns;
+    }
+
+    static RoutingRulePatterns of(Collection<Pattern> patterns)
+    {
+        if (patterns.isEmpty())
+        {
+            return NONE;
+        }
+        if (patterns.size() == 1)
+        {
+            return new RoutingRulePatterns(ImmutableList.copyOf(patterns));
+        }
+
+        ImmutableList.Builder<Pattern> result = ImmutableList.builder();
+
+        List<Pattern> mergeable = patterns.stream()
+                                          .filter(p -> !BACK_REFERENCE.matcher(p.pattern()).find())
+                                          .collect(Collectors.toList());
+        patterns.stream().filter(p -> !mergeable.contains(p)).forEach(result::add);
+
+        if (mergeable.size() == 1)
+        {
+            result.add(mergeable.get(0));
+        }
+        else if (!mergeable.isEmpty())
+        {
+            String alternation = mergeable.stream()
+                                          .map(p -> "(?:" + p.pattern() + ")")
+                                          .collect(Collectors.joining("|"));
+            try
+            {
+                result.add(Pattern.compile(alternation));
+            }
+            catch (PatternSyntaxException e)
+            {
+                result.addAll(mergeable);
+            }
+        }
+
+        return new RoutingRulePatterns(result.build());
+    }
+
+    boolean isEmpty()
+    {
+        return patterns.isEmpty();
+    }
+
+    boolean matches(String path)
+    {
+        for (Pattern pattern : patterns)
+        {
+            if (pattern.matcher(path).matches())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return {@code false} if none of the paths starting with the given prefix can be matched
+     */
+    boolean canMatchPathsStartingWith(String prefix)
+    {
+        for (Pattern pattern : patterns)
+        {
+            Matcher matcher = pattern.matcher(prefix);
+            // If the matcher didn't hit the end of the prefix, appending to it can't change the result.
+            if (matcher.matches() || matcher.hitEnd())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,226 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.RepositoryIdentifiable;
+import org.carlspring.strongbox.storage.routing.RoutingRule;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The {@link RoutingRules} of a configuration snapshot, compiled per group repository and member repository.
+ * <p>
+ * The rules of a group/member pair are selected and merged into {@link RoutingRulePatterns} the first time the pair
+ * is checked. The pair also caches, per parent directory, whether any of its deny rules can match a path in that
+ * directory, so that the paths of the directories which no deny rule can reach are accepted without running any
+ * pattern.
+ * <p>
+ * An index belongs to a configuration snapshot. A newer snapshot with the same rules (the configuration changed
+ * elsewhere) keeps the compiled routes, see {@link #update(RoutingRules, long)}.
+ */
+class RoutingRulesIndex
+{
+
+    static final int MAX_CACHED_DIRECTORIES = 4096;
+
+    private final RoutingRules routingRules;
+
+    private final long snapshotVersion;
+
+    private final List<String> rulesKey;
+
+    private final Map<String, MemberRoutes> routes;
+
+    RoutingRulesIndex(RoutingRules routingRules,
+                      long snapshotVersion)
+    {
+        this(routingRules, snapshotVersion, keyOf(routingRules), new ConcurrentHashMap<>());
+    }
+
+    private RoutingRulesIndex(RoutingRules routingRules,
+                              long snapshotVersion,
+                              List<String> rulesKey,
+                              Map<String, MemberRoutes> routes)
+    {
+        this.routingRules = routingRules;
+        this.snapshotVersion = snapshotVersion;
+        this.rulesKey = rulesKey;
+        this.routes = routes;
+    }
+
+    long getSnapshotVersion()
+    {
+        return snapshotVersion;
+    }
+
+    /**
+     * @return this index if it's of the given snapshot, an index sharing the compiled routes of this one if the
+     *         rules of the snapshot are the same, or a new index otherwise
+     */
+    RoutingRulesIndex update(RoutingRules routingRules,
+                             long snapshotVersion)
+    {
+        if (snapshotVersion == this.snapshotVersion)
+        {
+            return this;
+        }
+
+        List<String> key = keyOf(routingRules);
+        if (key.equals(rulesKey))
+        {
+            return new RoutingRulesIndex(routingRules, snapshotVersion, key, routes);
+        }
+
+        return new RoutingRulesIndex(routingRules, snapshotVersion, key, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @return what the routes are compiled from: the type, the group, the pattern and the members of each rule
+     */
+    private static List<String> keyOf(RoutingRules routingRules)
+    {
+        return routingRules.getRules()
+                           .stream()
+                           .map(rule -> String.format("%s|%s|%s|%s|%s",
+                                                      rule.getType(),
+                                                      rule.getStorageIdAndRepositoryId(),
+                                                      rule.getPattern(),
+                                                      rule.getRepositories()
+                                                          .stream()
+                                                          .map(RepositoryIdentifiable::getStorageIdAndRepositoryId)
+                                                          .collect(Collectors.joining(",")),
+                                                      rule.getGroupRepositoryId()))
+                           .collect(Collectors.toList());
+    }
+
+    boolean isDenied(Repository groupRepository,
+                     Repository subRepository,
+                     String artifactPath)
+    {
+        String key = String.format("%s:%s>%s:%s",
+                                   groupRepository.getStorage().getId(), groupRepository.getId(),
+                                   subRepository.getStorage().getId(), subRepository.getId());
+
+        return routes.computeIfAbsent(key, k -> compile(groupRepository, subRepository)).isDenied(artifactPath);
+    }
+
+    private MemberRoutes compile(Repository groupRepository,
+                                 Repository subRepository)
+    {
+        return new MemberRoutes(patterns(routingRules.getDenied(), groupRepository, subRepository),
+                                patterns(routingRules.getAccepted(), groupRepository, subRepository));
+    }
+
+    private static RoutingRulePatterns patterns(List<RoutingRule> rules,
+                                                Repository groupRepository,
+                                                Repository subRepository)
+    {
+        List<Pattern> patterns = rules.stream()
+                                      .filter(rule -> isMatch(rule, groupRepository))
+                                      // an empty collection means the rule is applied to **all** repositories in the group.
+                                      .filter(rule -> rule.getRepositories().isEmpty() ||
+                                                      rule.getRepositories()
+                                                          .stream()
+                                                          .anyMatch(r -> isMatch(r, subRepository)))
+                                      .map(RoutingRule::getRegex)
+                                      .distinct()
+                                      .collect(Collectors.toList());
+
+        return RoutingRulePatterns.of(patterns);
+    }
+
+    static boolean isMatch(RepositoryIdentifiable rule,
+                           Repository repository)
+    {
+        boolean result = false;
+
+        // exact match == storageId:repositoryId
+        if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), repository.getStorageIdAndRepositoryId()))
+        {
+            result = true;
+        }
+        // wildcard == *:*
+        else if (equalsIgnoreCase(rule.getStorageIdAndRepositoryId(), StringUtils.EMPTY))
+        {
+            result = true;
+        }
+        // wildcard == storageId:*
+        else if (equalsIgnoreCase(rule.getRepositoryId(), StringUtils.EMPTY) &&
+                 equalsIgnoreCase(rule.getStorageId(), repository.getStorage().getId()))
+        {
+            result = true;
+        }
+        // wildcard == *:repositoryId
+        else if (equalsIgnoreCase(rule.getStorageId(), StringUtils.EMPTY) &&
+                 equalsIgnoreCase(rule.getRepositoryId(), repository.getId()))
+        {
+            result = true;
+        }
+
+        return result;
+    }
+
+    private static boolean equalsIgnoreCase(final String a,
+                                            final String b)
+    {
+        return StringUtils.trimToEmpty(a).equalsIgnoreCase(StringUtils.trimToEmpty(b));
+    }
+
+    static class MemberRoutes
+    {
+
+        private final RoutingRulePatterns denied;
+
+        private final RoutingRulePatterns accepted;
+
+        private final Map<String, Boolean> deniable = new ConcurrentHashMap<>();
+
+        MemberRoutes(RoutingRulePatterns denied,
+                     RoutingRulePatterns accepted)
+        {
+            this.denied = denied;
+            this.accepted = accepted;
+        }
+
+        boolean isDenied(String artifactPath)
+        {
+            if (denied.isEmpty())
+            {
+                return false;
+            }
+
+            int i = artifactPath.lastIndexOf('/');
+            if (i > 0 && !isDeniable(artifactPath.substring(0, i + 1)))
+            {
+                return false;
+            }
+
+            return denied.matches(artifactPath) && !accepted.matches(artifactPath);
+        }
+
+        private boolean isDeniable(String directory)
+        {
+            Boolean result = deniable.get(directory);
+            if (result == null)
+            {
+                if (deniable.size() >= MAX_CACHED_DIRECTORIES)
+                {
+                    deniable.clear();
+                }
+
+                result = denied.canMatchPathsStartingWith(directory);
+                deniable.put(directory, result);
+            }
+
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,296 @@
+package org.carlspring.strongbox.storage.blob;
+
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressable store of the storage files, keyed by SHA-256.
+ * <p>
+ * Blobs are kept under the storage root ({@code <storage>/.blobs/ab/cd/abcd...}) and the repository files are hard
+ * links to them, so the repository layout and the streams stay exactly as they are without the blob store. The link
+ * count of a blob is its reference count: a blob with no links other than itself is not referenced by any repository
+ * file (including the files in trash) and can be garbage collected.
+ * <p>
+ * All the links of a blob share its times and permissions, which the {@code Last-Modified} header, the conditional
+ * requests, the metadata and the age-based expiry and eviction rely on. So a file is only linked to an existing blob
+ * when the blob already has the same modification time and permissions, and linking changes neither the file nor the
+ * other links of the blob. The files which have the same content but not the same times, such as the same artifact
+ * deployed at different times, are kept as regular files; the ones which have both, such as copies which keep the
+ * times, are deduplicated.
+ * <p>
+ * Files are linked only if the file system supports it; if it does not (or if the repository is located on another
+ * volume than its storage), the file is just stored as a regular file. Note that the linked files must never be
+ * modified in place, which holds as long as they are written through {@code StorageFileSystemProvider}, which always
+ * writes into a temporary file first.
+ */
+@Component
+public class BlobStore
+{
+
+    public static final String ALGORITHM = "SHA-256";
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final String TMP = ".tmp";
+
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+
+    private final boolean enabled;
+
+    private final long minSize;
+
+    public BlobStore(@Value("${strongbox.storage.deduplication.enabled:false}") boolean enabled,
+                     @Value("${strongbox.storage.deduplication.min-size:4096}") long minSize)
+    {
+        this.enabled = enabled;
+        this.minSize = minSize;
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return the minimal size of the files to store as blobs; the files smaller than a file system block take the
+     *         same space either way.
+     */
+    public long getMinSize()
+    {
+        return minSize;
+    }
+
+    public MessageDigest newMessageDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String digest(Path file)
+        throws IOException
+    {
+        try
+        {
+            return MessageDigestUtils.calculateChecksum(file, ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path resolveBlob(Path blobStorePath,
+                            String digest)
+    {
+        return blobStorePath.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    /**
+     * Makes the file a reference to the blob with the given digest. If there is no such blob yet, the file content
+     * becomes the blob, otherwise the file is atomically replaced with a link to the existing blob.
+     *
+     * @return {@code true} if the file is a reference to the blob now, {@code false} if it was left as it is.
+     */
+    public boolean link(Path blobStorePath,
+                        Path file,
+                        String digest)
+        throws IOException
+    {
+        Path blob = resolveBlob(blobStorePath, digest);
+        Path link = null;
+        try
+        {
+            Files.createDirectories(blob.getParent());
+            try
+            {
+                Files.createLink(blob, file);
+
+                return true;
+            }
+            catch (FileAlreadyExistsException e)
+            {
+                logger.debug(String.format("Blob [%s] already exists.", blob));
+            }
+
+            if (Files.isSameFile(blob, file))
+            {
+                return true;
+            }
+
+            if (!haveSameAttributes(blob, file))
+            {
+                logger.debug(String.format("Blob [%s] has other times or permissions than [%s].", blob, file));
+
+                return false;
+            }
+
+            Path tmp = blobStorePath.resolve(TMP);
+            Files.createDirectories(tmp);
+
+            link = tmp.resolve(UUID.randomUUID().toString());
+            Files.createLink(link, blob);
+            Files.move(link, file, StandardCopyOption.ATOMIC_MOVE);
+
+            return true;
+        }
+        catch (FileSystemException | UnsupportedOperationException e)
+        {
+            // The blob was collected meanwhile, or the file system does not support links here.
+            logger.debug(String.format("Failed to link [%s] with blob [%s]: %s", file, blob, e.getMessage()));
+
+            return false;
+        }
+        finally
+        {
+            if (link != null)
+            {
+                Files.deleteIfExists(link);
+            }
+        }
+    }
+
+    /**
+     * The modification times are compared in milliseconds, which is what a copy keeps on every file system.
+     */
+    private boolean haveSameAttributes(Path blob,
+                                       Path file)
+        throws IOException
+    {
+        if (Files.getLastModifiedTime(blob).toMillis() != Files.getLastModifiedTime(file).toMillis())
+        {
+            return false;
+        }
+
+        if (!blob.getFileSystem().supportedFileAttributeViews().contains("posix"))
+        {
+            return true;
+        }
+
+        return Files.readAttributes(blob, PosixFileAttributes.class)
+                    .permissions()
+                    .equals(Files.readAttributes(file, PosixFileAttributes.class).permissions());
+    }
+
+    public BlobStoreReport report(Path blobStorePath)
+        throws IOException
+    {
+        return visit(blobStorePath, false);
+    }
+
+    /**
+     * Deletes the blobs which are not referenced by any repository file.
+     */
+    public BlobStoreReport collectGarbage(Path blobStorePath)
+        throws IOException
+    {
+        BlobStoreReport report = visit(blobStorePath, true);
+
+        logger.info(String.format("Collected [%s] unreferenced blobs from [%s], [%s] bytes reclaimed.",
+                                  report.getReclaimedBlobCount(), blobStorePath, report.getReclaimedBytes()));
+
+        return report;
+    }
+
+    private BlobStoreReport visit(Path blobStorePath,
+                                  boolean deleteUnreferenced)
+        throws IOException
+    {
+        BlobStoreReport report = new BlobStoreReport();
+        if (!Files.isDirectory(blobStorePath))
+        {
+            return report;
+        }
+
+        Path tmp = blobStorePath.resolve(TMP);
+        Files.walkFileTree(blobStorePath, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir,
+                                                     BasicFileAttributes attrs)
+            {
+                return tmp.equals(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+                throws IOException
+            {
+                long references = getLinkCount(file) - 1;
+                report.addBlob(attrs.size(), references);
+
+                if (deleteUnreferenced && references == 0 && Files.deleteIfExists(file))
+                {
+                    report.addReclaimed(attrs.size());
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir,
+                                                      IOException exc)
+                throws IOException
+            {
+                if (!deleteUnreferenced || blobStorePath.equals(dir))
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                try
+                {
+                    Files.deleteIfExists(dir);
+                }
+                catch (DirectoryNotEmptyException e)
+                {
+                    // There are referenced blobs left.
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        return report;
+    }
+
+    private long getLinkCount(Path blob)
+        throws IOException
+    {
+        try
+        {
+            return ((Number) Files.getAttribute(blob, LINK_COUNT_ATTRIBUTE)).longValue();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            throw new IOException(String.format("Unable to read link count of [%s].", blob), e);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.carlspring.strongbox.storage.blob;
+
+/**
+ * Space usage of a {@link BlobStore}.
+ * <p>
+ * Every blob is referenced by the repository files which are linked to it. Without the blob store each of these
+ * references would be a separate copy, so the space saved is the size of all the references minus the size of the
+ * referenced blobs.
+ */
+public class BlobStoreReport
+{
+
+    private long blobCount;
+
+    private long blobBytes;
+
+    private long referenceCount;
+
+    private long referencedBytes;
+
+    private long savedBytes;
+
+    private long unreferencedBlobCount;
+
+    private long unreferencedBytes;
+
+    private long reclaimedBlobCount;
+
+    private long reclaimedBytes;
+
+    void addBlob(long size,
+                 long references)
+    {
+        blobCount++;
+        blobBytes += size;
+
+        if (references == 0)
+        {
+            unreferencedBlobCount++;
+            unreferencedBytes += size;
+
+            return;
+        }
+
+        referenceCount += references;
+        referencedBytes += size * references;
+        savedBytes += size * (references - 1);
+    }
+
+    void addReclaimed(long size)
+    {
+        reclaimedBlobCount++;
+        reclaimedBytes += size;
+    }
+
+    public void add(BlobStoreReport other)
+    {
+        blobCount += other.blobCount;
+        blobBytes += other.blobBytes;
+        referenceCount += other.referenceCount;
+        referencedBytes += other.referencedBytes;
+        savedBytes += other.savedBytes;
+        unreferencedBlobCount += other.unreferencedBlobCount;
+        unreferencedBytes += other.unreferencedBytes;
+        reclaimedBlobCount += other.reclaimedBlobCount;
+        reclaimedBytes += other.reclaimedBytes;
+    }
+
+    public long getBlobCount()
+    {
+        return blobCount;
+    }
+
+    public long getBlobBytes()
+    {
+        return blobBytes;
+    }
+
+    public long getReferenceCount()
+    {
+        return referenceCount;
+    }
+
+    public long getReferencedBytes()
+    {
+        return referencedBytes;
+    }
+
+    public long getSavedBytes()
+    {
+        return savedBytes;
+    }
+
+    public long getUnreferencedBlobCount()
+    {
+        return unreferencedBlobCount;
+    }
+
+    public long getUnreferencedBytes()
+    {
+        return unreferencedBytes;
+    }
+
+    public long getReclaimedBlobCount()
+    {
+        return reclaimedBlobCount;
+    }
+
+    public long getReclaimedBytes()
+    {
+        return reclaimedBytes;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("blobs=%s (%s bytes), references=%s (%s bytes), saved=%s bytes, " +
+                             "unreferenced=%s (%s bytes), reclaimed=%s (%s bytes)",
+                             blobCount, blobBytes, referenceCount, referencedBytes, savedBytes,
+                             unreferencedBlobCount, unreferencedBytes, reclaimedBlobCount, reclaimedBytes);
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.storage.cache;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The bookkeeping shared by the caches of values derived from the repository contents, which are evicted by the
+ * artifact events.
+ * <p>
+ * The events are only published on the node where the change happened, so the entries also expire after a while,
+ * which bounds how stale the changes made on the other cluster nodes can get.
+ * <p>
+ * A value computed while an invalidation happens may already be stale, so it's only cached if there was no
+ * invalidation since its computation started: take the {@link #getGeneration() generation} before computing the
+ * value and {@link #put(Cache, Object, Object, long) put} it with that generation.
+ */
+public class ArtifactEventCacheSupport
+{
+
+    /**
+     * The events which change the artifacts of a repository.
+     */
+    private static final Set<ArtifactEventTypeEnum> ARTIFACT_EVENT_TYPES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED,
+                          ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED,
+                          ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_FETCHED_FROM_REMOTE,
+                          ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_COPIED,
+                          ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED,
+                          ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED)));
+
+    private final long ttlSeconds;
+
+    private final Set<Integer> invalidatingEventTypes = new HashSet<>();
+
+    /**
+     * Incremented on every invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param ttlSeconds           how long the entries are kept at most
+     * @param additionalEventTypes the events which invalidate the entries, besides the ones changing the artifacts
+     */
+    public ArtifactEventCacheSupport(long ttlSeconds,
+                                     ArtifactEventTypeEnum... additionalEventTypes)
+    {
+        this.ttlSeconds = Math.max(ttlSeconds, 0);
+
+        ARTIFACT_EVENT_TYPES.forEach(type -> invalidatingEventTypes.add(type.getType()));
+        Arrays.stream(additionalEventTypes).forEach(type -> invalidatingEventTypes.add(type.getType()));
+    }
+
+    public <K, V> Cache<K, V> newCache()
+    {
+        return CacheBuilder.newBuilder()
+                           .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                           .build();
+    }
+
+    public <K, V> Cache<K, V> newCache(long maxEntries)
+    {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(Math.max(maxEntries, 0))
+                           .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                           .build();
+    }
+
+    public boolean isInvalidating(ArtifactEvent<?> event)
+    {
+        return invalidatingEventTypes.contains(event.getType());
+    }
+
+    public long getGeneration()
+    {
+        return generation.get();
+    }
+
+    /**
+     * Caches the value, unless there was an invalidation since the generation.
+     */
+    public <K, V> void put(Cache<K, V> cache,
+                           K key,
+                           V value,
+                           long valueGeneration)
+    {
+        synchronized (generation)
+        {
+            if (valueGeneration == generation.get())
+            {
+                cache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Runs the eviction as a new generation.
+     */
+    public void invalidate(Runnable eviction)
+    {
+        synchronized (generation)
+        {
+            generation.incrementAndGet();
+            eviction.run();
+        }
+    }
+
+}
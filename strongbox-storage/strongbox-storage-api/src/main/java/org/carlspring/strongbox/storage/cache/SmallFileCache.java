@@ -0,0 +1,142 @@
+package org.carlspring.strongbox.storage.cache;
+
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the content of the small files in memory, as they are the hot ones: metadata, checksums, package
+ * descriptors.
+ * <p>
+ * The files up to {@code strongbox.storage.small-file-cache.max-file-size} bytes are cached, up to
+ * {@code strongbox.storage.small-file-cache.max-size} bytes in total, the least recently used ones are evicted
+ * first. A cached content is only served while the size, the modification time and the identity of its file are
+ * the same, which catches the files replaced without going through the provider. The cache is disabled if either
+ * size is {@code 0}.
+ */
+@Component
+public class SmallFileCache
+{
+
+    private final long maxFileSize;
+
+    private final Cache<Path, CachedFile> cache;
+
+    public SmallFileCache(@Value("${strongbox.storage.small-file-cache.max-file-size:65536}") long maxFileSize,
+                          @Value("${strongbox.storage.small-file-cache.max-size:67108864}") long maxSize)
+    {
+        this.maxFileSize = maxFileSize;
+        this.cache = maxFileSize > 0 && maxSize > 0 ? CacheBuilder.newBuilder()
+                                                                  .maximumWeight(maxSize)
+                                                                  .weigher((Path file, CachedFile cached) -> cached.content.length)
+                                                                  .build()
+                                                    : null;
+    }
+
+    public boolean isEnabled()
+    {
+        return cache != null;
+    }
+
+    /**
+     * @return the content of the file, or {@code null} if it's not a small regular file
+     */
+    public byte[] get(Path file)
+        throws IOException
+    {
+        if (cache == null)
+        {
+            return null;
+        }
+
+        BasicFileAttributes attributes;
+        try
+        {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            cache.invalidate(file);
+
+            return null;
+        }
+
+        if (!attributes.isRegularFile() || attributes.size() > maxFileSize)
+        {
+            cache.invalidate(file);
+
+            return null;
+        }
+
+        CachedFile cached = cache.getIfPresent(file);
+        if (cached != null && cached.matches(attributes))
+        {
+            StrongboxMetrics.increment(StrongboxMetrics.SMALL_FILE_CACHE, Tags.of("result", "hit"));
+
+            return cached.content;
+        }
+        StrongboxMetrics.increment(StrongboxMetrics.SMALL_FILE_CACHE, Tags.of("result", "miss"));
+
+        byte[] content = Files.readAllBytes(file);
+
+        // Replaced while it was read, the next read will cache it.
+        if (content.length == attributes.size())
+        {
+            cache.put(file, new CachedFile(content, attributes));
+        }
+
+        return content;
+    }
+
+    public void invalidate(Path file)
+    {
+        if (cache != null)
+        {
+            cache.invalidate(file);
+        }
+    }
+
+    public long getSize()
+    {
+        return cache == null ? 0 : cache.size();
+    }
+
+    private static class CachedFile
+    {
+
+        private final byte[] content;
+
+        private final FileTime lastModified;
+
+        private final Object fileKey;
+
+        private CachedFile(byte[] content,
+                           BasicFileAttributes attributes)
+        {
+            this.content = content;
+            this.lastModified = attributes.lastModifiedTime();
+            this.fileKey = attributes.fileKey();
+        }
+
+        private boolean matches(BasicFileAttributes attributes)
+        {
+            return content.length == attributes.size() &&
+                   lastModified.equals(attributes.lastModifiedTime()) &&
+                   Objects.equals(fileKey, attributes.fileKey());
+        }
+
+    }
+
+}
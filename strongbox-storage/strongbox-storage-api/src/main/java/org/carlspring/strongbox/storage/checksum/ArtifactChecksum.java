@@ -1,8 +1,9 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -14,13 +15,18 @@ public class ArtifactChecksum
     /**
      * Key: Algorithm Value: Checksum
      */
-    private Map<String, String> checksums = new LinkedHashMap<>();
+    private Map<String, String> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * The artifact which the checksums were calculated for, if known.
+     */
+    private final Path artifactPath;
 
     /**
      * The last time this checksum object was accessed in any way. Used to determine when to remove entries from the
      * cache manager.
      */
-    private long lastAccessed;
+    private volatile long lastAccessed;
 
     private AtomicInteger numberOfChecksums = new AtomicInteger(0);
 
@@ -28,6 +34,12 @@ public class ArtifactChecksum
 
     public ArtifactChecksum()
     {
+        this(null);
+    }
+
+    public ArtifactChecksum(Path artifactPath)
+    {
+        this.artifactPath = artifactPath;
         updateLastAccessedTime();
     }
 
@@ -82,6 +94,11 @@ public class ArtifactChecksum
         this.checksums = checksums;
     }
 
+    public Path getArtifactPath()
+    {
+        return artifactPath;
+    }
+
     public long getLastAccessed()
     {
         return lastAccessed;
@@ -0,0 +1,56 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import org.carlspring.strongbox.storage.ArtifactStorageException;
+
+import java.net.URI;
+
+/**
+ * Thrown when the digest of the stored bytes doesn't match the checksum published for them.
+ */
+public class ArtifactChecksumMismatchException
+        extends ArtifactStorageException
+{
+
+    private final URI artifactUri;
+
+    private final String algorithm;
+
+    private final String expectedChecksum;
+
+    private final String actualChecksum;
+
+    public ArtifactChecksumMismatchException(URI artifactUri,
+                                             String algorithm,
+                                             String expectedChecksum,
+                                             String actualChecksum)
+    {
+        super(String.format("The %s checksum of [%s] is [%s], but [%s] was expected.",
+                            algorithm, artifactUri, actualChecksum, expectedChecksum));
+
+        this.artifactUri = artifactUri;
+        this.algorithm = algorithm;
+        this.expectedChecksum = expectedChecksum;
+        this.actualChecksum = actualChecksum;
+    }
+
+    public URI getArtifactUri()
+    {
+        return artifactUri;
+    }
+
+    public String getAlgorithm()
+    {
+        return algorithm;
+    }
+
+    public String getExpectedChecksum()
+    {
+        return expectedChecksum;
+    }
+
+    public String getActualChecksum()
+    {
+        return actualChecksum;
+    }
+
+}
@@ -1,16 +1,25 @@
 package org.carlspring.strongbox.storage.checksum;
 
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * All artifacts should pass through here.
+ * The artifacts deployed to the hosted repositories of the layouts whose clients upload the checksum files
+ * (see {@link org.carlspring.strongbox.providers.io.LayoutFileSystem#isChecksumUploaded()}) pass through here.
  * Any deployed file which doesn't end in a checksum format (md5, sha1, gpg)
  * should add a cachedChecksum. When an actual checksum is deployed,
  * (which is right after the artifact or metadata file has been deployed),
@@ -25,6 +34,10 @@ import org.slf4j.LoggerFactory;
  * - a checksum is not claimed within cachedChecksumLifetime, trigger an event and log
  * this, then remove the checksum from the cache. (If this checksums set is empty,
  * remove the respective Checksum from the cachedChecksums).
+ * <p>
+ * The checksums are kept in a concurrent cache, which is bounded by {@link #setMaxSize(long)} and expires each entry
+ * once it hasn't been accessed for the cachedChecksumLifetime. The monitor only triggers the clean up of the cache, so
+ * that the expired entries are reported on time even when no artifacts are being deployed.
  *
  * @author mtodorov
  */
@@ -37,7 +50,7 @@ public class ChecksumCacheManager
      * Key:     Artifact path
      * Value:   Artifact checksum.
      */
-    private Map<String, ArtifactChecksum> cachedChecksums = new LinkedHashMap<>();
+    private volatile Cache<String, ArtifactChecksum> cachedChecksums;
 
     /**
      * Specifies how long to keep the cached checksums.
@@ -52,14 +65,25 @@ public class ChecksumCacheManager
      */
     private long cachedChecksumExpiredCheckInterval = 60000L;
 
+    /**
+     * Specifies how many artifacts can have checksums waiting to be claimed. The least recently used ones are
+     * expired first.
+     */
+    private long maxSize = 10000L;
+
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
+    private ScheduledExecutorService monitor;
+
 
     public ChecksumCacheManager()
     {
+        cachedChecksums = buildCache();
     }
 
     public boolean containsArtifactPath(String artifactPath)
     {
-        final boolean containsChecksum = cachedChecksums.containsKey(artifactPath);
+        final boolean containsChecksum = cachedChecksums.getIfPresent(artifactPath) != null;
         if (containsChecksum)
         {
             logger.debug("Cache contains artifact path '" + artifactPath + "'.");
@@ -71,12 +95,12 @@ public class ChecksumCacheManager
     public String getArtifactChecksum(String artifactBasePath,
                                       String algorithm)
     {
-        if (!cachedChecksums.containsKey(artifactBasePath))
+        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
+        if (artifactChecksum == null)
         {
             return null;
         }
 
-        final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
         final String checksum = artifactChecksum.getChecksum(algorithm);
         if (checksum != null)
         {
@@ -88,40 +112,53 @@ public class ChecksumCacheManager
 
     public ArtifactChecksum getArtifactChecksum(String artifactBasePath)
     {
-        return cachedChecksums.get(artifactBasePath);
+        return cachedChecksums.getIfPresent(artifactBasePath);
     }
 
     public boolean validateChecksum(String artifactPath,
                                     String algorithm,
                                     String checksum)
     {
-        return getArtifactChecksum(artifactPath, algorithm).equals(checksum);
+        return checksum != null && checksum.equals(getArtifactChecksum(artifactPath, algorithm));
     }
 
-    public synchronized void addArtifactChecksum(String artifactBasePath,
-                                                 String algorithm,
-                                                 String checksum)
+    public void addArtifactChecksum(String artifactBasePath,
+                                    String algorithm,
+                                    String checksum)
+    {
+        addArtifactChecksum(artifactBasePath, null, algorithm, checksum);
+    }
+
+    /**
+     * Same as {@link #addArtifactChecksum(String, String, String)}, keyed by the URI of the artifact path, which is
+     * also what the expiry event is dispatched for.
+     */
+    public void addArtifactChecksum(Path artifactPath,
+                                    String algorithm,
+                                    String checksum)
+    {
+        addArtifactChecksum(artifactPath.toUri().toString(), artifactPath, algorithm, checksum);
+    }
+
+    private void addArtifactChecksum(String artifactBasePath,
+                                     Path artifactPath,
+                                     String algorithm,
+                                     String checksum)
     {
         logger.debug("Adding checksum '" + checksum + "' [" + algorithm + "]" + " for '" + artifactBasePath + "' in cache.");
 
-        if (cachedChecksums.containsKey(artifactBasePath))
-        {
-            final ArtifactChecksum artifactChecksum = getArtifactChecksum(artifactBasePath);
-            artifactChecksum.addChecksum(algorithm, checksum);
-        }
-        else
-        {
-            ArtifactChecksum artifactChecksum = new ArtifactChecksum();
-            artifactChecksum.addChecksum(algorithm, checksum);
+        cachedChecksums.asMap().compute(artifactBasePath, (key, artifactChecksum) -> {
+            ArtifactChecksum result = artifactChecksum != null ? artifactChecksum : new ArtifactChecksum(artifactPath);
+            result.addChecksum(algorithm, checksum);
 
-            cachedChecksums.put(artifactBasePath, artifactChecksum);
-        }
+            return result;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath,
-                                                    String algorithm)
+    public void removeArtifactChecksum(String artifactBasePath,
+                                       String algorithm)
     {
-        Optional.ofNullable(getArtifactChecksum(artifactBasePath)).map(ac -> {
+        cachedChecksums.asMap().computeIfPresent(artifactBasePath, (key, ac) -> {
             logger.debug(ac.removeChecksum(algorithm)
                            .map(c -> String.format("Removed [%s] artifact checksum value [%s] from cache.",
                                                    artifactBasePath,
@@ -129,40 +166,74 @@ public class ChecksumCacheManager
                            .orElseGet(() -> String.format("Checksum algorithm [%s] not found for [%s] in cache.",
                                                           algorithm,
                                                           artifactBasePath)));
-            return ac;
-        }).filter(ac -> ac.getChecksums().isEmpty()).ifPresent(ac -> cachedChecksums.values().remove(ac));
+
+            return ac.getChecksums().isEmpty() ? null : ac;
+        });
     }
 
-    public synchronized void removeArtifactChecksum(String artifactBasePath)
+    public void removeArtifactChecksum(String artifactBasePath)
     {
-        Optional.ofNullable(cachedChecksums.remove(artifactBasePath))
+        Optional.ofNullable(cachedChecksums.asMap().remove(artifactBasePath))
                 .ifPresent(ac -> logger.debug(String.format("Removed [%s] artifact checksum value [%s] from cache.",
                                                             artifactBasePath, ac)));
     }
 
-    public synchronized void removeExpiredChecksums()
+    public void removeExpiredChecksums()
     {
-        for (String checksum : getExpiredChecksums())
-        {
-            removeArtifactChecksum(checksum);
-        }
+        cachedChecksums.cleanUp();
+    }
+
+    private Cache<String, ArtifactChecksum> buildCache()
+    {
+        return CacheBuilder.newBuilder()
+                           .maximumSize(Math.max(maxSize, 0))
+                           .expireAfterAccess(cachedChecksumLifetime, TimeUnit.MILLISECONDS)
+                           .removalListener(this::onRemoval)
+                           .build();
+    }
+
+    /**
+     * The settings only apply to a new cache, so the entries are carried over into one.
+     */
+    private synchronized void rebuildCache()
+    {
+        Cache<String, ArtifactChecksum> cache = buildCache();
+        cache.putAll(cachedChecksums.asMap());
+
+        cachedChecksums = cache;
     }
 
-    private Set<String> getExpiredChecksums()
+    private void onRemoval(RemovalNotification<String, ArtifactChecksum> notification)
     {
-        Set<String> expiredChecksums = new LinkedHashSet<>();
+        if (!notification.wasEvicted())
+        {
+            return;
+        }
+
+        ArtifactChecksum artifactChecksum = notification.getValue();
+
+        if (notification.getCause() == RemovalCause.SIZE)
+        {
+            // Too many deployments are waiting for their checksums, the oldest ones aren't verified.
+            logger.debug(String.format("The checksums [%s] of [%s] were evicted before they were claimed.",
+                                       artifactChecksum,
+                                       notification.getKey()));
 
-        for (Map.Entry<String, ArtifactChecksum> artifactChecksumEntry : cachedChecksums.entrySet())
+            StrongboxMetrics.increment(StrongboxMetrics.CHECKSUM_CACHE, Tags.of("result", "evicted"));
+        }
+        else
         {
-            ArtifactChecksum checksum = artifactChecksumEntry.getValue();
+            logger.warn(String.format("The checksums [%s] of [%s] were not claimed and have expired.",
+                                      artifactChecksum,
+                                      notification.getKey()));
 
-            if (System.currentTimeMillis() - checksum.getLastAccessed() > cachedChecksumLifetime)
-            {
-                expiredChecksums.add(artifactChecksumEntry.getKey());
-            }
+            StrongboxMetrics.increment(StrongboxMetrics.CHECKSUM_CACHE, Tags.of("result", "expired"));
         }
 
-        return expiredChecksums;
+        if (artifactEventListenerRegistry != null && artifactChecksum.getArtifactPath() != null)
+        {
+            artifactEventListenerRegistry.dispatchArtifactChecksumExpiredEvent(artifactChecksum.getArtifactPath());
+        }
     }
 
     public long getCachedChecksumLifetime()
@@ -173,6 +244,7 @@ public class ChecksumCacheManager
     public void setCachedChecksumLifetime(long cachedChecksumLifetime)
     {
         this.cachedChecksumLifetime = cachedChecksumLifetime;
+        rebuildCache();
     }
 
     public long getCachedChecksumExpiredCheckInterval()
@@ -185,42 +257,55 @@ public class ChecksumCacheManager
         this.cachedChecksumExpiredCheckInterval = cachedChecksumExpiredCheckInterval;
     }
 
-    public long getSize()
+    public long getMaxSize()
     {
-        return cachedChecksums.size();
+        return maxSize;
     }
 
-    public void startMonitor()
+    public void setMaxSize(long maxSize)
     {
-        new CachedChecksumExpirer();
+        this.maxSize = maxSize;
+        rebuildCache();
     }
 
-    private class CachedChecksumExpirer
-            extends Thread
+    public void setArtifactEventListenerRegistry(ArtifactEventListenerRegistry artifactEventListenerRegistry)
     {
+        this.artifactEventListenerRegistry = artifactEventListenerRegistry;
+    }
 
-        private CachedChecksumExpirer()
+    public long getSize()
+    {
+        return cachedChecksums.size();
+    }
+
+    public synchronized void startMonitor()
+    {
+        if (monitor != null)
         {
-            start();
+            return;
         }
 
-        @Override
-        public void run()
+        monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "checksum-cache-expirer");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::removeExpiredChecksums,
+                                       cachedChecksumExpiredCheckInterval,
+                                       cachedChecksumExpiredCheckInterval,
+                                       TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopMonitor()
+    {
+        if (monitor == null)
         {
-            try
-            {
-                //noinspection InfiniteLoopStatement
-                while (true)
-                {
-                    Thread.sleep(getCachedChecksumExpiredCheckInterval());
-                    removeExpiredChecksums();
-                }
-            }
-            catch (InterruptedException e)
-            {
-                logger.error(e.getMessage(), e);
-            }
+            return;
         }
+
+        monitor.shutdownNow();
+        monitor = null;
     }
 
 }
@@ -0,0 +1,175 @@
+package org.carlspring.strongbox.storage.checksum;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The outcome of a checksum regeneration run.
+ * <p>
+ * A checksum file whose value differs from the digest of its artifact is a mismatch. Mismatches are never fixed
+ * silently, each one is recorded with the previous value of the checksum file, and the file itself is only
+ * re-written when the run was asked to repair the mismatches.
+ */
+public class ChecksumRegenerationReport
+{
+
+    private final AtomicLong files = new AtomicLong();
+
+    private final AtomicLong skippedFiles = new AtomicLong();
+
+    private final AtomicLong failedFiles = new AtomicLong();
+
+    private final AtomicLong writtenChecksums = new AtomicLong();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    private final List<Mismatch> mismatches = Collections.synchronizedList(new ArrayList<>());
+
+    public void addFile()
+    {
+        files.incrementAndGet();
+    }
+
+    public void addSkippedFile()
+    {
+        skippedFiles.incrementAndGet();
+    }
+
+    public void addFailedFile()
+    {
+        failedFiles.incrementAndGet();
+    }
+
+    public void addWrittenChecksum()
+    {
+        writtenChecksums.incrementAndGet();
+    }
+
+    public void addBytesRead(long bytes)
+    {
+        bytesRead.addAndGet(bytes);
+    }
+
+    public void addMismatch(String path,
+                            String algorithm,
+                            String previousChecksum,
+                            String checksum)
+    {
+        mismatches.add(new Mismatch(path, algorithm, previousChecksum, checksum));
+    }
+
+    public long getFiles()
+    {
+        return files.get();
+    }
+
+    public long getSkippedFiles()
+    {
+        return skippedFiles.get();
+    }
+
+    public long getFailedFiles()
+    {
+        return failedFiles.get();
+    }
+
+    public long getWrittenChecksums()
+    {
+        return writtenChecksums.get();
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead.get();
+    }
+
+    public List<Mismatch> getMismatches()
+    {
+        synchronized (mismatches)
+        {
+            return new ArrayList<>(mismatches);
+        }
+    }
+
+    /**
+     * Writes the mismatches, one per line: path, algorithm, previous checksum and regenerated checksum.
+     */
+    public void writeMismatches(Path file)
+        throws IOException
+    {
+        Files.createDirectories(file.getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+        {
+            for (Mismatch mismatch : getMismatches())
+            {
+                writer.write(String.format("%s %s %s %s",
+                                           mismatch.getPath(),
+                                           mismatch.getAlgorithm(),
+                                           mismatch.getPreviousChecksum(),
+                                           mismatch.getChecksum()));
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("files=%s, skipped=%s, failed=%s, written=%s, mismatches=%s, bytesRead=%s",
+                             getFiles(), getSkippedFiles(), getFailedFiles(), getWrittenChecksums(),
+                             mismatches.size(), getBytesRead());
+    }
+
+    public static class Mismatch
+    {
+
+        private final String path;
+
+        private final String algorithm;
+
+        private final String previousChecksum;
+
+        private final String checksum;
+
+        public Mismatch(String path,
+                        String algorithm,
+                        String previousChecksum,
+                        String checksum)
+        {
+            this.path = path;
+            this.algorithm = algorithm;
+            this.previousChecksum = previousChecksum;
+            this.checksum = checksum;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public String getAlgorithm()
+        {
+            return algorithm;
+        }
+
+        public String getPreviousChecksum()
+        {
+            return previousChecksum;
+        }
+
+        public String getChecksum()
+        {
+            return checksum;
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package org.carlspring.strongbox.storage.quota;
+
+import org.carlspring.strongbox.storage.ArtifactStorageException;
+
+/**
+ * Thrown when a repository has no room left for a file, by the size or by the number of files it's allowed to hold.
+ */
+public class RepositoryQuotaExceededException
+        extends ArtifactStorageException
+{
+
+    private final RepositoryUsage usage;
+
+    public RepositoryQuotaExceededException(String message,
+                                            RepositoryUsage usage)
+    {
+        super(message);
+
+        this.usage = usage;
+    }
+
+    public RepositoryUsage getUsage()
+    {
+        return usage;
+    }
+
+}
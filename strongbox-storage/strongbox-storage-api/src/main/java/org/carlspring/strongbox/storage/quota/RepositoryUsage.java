@@ -0,0 +1,82 @@
+package org.carlspring.strongbox.storage.quota;
+
+/**
+ * The space which a repository takes, along with its quota. A limit of {@code 0} means there is none.
+ */
+public class RepositoryUsage
+{
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private final long size;
+
+    private final long files;
+
+    private final long maxSize;
+
+    private final long maxFiles;
+
+    public RepositoryUsage(String storageId,
+                           String repositoryId,
+                           long size,
+                           long files,
+                           long maxSize,
+                           long maxFiles)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.size = size;
+        this.files = files;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    public long getFiles()
+    {
+        return files;
+    }
+
+    public long getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public long getMaxFiles()
+    {
+        return maxFiles;
+    }
+
+    public boolean isSizeExceeded()
+    {
+        return maxSize > 0 && size >= maxSize;
+    }
+
+    public boolean isFilesExceeded()
+    {
+        return maxFiles > 0 && files >= maxFiles;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s:%s [size=%s/%s, files=%s/%s]", storageId, repositoryId, size, maxSize, files, maxFiles);
+    }
+
+}
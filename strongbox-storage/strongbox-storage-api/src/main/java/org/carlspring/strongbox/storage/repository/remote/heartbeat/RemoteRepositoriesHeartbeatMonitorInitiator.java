@@ -75,16 +75,39 @@ public class RemoteRepositoriesHeartbeatMonitorInitiator
 
         RemoteRepositoryHeartbeatMonitor remoteRepositoryHeartBeatMonitor = new RemoteRepositoryHeartbeatMonitor(remoteRepositoryCacheManager,
                                                                                                                  determineMonitorStrategy(remoteRepository),
-                                                                                                                 remoteRepository);
-        executor.scheduleWithFixedDelay(new MdcContextProvider(remoteRepositoryHeartBeatMonitor),
-                                        0,
-                                        intervalSeconds, TimeUnit.SECONDS);
+                                                                                                                 remoteRepository,
+                                                                                                                 TimeUnit.SECONDS.toMillis(intervalSeconds));
+        scheduleProbe(remoteRepositoryHeartBeatMonitor, 0);
 
         logger.info(
                 "Remote repository " + remoteRepository.getUrl() + " scheduled for monitoring with interval seconds " +
                 intervalSeconds);
     }
 
+    /**
+     * Each probe schedules the next one, so that the probe interval can back off while the remote repository is down.
+     */
+    private void scheduleProbe(RemoteRepositoryHeartbeatMonitor monitor,
+                               long delayMillis)
+    {
+        if (executor.isShutdown())
+        {
+            return;
+        }
+
+        Runnable probe = new MdcContextProvider(monitor);
+        executor.schedule(() -> {
+            try
+            {
+                probe.run();
+            }
+            finally
+            {
+                scheduleProbe(monitor, monitor.getNextDelayMillis());
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
     private RemoteRepositoryHeartbeatMonitorStrategy determineMonitorStrategy(final RemoteRepository remoteRepository)
     {
         return remoteRepositoryHeartbeatMonitorStrategyRegistry.of(remoteRepository.allowsDirectoryBrowsing());
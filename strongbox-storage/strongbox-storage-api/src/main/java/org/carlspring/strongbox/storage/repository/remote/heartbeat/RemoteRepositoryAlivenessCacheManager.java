@@ -1,18 +1,31 @@
 package org.carlspring.strongbox.storage.repository.remote.heartbeat;
 
 import org.carlspring.strongbox.data.CacheName;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
 import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import org.apache.commons.lang3.BooleanUtils;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 /**
+ * Tracks the aliveness of the remote repositories. The heartbeat probes and the outcomes of the proxy requests both
+ * feed a {@link RemoteRepositoryCircuitBreaker} per remote repository URL, which decides whether the remote is
+ * alive.
+ *
  * @author Przemyslaw Fusik
  */
 @Component
@@ -20,8 +33,24 @@ public class RemoteRepositoryAlivenessCacheManager
         implements DisposableBean
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(RemoteRepositoryAlivenessCacheManager.class);
+
     private final Cache cache;
 
+    private final ConcurrentMap<String, RemoteRepositoryCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Value("${strongbox.proxy.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${strongbox.proxy.circuit-breaker.slow-call-threshold-ms:0}")
+    private long slowCallThresholdMillis;
+
+    @Value("${strongbox.proxy.circuit-breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${strongbox.proxy.circuit-breaker.max-open-seconds:600}")
+    private long maxOpenSeconds;
+
     @Inject
     RemoteRepositoryAlivenessCacheManager(CacheManager cacheManager)
     {
@@ -31,13 +60,88 @@ public class RemoteRepositoryAlivenessCacheManager
 
     public boolean isAlive(RemoteRepository remoteRepository)
     {
-        return BooleanUtils.isNotFalse(cache.get(remoteRepository.getUrl(), Boolean.class));
+        return getCircuitBreaker(remoteRepository).isAvailable();
     }
 
+    /**
+     * Records the outcome of a heartbeat probe.
+     */
     public void put(RemoteRepository remoteRepository,
                     boolean aliveness)
     {
         cache.put(remoteRepository.getUrl(), Boolean.valueOf(aliveness));
+        getCircuitBreaker(remoteRepository).recordProbe(aliveness);
+    }
+
+    /**
+     * Records a proxy request which the remote repository answered.
+     */
+    public void recordSuccess(RemoteRepository remoteRepository,
+                              long latencyMillis)
+    {
+        getCircuitBreaker(remoteRepository).recordSuccess(latencyMillis);
+    }
+
+    /**
+     * Records a proxy request which failed to reach the remote repository.
+     */
+    public void recordFailure(RemoteRepository remoteRepository)
+    {
+        getCircuitBreaker(remoteRepository).recordFailure();
+    }
+
+    /**
+     * @return {@code true} if a proxy request to the remote repository succeeded recently enough to skip a probe
+     */
+    public boolean hasSucceededWithin(RemoteRepository remoteRepository,
+                                      long periodMillis)
+    {
+        return getCircuitBreaker(remoteRepository).hasSucceededWithin(periodMillis);
+    }
+
+    public long getProbeDelayMillis(RemoteRepository remoteRepository,
+                                    long intervalMillis)
+    {
+        return getCircuitBreaker(remoteRepository).getProbeDelayMillis(intervalMillis);
+    }
+
+    public RemoteRepositoryCircuitBreaker getCircuitBreaker(RemoteRepository remoteRepository)
+    {
+        return circuitBreakers.computeIfAbsent(remoteRepository.getUrl(), this::createCircuitBreaker);
+    }
+
+    public Collection<RemoteRepositoryCircuitBreaker> getCircuitBreakers()
+    {
+        return new ArrayList<>(circuitBreakers.values());
+    }
+
+    private RemoteRepositoryCircuitBreaker createCircuitBreaker(String url)
+    {
+        RemoteRepositoryCircuitBreaker circuitBreaker = new RemoteRepositoryCircuitBreaker(url,
+                                                                                           failureThreshold,
+                                                                                           slowCallThresholdMillis,
+                                                                                           TimeUnit.SECONDS.toMillis(openSeconds),
+                                                                                           TimeUnit.SECONDS.toMillis(maxOpenSeconds));
+        circuitBreaker.setStateListener(this::onStateChange);
+
+        StrongboxMetrics.gauge(StrongboxMetrics.PROXY_REMOTE_STATE,
+                               Tags.of(StrongboxMetrics.TAG_URL, url),
+                               circuitBreaker,
+                               cb -> cb.getState().ordinal());
+
+        return circuitBreaker;
+    }
+
+    private void onStateChange(RemoteRepositoryCircuitBreaker circuitBreaker,
+                               RemoteRepositoryCircuitBreaker.State oldState,
+                               RemoteRepositoryCircuitBreaker.State newState)
+    {
+        logger.info("Remote repository [{}] circuit changed from [{}] to [{}].",
+                    circuitBreaker.getUrl(), oldState, newState);
+
+        StrongboxMetrics.increment(StrongboxMetrics.PROXY_REMOTE_TRANSITIONS,
+                                   Tags.of(StrongboxMetrics.TAG_URL, circuitBreaker.getUrl(),
+                                           "state", newState.name().toLowerCase()));
     }
 
     @Override
@@ -45,5 +149,6 @@ public class RemoteRepositoryAlivenessCacheManager
             throws Exception
     {
         cache.clear();
+        circuitBreakers.clear();
     }
 }
@@ -0,0 +1,289 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The health of a remote repository, fed by both the heartbeat probes and the outcomes of the real proxy requests.
+ * <ul>
+ * <li>{@link State#CLOSED}: the remote is healthy, the requests go through. It opens after
+ * {@code failureThreshold} consecutive failures (a request slower than {@code slowCallThresholdMillis} is a
+ * failure), or after a failed probe.</li>
+ * <li>{@link State#OPEN}: the remote is down, the requests are rejected. It becomes half-open when the open period
+ * elapses or a probe succeeds. The open period doubles with every failure while open, up to
+ * {@code maxOpenMillis}.</li>
+ * <li>{@link State#HALF_OPEN}: a single trial request goes through, the others are rejected until it succeeds,
+ * which closes it, or fails, which opens it. A trial which never reports back is given up after {@code openMillis},
+ * and another one is let through.</li>
+ * </ul>
+ */
+public class RemoteRepositoryCircuitBreaker
+{
+
+    public enum State
+    {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * The weight of the last request in the average latency.
+     */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private static final int MAX_BACKOFF_LEVEL = 16;
+
+    private final String url;
+
+    private final int failureThreshold;
+
+    private final long slowCallThresholdMillis;
+
+    private final long openMillis;
+
+    private final long maxOpenMillis;
+
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+
+    private int consecutiveFailures;
+
+    private int backoffLevel;
+
+    private long openedAt;
+
+    private boolean trialInProgress;
+
+    private long trialStartedAt;
+
+    private long lastSuccessAt;
+
+    private long lastFailureAt;
+
+    private double averageLatencyMillis;
+
+    private long successCount;
+
+    private long failureCount;
+
+    private StateListener stateListener;
+
+    public RemoteRepositoryCircuitBreaker(String url,
+                                          int failureThreshold,
+                                          long slowCallThresholdMillis,
+                                          long openMillis,
+                                          long maxOpenMillis)
+    {
+        this(url, failureThreshold, slowCallThresholdMillis, openMillis, maxOpenMillis, System::currentTimeMillis);
+    }
+
+    RemoteRepositoryCircuitBreaker(String url,
+                                   int failureThreshold,
+                                   long slowCallThresholdMillis,
+                                   long openMillis,
+                                   long maxOpenMillis,
+                                   LongSupplier clock)
+    {
+        this.url = url;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.slowCallThresholdMillis = slowCallThresholdMillis;
+        this.openMillis = Math.max(openMillis, 1);
+        this.maxOpenMillis = Math.max(maxOpenMillis, this.openMillis);
+        this.clock = clock;
+    }
+
+    public String getUrl()
+    {
+        return url;
+    }
+
+    void setStateListener(StateListener stateListener)
+    {
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * @return {@code false} if the requests to the remote should not be made
+     */
+    public synchronized boolean isAvailable()
+    {
+        long now = clock.getAsLong();
+        if (state == State.OPEN && now - openedAt >= getOpenPeriodMillis())
+        {
+            transition(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN)
+        {
+            if (trialInProgress && now - trialStartedAt < openMillis)
+            {
+                return false;
+            }
+
+            trialInProgress = true;
+            trialStartedAt = now;
+        }
+
+        return state != State.OPEN;
+    }
+
+    public synchronized void recordSuccess(long latencyMillis)
+    {
+        averageLatencyMillis = successCount + failureCount == 0 ? latencyMillis :
+                               LATENCY_SMOOTHING * latencyMillis + (1 - LATENCY_SMOOTHING) * averageLatencyMillis;
+
+        if (slowCallThresholdMillis > 0 && latencyMillis > slowCallThresholdMillis)
+        {
+            recordFailure();
+
+            return;
+        }
+
+        successCount++;
+        consecutiveFailures = 0;
+        lastSuccessAt = clock.getAsLong();
+
+        if (state != State.CLOSED)
+        {
+            backoffLevel = 0;
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void recordFailure()
+    {
+        failureCount++;
+        consecutiveFailures++;
+        lastFailureAt = clock.getAsLong();
+
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold)
+        {
+            open();
+        }
+        else if (state != State.CLOSED)
+        {
+            backOff();
+        }
+    }
+
+    public synchronized void recordProbe(boolean alive)
+    {
+        if (alive)
+        {
+            if (state == State.OPEN)
+            {
+                // Let the real requests confirm it.
+                transition(State.HALF_OPEN);
+            }
+
+            return;
+        }
+
+        lastFailureAt = clock.getAsLong();
+        if (state == State.CLOSED)
+        {
+            open();
+        }
+        else
+        {
+            backOff();
+        }
+    }
+
+    /**
+     * @return {@code true} if a real request succeeded within the given period, so the remote doesn't need a probe
+     */
+    public synchronized boolean hasSucceededWithin(long periodMillis)
+    {
+        return state == State.CLOSED && lastSuccessAt > 0 && clock.getAsLong() - lastSuccessAt < periodMillis;
+    }
+
+    /**
+     * @return the probe interval, which backs off like the open period while the remote is down
+     */
+    public synchronized long getProbeDelayMillis(long intervalMillis)
+    {
+        if (state != State.OPEN)
+        {
+            return intervalMillis;
+        }
+
+        return Math.min(intervalMillis << backoffLevel, intervalMillis * (maxOpenMillis / openMillis));
+    }
+
+    public synchronized State getState()
+    {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures()
+    {
+        return consecutiveFailures;
+    }
+
+    public synchronized long getOpenPeriodMillis()
+    {
+        return Math.min(openMillis << backoffLevel, maxOpenMillis);
+    }
+
+    public synchronized long getLastSuccessAt()
+    {
+        return lastSuccessAt;
+    }
+
+    public synchronized long getLastFailureAt()
+    {
+        return lastFailureAt;
+    }
+
+    public synchronized double getAverageLatencyMillis()
+    {
+        return averageLatencyMillis;
+    }
+
+    public synchronized long getSuccessCount()
+    {
+        return successCount;
+    }
+
+    public synchronized long getFailureCount()
+    {
+        return failureCount;
+    }
+
+    private void open()
+    {
+        backoffLevel = 0;
+        openedAt = clock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void backOff()
+    {
+        backoffLevel = Math.min(backoffLevel + 1, MAX_BACKOFF_LEVEL);
+        openedAt = clock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void transition(State newState)
+    {
+        State oldState = state;
+        state = newState;
+        trialInProgress = false;
+
+        if (oldState != newState && stateListener != null)
+        {
+            stateListener.onStateChange(this, oldState, newState);
+        }
+    }
+
+    @FunctionalInterface
+    interface StateListener
+    {
+
+        void onStateChange(RemoteRepositoryCircuitBreaker circuitBreaker,
+                           State oldState,
+                           State newState);
+
+    }
+
+}
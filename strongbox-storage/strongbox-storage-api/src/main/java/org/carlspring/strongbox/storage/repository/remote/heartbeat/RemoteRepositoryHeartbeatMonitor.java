@@ -24,9 +24,12 @@ class RemoteRepositoryHeartbeatMonitor
 
     private final RemoteRepositoryHeartbeatMonitorStrategy monitorStrategy;
 
+    private final long intervalMillis;
+
     RemoteRepositoryHeartbeatMonitor(@Nonnull RemoteRepositoryAlivenessCacheManager remoteRepositoryCacheManager,
                                      @Nonnull RemoteRepositoryHeartbeatMonitorStrategy monitorStrategy,
-                                     @Nonnull RemoteRepository remoteRepository)
+                                     @Nonnull RemoteRepository remoteRepository,
+                                     long intervalMillis)
     {
         Objects.requireNonNull(remoteRepositoryCacheManager);
         Objects.requireNonNull(monitorStrategy);
@@ -35,11 +38,30 @@ class RemoteRepositoryHeartbeatMonitor
         this.remoteRepositoryCacheManager = remoteRepositoryCacheManager;
         this.monitorStrategy = monitorStrategy;
         this.remoteRepository = remoteRepository;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * @return the delay of the next probe, which backs off while the remote repository is down
+     */
+    long getNextDelayMillis()
+    {
+        long delay = remoteRepositoryCacheManager.getProbeDelayMillis(remoteRepository, intervalMillis);
+
+        return delay > 0 ? delay : intervalMillis;
     }
 
     @Override
     public void run()
     {
+        if (remoteRepositoryCacheManager.hasSucceededWithin(remoteRepository, intervalMillis))
+        {
+            logger.debug("Remote repository [{}] served a request recently, skipping the probe.",
+                         remoteRepository.getUrl());
+
+            return;
+        }
+
         boolean isAlive = false;
         try
         {
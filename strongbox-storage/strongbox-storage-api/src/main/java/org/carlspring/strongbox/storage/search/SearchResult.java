@@ -48,6 +48,15 @@ public class SearchResult
         this.url = url;
     }
 
+    /**
+     * Copies the given result, the copy has its own list of snippets.
+     */
+    public SearchResult(SearchResult other)
+    {
+        this(other.storageId, other.repositoryId, other.artifactCoordinates, other.url);
+        this.snippets = new ArrayList<>(other.snippets);
+    }
+
     public String getStorageId()
     {
         return storageId;
@@ -0,0 +1,300 @@
+package org.carlspring.strongbox.storage.tiering;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secondary volume for the artifacts which are rarely read.
+ * <p>
+ * An offloaded file is moved under {@code strongbox.storage.tiering.directory}
+ * ({@code <directory>/<storageId>/<repositoryId>/<path>.<uuid>}, so that a file and an earlier version of it in the
+ * trash never share the same content) and replaced with a symbolic link to its new location, so
+ * the repository path, the streams, the file attributes and the checksum files stay exactly as they were. Both the
+ * offload and the promotion copy the file first and then replace it with an atomic move, so that a reader always
+ * sees the whole file on either volume.
+ * <p>
+ * The tiering is disabled unless the directory is set. The file system of the repositories has to support symbolic
+ * links.
+ */
+@Component
+public class ColdStore
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ColdStore.class);
+
+    private static final String TMP = ".tmp";
+
+    private final Path directory;
+
+    private final boolean promoteOnRead;
+
+    /**
+     * The cold files which are being offloaded, and are not linked yet.
+     */
+    private final Set<Path> pendingFiles = ConcurrentHashMap.newKeySet();
+
+    public ColdStore(@Value("${strongbox.storage.tiering.directory:}") String directory,
+                     @Value("${strongbox.storage.tiering.promote-on-read:false}") boolean promoteOnRead)
+    {
+        this.directory = StringUtils.isBlank(directory) ? null : Paths.get(directory).toAbsolutePath().normalize();
+        this.promoteOnRead = promoteOnRead;
+    }
+
+    public boolean isEnabled()
+    {
+        return directory != null;
+    }
+
+    /**
+     * @return whether an offloaded artifact is moved back to its repository when it's downloaded
+     */
+    public boolean isPromoteOnRead()
+    {
+        return promoteOnRead;
+    }
+
+    public Path resolve(String storageId,
+                        String repositoryId)
+    {
+        return directory.resolve(storageId).resolve(repositoryId);
+    }
+
+    public boolean isOffloaded(Path file)
+        throws IOException
+    {
+        return directory != null && Files.isSymbolicLink(file) && Files.readSymbolicLink(file).startsWith(directory);
+    }
+
+    /**
+     * Moves the file next to the given location on the secondary volume and replaces it with a link.
+     *
+     * @param tempDirectory a directory on the same volume as the file, for the link to be created in
+     * @return {@code true} if the file is offloaded now, {@code false} if it was left as it is
+     */
+    public boolean offload(Path file,
+                           Path coldPath,
+                           Path tempDirectory)
+        throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(file,
+                                                              BasicFileAttributes.class,
+                                                              LinkOption.NOFOLLOW_LINKS);
+        if (!attributes.isRegularFile())
+        {
+            return false;
+        }
+
+        Path coldFile = coldPath.resolveSibling(coldPath.getFileName() + "." + UUID.randomUUID());
+        Path tmp = directory.resolve(TMP).resolve(UUID.randomUUID().toString());
+        Path link = tempDirectory.resolve(UUID.randomUUID().toString());
+        boolean linked = false;
+        pendingFiles.add(coldFile);
+        try
+        {
+            Files.createDirectories(tmp.getParent());
+            copy(file, tmp, attributes);
+
+            try
+            {
+                Files.createDirectories(coldFile.getParent());
+                Files.move(tmp, coldFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (NoSuchFileException e)
+            {
+                // The directory was empty and deleted by the garbage collection, which keeps it now.
+                Files.createDirectories(coldFile.getParent());
+                Files.move(tmp, coldFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            Files.createDirectories(tempDirectory);
+            Files.createSymbolicLink(link, coldFile);
+            Files.move(link, file, StandardCopyOption.ATOMIC_MOVE);
+            linked = true;
+
+            return true;
+        }
+        catch (FileSystemException | UnsupportedOperationException e)
+        {
+            logger.warn(String.format("Failed to offload [%s] into [%s]: %s", file, coldFile, e.getMessage()));
+
+            return false;
+        }
+        finally
+        {
+            Files.deleteIfExists(tmp);
+            Files.deleteIfExists(link);
+            if (!linked)
+            {
+                Files.deleteIfExists(coldFile);
+            }
+            pendingFiles.remove(coldFile);
+        }
+    }
+
+    /**
+     * Moves an offloaded file back in place of its link.
+     *
+     * @param tempDirectory a directory on the same volume as the link, for the file to be copied into
+     * @return {@code true} if the file was promoted, {@code false} if it was not offloaded
+     */
+    public boolean promote(Path file,
+                           Path tempDirectory)
+        throws IOException
+    {
+        if (!isOffloaded(file))
+        {
+            return false;
+        }
+
+        Path coldFile = Files.readSymbolicLink(file);
+        Path tmp = tempDirectory.resolve(UUID.randomUUID().toString());
+        try
+        {
+            Files.createDirectories(tempDirectory);
+            copy(coldFile, tmp, Files.readAttributes(coldFile, BasicFileAttributes.class));
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(tmp);
+        }
+
+        Files.deleteIfExists(coldFile);
+
+        return true;
+    }
+
+    /**
+     * Copies the file with its times, which {@link StandardCopyOption#COPY_ATTRIBUTES} may truncate.
+     */
+    private void copy(Path source,
+                      Path target,
+                      BasicFileAttributes attributes)
+        throws IOException
+    {
+        Files.copy(source, target);
+        if (Files.size(target) != attributes.size())
+        {
+            throw new IOException(String.format("Incomplete copy of [%s] into [%s].", source, target));
+        }
+
+        Files.getFileAttributeView(target, BasicFileAttributeView.class)
+             .setTimes(attributes.lastModifiedTime(), attributes.lastAccessTime(), attributes.creationTime());
+    }
+
+    /**
+     * Deletes the offloaded content of a file which is about to be deleted or replaced.
+     */
+    public void delete(Path file)
+        throws IOException
+    {
+        if (isOffloaded(file))
+        {
+            Files.deleteIfExists(Files.readSymbolicLink(file));
+        }
+    }
+
+    /**
+     * Deletes the offloaded files which are not linked from their repository anymore, neither from the original
+     * location nor from the trash (the links in the trash are purged without following them). The files which are
+     * being offloaded, and their directories, are kept until they're linked.
+     *
+     * @return the number of the deleted files
+     */
+    public long collectGarbage(Path coldRepositoryRoot,
+                               Path repositoryRoot,
+                               Path trashRoot)
+        throws IOException
+    {
+        AtomicLong deleted = new AtomicLong();
+        if (!Files.isDirectory(coldRepositoryRoot))
+        {
+            return 0;
+        }
+
+        Files.walkFileTree(coldRepositoryRoot, new SimpleFileVisitor<Path>()
+        {
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+                throws IOException
+            {
+                // Checked before the links: a file which isn't pending anymore is either linked or deleted.
+                if (pendingFiles.contains(file))
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                String fileName = file.getFileName().toString();
+                String relativePath = coldRepositoryRoot.relativize(file)
+                                                        .resolveSibling(fileName.substring(0, fileName.lastIndexOf('.')))
+                                                        .toString();
+                if (!isLinkTo(repositoryRoot.resolve(relativePath), file) &&
+                    !isLinkTo(trashRoot.resolve(relativePath), file) &&
+                    Files.deleteIfExists(file))
+                {
+                    deleted.incrementAndGet();
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir,
+                                                      IOException exc)
+                throws IOException
+            {
+                if (coldRepositoryRoot.equals(dir) || pendingFiles.stream().anyMatch(f -> f.startsWith(dir)))
+                {
+                    return FileVisitResult.CONTINUE;
+                }
+
+                try
+                {
+                    Files.deleteIfExists(dir);
+                }
+                catch (DirectoryNotEmptyException e)
+                {
+                    // There are offloaded files left.
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        logger.debug(String.format("Deleted [%s] unlinked files from [%s].", deleted.get(), coldRepositoryRoot));
+
+        return deleted.get();
+    }
+
+    private boolean isLinkTo(Path link,
+                             Path file)
+        throws IOException
+    {
+        return Files.isSymbolicLink(link) && Files.readSymbolicLink(link).equals(file);
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.carlspring.strongbox.domain;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ArtifactArchiveListingTest
+{
+
+    @Test
+    public void testFilenamesAreKeptSortedAndCompact()
+    {
+        ArtifactArchiveListing listing = new ArtifactArchiveListing();
+        listing.setFilenames(new HashSet<>(Arrays.asList("org/carlspring/Foo.class",
+                                                         "META-INF/MANIFEST.MF",
+                                                         "org/carlspring/Bar.class")));
+
+        assertThat(listing.getFilenamesCount()).isEqualTo(3);
+        assertThat(listing.getCompactFilenames()).isNotEmpty();
+        assertThat(listing.getFilenames()).containsExactly("META-INF/MANIFEST.MF",
+                                                           "org/carlspring/Bar.class",
+                                                           "org/carlspring/Foo.class");
+    }
+
+    @Test
+    public void testEmptyFilenames()
+    {
+        ArtifactArchiveListing listing = new ArtifactArchiveListing();
+        assertThat(listing.getFilenames()).isEmpty();
+
+        listing.setFilenames(Collections.singleton("a.txt"));
+        listing.setFilenames(Collections.emptySet());
+
+        assertThat(listing.getFilenamesCount()).isZero();
+        assertThat(listing.getCompactFilenames()).isNull();
+        assertThat(listing.getFilenames()).isEmpty();
+    }
+
+}
@@ -0,0 +1,161 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.artifact.generator.NullArtifactGenerator;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.TestArtifact;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryAttributes;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+public class RepositoryTrashPurgerTest
+{
+
+    private static final String REPOSITORY_RELEASES = "rtpt-releases";
+
+    private static final String ARTIFACT = "org/carlspring/strongbox/trash/purge-1.ext";
+
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private RepositoryTrashPurger repositoryTrashPurger;
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testUnexpiredFilesAreRetained(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME, repositoryId = REPOSITORY_RELEASES)
+                                              @RepositoryAttributes(trashEnabled = true) Repository repository,
+                                              @TestArtifact(repositoryId = REPOSITORY_RELEASES, resource = ARTIFACT, generator = NullArtifactGenerator.class) Path artifact)
+        throws IOException
+    {
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        RepositoryPath trashPath = delete(repository);
+
+        // Reading the file doesn't make it look deleted any earlier.
+        Files.readAllBytes(trashPath.getTarget());
+
+        TrashPurgeReport report = repositoryTrashPurger.purge(root, RETENTION);
+
+        assertThat(report.getPurgedFiles(), CoreMatchers.equalTo(0L));
+        assertTrue(report.getRetainedFiles() > 0);
+        assertTrue(Files.exists(trashPath.getTarget()));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testExpiredFilesArePurged(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME, repositoryId = REPOSITORY_RELEASES)
+                                          @RepositoryAttributes(trashEnabled = true) Repository repository,
+                                          @TestArtifact(repositoryId = REPOSITORY_RELEASES, resource = ARTIFACT, generator = NullArtifactGenerator.class) Path artifact)
+        throws IOException
+    {
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        RepositoryPath trashPath = delete(repository);
+        long size = Files.size(trashPath.getTarget());
+
+        expire(root, trashPath);
+
+        TrashPurgeReport report = repositoryTrashPurger.purge(root, RETENTION);
+
+        assertFalse(Files.exists(trashPath.getTarget()));
+        assertTrue(report.getPurgedFiles() > 0);
+        assertTrue(report.getReclaimedBytes() >= size);
+        assertThat(report.getFailedFiles(), CoreMatchers.equalTo(0L));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testUnrecordedFilesAreRetainedFromTheFirstPurge(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME, repositoryId = REPOSITORY_RELEASES)
+                                                                @RepositoryAttributes(trashEnabled = true) Repository repository,
+                                                                @TestArtifact(repositoryId = REPOSITORY_RELEASES, resource = ARTIFACT, generator = NullArtifactGenerator.class) Path artifact)
+        throws IOException
+    {
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        RepositoryPath trashPath = delete(repository);
+        new TrashDeletions(root.getFileSystem()).clear(trashPath.getTarget());
+
+        repositoryTrashPurger.purge(root, RETENTION);
+
+        assertTrue(Files.exists(trashPath.getTarget()));
+
+        repositoryTrashPurger.purge(root, Duration.ZERO);
+
+        assertFalse(Files.exists(trashPath.getTarget()));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testHardLinkedFilesReclaimNothing(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME, repositoryId = REPOSITORY_RELEASES)
+                                                  @RepositoryAttributes(trashEnabled = true) Repository repository,
+                                                  @TestArtifact(repositoryId = REPOSITORY_RELEASES, resource = ARTIFACT, generator = NullArtifactGenerator.class) Path artifact)
+        throws IOException
+    {
+        RootRepositoryPath root = repositoryPathResolver.resolve(repository);
+        RepositoryPath trashPath = delete(repository);
+
+        // The content is still used by the other link.
+        Path link = root.getTarget().resolve("purge-1.ext.link");
+        Files.createLink(link, trashPath.getTarget());
+        try
+        {
+            expire(root, trashPath);
+
+            TrashPurgeReport report = repositoryTrashPurger.purge(root, RETENTION);
+
+            assertFalse(Files.exists(trashPath.getTarget()));
+            assertThat(report.getPurgedFiles(), CoreMatchers.equalTo(1L));
+            assertThat(report.getReclaimedBytes(), CoreMatchers.equalTo(0L));
+        }
+        finally
+        {
+            Files.deleteIfExists(link);
+        }
+    }
+
+    private RepositoryPath delete(Repository repository)
+        throws IOException
+    {
+        RepositoryPath path = repositoryPathResolver.resolve(repository, ARTIFACT);
+        RepositoryPath trashPath = RepositoryFiles.trash(path);
+
+        RepositoryFiles.delete(path);
+
+        assertFalse(Files.exists(path));
+        assertTrue(Files.exists(trashPath.getTarget()));
+
+        return trashPath;
+    }
+
+    private void expire(RootRepositoryPath root,
+                        RepositoryPath trashPath)
+        throws IOException
+    {
+        FileTime deletionTime = FileTime.fromMillis(System.currentTimeMillis() - RETENTION.toMillis() * 2);
+
+        new TrashDeletions(root.getFileSystem()).mark(trashPath.getTarget(), deletionTime);
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExpiredArtifactsCleanupProgressTest
+{
+
+    private Path baseDirectory;
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        baseDirectory = Files.createTempDirectory("cleanup-progress-test");
+        file = baseDirectory.resolve("cleanup/expired-proxy-artifacts.properties");
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(baseDirectory);
+    }
+
+    @Test
+    public void testInterruptedRunIsResumed()
+        throws IOException
+    {
+        ExpiredArtifactsCleanupProgress progress = ExpiredArtifactsCleanupProgress.load(file, 5, 1024L);
+        progress.saveCursor("storage0", "central", "uuid-100");
+        progress.saveDone("storage0", "jcenter");
+
+        progress = ExpiredArtifactsCleanupProgress.load(file, 5, 1024L);
+
+        assertEquals("uuid-100", progress.getCursor("storage0", "central"));
+        assertTrue(progress.isDone("storage0", "jcenter"));
+        assertFalse(progress.isDone("storage0", "central"));
+    }
+
+    @Test
+    public void testRunWithOtherCriteriaStartsOver()
+        throws IOException
+    {
+        ExpiredArtifactsCleanupProgress progress = ExpiredArtifactsCleanupProgress.load(file, 5, 1024L);
+        progress.saveCursor("storage0", "central", "uuid-100");
+        progress.saveDone("storage0", "jcenter");
+
+        progress = ExpiredArtifactsCleanupProgress.load(file, 10, 1024L);
+
+        assertNull(progress.getCursor("storage0", "central"));
+        assertFalse(progress.isDone("storage0", "jcenter"));
+    }
+
+    @Test
+    public void testFinishedRunLeavesNoProgress()
+        throws IOException
+    {
+        ExpiredArtifactsCleanupProgress progress = ExpiredArtifactsCleanupProgress.load(file, 5, 1024L);
+        progress.saveCursor("storage0", "central", "uuid-100");
+        progress.saveDone("storage0", "central");
+
+        assertNull(progress.getCursor("storage0", "central"));
+
+        progress.complete();
+
+        assertFalse(Files.exists(file));
+        assertFalse(ExpiredArtifactsCleanupProgress.load(file, 5, 1024L).isDone("storage0", "central"));
+    }
+
+}
@@ -0,0 +1,206 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.ConfigurationManager;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RootRepositoryPath;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.remote.CacheQuota;
+import org.carlspring.strongbox.storage.repository.remote.MutableCacheQuota;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.javatuples.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProxyRepositoryCacheEvictionServiceTest
+{
+
+    private static final String STORAGE_ID = "storage-common-proxies";
+
+    private static final String REPOSITORY_ID = "maven-central";
+
+    @Mock
+    private ConfigurationManager configurationManager;
+
+    @Mock
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private ArtifactManagementService artifactManagementService;
+
+    @Mock
+    private RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ProxyRepositoryCacheEvictionService evictionService;
+
+    private RemoteRepository remoteRepository;
+
+    private RootRepositoryPath repositoryRoot;
+
+    @BeforeEach
+    public void setUp()
+    {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(evictionService, "batchSize", 100);
+
+        remoteRepository = Mockito.mock(RemoteRepository.class);
+        when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(true);
+
+        RepositoryData repository = Mockito.mock(RepositoryData.class);
+        when(repository.isProxyRepository()).thenReturn(true);
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getRepository(REPOSITORY_ID)).thenReturn(repository);
+
+        Configuration configuration = Mockito.mock(Configuration.class);
+        when(configuration.getStorage(STORAGE_ID)).thenReturn(storage);
+        when(configurationManager.getConfiguration()).thenReturn(configuration);
+
+        repositoryRoot = Mockito.mock(RootRepositoryPath.class);
+        when(repositoryPathResolver.resolve(repository)).thenReturn(repositoryRoot);
+    }
+
+    @Test
+    public void testCacheIsEvictedDownToTheLowWatermark()
+        throws Exception
+    {
+        givenQuota(0, 10, "lru");
+        List<ArtifactEntry> artifactEntries = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            artifactEntries.add(artifactEntry(100, 10 - i));
+        }
+        givenArtifacts(artifactEntries);
+
+        // 10 artifacts are above 90% of 10, 5 are left at 50% of 10.
+        assertEquals(5, evictionService.enforceQuota(STORAGE_ID, REPOSITORY_ID));
+
+        for (int i = 0; i < 10; i++)
+        {
+            verify(artifactManagementService, times(i < 5 ? 1 : 0)).delete(eq(pathOf(artifactEntries.get(i))),
+                                                                            eq(true));
+        }
+    }
+
+    @Test
+    public void testCacheBelowTheHighWatermarkIsKept()
+        throws Exception
+    {
+        givenQuota(0, 10, "lru");
+        givenArtifacts(Arrays.asList(artifactEntry(100, 1), artifactEntry(100, 2)));
+
+        assertEquals(0, evictionService.enforceQuota(STORAGE_ID, REPOSITORY_ID));
+        verify(artifactManagementService, never()).delete(any(RepositoryPath.class), anyBoolean());
+    }
+
+    @Test
+    public void testNothingIsEvictedWhileTheRemoteIsDown()
+        throws Exception
+    {
+        givenQuota(0, 1, "lru");
+        givenArtifacts(Arrays.asList(artifactEntry(100, 1), artifactEntry(100, 2)));
+        when(remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository)).thenReturn(false);
+
+        assertEquals(0, evictionService.enforceQuota(STORAGE_ID, REPOSITORY_ID));
+        verify(artifactManagementService, never()).delete(any(RepositoryPath.class), anyBoolean());
+    }
+
+    @Test
+    public void testSizeWeightedPolicyEvictsTheBiggestIdleArtifactsFirst()
+        throws Exception
+    {
+        givenQuota(1000, 0, "size-weighted");
+        ArtifactEntry oldSmall = artifactEntry(10, 10);
+        ArtifactEntry recentMedium = artifactEntry(100, 1);
+        ArtifactEntry recentBig = artifactEntry(1000, 1);
+        givenArtifacts(Arrays.asList(oldSmall, recentMedium, recentBig));
+
+        // 1110 bytes are above 90% of 1000, 110 are left below 50% of 1000.
+        assertEquals(1, evictionService.enforceQuota(STORAGE_ID, REPOSITORY_ID));
+
+        verify(artifactManagementService).delete(pathOf(recentBig), true);
+        verify(artifactManagementService, never()).delete(pathOf(recentMedium), true);
+        verify(artifactManagementService, never()).delete(pathOf(oldSmall), true);
+    }
+
+    private void givenQuota(long maxSizeInBytes,
+                            long maxArtifacts,
+                            String evictionPolicy)
+    {
+        MutableCacheQuota cacheQuota = new MutableCacheQuota();
+        cacheQuota.setMaxSizeInBytes(maxSizeInBytes);
+        cacheQuota.setMaxArtifacts(maxArtifacts);
+        cacheQuota.setHighWatermarkPercentage(90);
+        cacheQuota.setLowWatermarkPercentage(50);
+        cacheQuota.setEvictionPolicy(evictionPolicy);
+
+        when(remoteRepository.getCacheQuota()).thenReturn(new CacheQuota(cacheQuota));
+    }
+
+    private void givenArtifacts(List<ArtifactEntry> artifactEntries)
+    {
+        long size = artifactEntries.stream().mapToLong(ArtifactEntry::getSizeInBytes).sum();
+        when(artifactEntryService.countArtifactsAndSize(STORAGE_ID, REPOSITORY_ID))
+                .thenReturn(Pair.with((long) artifactEntries.size(), size));
+
+        // A fresh list every time, as the size weighted policy sorts it.
+        when(artifactEntryService.findMatching(any(), any())).thenAnswer(i -> new ArrayList<>(artifactEntries));
+
+        for (ArtifactEntry artifactEntry : artifactEntries)
+        {
+            RepositoryPath repositoryPath = Mockito.mock(RepositoryPath.class);
+            when(repositoryRoot.resolve(artifactEntry)).thenReturn(repositoryPath);
+        }
+    }
+
+    private RepositoryPath pathOf(ArtifactEntry artifactEntry)
+    {
+        return repositoryRoot.resolve(artifactEntry);
+    }
+
+    private static ArtifactEntry artifactEntry(long sizeInBytes,
+                                               int idleDays)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setSizeInBytes(sizeInBytes);
+        artifactEntry.setLastUsed(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(idleDays)));
+
+        return artifactEntry;
+    }
+
+}
@@ -26,6 +26,7 @@ import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.hamcrest.CoreMatchers;
+import org.javatuples.Pair;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -264,6 +265,48 @@ public class ArtifactEntryServiceTest
         assertThat(entries.size(), CoreMatchers.equalTo(all - 1));
     }
 
+    @Test
+    public void countArtifactsAndSizeShouldWork()
+            throws Exception
+    {
+        updateArtifactAttributes();
+
+        Pair<Long, Long> artifactsAndSize = artifactEntryService.countArtifactsAndSize(storageId, repositoryId);
+
+        assertThat(artifactsAndSize.getValue0(), CoreMatchers.equalTo(3L));
+        assertThat(artifactsAndSize.getValue1(), CoreMatchers.equalTo(1L + 2 * 100000L));
+    }
+
+    @Test
+    public void searchByUuidCursorShouldPageThroughTheRepository()
+            throws Exception
+    {
+        int all = count();
+
+        List<String> uuids = new ArrayList<>();
+        String cursor = null;
+        while (true)
+        {
+            List<ArtifactEntry> page = artifactEntryService.findMatching(anArtifactEntrySearchCriteria()
+                                                                                 .withStorageId(storageId)
+                                                                                 .withRepositoryId(repositoryId)
+                                                                                 .withUuidGreaterThan(cursor)
+                                                                                 .build(),
+                                                                         new PagingCriteria(0, 2));
+            if (page.isEmpty())
+            {
+                break;
+            }
+
+            page.forEach(e -> assertEquals(repositoryId, e.getRepositoryId()));
+            page.forEach(e -> uuids.add(e.getUuid()));
+            cursor = page.get(page.size() - 1).getUuid();
+        }
+
+        assertThat(uuids.size(), CoreMatchers.equalTo(all));
+        assertThat(uuids, CoreMatchers.equalTo(uuids.stream().sorted().distinct().collect(Collectors.toList())));
+    }
+
     /**
      * Make sure that we are able to search artifacts by single coordinate.
      *
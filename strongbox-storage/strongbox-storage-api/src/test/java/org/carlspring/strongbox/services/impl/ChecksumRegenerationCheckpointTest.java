@@ -0,0 +1,77 @@
+package org.carlspring.strongbox.services.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChecksumRegenerationCheckpointTest
+{
+
+    private Path directory;
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        directory = Files.createTempDirectory("checksum-regeneration-checkpoint-test");
+        file = directory.resolve("storage0-releases.checkpoint");
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void testResumeWithSameCriteria()
+        throws IOException
+    {
+        ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.load(file, null, true, false);
+        checkpoint.save("org/carlspring/foo/1.0/foo-1.0.jar");
+
+        checkpoint = ChecksumRegenerationCheckpoint.load(file, null, true, false);
+
+        assertEquals("org/carlspring/foo/1.0/foo-1.0.jar", checkpoint.getResumeFrom());
+        assertTrue(checkpoint.isFileDone("org/carlspring/foo/1.0/foo-1.0-sources.jar"));
+        assertFalse(checkpoint.isFileDone("org/carlspring/foo/1.0/foo-1.0.jar"));
+        assertFalse(checkpoint.isFileDone("org/carlspring/foo/1.0/foo-1.0.pom"));
+
+        assertTrue(checkpoint.isDirectoryDone("com"));
+        assertTrue(checkpoint.isDirectoryDone("org/carlspring/fo"));
+        assertFalse(checkpoint.isDirectoryDone("org/carlspring/foo"));
+        // "foo-bar/" sorts before "foo/" as a string, but after "foo" name by name.
+        assertFalse(checkpoint.isDirectoryDone("org/carlspring/foo-bar"));
+        assertFalse(checkpoint.isDirectoryDone("org/carlspring/foo/1.1"));
+    }
+
+    @Test
+    public void testStartOverWithOtherCriteria()
+        throws IOException
+    {
+        ChecksumRegenerationCheckpoint checkpoint = ChecksumRegenerationCheckpoint.load(file, null, true, false);
+        checkpoint.save("org/carlspring/foo/1.0/foo-1.0.jar");
+
+        checkpoint = ChecksumRegenerationCheckpoint.load(file, null, false, false);
+
+        assertNull(checkpoint.getResumeFrom());
+        assertFalse(checkpoint.isDirectoryDone("com"));
+
+        checkpoint.complete();
+
+        assertFalse(Files.exists(file));
+    }
+
+}
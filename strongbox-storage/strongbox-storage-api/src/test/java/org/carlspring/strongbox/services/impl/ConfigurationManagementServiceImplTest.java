@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -15,6 +16,7 @@ import javax.inject.Inject;
 import org.carlspring.strongbox.StorageApiTestConfig;
 import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.configuration.MutableConfiguration;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.HttpConnectionPool;
@@ -35,6 +37,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * @author mtodorov
@@ -60,6 +64,12 @@ public class ConfigurationManagementServiceImplTest
 
     private static final String REPOSITORY_GROUP_2 = "csmi-group-2";
 
+    private static final String INSTANCE_NAME_1 = "cmsi-instance-1";
+
+    private static final String INSTANCE_NAME_2 = "cmsi-instance-2";
+
+    private static final String FAILED_BASE_URL = "http://cmsi-failed-modification/";
+
     @Inject
     private ConfigurationManagementService configurationManagementService;
 
@@ -318,6 +328,48 @@ public class ConfigurationManagementServiceImplTest
         assertTrue(repositories.isEmpty());
     }
 
+    @Test
+    public void testSnapshotIsNotChangedByLaterModifications()
+        throws IOException
+    {
+        String instanceName = configurationManagementService.getConfiguration().getInstanceName();
+        try
+        {
+            configurationManagementService.setInstanceName(INSTANCE_NAME_1);
+            Configuration first = configurationManagementService.getConfiguration();
+
+            configurationManagementService.setInstanceName(INSTANCE_NAME_2);
+            Configuration second = configurationManagementService.getConfiguration();
+
+            assertEquals(INSTANCE_NAME_1, first.getInstanceName());
+            assertEquals(INSTANCE_NAME_2, second.getInstanceName());
+            assertTrue(second.getSnapshotVersion() > first.getSnapshotVersion());
+            assertThrows(UnsupportedOperationException.class, () -> first.getStorages().clear());
+        }
+        finally
+        {
+            configurationManagementService.setInstanceName(instanceName);
+        }
+    }
+
+    @Test
+    public void testFailedModificationIsRolledBack()
+    {
+        String baseUrl = configurationManagementService.getConfiguration().getBaseUrl();
+        Consumer<MutableConfiguration> failingOperation = configuration -> {
+            configuration.setBaseUrl(FAILED_BASE_URL);
+
+            throw new IllegalStateException("The modification has failed.");
+        };
+
+        assertThrows(IllegalStateException.class,
+                     () -> ReflectionTestUtils.invokeMethod(AopTestUtils.getUltimateTargetObject(
+                             configurationManagementService), "modifyInLock", failingOperation));
+
+        assertEquals(baseUrl, configurationManagementService.getConfiguration().getBaseUrl());
+        assertEquals(baseUrl, configurationManagementService.getMutableConfigurationClone().getBaseUrl());
+    }
+
     private MutableRoutingRule createRoutingRule(RoutingRuleTypeEnum type)
     {
         MutableRoutingRule routingRule = new MutableRoutingRule();
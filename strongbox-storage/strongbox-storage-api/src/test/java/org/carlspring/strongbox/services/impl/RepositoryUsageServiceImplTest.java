@@ -0,0 +1,187 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.services.RepositoryUsageService;
+import org.carlspring.strongbox.storage.quota.RepositoryUsage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.NullRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+public class RepositoryUsageServiceImplTest
+{
+
+    private static final String REPOSITORY_STORED = "rusit-stored";
+
+    private static final String REPOSITORY_UPDATED = "rusit-updated";
+
+    private static final String REPOSITORY_DELETED = "rusit-deleted";
+
+    private static final String REPOSITORY_FAILED = "rusit-failed";
+
+    private static final String ARTIFACT = "org/carlspring/strongbox/usage/usage-1.ext";
+
+    private static final byte[] CONTENT = "usage".getBytes();
+
+    private static final byte[] LARGER_CONTENT = "the usage of a repository".getBytes();
+
+    @Inject
+    private RepositoryUsageService repositoryUsageService;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testStoredFileIsCounted(@NullRepository(repositoryId = REPOSITORY_STORED) Repository repository)
+        throws IOException
+    {
+        RepositoryUsage before = reconcile(repository);
+
+        store(repository, CONTENT);
+
+        RepositoryUsage after = getUsage(repository);
+        assertTrue(after.getFiles() > before.getFiles());
+        assertTrue(after.getSize() >= before.getSize() + CONTENT.length);
+        assertMatchesReconciliation(repository, after);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testUpdatedFileIsCountedOnce(@NullRepository(repositoryId = REPOSITORY_UPDATED) Repository repository)
+        throws IOException
+    {
+        reconcile(repository);
+        store(repository, CONTENT);
+        RepositoryUsage stored = getUsage(repository);
+
+        store(repository, LARGER_CONTENT);
+
+        RepositoryUsage updated = getUsage(repository);
+        assertEquals(stored.getFiles(), updated.getFiles());
+        assertEquals(stored.getSize() + LARGER_CONTENT.length - CONTENT.length, updated.getSize());
+        assertMatchesReconciliation(repository, updated);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testDeletedFileIsUncounted(@NullRepository(repositoryId = REPOSITORY_DELETED) Repository repository)
+        throws IOException
+    {
+        RepositoryUsage before = reconcile(repository);
+        store(repository, CONTENT);
+
+        RepositoryFiles.delete(repositoryPathResolver.resolve(repository, ARTIFACT));
+
+        RepositoryUsage after = getUsage(repository);
+        assertEquals(before.getFiles(), after.getFiles());
+        assertEquals(before.getSize(), after.getSize());
+        assertMatchesReconciliation(repository, after);
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testFailedUploadIsForgotten(@NullRepository(repositoryId = REPOSITORY_FAILED) Repository repository)
+        throws IOException
+    {
+        RepositoryUsage before = reconcile(repository);
+        RepositoryPath path = repositoryPathResolver.resolve(repository, ARTIFACT);
+
+        assertThrows(IOException.class, () -> artifactManagementService.store(path, new FailingInputStream()));
+
+        assertTrue(getPending("pendingUploads").isEmpty());
+        RepositoryUsage after = getUsage(repository);
+        assertEquals(before.getFiles(), after.getFiles());
+        assertEquals(before.getSize(), after.getSize());
+    }
+
+    private Map<?, ?> getPending(String name)
+    {
+        return (Map<?, ?>) ReflectionTestUtils.getField(AopTestUtils.getUltimateTargetObject(repositoryUsageService),
+                                                        name);
+    }
+
+    private void store(Repository repository,
+                       byte[] content)
+        throws IOException
+    {
+        RepositoryPath path = repositoryPathResolver.resolve(repository, ARTIFACT);
+
+        artifactManagementService.store(path, new ByteArrayInputStream(content));
+    }
+
+    private RepositoryUsage getUsage(Repository repository)
+        throws IOException
+    {
+        return repositoryUsageService.getUsage(repository.getStorage().getId(), repository.getId());
+    }
+
+    private RepositoryUsage reconcile(Repository repository)
+        throws IOException
+    {
+        return repositoryUsageService.reconcile(repository.getStorage().getId(), repository.getId());
+    }
+
+    /**
+     * The counters which followed the events match a walk of the repository.
+     */
+    private void assertMatchesReconciliation(Repository repository,
+                                             RepositoryUsage usage)
+        throws IOException
+    {
+        RepositoryUsage reconciled = reconcile(repository);
+
+        assertEquals(reconciled.getFiles(), usage.getFiles());
+        assertEquals(reconciled.getSize(), usage.getSize());
+    }
+
+    /**
+     * Breaks off the upload after a few bytes.
+     */
+    private static class FailingInputStream
+            extends InputStream
+    {
+
+        private int remaining = 3;
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            if (remaining-- == 0)
+            {
+                throw new IOException("The upload was broken off.");
+            }
+
+            return 'u';
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactArchiveListing;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.RepositorySetup;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+/**
+ * The archives are listed in the background, once their {@link ArtifactEntry} is stored.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = StorageApiTestConfig.class)
+@Execution(SAME_THREAD)
+public class ArtifactStoredEventListenerTest
+{
+
+    private static final String REPOSITORY_LISTED = "asel-listed";
+
+    private static final String REPOSITORY_NOT_LISTED = "asel-not-listed";
+
+    private static final String REPOSITORY_MAX_SIZE = "asel-max-size";
+
+    private static final String ARCHIVE = "org/carlspring/strongbox/listing/listing-1.zip";
+
+    private static final String LARGE_ARCHIVE = "org/carlspring/strongbox/listing/listing-large-1.zip";
+
+    private static final String ENTRY = "org/carlspring/strongbox/listing/Listing.class";
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Inject
+    private ArtifactStoredEventListener artifactStoredEventListener;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testStoredArchiveIsListed(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME,
+                                                          repositoryId = REPOSITORY_LISTED,
+                                                          setup = ArchiveListingRepositorySetup.class)
+                                          Repository repository)
+        throws Exception
+    {
+        store(repository, ARCHIVE, zip(ENTRY, new byte[]{ 1, 2, 3 }));
+
+        assertEquals(Collections.singleton(ENTRY), awaitListing(repository, ARCHIVE));
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testArchiveIsNotListedUnlessEnabled(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME,
+                                                                    repositoryId = REPOSITORY_NOT_LISTED)
+                                                    Repository repository,
+                                                    @TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME,
+                                                                    repositoryId = REPOSITORY_LISTED,
+                                                                    setup = ArchiveListingRepositorySetup.class)
+                                                    Repository listedRepository)
+        throws Exception
+    {
+        store(repository, ARCHIVE, zip(ENTRY, new byte[]{ 1, 2, 3 }));
+        store(listedRepository, ARCHIVE, zip(ENTRY, new byte[]{ 1, 2, 3 }));
+
+        // Stored after the other one, so that one has been handled once this one is listed.
+        assertEquals(Collections.singleton(ENTRY), awaitListing(listedRepository, ARCHIVE));
+        awaitIdle();
+
+        assertNull(getListing(repository, ARCHIVE));
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void testArchiveOverTheMaxSizeIsNotListed(@TestRepository(layout = NullArtifactCoordinates.LAYOUT_NAME,
+                                                                     repositoryId = REPOSITORY_MAX_SIZE,
+                                                                     setup = ArchiveListingRepositorySetup.class)
+                                                     Repository repository)
+        throws Exception
+    {
+        Object target = AopTestUtils.getUltimateTargetObject(artifactStoredEventListener);
+        Object maxSizeMb = ReflectionTestUtils.getField(target, "maxSizeMb");
+        ReflectionTestUtils.setField(target, "maxSizeMb", 1L);
+        try
+        {
+            byte[] content = new byte[2 * 1024 * 1024];
+            new Random(1L).nextBytes(content);
+
+            store(repository, LARGE_ARCHIVE, zip(ENTRY, content));
+            store(repository, ARCHIVE, zip(ENTRY, new byte[]{ 1, 2, 3 }));
+
+            assertEquals(Collections.singleton(ENTRY), awaitListing(repository, ARCHIVE));
+            awaitIdle();
+
+            assertNull(getListing(repository, LARGE_ARCHIVE));
+        }
+        finally
+        {
+            ReflectionTestUtils.setField(target, "maxSizeMb", maxSizeMb);
+        }
+    }
+
+    private void store(Repository repository,
+                       String path,
+                       byte[] content)
+        throws IOException
+    {
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+
+        artifactManagementService.store(repositoryPath, new ByteArrayInputStream(content));
+    }
+
+    private Set<String> getListing(Repository repository,
+                                   String path)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(repository.getStorage().getId(),
+                                                                           repository.getId(),
+                                                                           path);
+        ArtifactArchiveListing listing = artifactEntry != null ? artifactEntry.getArtifactArchiveListing() : null;
+
+        return listing != null ? listing.getFilenames() : null;
+    }
+
+    private Set<String> awaitListing(Repository repository,
+                                     String path)
+        throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        Set<String> result = getListing(repository, path);
+        while ((result == null || result.isEmpty()) && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(100);
+            result = getListing(repository, path);
+        }
+
+        return result;
+    }
+
+    private void awaitIdle()
+        throws InterruptedException
+    {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(
+                AopTestUtils.getUltimateTargetObject(artifactStoredEventListener), "executor");
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while ((executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) &&
+               System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(100);
+        }
+    }
+
+    private static byte[] zip(String entry,
+                              byte[] content)
+        throws IOException
+    {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(result))
+        {
+            zos.putNextEntry(new ZipEntry(entry));
+            zos.write(content);
+            zos.closeEntry();
+        }
+
+        return result.toByteArray();
+    }
+
+    public static class ArchiveListingRepositorySetup
+            implements RepositorySetup
+    {
+
+        @Override
+        public void setup(RepositoryDto repository)
+        {
+            repository.setArchiveListingEnabled(true);
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package org.carlspring.strongbox.services.support;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoutingRulePatternsTest
+{
+
+    @Test
+    public void testMergedPatternsMatchAnyRule()
+    {
+        RoutingRulePatterns patterns = RoutingRulePatterns.of(Arrays.asList(Pattern.compile(".*(com|org)/carlspring.*"),
+                                                                            Pattern.compile("(?i)COM/FOO/.*"),
+                                                                            Pattern.compile("(a)/\\1/.*")));
+
+        assertTrue(patterns.matches("org/carlspring/strongbox/strongbox-commons/1.0/strongbox-commons-1.0.jar"));
+        assertTrue(patterns.matches("com/foo/bar/1.0/bar-1.0.jar"));
+        assertTrue(patterns.matches("a/a/b-1.0.jar"));
+        assertFalse(patterns.matches("a/b/b-1.0.jar"));
+        assertFalse(patterns.matches("net/example/bar/1.0/bar-1.0.jar"));
+    }
+
+    @Test
+    public void testPrefixesWhichCanNotBeMatched()
+    {
+        RoutingRulePatterns patterns = RoutingRulePatterns.of(Arrays.asList(Pattern.compile("com/foo/.*"),
+                                                                            Pattern.compile("org/bar/.*\\.jar")));
+
+        assertTrue(patterns.canMatchPathsStartingWith("com/"));
+        assertTrue(patterns.canMatchPathsStartingWith("org/bar/baz/"));
+        assertFalse(patterns.canMatchPathsStartingWith("com/baz/"));
+        assertFalse(patterns.canMatchPathsStartingWith("net/"));
+
+        assertFalse(RoutingRulePatterns.of(Collections.emptyList()).canMatchPathsStartingWith("com/"));
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.carlspring.strongbox.services.support;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRule;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRuleRepository;
+import org.carlspring.strongbox.storage.routing.MutableRoutingRules;
+import org.carlspring.strongbox.storage.routing.RoutingRule;
+import org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum;
+import org.carlspring.strongbox.storage.routing.RoutingRules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum.ACCEPT;
+import static org.carlspring.strongbox.storage.routing.RoutingRuleTypeEnum.DENY;
+
+/**
+ * Checks that the {@link RoutingRulesIndex} decides like the rules, checked one by one, did before the index.
+ */
+public class RoutingRulesIndexTest
+{
+
+    private static final String STORAGE0 = "storage0";
+
+    private static final String STORAGE1 = "storage1";
+
+    private static final String GROUP = "group";
+
+    private static final String RELEASES = "releases";
+
+    private static final String SNAPSHOTS = "snapshots";
+
+    private static final List<String> PATHS = Arrays.asList("foo.jar",
+                                                            "org/foo",
+                                                            "org/foo/foo-1.0.pom",
+                                                            "org/foo/1.0/foo-1.0.jar",
+                                                            "org/foo/1.0/foo-1.0-sources.jar",
+                                                            "ORG/FOO/1.0/foo-1.0.jar",
+                                                            "org/carlspring/strongbox/1.0/strongbox-1.0.jar",
+                                                            "org/carlspring/commons/1.0/commons-1.0.jar",
+                                                            "com/carlspring/commons/1.0/commons-1.0.zip",
+                                                            "com/foo/bar/1.0/bar-1.0.jar",
+                                                            "com/foo/bar/2.0/bar-2.0.zip",
+                                                            "net/example/bar/1.0/bar-1.0.jar",
+                                                            "net/example/bar/1.0/bar-1.0.zip",
+                                                            "a/a/b-1.0.jar",
+                                                            "a/b/b-1.0.jar");
+
+    private static final List<Repository> GROUPS = Arrays.asList(repository(STORAGE0, GROUP),
+                                                                 repository(STORAGE1, GROUP),
+                                                                 repository(STORAGE0, "other-group"));
+
+    private static final List<Repository> MEMBERS = Arrays.asList(repository(STORAGE0, RELEASES),
+                                                                  repository(STORAGE0, SNAPSHOTS),
+                                                                  repository(STORAGE1, RELEASES));
+
+    static Stream<Arguments> ruleSets()
+    {
+        return Stream.of(Arguments.of("deny for all the members",
+                                      Arrays.asList(rule(DENY, STORAGE0, GROUP, ".*(com|org)/carlspring.*"))),
+                         Arguments.of("overlapping accept and deny",
+                                      Arrays.asList(rule(DENY, STORAGE0, GROUP, ".*/carlspring/.*",
+                                                         member(STORAGE0, RELEASES)),
+                                                    rule(ACCEPT, STORAGE0, GROUP, "org/carlspring/strongbox/.*",
+                                                         member(STORAGE0, RELEASES)),
+                                                    rule(DENY, STORAGE0, GROUP, "org/foo/.*"),
+                                                    rule(ACCEPT, STORAGE0, GROUP, ".*-sources\\.jar"))),
+                         Arguments.of("wildcard groups and members",
+                                      Arrays.asList(rule(DENY, null, null, "com/.*", member(null, RELEASES)),
+                                                    rule(DENY, STORAGE0, null, ".*\\.jar", member(STORAGE0, null)),
+                                                    rule(ACCEPT, null, GROUP, ".*-sources\\.jar"),
+                                                    rule(DENY, null, GROUP, "net/.*\\.zip"))),
+                         Arguments.of("rules of other groups and members",
+                                      Arrays.asList(rule(DENY, STORAGE0, "other-group", ".*"),
+                                                    rule(DENY, STORAGE0, GROUP, ".*", member(STORAGE0, SNAPSHOTS)),
+                                                    rule(ACCEPT, STORAGE0, GROUP, "org/.*",
+                                                         member(STORAGE0, SNAPSHOTS)))),
+                         Arguments.of("directory boundaries",
+                                      Arrays.asList(rule(DENY, STORAGE0, GROUP, "org/foo"),
+                                                    rule(DENY, STORAGE0, GROUP, "org/foo/[^/]*\\.pom"),
+                                                    rule(DENY, STORAGE0, GROUP, ".*/1\\.0/.*"),
+                                                    rule(ACCEPT, STORAGE0, GROUP, ".*/1\\.0/[^/]*\\.zip"),
+                                                    rule(DENY, STORAGE0, GROUP, "(?!org/).*\\.zip"),
+                                                    rule(DENY, STORAGE0, GROUP, "[^/]*\\.jar"))),
+                         Arguments.of("case insensitive patterns and back references",
+                                      Arrays.asList(rule(DENY, STORAGE0, GROUP, "(?i)ORG/FOO/.*"),
+                                                    rule(DENY, STORAGE0, GROUP, "(a)/\\1/.*"),
+                                                    rule(ACCEPT, STORAGE0, GROUP, "(?i).*-SOURCES\\.JAR"))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("ruleSets")
+    public void testIndexDecidesLikeTheRules(String name,
+                                             List<MutableRoutingRule> rules)
+    {
+        MutableRoutingRules mutableRoutingRules = new MutableRoutingRules();
+        mutableRoutingRules.setRules(new ArrayList<>(rules));
+        RoutingRules routingRules = new RoutingRules(mutableRoutingRules);
+
+        RoutingRulesIndex index = new RoutingRulesIndex(routingRules, 1L);
+
+        // The second pass goes through the directories cached by the first one.
+        for (int pass = 0; pass < 2; pass++)
+        {
+            for (Repository groupRepository : GROUPS)
+            {
+                for (Repository subRepository : MEMBERS)
+                {
+                    for (String path : PATHS)
+                    {
+                        assertEquals(isDeniedByRules(routingRules, groupRepository, subRepository, path),
+                                     index.isDenied(groupRepository, subRepository, path),
+                                     String.format("%s > %s: %s",
+                                                   groupRepository.getStorageIdAndRepositoryId(),
+                                                   subRepository.getStorageIdAndRepositoryId(),
+                                                   path));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The check of the rules one by one, as the {@link ArtifactRoutingRulesChecker} did it before the index.
+     */
+    private static boolean isDeniedByRules(RoutingRules routingRules,
+                                           Repository groupRepository,
+                                           Repository subRepository,
+                                           String artifactPath)
+    {
+        return hasCandidates(routingRules.getDenied(), groupRepository, subRepository, artifactPath) &&
+               !hasCandidates(routingRules.getAccepted(), groupRepository, subRepository, artifactPath);
+    }
+
+    private static boolean hasCandidates(List<RoutingRule> rules,
+                                         Repository groupRepository,
+                                         Repository subRepository,
+                                         String artifactPath)
+    {
+        return rules.stream()
+                    .anyMatch(rule -> RoutingRulesIndex.isMatch(rule, groupRepository) &&
+                                      rule.getRegex().matcher(artifactPath).matches() &&
+                                      (rule.getRepositories().isEmpty() ||
+                                       rule.getRepositories()
+                                           .stream()
+                                           .anyMatch(r -> RoutingRulesIndex.isMatch(r, subRepository))));
+    }
+
+    private static MutableRoutingRule rule(RoutingRuleTypeEnum type,
+                                           String groupStorageId,
+                                           String groupRepositoryId,
+                                           String pattern,
+                                           MutableRoutingRuleRepository... members)
+    {
+        return MutableRoutingRule.create(groupStorageId,
+                                         groupRepositoryId,
+                                         members.length == 0 ? Collections.emptyList() : Arrays.asList(members),
+                                         pattern,
+                                         type);
+    }
+
+    private static MutableRoutingRuleRepository member(String storageId,
+                                                       String repositoryId)
+    {
+        return new MutableRoutingRuleRepository(storageId, repositoryId);
+    }
+
+    private static Repository repository(String storageId,
+                                         String repositoryId)
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getId()).thenReturn(storageId);
+
+        Repository repository = Mockito.mock(Repository.class);
+        when(repository.getId()).thenReturn(repositoryId);
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getStorageIdAndRepositoryId()).thenReturn(storageId + ":" + repositoryId);
+
+        return repository;
+    }
+
+}
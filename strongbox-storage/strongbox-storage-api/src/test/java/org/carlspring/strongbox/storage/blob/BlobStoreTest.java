@@ -0,0 +1,136 @@
+package org.carlspring.strongbox.storage.blob;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class BlobStoreTest
+{
+
+    private static final byte[] CONTENT = new byte[8192];
+
+    private static final FileTime LAST_MODIFIED = FileTime.fromMillis(1_500_000_000_000L);
+
+    private Path storageRoot;
+
+    private BlobStore blobStore;
+
+    private Path blobStorePath;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        storageRoot = Files.createTempDirectory("blob-store-test");
+        assumeTrue(storageRoot.getFileSystem().supportedFileAttributeViews().contains("unix"));
+
+        blobStore = new BlobStore(true, 4096);
+        blobStorePath = storageRoot.resolve(".blobs");
+
+        for (int i = 0; i < CONTENT.length; i++)
+        {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(storageRoot);
+    }
+
+    @Test
+    public void testIdenticalFilesShareOneBlob()
+        throws IOException
+    {
+        Path first = write("releases/a/a-1.0.jar");
+        Path second = write("snapshots/b/b-1.0.jar");
+
+        String digest = blobStore.digest(first);
+
+        assertTrue(blobStore.link(blobStorePath, first, digest));
+        assertTrue(blobStore.link(blobStorePath, second, digest));
+
+        assertTrue(Files.isSameFile(first, second));
+        assertTrue(Files.isSameFile(first, blobStore.resolveBlob(blobStorePath, digest)));
+        assertArrayEquals(CONTENT, Files.readAllBytes(second));
+
+        BlobStoreReport report = blobStore.report(blobStorePath);
+        assertEquals(1, report.getBlobCount());
+        assertEquals(2, report.getReferenceCount());
+        assertEquals(CONTENT.length, report.getSavedBytes());
+    }
+
+    @Test
+    public void testGarbageCollectionDeletesUnreferencedBlobsOnly()
+        throws IOException
+    {
+        Path first = write("releases/a/a-1.0.jar");
+        Path second = write("releases/a/a-1.1.jar");
+        String digest = blobStore.digest(first);
+
+        blobStore.link(blobStorePath, first, digest);
+        blobStore.link(blobStorePath, second, digest);
+
+        Files.delete(first);
+
+        BlobStoreReport report = blobStore.collectGarbage(blobStorePath);
+        assertEquals(0, report.getReclaimedBlobCount());
+        assertTrue(Files.exists(blobStore.resolveBlob(blobStorePath, digest)));
+
+        Files.delete(second);
+
+        report = blobStore.collectGarbage(blobStorePath);
+        assertEquals(1, report.getReclaimedBlobCount());
+        assertEquals(CONTENT.length, report.getReclaimedBytes());
+        assertFalse(Files.exists(blobStore.resolveBlob(blobStorePath, digest)));
+    }
+
+    @Test
+    public void testFilesWithOtherTimesAreNotLinked()
+        throws IOException
+    {
+        Path first = write("releases/a/a-1.0.jar");
+        FileTime lastModified = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(first, lastModified);
+        String digest = blobStore.digest(first);
+        blobStore.link(blobStorePath, first, digest);
+
+        // Deployed again later, in another repository.
+        Path second = write("snapshots/a/a-1.0.jar");
+        FileTime secondLastModified = FileTime.fromMillis(2_000_000_000_000L);
+        Files.setLastModifiedTime(second, secondLastModified);
+
+        assertFalse(blobStore.link(blobStorePath, second, digest));
+
+        assertFalse(Files.isSameFile(first, second));
+        assertEquals(lastModified, Files.getLastModifiedTime(first));
+        assertEquals(secondLastModified, Files.getLastModifiedTime(second));
+    }
+
+    /**
+     * The files are written with the same time, as copies which keep it would be.
+     */
+    private Path write(String path)
+        throws IOException
+    {
+        Path file = storageRoot.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, CONTENT);
+
+        return Files.setLastModifiedTime(file, LAST_MODIFIED);
+    }
+
+}
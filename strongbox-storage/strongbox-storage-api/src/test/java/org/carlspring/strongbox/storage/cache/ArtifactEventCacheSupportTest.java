@@ -0,0 +1,61 @@
+package org.carlspring.strongbox.storage.cache;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.google.common.cache.Cache;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArtifactEventCacheSupportTest
+{
+
+    private final ArtifactEventCacheSupport cacheSupport = new ArtifactEventCacheSupport(
+            60, ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CREATED);
+
+    private final Cache<String, String> cache = cacheSupport.newCache(10);
+
+    @Test
+    public void testValueIsCachedWithoutInvalidation()
+    {
+        long generation = cacheSupport.getGeneration();
+        cacheSupport.put(cache, "key", "value", generation);
+
+        assertEquals("value", cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testValueRacingWithAnInvalidationIsNotCached()
+    {
+        long generation = cacheSupport.getGeneration();
+        cacheSupport.invalidate(cache::invalidateAll);
+        cacheSupport.put(cache, "key", "stale", generation);
+
+        assertNull(cache.getIfPresent("key"));
+
+        cacheSupport.put(cache, "key", "value", cacheSupport.getGeneration());
+
+        assertEquals("value", cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void testInvalidatingEvents()
+    {
+        assertTrue(cacheSupport.isInvalidating(event(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED)));
+        assertTrue(cacheSupport.isInvalidating(event(ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED)));
+        assertTrue(cacheSupport.isInvalidating(event(ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CREATED)));
+        assertFalse(cacheSupport.isInvalidating(event(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED)));
+    }
+
+    private ArtifactEvent<Path> event(ArtifactEventTypeEnum type)
+    {
+        return new ArtifactEvent<>(Paths.get("org/carlspring/a/a-1.0.jar"), type.getType());
+    }
+
+}
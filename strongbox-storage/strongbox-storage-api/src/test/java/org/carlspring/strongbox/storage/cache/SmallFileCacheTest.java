@@ -0,0 +1,112 @@
+package org.carlspring.strongbox.storage.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SmallFileCacheTest
+{
+
+    private static final byte[] CONTENT = "<metadata><version>1.0</version></metadata>".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] UPDATED_CONTENT = "<metadata><version>1.1</version></metadata>".getBytes(StandardCharsets.UTF_8);
+
+    private Path baseDirectory;
+
+    private Path file;
+
+    private SmallFileCache smallFileCache;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        baseDirectory = Files.createTempDirectory("small-file-cache-test");
+        file = baseDirectory.resolve("org/carlspring/a/maven-metadata.xml");
+        Files.createDirectories(file.getParent());
+        Files.write(file, CONTENT);
+
+        smallFileCache = new SmallFileCache(1024, 4096);
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(baseDirectory);
+    }
+
+    @Test
+    public void testSmallFileIsServedFromMemory()
+        throws IOException
+    {
+        byte[] content = smallFileCache.get(file);
+
+        assertArrayEquals(CONTENT, content);
+        assertSame(content, smallFileCache.get(file));
+        assertEquals(1, smallFileCache.getSize());
+    }
+
+    @Test
+    public void testModifiedFileIsReadAgain()
+        throws IOException
+    {
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        smallFileCache.get(file);
+
+        Files.write(file, UPDATED_CONTENT);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+        assertArrayEquals(UPDATED_CONTENT, smallFileCache.get(file));
+    }
+
+    @Test
+    public void testInvalidatedFileIsReadAgain()
+        throws IOException
+    {
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        smallFileCache.get(file);
+
+        // Same size and time, only the invalidation tells it apart.
+        Files.write(file, UPDATED_CONTENT);
+        Files.setLastModifiedTime(file, lastModified);
+        smallFileCache.invalidate(file);
+
+        assertArrayEquals(UPDATED_CONTENT, smallFileCache.get(file));
+    }
+
+    @Test
+    public void testLargeAndMissingFilesAreNotCached()
+        throws IOException
+    {
+        Files.write(file, new byte[2048]);
+
+        assertNull(smallFileCache.get(file));
+        assertNull(smallFileCache.get(file.resolveSibling("maven-metadata.xml.sha1")));
+        assertNull(smallFileCache.get(file.getParent()));
+        assertEquals(0, smallFileCache.getSize());
+    }
+
+    @Test
+    public void testDisabledCache()
+        throws IOException
+    {
+        smallFileCache = new SmallFileCache(0, 4096);
+
+        assertFalse(smallFileCache.isEnabled());
+        assertNull(smallFileCache.get(file));
+    }
+
+}
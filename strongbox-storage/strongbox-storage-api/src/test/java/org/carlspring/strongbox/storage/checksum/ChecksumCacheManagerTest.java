@@ -10,16 +10,21 @@ import java.security.NoSuchAlgorithmException;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * @author mtodorov
  */
-@Disabled
 public class ChecksumCacheManagerTest
 {
 
+    private static final String ARTIFACT_BASE_PATH = "storage0/repositories/releases/org/carlspring/test-project/1.0/test-project-1.0.jar";
 
+
+    @Disabled
     @Test
     public void testChecksumManagement()
             throws Exception
@@ -56,6 +61,57 @@ public class ChecksumCacheManagerTest
         checkerThread.interrupt();
     }
 
+    @Test
+    public void testClaimedChecksumsAreRemoved()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "MD5", "120ea8a25e5d487bf68b5f7096440019");
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "SHA-1", "afa6c8b3a2fae95785dc7d9685a57835d703ac88");
+
+        manager.removeArtifactChecksum(ARTIFACT_BASE_PATH, "sha1");
+
+        assertTrue(manager.validateChecksum(ARTIFACT_BASE_PATH, "MD5", "120ea8a25e5d487bf68b5f7096440019"));
+        assertNull(manager.getArtifactChecksum(ARTIFACT_BASE_PATH, "SHA-1"));
+
+        manager.removeArtifactChecksum(ARTIFACT_BASE_PATH, "md5");
+
+        assertEquals(0, manager.getSize());
+    }
+
+    @Test
+    public void testUnclaimedChecksumsExpire()
+            throws Exception
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+        manager.setCachedChecksumLifetime(100L);
+
+        manager.addArtifactChecksum(ARTIFACT_BASE_PATH, "MD5", "120ea8a25e5d487bf68b5f7096440019");
+
+        Thread.sleep(200L);
+
+        assertNull(manager.getArtifactChecksum(ARTIFACT_BASE_PATH));
+
+        manager.removeExpiredChecksums();
+
+        assertEquals(0, manager.getSize());
+    }
+
+    @Test
+    public void testCacheIsBounded()
+    {
+        ChecksumCacheManager manager = new ChecksumCacheManager();
+        manager.setMaxSize(2);
+
+        for (int i = 0; i < 10; i++)
+        {
+            manager.addArtifactChecksum(ARTIFACT_BASE_PATH + "." + i, "MD5", "120ea8a25e5d487bf68b5f7096440019");
+        }
+
+        assertTrue(manager.getSize() <= 2);
+        assertNotNull(manager.getArtifactChecksum(ARTIFACT_BASE_PATH + ".9"));
+    }
+
     @Test
     public void testDigests()
             throws NoSuchAlgorithmException, IOException, CloneNotSupportedException
@@ -0,0 +1,102 @@
+package org.carlspring.strongbox.storage.repository.remote.heartbeat;
+
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryCircuitBreaker.State;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RemoteRepositoryCircuitBreakerTest
+{
+
+    private final AtomicLong clock = new AtomicLong(1000);
+
+    private final RemoteRepositoryCircuitBreaker circuitBreaker = new RemoteRepositoryCircuitBreaker(
+            "http://localhost/repository", 3, 500, 1000, 4000, clock::get);
+
+    @Test
+    public void testOpensAfterConsecutiveFailures()
+    {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess(10);
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+
+        assertTrue(circuitBreaker.isAvailable());
+
+        // Too slow counts as a failure.
+        circuitBreaker.recordSuccess(600);
+
+        assertFalse(circuitBreaker.isAvailable());
+        assertEquals(State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpensAfterTheOpenPeriodAndBacksOff()
+    {
+        circuitBreaker.recordProbe(false);
+        assertFalse(circuitBreaker.isAvailable());
+
+        clock.addAndGet(1000);
+        assertTrue(circuitBreaker.isAvailable());
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.recordFailure();
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertEquals(2000, circuitBreaker.getOpenPeriodMillis());
+        assertEquals(20000, circuitBreaker.getProbeDelayMillis(10000));
+
+        clock.addAndGet(1000);
+        assertFalse(circuitBreaker.isAvailable());
+
+        circuitBreaker.recordProbe(false);
+        circuitBreaker.recordProbe(false);
+        assertEquals(4000, circuitBreaker.getOpenPeriodMillis());
+
+        circuitBreaker.recordProbe(true);
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+
+        circuitBreaker.recordSuccess(10);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(1000, circuitBreaker.getOpenPeriodMillis());
+        assertEquals(10000, circuitBreaker.getProbeDelayMillis(10000));
+    }
+
+    @Test
+    public void testHalfOpenLetsASingleTrialThrough()
+    {
+        circuitBreaker.recordProbe(false);
+        clock.addAndGet(1000);
+
+        assertTrue(circuitBreaker.isAvailable());
+        assertFalse(circuitBreaker.isAvailable());
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+
+        // The trial never reported back.
+        clock.addAndGet(1000);
+        assertTrue(circuitBreaker.isAvailable());
+        assertFalse(circuitBreaker.isAvailable());
+
+        circuitBreaker.recordSuccess(10);
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.isAvailable());
+        assertTrue(circuitBreaker.isAvailable());
+    }
+
+    @Test
+    public void testRecentSuccessSkipsTheProbe()
+    {
+        assertFalse(circuitBreaker.hasSucceededWithin(10000));
+
+        circuitBreaker.recordSuccess(10);
+        assertTrue(circuitBreaker.hasSucceededWithin(10000));
+
+        clock.addAndGet(10000);
+        assertFalse(circuitBreaker.hasSucceededWithin(10000));
+    }
+
+}
@@ -0,0 +1,138 @@
+package org.carlspring.strongbox.storage.tiering;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ColdStoreTest
+{
+
+    private static final byte[] CONTENT = new byte[8192];
+
+    private static final String PATH = "org/carlspring/a/1.0/a-1.0.jar";
+
+    private Path baseDirectory;
+
+    private Path repositoryRoot;
+
+    private Path tempDirectory;
+
+    private Path trashRoot;
+
+    private Path coldRepositoryRoot;
+
+    private ColdStore coldStore;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        baseDirectory = Files.createTempDirectory("cold-store-test");
+        assumeTrue(baseDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        repositoryRoot = baseDirectory.resolve("storage0/releases");
+        tempDirectory = repositoryRoot.resolve(".temp");
+        trashRoot = repositoryRoot.resolve(".trash");
+
+        coldStore = new ColdStore(baseDirectory.resolve("cold").toString(), false);
+        coldRepositoryRoot = coldStore.resolve("storage0", "releases");
+
+        for (int i = 0; i < CONTENT.length; i++)
+        {
+            CONTENT[i] = (byte) i;
+        }
+    }
+
+    @AfterEach
+    public void tearDown()
+        throws IOException
+    {
+        FileSystemUtils.deleteRecursively(baseDirectory);
+    }
+
+    @Test
+    public void testOffloadedFileIsReadThroughItsPath()
+        throws IOException
+    {
+        Path file = write(PATH);
+        FileTime lastModified = Files.getLastModifiedTime(file);
+
+        assertTrue(coldStore.offload(file, coldRepositoryRoot.resolve(PATH), tempDirectory));
+
+        assertTrue(coldStore.isOffloaded(file));
+        assertTrue(Files.readSymbolicLink(file).startsWith(coldRepositoryRoot));
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+        assertEquals(CONTENT.length, Files.size(file));
+        assertEquals(lastModified, Files.getLastModifiedTime(file));
+
+        // Already offloaded.
+        assertFalse(coldStore.offload(file, coldRepositoryRoot.resolve(PATH), tempDirectory));
+    }
+
+    @Test
+    public void testPromotedFileIsBackInPlace()
+        throws IOException
+    {
+        Path file = write(PATH);
+        coldStore.offload(file, coldRepositoryRoot.resolve(PATH), tempDirectory);
+        Path coldFile = Files.readSymbolicLink(file);
+
+        assertTrue(coldStore.promote(file, tempDirectory));
+
+        assertFalse(Files.isSymbolicLink(file));
+        assertFalse(Files.exists(coldFile));
+        assertArrayEquals(CONTENT, Files.readAllBytes(file));
+
+        assertFalse(coldStore.promote(file, tempDirectory));
+    }
+
+    @Test
+    public void testGarbageCollectionKeepsLinkedFiles()
+        throws IOException
+    {
+        Path file = write(PATH);
+        coldStore.offload(file, coldRepositoryRoot.resolve(PATH), tempDirectory);
+        Path trashedColdFile = Files.readSymbolicLink(file);
+
+        // Deleted into the trash, and deployed again.
+        Path trashFile = trashRoot.resolve(PATH);
+        Files.createDirectories(trashFile.getParent());
+        Files.move(file, trashFile, StandardCopyOption.ATOMIC_MOVE);
+        write(PATH);
+        coldStore.offload(file, coldRepositoryRoot.resolve(PATH), tempDirectory);
+        Path coldFile = Files.readSymbolicLink(file);
+
+        assertEquals(0, coldStore.collectGarbage(coldRepositoryRoot, repositoryRoot, trashRoot));
+        assertArrayEquals(CONTENT, Files.readAllBytes(trashFile));
+
+        // Purged from the trash.
+        Files.delete(trashFile);
+
+        assertEquals(1, coldStore.collectGarbage(coldRepositoryRoot, repositoryRoot, trashRoot));
+        assertFalse(Files.exists(trashedColdFile));
+        assertTrue(Files.exists(coldFile));
+    }
+
+    private Path write(String path)
+        throws IOException
+    {
+        Path file = repositoryRoot.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, CONTENT);
+
+        return file;
+    }
+
+}
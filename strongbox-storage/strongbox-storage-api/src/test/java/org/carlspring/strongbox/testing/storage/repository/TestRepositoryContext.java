@@ -172,6 +172,7 @@ public class TestRepositoryContext implements AutoCloseable, Comparable<TestRepo
             repository.setAllowsForceDeletion(repositoryAttributes.allowsForceDeletion());
             repository.setAllowsRedeployment(repositoryAttributes.allowsRedeployment());
             repository.setChecksumHeadersEnabled(repositoryAttributes.checksumHeadersEnabled());
+            repository.setArchiveListingEnabled(repositoryAttributes.archiveListingEnabled());
             repository.setStatus(repositoryAttributes.status().getStatus());
             repository.setTrashEnabled(repositoryAttributes.trashEnabled());
         });
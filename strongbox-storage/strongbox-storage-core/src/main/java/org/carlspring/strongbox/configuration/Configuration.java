@@ -51,8 +51,20 @@ public class Configuration
 
     private final SmtpConfiguration smtpConfiguration;
 
+    private final long snapshotVersion;
+
     public Configuration(final MutableConfiguration delegate)
     {
+        this(delegate, 0L);
+    }
+
+    /**
+     * @param snapshotVersion the version of the configuration snapshot, see {@link #getSnapshotVersion()}
+     */
+    public Configuration(final MutableConfiguration delegate,
+                         final long snapshotVersion)
+    {
+        this.snapshotVersion = snapshotVersion;
 
         id = delegate.getId();
         instanceName = delegate.getInstanceName();
@@ -126,6 +138,15 @@ public class Configuration
         return revision;
     }
 
+    /**
+     * @return the version of this configuration snapshot, which increases with every configuration change, so it
+     *         can be used to invalidate the data derived from the configuration.
+     */
+    public long getSnapshotVersion()
+    {
+        return snapshotVersion;
+    }
+
     public String getBaseUrl()
     {
         return baseUrl;
@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.io;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the digesting side of the {@link DigestPipeline}s of the {@link LayoutOutputStream}s.
+ * <p>
+ * A pipeline holds its thread until its stream is finished, so there's no queue: when all the
+ * {@code strongbox.digest.parallelism} threads are taken, a stream digests its bytes inline instead.
+ */
+@Component
+public class DigestExecutor
+{
+
+    @Value("${strongbox.digest.parallelism:4}")
+    private int parallelism;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0,
+                                          Math.max(parallelism, 1),
+                                          60L,
+                                          TimeUnit.SECONDS,
+                                          new SynchronousQueue<>(),
+                                          r -> {
+                                              Thread thread = new Thread(r, "layout-digest-" +
+                                                                            threadNumber.incrementAndGet());
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          });
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @throws RejectedExecutionException if all the threads are taken, or the executor is shut down
+     */
+    Future<?> submit(Runnable task)
+    {
+        return executor.submit(task);
+    }
+
+}
@@ -0,0 +1,288 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Updates the digests of a stream on another thread, so that digesting overlaps with writing the stream to the disk.
+ * <p>
+ * The bytes are handed over through a ring of reused buffers: the writer fills a free buffer and queues it, the
+ * digesting thread takes it, updates the digests in order and gives it back. The ring bounds the memory of a stream
+ * and makes the writer wait when the digests fall behind. The digesting thread is taken from a {@link DigestExecutor}.
+ * <p>
+ * If the digesting thread stops before the end of the stream (cancelled, or interrupted by a shutdown), the writer
+ * digests the queued bytes and the rest of the stream inline, rather than waiting for a buffer which never comes back.
+ */
+class DigestPipeline
+{
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int RING_SIZE = 8;
+
+    private static final Chunk END = new Chunk(0);
+
+    /**
+     * How often a writer waiting for a free buffer checks that the digesting thread is still running.
+     */
+    private static final long POLL_MILLIS = 100;
+
+    private final Collection<MessageDigest> digests;
+
+    private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(RING_SIZE);
+
+    private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(RING_SIZE + 1);
+
+    private final Future<?> consumer;
+
+    /**
+     * Set by the digesting thread when it starts, or by the writer to keep it from starting.
+     */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    private Chunk current;
+
+    /**
+     * {@code true} once the writer took the digests over from the digesting thread.
+     */
+    private boolean inline;
+
+    /**
+     * @throws RejectedExecutionException if the executor has no thread to spare
+     */
+    DigestPipeline(Collection<MessageDigest> digests,
+                   DigestExecutor executor)
+    {
+        this.digests = new ArrayList<>(digests);
+        consumer = executor.submit(this::consume);
+
+        for (int i = 0; i < RING_SIZE; i++)
+        {
+            free.add(new Chunk(BUFFER_SIZE));
+        }
+    }
+
+    void update(byte[] b,
+                int off,
+                int len)
+        throws IOException
+    {
+        if (inline)
+        {
+            digest(b, off, len);
+
+            return;
+        }
+
+        while (len > 0)
+        {
+            if (current == null)
+            {
+                current = takeFree();
+            }
+            if (current == null)
+            {
+                takeOver();
+                digest(b, off, len);
+
+                return;
+            }
+
+            int n = Math.min(len, current.bytes.length - current.length);
+            System.arraycopy(b, off, current.bytes, current.length, n);
+            current.length += n;
+            off += n;
+            len -= n;
+
+            if (current.length == current.bytes.length)
+            {
+                publish();
+            }
+        }
+    }
+
+    /**
+     * Waits until all the bytes written so far are digested, after which the pipeline can't be used anymore.
+     */
+    void finish()
+        throws IOException
+    {
+        if (inline)
+        {
+            return;
+        }
+
+        if (current != null && current.length > 0)
+        {
+            publish();
+        }
+        put(END);
+
+        takeOver();
+    }
+
+    /**
+     * Stops digesting, when the stream is abandoned.
+     */
+    void abort()
+    {
+        consumer.cancel(true);
+    }
+
+    private void publish()
+    {
+        put(current);
+        current = null;
+    }
+
+    private void consume()
+    {
+        if (!started.compareAndSet(false, true))
+        {
+            // Taken over by the writer.
+            return;
+        }
+
+        try
+        {
+            for (Chunk chunk = full.take(); chunk != END; chunk = full.take())
+            {
+                digest(chunk.bytes, 0, chunk.length);
+
+                chunk.length = 0;
+                free.put(chunk);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // Aborted.
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * @return a free buffer, or {@code null} if the digesting thread stopped
+     */
+    private Chunk takeFree()
+        throws IOException
+    {
+        try
+        {
+            for (;;)
+            {
+                Chunk chunk = free.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (chunk != null || consumer.isDone())
+                {
+                    return chunk != null ? chunk : free.poll();
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            abort();
+
+            throw new InterruptedIOException("Interrupted while waiting for the digests.");
+        }
+    }
+
+    private void put(Chunk chunk)
+    {
+        // The queue has room for all the buffers of the ring and the end, so this never waits.
+        if (!full.offer(chunk))
+        {
+            throw new IllegalStateException("The digest queue is full.");
+        }
+    }
+
+    /**
+     * Waits for the digesting thread to stop, then digests inline the bytes it left in the queue. The thread stops
+     * once it took the end of the stream, or when it's cancelled or interrupted; if it didn't start yet, it's kept
+     * from starting.
+     */
+    private void takeOver()
+        throws IOException
+    {
+        try
+        {
+            if (started.compareAndSet(false, true))
+            {
+                consumer.cancel(false);
+            }
+            else
+            {
+                stopped.await();
+            }
+
+            consumer.get();
+        }
+        catch (CancellationException e)
+        {
+            // The queued bytes are digested below.
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            abort();
+
+            throw new InterruptedIOException("Interrupted while digesting.");
+        }
+        catch (ExecutionException e)
+        {
+            // The digests can't be trusted after a failed update.
+            throw new IOException(e.getCause());
+        }
+
+        for (Chunk chunk = full.poll(); chunk != null; chunk = full.poll())
+        {
+            if (chunk != END)
+            {
+                digest(chunk.bytes, 0, chunk.length);
+            }
+        }
+        inline = true;
+    }
+
+    private void digest(byte[] b,
+                        int off,
+                        int len)
+    {
+        for (MessageDigest digest : digests)
+        {
+            digest.update(b, off, len);
+        }
+    }
+
+    private static class Chunk
+    {
+
+        private final byte[] bytes;
+
+        private int length;
+
+        private Chunk(int size)
+        {
+            this.bytes = new byte[size];
+        }
+
+    }
+
+}
@@ -6,8 +6,11 @@ import org.carlspring.strongbox.util.MessageDigestUtils;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,6 +34,11 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutOutputStream.class);
 
+    /**
+     * Below this many bytes the digests are updated inline, as handing them over would cost more than it saves.
+     */
+    static final long DIGEST_PIPELINE_THRESHOLD = 1024 * 1024;
+
     private Function<byte[], String> digestStringifier = MessageDigestUtils::convertToHexadecimalString;
 
     /**
@@ -39,6 +47,12 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     private OutputStream cacheOutputStream;
     private Function<OutputStreamFunction, ?> cacheOutputStreamTemplate = this::doWithOutputStream;
     private Map<String, String> digestMap;
+
+    private long byteCount;
+
+    private DigestExecutor digestExecutor;
+
+    private DigestPipeline digestPipeline;
     
     public LayoutOutputStream(OutputStream source)
             throws NoSuchAlgorithmException
@@ -51,6 +65,15 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         this.cacheOutputStreamTemplate = chahceOutputStreamTemplate;
     }
 
+    /**
+     * Lets large streams digest their bytes on a thread of the given executor. Without one, or when it has no thread
+     * to spare, the digests are updated inline.
+     */
+    public void setDigestExecutor(DigestExecutor digestExecutor)
+    {
+        this.digestExecutor = digestExecutor;
+    }
+
     public OutputStream getCacheOutputStream()
     {
         return cacheOutputStream;
@@ -75,6 +98,8 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     {
         if (digestMap == null)
         {
+            finishDigesting();
+
             digestMap = getDigests().entrySet()
                                     .stream()
                                     .collect(Collectors.toMap(Map.Entry::getKey,
@@ -86,6 +111,28 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         return digestMap;
     }
 
+    /**
+     * @return the algorithms of the digests computed for the layout
+     */
+    public Set<String> getDigestAlgorithms()
+    {
+        return getDigests().keySet();
+    }
+
+    /**
+     * Takes the digests of content which was computed while it was staged, as it's moved into place rather than
+     * written through this stream.
+     *
+     * @param digests the digests, keyed by algorithm, which must include all of the {@link #getDigestAlgorithms()}
+     */
+    public void setDigests(Map<String, byte[]> digests)
+    {
+        digestMap = getDigestAlgorithms().stream()
+                                         .collect(Collectors.toMap(Function.identity(),
+                                                                   algorithm -> stringifyDigest(digestStringifier,
+                                                                                                digests.get(algorithm))));
+    }
+
     protected String stringifyDigest(Function<byte[], String> digestStringifier,
                                      byte[] d)
     {
@@ -96,7 +143,16 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(int b)
         throws IOException
     {
-        super.write(b);
+        if (digestPipeline != null)
+        {
+            out.write(b);
+            digestPipeline.update(new byte[]{ (byte) b }, 0, 1);
+        }
+        else
+        {
+            super.write(b);
+        }
+        byteCount++;
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
 
@@ -106,7 +162,22 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
                       int len)
         throws IOException
     {
-        super.write(b, off, len);
+        if (digestPipeline == null && digestExecutor != null && digestMap == null &&
+            byteCount >= DIGEST_PIPELINE_THRESHOLD && !getDigests().isEmpty())
+        {
+            startDigestPipeline();
+        }
+
+        if (digestPipeline != null)
+        {
+            out.write(b, off, len);
+            digestPipeline.update(b, off, len);
+        }
+        else
+        {
+            super.write(b, off, len);
+        }
+        byteCount += len;
         cacheOutputStreamTemplate.apply(o -> o.write(b, off, len));
     }
 
@@ -114,16 +185,67 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(byte[] b)
             throws IOException
     {
-        super.write(b);
-        cacheOutputStreamTemplate.apply(o -> o.write(b));
+        write(b, 0, b.length);
     }
 
     @Override
     public void close()
             throws IOException
     {
-        super.close();
-        cacheOutputStreamTemplate.apply(o -> o.close());
+        try
+        {
+            // The digests may still be read after the stream is closed.
+            if (digestPipeline != null)
+            {
+                digestPipeline.finish();
+            }
+        }
+        finally
+        {
+            digestPipeline = null;
+
+            super.close();
+            cacheOutputStreamTemplate.apply(o -> o.close());
+        }
+    }
+
+    private void startDigestPipeline()
+    {
+        try
+        {
+            // The digests are up to date with what was written so far, the pipeline carries on from there.
+            digestPipeline = new DigestPipeline(getDigests().values(), digestExecutor);
+        }
+        catch (RejectedExecutionException e)
+        {
+            logger.debug("No thread to spare for the digests, they're updated inline.");
+        }
+        finally
+        {
+            // Tried once per stream.
+            digestExecutor = null;
+        }
+    }
+
+    private void finishDigesting()
+    {
+        if (digestPipeline == null)
+        {
+            return;
+        }
+
+        try
+        {
+            digestPipeline.finish();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            digestPipeline = null;
+        }
     }
 
     @Override
@@ -82,6 +82,11 @@ public interface ConfigurationManagementService
                             String repositoryId,
                             long value) throws IOException;
 
+    void setRepositoryQuota(String storageId,
+                            String repositoryId,
+                            long maxSize,
+                            long maxFiles) throws IOException;
+
     void set(MutableRemoteRepositoryRetryArtifactDownloadConfiguration remoteRepositoryRetryArtifactDownloadConfiguration) throws IOException;
 
     void addRepositoryArtifactCoordinateValidator(String storageId,
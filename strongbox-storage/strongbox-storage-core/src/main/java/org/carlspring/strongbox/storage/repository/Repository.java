@@ -26,6 +26,10 @@ public interface Repository
 
     long getArtifactMaxSize();
 
+    long getRepositoryMaxSize();
+
+    long getRepositoryMaxFiles();
+
     boolean isTrashEnabled();
 
     boolean allowsForceDeletion();
@@ -40,6 +44,8 @@ public interface Repository
 
     boolean isChecksumHeadersEnabled();
 
+    boolean isArchiveListingEnabled();
+
     Set<String> getGroupRepositories();
 
     Set<String> getArtifactCoordinateValidators();
@@ -58,6 +58,10 @@ public class RepositoryData
 
     private long artifactMaxSize;
 
+    private long repositoryMaxSize;
+
+    private long repositoryMaxFiles;
+
     private boolean trashEnabled;
 
     private boolean allowsForceDeletion;
@@ -72,6 +76,8 @@ public class RepositoryData
 
     private boolean checksumHeadersEnabled;
 
+    private boolean archiveListingEnabled;
+
     private ProxyConfiguration proxyConfiguration;
 
     private RemoteRepository remoteRepository;
@@ -114,6 +120,8 @@ public class RepositoryData
         this.secured = delegate.isSecured();
         this.status = delegate.getStatus();
         this.artifactMaxSize = delegate.getArtifactMaxSize();
+        this.repositoryMaxSize = delegate.getRepositoryMaxSize();
+        this.repositoryMaxFiles = delegate.getRepositoryMaxFiles();
         this.trashEnabled = delegate.isTrashEnabled();
         this.allowsForceDeletion = delegate.allowsForceDeletion();
         this.allowsDeployment = delegate.allowsDeployment();
@@ -121,6 +129,7 @@ public class RepositoryData
         this.allowsDelete = delegate.allowsDeletion();
         this.allowsDirectoryBrowsing = delegate.allowsDirectoryBrowsing();
         this.checksumHeadersEnabled = delegate.isChecksumHeadersEnabled();
+        this.archiveListingEnabled = delegate.isArchiveListingEnabled();
         
         RepositoryDto mutableRepository = (RepositoryDto)delegate;
         this.proxyConfiguration = immuteProxyConfiguration(mutableRepository.getProxyConfiguration());
@@ -235,6 +244,18 @@ public class RepositoryData
         return artifactMaxSize;
     }
 
+    @Override
+    public long getRepositoryMaxSize()
+    {
+        return repositoryMaxSize;
+    }
+
+    @Override
+    public long getRepositoryMaxFiles()
+    {
+        return repositoryMaxFiles;
+    }
+
     @Override
     public boolean isTrashEnabled()
     {
@@ -277,6 +298,12 @@ public class RepositoryData
         return checksumHeadersEnabled;
     }
 
+    @Override
+    public boolean isArchiveListingEnabled()
+    {
+        return archiveListingEnabled;
+    }
+
     public ProxyConfiguration getProxyConfiguration()
     {
         return proxyConfiguration;
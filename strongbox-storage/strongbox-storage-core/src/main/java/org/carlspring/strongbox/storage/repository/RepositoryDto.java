@@ -44,6 +44,10 @@ public class RepositoryDto
 
     private long artifactMaxSize;
 
+    private long repositoryMaxSize;
+
+    private long repositoryMaxFiles;
+
     private boolean trashEnabled;
 
     private boolean allowsForceDeletion;
@@ -58,6 +62,8 @@ public class RepositoryDto
 
     private boolean checksumHeadersEnabled;
 
+    private boolean archiveListingEnabled;
+
     /**
      * The per-repository proxy settings that override the overall global proxy settings.
      */
@@ -228,6 +234,16 @@ public class RepositoryDto
         this.checksumHeadersEnabled = checksumHeadersEnabled;
     }
 
+    public boolean isArchiveListingEnabled()
+    {
+        return archiveListingEnabled;
+    }
+
+    public void setArchiveListingEnabled(boolean archiveListingEnabled)
+    {
+        this.archiveListingEnabled = archiveListingEnabled;
+    }
+
     public MutableProxyConfiguration getProxyConfiguration()
     {
         return proxyConfiguration;
@@ -404,6 +420,26 @@ public class RepositoryDto
         this.artifactMaxSize = artifactMaxSize;
     }
 
+    public long getRepositoryMaxSize()
+    {
+        return repositoryMaxSize;
+    }
+
+    public void setRepositoryMaxSize(long repositoryMaxSize)
+    {
+        this.repositoryMaxSize = repositoryMaxSize;
+    }
+
+    public long getRepositoryMaxFiles()
+    {
+        return repositoryMaxFiles;
+    }
+
+    public void setRepositoryMaxFiles(long repositoryMaxFiles)
+    {
+        this.repositoryMaxFiles = repositoryMaxFiles;
+    }
+
     public Set<String> getArtifactCoordinateValidators()
     {
         return artifactCoordinateValidators;
@@ -0,0 +1,46 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+import java.util.stream.Stream;
+
+/**
+ * The way the victims are picked when a proxy repository cache exceeds its {@link CacheQuota}.
+ */
+public enum CacheEvictionPolicyEnum
+{
+
+    /**
+     * The least recently used artifacts first.
+     */
+    LRU("lru"),
+
+    /**
+     * The least frequently downloaded artifacts first.
+     */
+    LFU("lfu"),
+
+    /**
+     * The artifacts which take the most space for the longest time without being used first.
+     */
+    SIZE_WEIGHTED("size-weighted");
+
+    private String policy;
+
+    CacheEvictionPolicyEnum(String policy)
+    {
+        this.policy = policy;
+    }
+
+    public static CacheEvictionPolicyEnum ofPolicy(String policy)
+    {
+        return Stream.of(values())
+                     .filter(e -> e.policy.equalsIgnoreCase(policy))
+                     .findFirst()
+                     .orElse(LRU);
+    }
+
+    public String getPolicy()
+    {
+        return policy;
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+import javax.annotation.concurrent.Immutable;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Limits the local cache of a proxy repository, by the total size and/or by the number of the cached artifacts.
+ * <p>
+ * The eviction starts when any of the limits crosses its high watermark and goes on until all of them are below their
+ * low watermark.
+ */
+@Immutable
+@XmlAccessorType(XmlAccessType.FIELD)
+@SuppressFBWarnings(value = "AJCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
+public class CacheQuota
+{
+
+    private long maxSizeInBytes;
+
+    private long maxArtifacts;
+
+    private int highWatermarkPercentage;
+
+    private int lowWatermarkPercentage;
+
+    private CacheEvictionPolicyEnum evictionPolicy;
+
+    CacheQuota()
+    {
+
+    }
+
+    public CacheQuota(final MutableCacheQuota other)
+    {
+        this.maxSizeInBytes = other.getMaxSizeInBytes();
+        this.maxArtifacts = other.getMaxArtifacts();
+        this.highWatermarkPercentage = other.getHighWatermarkPercentage();
+        this.lowWatermarkPercentage = Math.min(other.getLowWatermarkPercentage(), other.getHighWatermarkPercentage());
+        this.evictionPolicy = CacheEvictionPolicyEnum.ofPolicy(other.getEvictionPolicy());
+    }
+
+    public long getMaxSizeInBytes()
+    {
+        return maxSizeInBytes;
+    }
+
+    public long getMaxArtifacts()
+    {
+        return maxArtifacts;
+    }
+
+    public int getHighWatermarkPercentage()
+    {
+        return highWatermarkPercentage;
+    }
+
+    public int getLowWatermarkPercentage()
+    {
+        return lowWatermarkPercentage;
+    }
+
+    public CacheEvictionPolicyEnum getEvictionPolicy()
+    {
+        return evictionPolicy;
+    }
+
+    public boolean isLimited()
+    {
+        return maxSizeInBytes > 0 || maxArtifacts > 0;
+    }
+
+    public boolean isAboveHighWatermark(long sizeInBytes,
+                                        long artifacts)
+    {
+        return exceeds(sizeInBytes, maxSizeInBytes, highWatermarkPercentage) ||
+               exceeds(artifacts, maxArtifacts, highWatermarkPercentage);
+    }
+
+    public boolean isAboveLowWatermark(long sizeInBytes,
+                                       long artifacts)
+    {
+        return exceeds(sizeInBytes, maxSizeInBytes, lowWatermarkPercentage) ||
+               exceeds(artifacts, maxArtifacts, lowWatermarkPercentage);
+    }
+
+    private static boolean exceeds(long value,
+                                   long limit,
+                                   int percentage)
+    {
+        return limit > 0 && value > limit / 100 * percentage + limit % 100 * percentage / 100;
+    }
+
+}
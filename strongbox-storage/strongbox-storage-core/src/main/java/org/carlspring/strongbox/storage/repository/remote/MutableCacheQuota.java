@@ -0,0 +1,76 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+import java.io.Serializable;
+
+/**
+ * Limits the local cache of a proxy repository. A limit of {@code 0} means unlimited.
+ */
+public class MutableCacheQuota
+        implements Serializable
+{
+
+    public static final int DEFAULT_HIGH_WATERMARK_PERCENTAGE = 95;
+
+    public static final int DEFAULT_LOW_WATERMARK_PERCENTAGE = 80;
+
+    private long maxSizeInBytes;
+
+    private long maxArtifacts;
+
+    private int highWatermarkPercentage = DEFAULT_HIGH_WATERMARK_PERCENTAGE;
+
+    private int lowWatermarkPercentage = DEFAULT_LOW_WATERMARK_PERCENTAGE;
+
+    private String evictionPolicy = CacheEvictionPolicyEnum.LRU.getPolicy();
+
+    public long getMaxSizeInBytes()
+    {
+        return maxSizeInBytes;
+    }
+
+    public void setMaxSizeInBytes(long maxSizeInBytes)
+    {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    public long getMaxArtifacts()
+    {
+        return maxArtifacts;
+    }
+
+    public void setMaxArtifacts(long maxArtifacts)
+    {
+        this.maxArtifacts = maxArtifacts;
+    }
+
+    public int getHighWatermarkPercentage()
+    {
+        return highWatermarkPercentage;
+    }
+
+    public void setHighWatermarkPercentage(int highWatermarkPercentage)
+    {
+        this.highWatermarkPercentage = highWatermarkPercentage;
+    }
+
+    public int getLowWatermarkPercentage()
+    {
+        return lowWatermarkPercentage;
+    }
+
+    public void setLowWatermarkPercentage(int lowWatermarkPercentage)
+    {
+        this.lowWatermarkPercentage = lowWatermarkPercentage;
+    }
+
+    public String getEvictionPolicy()
+    {
+        return evictionPolicy;
+    }
+
+    public void setEvictionPolicy(String evictionPolicy)
+    {
+        this.evictionPolicy = evictionPolicy;
+    }
+
+}
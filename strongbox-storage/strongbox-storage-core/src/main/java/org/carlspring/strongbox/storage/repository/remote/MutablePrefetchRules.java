@@ -0,0 +1,38 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Which companion files of an artifact are prefetched from the remote repository when the artifact is fetched.
+ */
+public class MutablePrefetchRules
+        implements Serializable
+{
+
+    private boolean enabled;
+
+    private List<String> includes = new ArrayList<>();
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public List<String> getIncludes()
+    {
+        return includes;
+    }
+
+    public void setIncludes(List<String> includes)
+    {
+        this.includes = includes;
+    }
+
+}
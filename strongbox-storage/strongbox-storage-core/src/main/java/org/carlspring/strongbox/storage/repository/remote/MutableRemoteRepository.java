@@ -38,6 +38,10 @@ public class MutableRemoteRepository
 
     private RemoteRepositoryConfigurationDto customConfiguration;
 
+    private MutableCacheQuota cacheQuota;
+
+    private MutablePrefetchRules prefetchRules;
+
     public String getUrl()
     {
         return url;
@@ -148,4 +152,24 @@ public class MutableRemoteRepository
         this.customConfiguration = customConfiguration;
     }
 
+    public MutableCacheQuota getCacheQuota()
+    {
+        return cacheQuota;
+    }
+
+    public void setCacheQuota(MutableCacheQuota cacheQuota)
+    {
+        this.cacheQuota = cacheQuota;
+    }
+
+    public MutablePrefetchRules getPrefetchRules()
+    {
+        return prefetchRules;
+    }
+
+    public void setPrefetchRules(MutablePrefetchRules prefetchRules)
+    {
+        this.prefetchRules = prefetchRules;
+    }
+
 }
@@ -0,0 +1,56 @@
+package org.carlspring.strongbox.storage.repository.remote;
+
+import javax.annotation.concurrent.Immutable;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+/**
+ * Which companion files (descriptors, checksums, signatures) of an artifact are prefetched from the remote repository
+ * when the artifact is fetched, so that the requests which usually follow don't have to go upstream.
+ * <p>
+ * The layout decides which files are companions, the includes narrow them down by the file name suffix. No includes
+ * means all the companions.
+ */
+@Immutable
+@XmlAccessorType(XmlAccessType.FIELD)
+@SuppressFBWarnings(value = "AJCIP_FIELD_ISNT_FINAL_IN_IMMUTABLE_CLASS")
+public class PrefetchRules
+{
+
+    private boolean enabled;
+
+    private List<String> includes;
+
+    PrefetchRules()
+    {
+
+    }
+
+    public PrefetchRules(final MutablePrefetchRules other)
+    {
+        this.enabled = other.isEnabled();
+        this.includes = other.getIncludes() != null ? ImmutableList.copyOf(other.getIncludes()) :
+                        Collections.emptyList();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public List<String> getIncludes()
+    {
+        return includes;
+    }
+
+    public boolean includes(String fileName)
+    {
+        return includes.isEmpty() || includes.stream().anyMatch(fileName::endsWith);
+    }
+
+}
@@ -40,6 +40,10 @@ public class RemoteRepository
     
     private CustomRemoteRepositoryConfiguration customConfiguration;
 
+    private CacheQuota cacheQuota;
+
+    private PrefetchRules prefetchRules;
+
     RemoteRepository()
     {
 
@@ -58,6 +62,8 @@ public class RemoteRepository
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
+        this.cacheQuota = other.getCacheQuota() != null ? new CacheQuota(other.getCacheQuota()) : null;
+        this.prefetchRules = other.getPrefetchRules() != null ? new PrefetchRules(other.getPrefetchRules()) : null;
     }
 
     public String getUrl()
@@ -115,6 +121,16 @@ public class RemoteRepository
         return customConfiguration;
     }
 
+    public CacheQuota getCacheQuota()
+    {
+        return cacheQuota;
+    }
+
+    public PrefetchRules getPrefetchRules()
+    {
+        return prefetchRules;
+    }
+
     private CustomRemoteRepositoryConfiguration immuteRemoteRepositoryConfiguration(final RemoteRepositoryConfigurationDto source)
     {
         return source != null ? source.getImmutable() : null;
@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class DigestPipelineTest
+{
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * More chunks than the ring holds, so that the writer runs out of free buffers.
+     */
+    private static final int CHUNKS = 24;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private DigestExecutor digestExecutor;
+
+    private byte[] content;
+
+    @BeforeEach
+    public void setUp()
+    {
+        digestExecutor = new DigestExecutor();
+        digestExecutor.init();
+
+        content = new byte[CHUNKS * CHUNK_SIZE];
+        new Random(1L).nextBytes(content);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        digestExecutor.shutdown();
+    }
+
+    @Test
+    public void testStreamIsDigested()
+        throws Exception
+    {
+        MessageDigest digest = newDigest();
+        DigestPipeline pipeline = new DigestPipeline(Collections.singleton(digest), digestExecutor);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            write(pipeline, 0, CHUNKS);
+            pipeline.finish();
+        });
+
+        assertArrayEquals(newDigest().digest(content), digest.digest());
+    }
+
+    @Test
+    public void testStreamIsDigestedInlineWhenTheConsumerIsCancelledMidWrite()
+        throws Exception
+    {
+        MessageDigest digest = newDigest();
+        DigestPipeline pipeline = new DigestPipeline(Collections.singleton(digest), digestExecutor);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            write(pipeline, 0, 3);
+            pipeline.abort();
+            write(pipeline, 3, CHUNKS);
+            pipeline.finish();
+        });
+
+        assertArrayEquals(newDigest().digest(content), digest.digest());
+    }
+
+    @Test
+    public void testStreamIsDigestedInlineWhenTheExecutorShutsDownMidWrite()
+        throws Exception
+    {
+        MessageDigest digest = newDigest();
+        DigestPipeline pipeline = new DigestPipeline(Collections.singleton(digest), digestExecutor);
+
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            write(pipeline, 0, 3);
+            digestExecutor.shutdown();
+            write(pipeline, 3, CHUNKS);
+            pipeline.finish();
+        });
+
+        assertArrayEquals(newDigest().digest(content), digest.digest());
+    }
+
+    private void write(DigestPipeline pipeline,
+                       int fromChunk,
+                       int toChunk)
+        throws IOException
+    {
+        for (int i = fromChunk; i < toChunk; i++)
+        {
+            // Not aligned with the buffers of the pipeline.
+            int half = CHUNK_SIZE / 2 + 1;
+            pipeline.update(content, i * CHUNK_SIZE, half);
+            pipeline.update(content, i * CHUNK_SIZE + half, CHUNK_SIZE - half);
+        }
+    }
+
+    private static MessageDigest newDigest()
+        throws NoSuchAlgorithmException
+    {
+        return MessageDigest.getInstance("SHA-256");
+    }
+
+}
@@ -21,6 +21,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -65,6 +66,35 @@ public class Maven2FileSystemProvider extends LayoutFileSystemProvider
         return layoutProvider;
     }
 
+    /**
+     * Besides the checksums, the Maven clients request the signature of the artifact and the POM with its checksums.
+     */
+    @Override
+    public Set<RepositoryPath> getCompanionPaths(RepositoryPath artifactPath)
+        throws IOException
+    {
+        Set<RepositoryPath> result = super.getCompanionPaths(artifactPath);
+        result.add(artifactPath.resolveSibling(artifactPath.getFileName().toString() + ".asc"));
+
+        MavenArtifactCoordinates coordinates = (MavenArtifactCoordinates) RepositoryFiles.readCoordinates(artifactPath);
+        if ("pom".equals(coordinates.getExtension()))
+        {
+            return result;
+        }
+
+        String pomPath = new MavenArtifactCoordinates(coordinates.getGroupId(),
+                                                      coordinates.getArtifactId(),
+                                                      coordinates.getVersion(),
+                                                      null,
+                                                      "pom").toPath();
+        RepositoryPath pomRepositoryPath = artifactPath.resolveSibling(FilenameUtils.getName(pomPath));
+
+        result.add(pomRepositoryPath);
+        result.addAll(super.getCompanionPaths(pomRepositoryPath));
+
+        return result;
+    }
+
     @Override
     public void delete(Path path,
                        boolean force)
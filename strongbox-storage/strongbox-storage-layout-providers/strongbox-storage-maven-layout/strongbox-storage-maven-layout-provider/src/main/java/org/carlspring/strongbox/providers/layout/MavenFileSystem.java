@@ -33,4 +33,10 @@ public class MavenFileSystem extends LayoutFileSystem
         return layoutProvider.getDigestAlgorithmSet();
     }
 
+    @Override
+    public boolean isChecksumUploaded()
+    {
+        return true;
+    }
+
 }
@@ -386,17 +386,7 @@ public class MavenMetadataManager
     {
         doInLock(metadataBasePath, path ->
         {
-            metadata.merge(mergeMetadata);
-
-            Versioning versioning = metadata.getVersioning();
-            if (versioning.getVersions() != null)
-            {
-                versioning.getVersions().sort(new VersionComparator());
-            }
-            if (versioning.getSnapshotVersions() != null)
-            {
-                versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
-            }
+            merge(metadata, mergeMetadata);
 
             try
             {
@@ -409,6 +399,27 @@ public class MavenMetadataManager
         });
     }
 
+    /**
+     * Merges the `mergeMetadata` into the `metadata` and sorts the resulting versions.
+     */
+    public Metadata merge(final Metadata metadata,
+                          final Metadata mergeMetadata)
+    {
+        metadata.merge(mergeMetadata);
+
+        Versioning versioning = metadata.getVersioning();
+        if (versioning.getVersions() != null)
+        {
+            versioning.getVersions().sort(new VersionComparator());
+        }
+        if (versioning.getSnapshotVersions() != null)
+        {
+            versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+        }
+
+        return metadata;
+    }
+
     private void doInLock(RepositoryPath metadataBasePath,
                           Consumer<Path> operation) throws IOException
     {
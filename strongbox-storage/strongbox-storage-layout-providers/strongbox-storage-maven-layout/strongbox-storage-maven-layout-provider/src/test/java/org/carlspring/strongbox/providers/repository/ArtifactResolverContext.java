@@ -0,0 +1,34 @@
+package org.carlspring.strongbox.providers.repository;
+
+import java.io.InputStream;
+
+/**
+ * What the mocked remote repository of a {@link MockedRestArtifactResolverTestBase} serves.
+ */
+public interface ArtifactResolverContext
+{
+
+    InputStream getInputStream();
+    
+    default boolean isByteRangeRequestSupported()
+    {
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the remote responds with 404 to the resource
+     */
+    default boolean isAvailable(String resource)
+    {
+        return true;
+    }
+
+    /**
+     * @return the content of the resource, or {@code null} to serve the {@link #getInputStream()}
+     */
+    default byte[] getContent(String resource)
+    {
+        return null;
+    }
+    
+}
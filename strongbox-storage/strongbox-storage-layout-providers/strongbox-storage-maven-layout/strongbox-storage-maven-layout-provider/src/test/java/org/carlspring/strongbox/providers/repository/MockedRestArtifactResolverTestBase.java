@@ -2,11 +2,14 @@ package org.carlspring.strongbox.providers.repository;
 
 import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.Optional;
 
 import javax.ws.rs.core.Response;
 
@@ -48,11 +51,16 @@ public abstract class MockedRestArtifactResolverTestBase
         extends TestCaseWithMavenArtifactGenerationAndIndexing
 {
 
-    static final Resource jarArtifact = new ClassPathResource("artifacts/properties-injector-1.7.jar");
+    protected static final Resource jarArtifact = new ClassPathResource("artifacts/properties-injector-1.7.jar");
 
     protected static int BUF_SIZE = 8192;
 
     private static ThreadLocal<ArtifactResolverContext> contextHolder = new ThreadLocal<ArtifactResolverContext>();
+
+    /**
+     * The context of the threads which the tests don't run on, like the prefetching ones.
+     */
+    private static volatile ArtifactResolverContext backgroundContext;
     
     @BeforeEach
     public void setup()
@@ -69,7 +77,7 @@ public abstract class MockedRestArtifactResolverTestBase
 
     protected static ArtifactResolverContext getContext()
     {
-        ArtifactResolverContext result = contextHolder.get();
+        ArtifactResolverContext result = Optional.ofNullable(contextHolder.get()).orElse(backgroundContext);
         Objects.requireNonNull(result);
         
         return result;
@@ -85,6 +93,11 @@ public abstract class MockedRestArtifactResolverTestBase
     {
         contextHolder.remove();
     }
+
+    protected static void initBackgroundContext(ArtifactResolverContext context)
+    {
+        backgroundContext = context;
+    }
     
     private static RemoteRepositoryRetryArtifactDownloadConfiguration createRemoteRepositoryConfiguration()
     {
@@ -152,9 +165,10 @@ public abstract class MockedRestArtifactResolverTestBase
             Mockito.when(restResponse.getResponse()).thenReturn(response);
 
             RestArtifactResolver artifactResolver = Mockito.mock(RestArtifactResolver.class);
-            Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
+            Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class)))
+                   .then((i) -> getResponse(i.getArgument(0), restResponse));
             Mockito.when(artifactResolver.get(ArgumentMatchers.any(String.class), ArgumentMatchers.any(Long.class)))
-                   .thenReturn(restResponse);
+                   .then((i) -> getResponse(i.getArgument(0), restResponse));
             Mockito.when(artifactResolver.head(ArgumentMatchers.any(String.class))).thenReturn(restResponse);
             Mockito.when(artifactResolver.getConfiguration())
                    .then((a) -> createRemoteRepositoryConfiguration());
@@ -166,6 +180,42 @@ public abstract class MockedRestArtifactResolverTestBase
             return artifactResolverFactory;
         }
 
+        private static CloseableRestResponse getResponse(String resource,
+                                                         CloseableRestResponse restResponse)
+        {
+            if (!getContext().isAvailable(resource))
+            {
+                Response response = Mockito.mock(Response.class);
+                Mockito.when(response.getStatus()).thenReturn(404);
+
+                return toRestResponse(response);
+            }
+
+            return Optional.ofNullable(getContext().getContent(resource))
+                           .map(MockedRestArtifactResolverTestConfig::contentResponse)
+                           .orElse(restResponse);
+        }
+
+        private static CloseableRestResponse contentResponse(byte[] content)
+        {
+            Response response = Mockito.mock(Response.class);
+            Mockito.when(response.getStatus()).thenReturn(200);
+            Mockito.when(response.hasEntity()).thenReturn(true);
+            Mockito.when(response.readEntity(String.class)).thenReturn(new String(content, StandardCharsets.UTF_8));
+            Mockito.when(response.getEntity()).then((i) -> new ByteArrayInputStream(content));
+            Mockito.when(response.readEntity(InputStream.class)).then((i) -> new ByteArrayInputStream(content));
+
+            return toRestResponse(response);
+        }
+
+        private static CloseableRestResponse toRestResponse(Response response)
+        {
+            CloseableRestResponse restResponse = Mockito.mock(CloseableRestResponse.class);
+            Mockito.when(restResponse.getResponse()).thenReturn(response);
+
+            return restResponse;
+        }
+
         @Bean
         @Primary
         ArtifactEventListenerRegistry testArtifactEventListenerRegistry()
@@ -187,15 +237,3 @@ public abstract class MockedRestArtifactResolverTestBase
     }
     
 }
-
-interface ArtifactResolverContext
-{
-
-    InputStream getInputStream();
-    
-    default boolean isByteRangeRequestSupported()
-    {
-        return true;
-    }
-    
-}
@@ -0,0 +1,257 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The proxied downloads are verified against the remote checksum, retried on a mismatch, and the mismatching
+ * downloads are quarantined.
+ */
+public class ProxyRepositoryChecksumVerificationTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY_RETRIED = "prcvt-retried-repository";
+
+    private static final String REPOSITORY_QUARANTINED = "prcvt-quarantined-repository";
+
+    private static final String REPOSITORY_STALE_CHECKSUM = "prcvt-stale-checksum-repository";
+
+    private static final String STALE_CHECKSUM = "0000000000000000000000000000000000000000";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    /**
+     * How many of the downloads are corrupted before the remote serves the right content.
+     */
+    private int corruptedDownloads;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Override
+    public InputStream getInputStream()
+    {
+        return new RemoteInputStream();
+    }
+
+    @Override
+    public byte[] getContent(String resource)
+    {
+        if (!resource.endsWith(".sha1"))
+        {
+            return null;
+        }
+
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            return DigestUtils.sha1Hex(is).getBytes(StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void mismatchingDownloadShouldBeRetried(@MavenRepository(repositoryId = REPOSITORY_RETRIED) @Remote(url = PROXY_REPOSITORY_URL) Repository proxyRepository)
+            throws Exception
+    {
+        corruptedDownloads = 1;
+
+        String path = getArtifactPath();
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository).resolve(path);
+
+        assertStreamNotNull(STORAGE0, REPOSITORY_RETRIED, path);
+
+        assertThat(downloads.get(), CoreMatchers.equalTo(2));
+        assertTrue(Files.exists(artifactPath));
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            assertArrayEquals(IOUtils.toByteArray(is), Files.readAllBytes(artifactPath));
+        }
+        assertThat(countQuarantined(artifactPath), CoreMatchers.equalTo(1L));
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void mismatchingDownloadShouldBeQuarantined(@MavenRepository(repositoryId = REPOSITORY_QUARANTINED) @Remote(url = PROXY_REPOSITORY_URL) Repository proxyRepository)
+            throws Exception
+    {
+        corruptedDownloads = Integer.MAX_VALUE;
+
+        String path = getArtifactPath();
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository).resolve(path);
+
+        assertThrows(IOException.class, () -> artifactResolutionService.resolvePath(STORAGE0,
+                                                                                    REPOSITORY_QUARANTINED,
+                                                                                    path));
+
+        assertFalse(Files.exists(artifactPath));
+        // Every attempt is kept for inspection.
+        assertThat(countQuarantined(artifactPath), CoreMatchers.equalTo((long) downloads.get()));
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void staleCachedChecksumShouldBeVerifiedAgainstTheRemoteOne(@MavenRepository(repositoryId = REPOSITORY_STALE_CHECKSUM) @Remote(url = PROXY_REPOSITORY_URL) Repository proxyRepository)
+            throws Exception
+    {
+        corruptedDownloads = 0;
+
+        String path = getArtifactPath();
+        RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository).resolve(path);
+        RepositoryPath sha1Path = artifactPath.resolveSibling(artifactPath.getFileName() + ".sha1");
+        Files.createDirectories(artifactPath.getParent());
+        Files.write(sha1Path, STALE_CHECKSUM.getBytes(StandardCharsets.UTF_8));
+
+        assertStreamNotNull(STORAGE0, REPOSITORY_STALE_CHECKSUM, path);
+
+        // The download matches the remote checksum, so it's neither quarantined nor downloaded again.
+        assertThat(downloads.get(), CoreMatchers.equalTo(1));
+        assertThat(countQuarantined(artifactPath), CoreMatchers.equalTo(0L));
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            assertArrayEquals(IOUtils.toByteArray(is), Files.readAllBytes(artifactPath));
+        }
+        assertThat(new String(Files.readAllBytes(sha1Path), StandardCharsets.UTF_8),
+                   CoreMatchers.not(CoreMatchers.equalTo(STALE_CHECKSUM)));
+    }
+
+    private String getArtifactPath()
+    {
+        Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-lang3:3.2");
+
+        return MavenArtifactUtils.convertArtifactToPath(artifact);
+    }
+
+    private long countQuarantined(RepositoryPath artifactPath)
+            throws IOException
+    {
+        RepositoryPath root = artifactPath.getFileSystem().getRootDirectory();
+        Path quarantined = artifactPath.getFileSystem()
+                                       .getQuarantinePath()
+                                       .resolve(root.relativize(artifactPath).toString());
+        if (!Files.exists(quarantined.getParent()))
+        {
+            return 0;
+        }
+
+        String prefix = artifactPath.getFileName().toString() + ".";
+        try (Stream<Path> pathStream = Files.list(quarantined.getParent()))
+        {
+            return pathStream.filter(p -> p.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    /**
+     * A download of the artifact, which has its first byte flipped if it's corrupted. It's only counted as a download
+     * when it's read, because the responses are also opened just to be checked.
+     */
+    private class RemoteInputStream
+            extends FilterInputStream
+    {
+
+        private boolean corrupted;
+
+        private long position = -1;
+
+        RemoteInputStream()
+        {
+            super(null);
+        }
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+                throws IOException
+        {
+            open();
+
+            int length = super.read(b, off, len);
+            if (length > 0 && position == 0 && corrupted)
+            {
+                b[off] = (byte) ~b[off];
+            }
+            position += Math.max(length, 0);
+
+            return length;
+        }
+
+        @Override
+        public int available()
+                throws IOException
+        {
+            open();
+
+            return super.available();
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (in != null)
+            {
+                super.close();
+            }
+        }
+
+        private void open()
+                throws IOException
+        {
+            if (position < 0)
+            {
+                corrupted = downloads.incrementAndGet() <= corruptedDownloads;
+                in = jarArtifact.getInputStream();
+                position = 0;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.repository.remote.MutablePrefetchRules;
+import org.carlspring.strongbox.testing.artifact.MavenArtifactTestUtils;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.RepositorySetup;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The companions of a proxied artifact are prefetched with it, and a companion which fails to be fetched doesn't
+ * fail the artifact.
+ */
+public class ProxyRepositoryCompanionPrefetchTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY = "prcpt-repository";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private static final String POM = "<project>" +
+                                      "<modelVersion>4.0.0</modelVersion>" +
+                                      "<groupId>org.apache.commons</groupId>" +
+                                      "<artifactId>commons-lang3</artifactId>" +
+                                      "<version>3.2</version>" +
+                                      "</project>";
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Override
+    public InputStream getInputStream()
+    {
+        try
+        {
+            return jarArtifact.getInputStream();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable(String resource)
+    {
+        // The signature fails to be fetched.
+        return !resource.endsWith(".asc");
+    }
+
+    @Override
+    public byte[] getContent(String resource)
+    {
+        return resource.endsWith(".pom") ? POM.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void companionsShouldBePrefetchedWithTheArtifact(@MavenRepository(repositoryId = REPOSITORY, setup = PrefetchRepositorySetup.class)
+                                                            @Remote(url = PROXY_REPOSITORY_URL) Repository proxyRepository)
+            throws Exception
+    {
+        // The companions are fetched on the prefetching threads.
+        initBackgroundContext(this);
+        try
+        {
+            Artifact artifact = MavenArtifactTestUtils.getArtifactFromGAVTC("org.apache.commons:commons-lang3:3.2");
+            String path = MavenArtifactUtils.convertArtifactToPath(artifact);
+            RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository).resolve(path);
+            String fileName = artifactPath.getFileName().toString();
+
+            assertStreamNotNull(STORAGE0, REPOSITORY, path);
+
+            assertTrue(Files.exists(artifactPath));
+
+            RepositoryPath pomPath = artifactPath.resolveSibling("commons-lang3-3.2.pom");
+            List<RepositoryPath> companionPaths = Arrays.asList(artifactPath.resolveSibling(fileName + ".sha1"),
+                                                                artifactPath.resolveSibling(fileName + ".md5"),
+                                                                pomPath,
+                                                                pomPath.resolveSibling(pomPath.getFileName() + ".sha1"),
+                                                                pomPath.resolveSibling(pomPath.getFileName() + ".md5"));
+
+            await().atMost(30, TimeUnit.SECONDS)
+                   .pollInterval(100, TimeUnit.MILLISECONDS)
+                   .until(() -> companionPaths.stream().allMatch(Files::exists));
+
+            assertFalse(Files.exists(artifactPath.resolveSibling(fileName + ".asc")));
+            assertTrue(Files.exists(artifactPath));
+        }
+        finally
+        {
+            initBackgroundContext(null);
+        }
+    }
+
+    public static class PrefetchRepositorySetup
+            implements RepositorySetup
+    {
+
+        @Override
+        public void setup(RepositoryDto repository)
+        {
+            MutablePrefetchRules prefetchRules = new MutablePrefetchRules();
+            prefetchRules.setEnabled(true);
+
+            repository.getRemoteRepository().setPrefetchRules(prefetchRules);
+        }
+
+    }
+
+}
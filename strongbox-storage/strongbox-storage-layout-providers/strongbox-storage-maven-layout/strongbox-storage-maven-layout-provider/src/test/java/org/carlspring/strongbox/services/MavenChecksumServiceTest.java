@@ -11,6 +11,7 @@ import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
@@ -20,6 +21,7 @@ import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.generator.MavenArtifactGenerator;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.storage.checksum.ChecksumRegenerationReport;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
 import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
@@ -53,6 +55,8 @@ public class MavenChecksumServiceTest
     
     private static final String A3 = "org/carlspring/strongbox/checksum/maven/checksum-rewrite/1.0/checksum-rewrite-1.0.jar";
     
+    private static final String A4 = "org/carlspring/strongbox/checksum/maven/checksum-mismatch/1.0/checksum-mismatch-1.0.jar";
+
     private static final String S2 = "org/carlspring/strongbox/checksum/maven/strongbox-checksum/2.0-SNAPSHOT/strongbox-checksum-2.0-20180320.011625-1.jar";
     
     @Inject
@@ -273,4 +277,38 @@ public class MavenChecksumServiceTest
                    "The checksum file for metadata is empty!");
     }
 
+    @Test
+    @ExtendWith({RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class})
+    public void testMismatchingMavenChecksumIsKeptUnlessRepaired(@TestRepository(repositoryId = REPOSITORY_RELEASES, layout = LAYOUT_NAME) Repository repository,
+                                                                 @TestArtifact(repositoryId = REPOSITORY_RELEASES, resource = A4, generator = MavenArtifactGenerator.class) Path artifact)
+            throws IOException,
+                   XmlPullParserException,
+                   NoSuchAlgorithmException
+    {
+        artifactMetadataService.rebuildMetadata(STORAGE0, REPOSITORY_RELEASES, "org/carlspring/strongbox/checksum");
+
+        Path sha1File = artifact.resolveSibling(artifact.getFileName() + ".sha1");
+        String wrongChecksum = "0000000000000000000000000000000000000000";
+        Files.write(sha1File, wrongChecksum.getBytes(StandardCharsets.UTF_8));
+
+        ChecksumRegenerationReport report = checksumService.regenerateChecksum(STORAGE0,
+                                                                               REPOSITORY_RELEASES,
+                                                                               "org/carlspring/strongbox/checksum/maven/checksum-mismatch",
+                                                                               true);
+
+        assertEquals(1, report.getMismatches().size());
+        assertEquals(wrongChecksum, new String(Files.readAllBytes(sha1File), StandardCharsets.UTF_8),
+                     "The mismatching checksum file was re-written!");
+
+        report = checksumService.regenerateChecksum(STORAGE0,
+                                                    REPOSITORY_RELEASES,
+                                                    "org/carlspring/strongbox/checksum/maven/checksum-mismatch",
+                                                    true,
+                                                    true);
+
+        assertEquals(1, report.getMismatches().size());
+        assertFalse(wrongChecksum.equals(new String(Files.readAllBytes(sha1File), StandardCharsets.UTF_8)),
+                    "The mismatching checksum file wasn't repaired!");
+    }
+
 }
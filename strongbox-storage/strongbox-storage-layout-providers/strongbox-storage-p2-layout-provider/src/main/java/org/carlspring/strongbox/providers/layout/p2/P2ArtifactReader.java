@@ -3,21 +3,38 @@ package org.carlspring.strongbox.providers.layout.p2;
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
  * The artifact path consists of {id}/{version}/{classifier}. E.g. bundle-name/1.0.0/osgi.bundle
+ * <p>
+ * The metadata of each repository is read once and kept indexed in memory; it's read again when its files change.
+ * At most {@link #MAX_REPOSITORIES} repositories are kept, the ones which weren't read for a while are dropped, and a
+ * repository is dropped when it's {@link #evict(Path) removed}.
  */
 public class P2ArtifactReader
 {
 
     private static final Logger logger = LoggerFactory.getLogger(P2ArtifactReader.class);
 
+    private static final P2MetadataParser METADATA_PARSER = new P2MetadataParser();
+
+    static final int MAX_REPOSITORIES = 100;
+
+    private static final Cache<Path, IndexedRepository> REPOSITORIES = CacheBuilder.newBuilder()
+                                                                            .maximumSize(MAX_REPOSITORIES)
+                                                                            .expireAfterAccess(1, TimeUnit.HOURS)
+                                                                            .build();
+
     /**
      * Finds a {@link P2ArtifactCoordinates} from the provided repository base directory and artifact path.
      *
@@ -29,30 +46,81 @@ public class P2ArtifactReader
                                                     String bundle)
             throws IOException
     {
-        // TODO we are dropping GenericParser and one day we will need to support P2
-        //GenericParser<P2Repository> repositoryParser = new GenericParser<>(P2Repository.class);
-        P2Repository p2Repository = null;//repositoryParser.parse(createPath(repositoryBaseDir).toUri().toURL());
+        P2Repository p2Repository = getRepository(createPath(repositoryBaseDir));
         final P2ArtifactCoordinates artifactToFind = P2ArtifactCoordinates.create(bundle);
-        for (P2Artifact p2Artifact : p2Repository.getArtifacts().getArtifacts())
+
+        P2Artifact p2Artifact = p2Repository.getArtifact(artifactToFind.getId(),
+                                                         artifactToFind.getVersion(),
+                                                         artifactToFind.getClassifier());
+        if (p2Artifact == null)
         {
-            P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
-                                                                            p2Artifact.getVersion(),
-                                                                            p2Artifact.getClassifier());
-            if (foundArtifact.equals(artifactToFind))
-            {
-                addProperties(foundArtifact, p2Artifact, repositoryBaseDir);
-                String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository.getMappings(),
-                                                                            foundArtifact);
-                foundArtifact.setFilename(bundleFilename);
-                return foundArtifact;
-            }
+            return null;
         }
 
-        return null;
+        P2ArtifactCoordinates foundArtifact = new P2ArtifactCoordinates(p2Artifact.getId(),
+                                                                        p2Artifact.getVersion(),
+                                                                        p2Artifact.getClassifier());
+        addProperties(foundArtifact, p2Artifact, p2Repository, repositoryBaseDir);
+        String bundleFilename = P2ArtifactRuleProcessor.getFilename(p2Repository, foundArtifact);
+        foundArtifact.setFilename(bundleFilename);
+
+        return foundArtifact;
+    }
+
+    /**
+     * @return the metadata of the repository, read again if its files changed since it was last read
+     */
+    static P2Repository getRepository(Path repositoryBaseDir)
+            throws IOException
+    {
+        Path key = repositoryBaseDir.toAbsolutePath().normalize();
+        String version = P2MetadataParser.getMetadataVersion(key);
+
+        try
+        {
+            return REPOSITORIES.asMap().compute(key, (k, indexed) -> {
+                if (indexed != null && indexed.version.equals(version))
+                {
+                    return indexed;
+                }
+
+                logger.debug(String.format("Reading the P2 metadata of [%s].", k));
+                try
+                {
+                    return new IndexedRepository(version, METADATA_PARSER.parse(k));
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }).repository;
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Drops the metadata read from the directory, or from any directory below it.
+     *
+     * @param directory the base directory of a removed repository
+     */
+    public static void evict(Path directory)
+    {
+        Path removed = directory.toAbsolutePath().normalize();
+
+        REPOSITORIES.asMap().keySet().removeIf(key -> key.startsWith(removed));
+    }
+
+    static boolean isIndexed(Path repositoryBaseDir)
+    {
+        return REPOSITORIES.getIfPresent(repositoryBaseDir.toAbsolutePath().normalize()) != null;
     }
 
     private static void addProperties(P2ArtifactCoordinates foundArtifact,
                                       P2Artifact p2Artifact,
+                                      P2Repository p2Repository,
                                       String baseDir)
     {
         foundArtifact.addProperty("repoUrl", baseDir);
@@ -65,16 +133,40 @@ public class P2ArtifactReader
             properties.getPropertites().forEach(
                     property -> foundArtifact.addProperty(property.getName(), property.getValue()));
         }
+
+        // The installable unit only describes the artifact, the properties of the artifact come first.
+        p2Repository.getUnitProperties(p2Artifact.getId(), p2Artifact.getVersion()).forEach((name, value) -> {
+            if (!foundArtifact.getProperties().containsKey(name))
+            {
+                foundArtifact.addProperty(name, value);
+            }
+        });
     }
 
     private static Path createPath(String repositoryBaseDir)
     {
-        final String artifactsFilename = "artifacts.xml";
         if (repositoryBaseDir == null || repositoryBaseDir.isEmpty())
         {
-            return Paths.get(artifactsFilename);
+            return Paths.get("");
         }
 
-        return Paths.get(repositoryBaseDir).resolve(artifactsFilename);
+        return Paths.get(repositoryBaseDir);
     }
+
+    private static class IndexedRepository
+    {
+
+        private final String version;
+
+        private final P2Repository repository;
+
+        private IndexedRepository(String version,
+                                  P2Repository repository)
+        {
+            this.version = version;
+            this.repository = repository;
+        }
+
+    }
+
 }
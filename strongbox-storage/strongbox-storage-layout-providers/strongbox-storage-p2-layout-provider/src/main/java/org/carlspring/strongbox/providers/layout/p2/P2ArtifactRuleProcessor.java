@@ -3,12 +3,21 @@ package org.carlspring.strongbox.providers.layout.p2;
 import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
-
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@code <mappings>} rule of a P2 artifact repository: the LDAP filter on the artifact properties, like
+ * {@code (& (classifier=osgi.bundle) (format=packed))}, and the output location pattern, like
+ * {@code ${repoUrl}/plugins/${id}_${version}.jar}.
+ * <p>
+ * Both are parsed once, when the repository metadata is read, not on every lookup.
+ */
 public class P2ArtifactRuleProcessor
 {
 
@@ -16,14 +25,20 @@ public class P2ArtifactRuleProcessor
 
     private static final String KEY_END = "}";
 
+    private static final Pattern KEY_PATTERN = Pattern.compile(Pattern.quote(KEY_START) + "([^}]+)" +
+                                                               Pattern.quote(KEY_END));
+
     private final String outputFormat;
 
+    private final List<String> outputKeys;
+
     private final Map<String, String> properties = new HashMap<>();
 
     public P2ArtifactRuleProcessor(String outputFormat,
                                    String filter)
     {
         this.outputFormat = outputFormat;
+        this.outputKeys = parseOutputKeys(outputFormat);
         parseFilter(filter);
     }
 
@@ -32,50 +47,49 @@ public class P2ArtifactRuleProcessor
         String clearedFilter = filter.replaceAll("\\(", "");
         clearedFilter = clearedFilter.replaceAll("\\)", "");
 
-        String[] splittedFilter = clearedFilter.split(" ");
-        for (int i = 0; i < splittedFilter.length; i++)
+        // Only the conjunctions of equalities are used by the mappings, the `&` operator is implied.
+        for (String value : clearedFilter.trim().split("\\s+"))
         {
-            String value = splittedFilter[i];
-            if (i != 0)
+            String[] keyValuePair = value.split("=", 2);
+            if (keyValuePair.length == 2)
             {
-                String[] keyValuePair = value.split("=");
                 properties.put(keyValuePair[0], keyValuePair[1]);
             }
         }
     }
 
+    private static List<String> parseOutputKeys(String outputFormat)
+    {
+        List<String> keys = new ArrayList<>();
+
+        Matcher matcher = KEY_PATTERN.matcher(outputFormat);
+        while (matcher.find())
+        {
+            keys.add(matcher.group(1));
+        }
+
+        return Collections.unmodifiableList(keys);
+    }
+
+    /**
+     * @return whether all the properties of the filter have the expected values
+     */
     public boolean matches(Map<String, String> properties)
     {
-        if (properties == null || properties.isEmpty())
+        if (properties == null || properties.isEmpty() || this.properties.isEmpty())
         {
             return false;
         }
 
-        boolean result = false;
         for (Entry<String, String> entry : this.properties.entrySet())
         {
-            final String key = entry.getKey();
-            if (properties.containsKey(key))
-            {
-                if (result)
-                {
-                    result &= this.properties.get(key).equals(properties.get(key));
-                }
-                else
-                {
-                    result = this.properties.get(key).equals(properties.get(key));
-                }
-            }
-            else
+            if (!entry.getValue().equals(properties.get(entry.getKey())))
             {
-                if (result)
-                {
-                    result = false;
-                }
+                return false;
             }
         }
 
-        return result;
+        return true;
     }
 
     public String getOutput(P2ArtifactCoordinates p2artifact)
@@ -84,9 +98,13 @@ public class P2ArtifactRuleProcessor
         if (matches(properties))
         {
             String output = outputFormat;
-            for (String key : getOutputPutKeys())
+            for (String key : outputKeys)
             {
-                output = replaceValue(output, key, properties.get(key));
+                String value = properties.get(key);
+                if (value != null)
+                {
+                    output = output.replace(KEY_START + key + KEY_END, value);
+                }
             }
 
             return output;
@@ -95,41 +113,10 @@ public class P2ArtifactRuleProcessor
         return null;
     }
 
-    private String replaceValue(String format,
-                                String key,
-                                String value)
-    {
-        return format.replace(KEY_START + key + KEY_END, value);
-    }
-
-    private Collection<String> getOutputPutKeys()
-    {
-        final Collection keys = new ArrayList();
-
-        final int startOffset = KEY_START.length();
-        final int endOffset = KEY_END.length();
-
-        String format = outputFormat;
-        int startIndex = 0;
-        while (startIndex >= 0)
-        {
-            String key = format.substring(startIndex + startOffset, format.indexOf(KEY_END));
-            format = format.substring(format.indexOf(KEY_END) + endOffset);
-            keys.add(key);
-            startIndex = format.indexOf(KEY_START);
-        }
-
-        return keys;
-    }
-
-    public static String getFilename(P2Mappings mappings,
+    public static String getFilename(P2Repository repository,
                                      P2ArtifactCoordinates p2artifact)
     {
-        Collection<P2ArtifactRuleProcessor> artifacts = mappings.getRules().stream().map(
-                rule -> new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter())).collect(
-                Collectors.toList());
-
-        for (P2ArtifactRuleProcessor processor : artifacts)
+        for (P2ArtifactRuleProcessor processor : repository.getRuleProcessors())
         {
             if (processor.matches(p2artifact.getProperties()))
             {
@@ -140,4 +127,4 @@ public class P2ArtifactRuleProcessor
         return null;
     }
 
-}
\ No newline at end of file
+}
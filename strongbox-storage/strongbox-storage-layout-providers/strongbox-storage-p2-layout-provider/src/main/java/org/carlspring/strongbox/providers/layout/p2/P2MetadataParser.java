@@ -0,0 +1,283 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+
+/**
+ * Reads the metadata of a P2 repository with a streaming parser, in a single pass over each file.
+ * <p>
+ * The {@code artifacts} and {@code content} metadata are looked up in the order P2 itself prefers them: the
+ * {@code .xml.xz} form (when the XZ codec is on the classpath), then the {@code .jar} form and the plain
+ * {@code .xml} file.
+ */
+public class P2MetadataParser
+{
+
+    public static final String ARTIFACTS = "artifacts";
+
+    public static final String CONTENT = "content";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private static XMLInputFactory createXmlInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        return factory;
+    }
+
+    /**
+     * @return the {@code artifacts} or {@code content} metadata file of the repository, or {@code null} if there is
+     * none
+     */
+    public static Path findMetadataFile(Path repositoryBaseDir,
+                                        String name)
+    {
+        List<String> filenames = new ArrayList<>();
+        if (XZUtils.isXZCompressionAvailable())
+        {
+            filenames.add(name + ".xml.xz");
+        }
+        filenames.add(name + ".jar");
+        filenames.add(name + ".xml");
+
+        for (String filename : filenames)
+        {
+            Path file = repositoryBaseDir.resolve(filename);
+            if (Files.isRegularFile(file))
+            {
+                return file;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return a value which changes when any metadata file of the repository is added, removed or modified
+     */
+    public static String getMetadataVersion(Path repositoryBaseDir)
+        throws IOException
+    {
+        StringBuilder result = new StringBuilder();
+        for (String name : new String[]{ ARTIFACTS, CONTENT })
+        {
+            Path file = findMetadataFile(repositoryBaseDir, name);
+            if (file == null)
+            {
+                result.append("-;");
+                continue;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            result.append(file.getFileName())
+                  .append(':')
+                  .append(attributes.lastModifiedTime().toMillis())
+                  .append(':')
+                  .append(attributes.size())
+                  .append(';');
+        }
+
+        return result.toString();
+    }
+
+    public P2Repository parse(Path repositoryBaseDir)
+        throws IOException
+    {
+        Path artifactsFile = findMetadataFile(repositoryBaseDir, ARTIFACTS);
+        if (artifactsFile == null)
+        {
+            throw new FileNotFoundException(String.format("No P2 artifacts metadata in [%s].", repositoryBaseDir));
+        }
+
+        P2Repository repository = new P2Repository();
+        try (InputStream is = openMetadataFile(artifactsFile, ARTIFACTS))
+        {
+            parseArtifacts(is, repository);
+        }
+
+        Path contentFile = findMetadataFile(repositoryBaseDir, CONTENT);
+        if (contentFile != null)
+        {
+            try (InputStream is = openMetadataFile(contentFile, CONTENT))
+            {
+                parseContent(is, repository);
+            }
+        }
+
+        return repository;
+    }
+
+    private InputStream openMetadataFile(Path file,
+                                         String name)
+        throws IOException
+    {
+        InputStream is = new BufferedInputStream(Files.newInputStream(file));
+
+        String filename = file.getFileName().toString();
+        if (filename.endsWith(".xz"))
+        {
+            return new XZCompressorInputStream(is);
+        }
+        else if (!filename.endsWith(".jar"))
+        {
+            return is;
+        }
+
+        ZipInputStream zis = new ZipInputStream(is);
+        for (ZipEntry entry = zis.getNextEntry(); entry != null; entry = zis.getNextEntry())
+        {
+            if ((name + ".xml").equals(entry.getName()))
+            {
+                return zis;
+            }
+        }
+        zis.close();
+
+        throw new FileNotFoundException(String.format("No [%s.xml] in [%s].", name, file));
+    }
+
+    void parseArtifacts(InputStream is,
+                        P2Repository repository)
+        throws IOException
+    {
+        try
+        {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+            try
+            {
+                P2Artifact artifact = null;
+                while (reader.hasNext())
+                {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT)
+                    {
+                        switch (reader.getLocalName())
+                        {
+                            case "rule":
+                                P2Rule rule = new P2Rule();
+                                rule.setFilter(reader.getAttributeValue(null, "filter"));
+                                rule.setOutput(reader.getAttributeValue(null, "output"));
+                                repository.addRule(rule);
+                                break;
+                            case "artifact":
+                                artifact = new P2Artifact();
+                                artifact.setId(reader.getAttributeValue(null, "id"));
+                                artifact.setVersion(reader.getAttributeValue(null, "version"));
+                                artifact.setClassifier(reader.getAttributeValue(null, "classifier"));
+                                artifact.setProperties(new P2Properties());
+                                break;
+                            case "property":
+                                // The repository has properties too, only those of the artifacts matter.
+                                if (artifact != null)
+                                {
+                                    P2Property property = new P2Property();
+                                    property.setName(reader.getAttributeValue(null, "name"));
+                                    property.setValue(reader.getAttributeValue(null, "value"));
+                                    artifact.getProperties().getPropertites().add(property);
+                                }
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    else if (event == XMLStreamConstants.END_ELEMENT && "artifact".equals(reader.getLocalName()))
+                    {
+                        repository.addArtifact(artifact);
+                        artifact = null;
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new IOException("Invalid P2 artifacts metadata: " + e.getMessage(), e);
+        }
+    }
+
+    void parseContent(InputStream is,
+                      P2Repository repository)
+        throws IOException
+    {
+        try
+        {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(is);
+            try
+            {
+                String unitId = null;
+                String unitVersion = null;
+                Map<String, String> unitProperties = null;
+                // The depth of the element within the current unit, its own properties are at depth 2.
+                int depth = 0;
+                while (reader.hasNext())
+                {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT)
+                    {
+                        if (unitProperties != null)
+                        {
+                            depth++;
+                            if (depth == 2 && "property".equals(reader.getLocalName()))
+                            {
+                                unitProperties.put(reader.getAttributeValue(null, "name"),
+                                                   reader.getAttributeValue(null, "value"));
+                            }
+                        }
+                        else if ("unit".equals(reader.getLocalName()))
+                        {
+                            unitId = reader.getAttributeValue(null, "id");
+                            unitVersion = reader.getAttributeValue(null, "version");
+                            unitProperties = new HashMap<>();
+                            depth = 0;
+                        }
+                    }
+                    else if (event == XMLStreamConstants.END_ELEMENT && unitProperties != null)
+                    {
+                        if (depth == 0)
+                        {
+                            repository.addUnit(unitId, unitVersion, unitProperties);
+                            unitProperties = null;
+                        }
+                        else
+                        {
+                            depth--;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException e)
+        {
+            throw new IOException("Invalid P2 content metadata: " + e.getMessage(), e);
+        }
+    }
+
+}
@@ -2,14 +2,33 @@ package org.carlspring.strongbox.providers.layout.p2;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * The metadata of a P2 repository: the artifacts and the mapping rules of its {@code artifacts.xml}, and the
+ * properties of the installable units of its {@code content.xml}.
+ * <p>
+ * The artifacts are indexed by id, version and classifier, and the rules are compiled, once the metadata is read.
+ *
+ * @see P2MetadataParser
+ */
 @XmlRootElement(name = "repository")
 public class P2Repository
 {
 
-    private P2Artifacts artifacts;
+    private P2Artifacts artifacts = new P2Artifacts();
 
-    private P2Mappings mappings;
+    private P2Mappings mappings = new P2Mappings();
+
+    private final Map<String, P2Artifact> artifactIndex = new HashMap<>();
+
+    private final List<P2ArtifactRuleProcessor> ruleProcessors = new ArrayList<>();
+
+    private final Map<String, Map<String, String>> unitProperties = new HashMap<>();
 
     @XmlElement(name = "artifacts")
     public P2Artifacts getArtifacts()
@@ -32,4 +51,56 @@ public class P2Repository
     {
         this.mappings = mappings;
     }
+
+    void addArtifact(P2Artifact artifact)
+    {
+        artifacts.getArtifacts().add(artifact);
+        artifactIndex.put(key(artifact.getId(), artifact.getVersion(), artifact.getClassifier()), artifact);
+    }
+
+    void addRule(P2Rule rule)
+    {
+        mappings.getRules().add(rule);
+        ruleProcessors.add(new P2ArtifactRuleProcessor(rule.getOutput(), rule.getFilter()));
+    }
+
+    void addUnit(String id,
+                 String version,
+                 Map<String, String> properties)
+    {
+        unitProperties.put(key(id, version), properties);
+    }
+
+    /**
+     * @return the artifact, or {@code null} if the repository doesn't have it
+     */
+    public P2Artifact getArtifact(String id,
+                                  String version,
+                                  String classifier)
+    {
+        return artifactIndex.get(key(id, version, classifier));
+    }
+
+    /**
+     * @return the compiled mapping rules, in the order of the metadata
+     */
+    public List<P2ArtifactRuleProcessor> getRuleProcessors()
+    {
+        return Collections.unmodifiableList(ruleProcessors);
+    }
+
+    /**
+     * @return the properties of the installable unit, empty if the repository doesn't describe it
+     */
+    public Map<String, String> getUnitProperties(String id,
+                                                 String version)
+    {
+        return unitProperties.getOrDefault(key(id, version), Collections.emptyMap());
+    }
+
+    private static String key(String... values)
+    {
+        return String.join("/", values);
+    }
+
 }
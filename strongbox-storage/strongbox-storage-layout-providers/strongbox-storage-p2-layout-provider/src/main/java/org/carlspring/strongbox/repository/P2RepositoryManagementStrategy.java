@@ -1,5 +1,13 @@
 package org.carlspring.strongbox.repository;
 
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.layout.p2.P2ArtifactReader;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * @author carlspring
  */
@@ -7,5 +15,20 @@ public class P2RepositoryManagementStrategy
         extends AbstractRepositoryManagementStrategy
 {
 
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Override
+    public void removeRepository(String storageId,
+                                 String repositoryId)
+            throws IOException
+    {
+        Path repositoryBaseDir = Paths.get(repositoryPathResolver.resolve(getRepository(storageId, repositoryId))
+                                                                 .toString());
+
+        super.removeRepository(storageId, repositoryId);
+
+        P2ArtifactReader.evict(repositoryBaseDir);
+    }
 
 }
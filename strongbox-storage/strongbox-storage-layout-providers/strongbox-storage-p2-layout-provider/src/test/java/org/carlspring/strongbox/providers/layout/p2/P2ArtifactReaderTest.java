@@ -6,6 +6,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -119,6 +120,21 @@ public class P2ArtifactReaderTest
         assertEquals(expectedFilename, foundArtifact.getFilename());
     }
 
+    @Test
+    public void testEvict()
+            throws URISyntaxException, IOException
+    {
+        final String repoDir = getRepoDir();
+        getArtifact(repoDir);
+
+        assertTrue(P2ArtifactReader.isIndexed(Paths.get(repoDir)));
+
+        P2ArtifactReader.evict(Paths.get(repoDir).getParent());
+
+        assertFalse(P2ArtifactReader.isIndexed(Paths.get(repoDir)));
+        assertNotNull(getArtifact(repoDir));
+    }
+
     private P2ArtifactCoordinates getArtifact()
             throws URISyntaxException, IOException
     {
@@ -0,0 +1,159 @@
+package org.carlspring.strongbox.providers.layout.p2;
+
+import org.carlspring.strongbox.artifact.coordinates.P2ArtifactCoordinates;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class P2MetadataParserTest
+{
+
+    private static final String ARTIFACTS_XML = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+                                                "<?artifactRepository version='1.1.0'?>\n" +
+                                                "<repository name='Test' version='1'>\n" +
+                                                "  <properties size='1'>\n" +
+                                                "    <property name='p2.compressed' value='true'/>\n" +
+                                                "  </properties>\n" +
+                                                "  <mappings size='2'>\n" +
+                                                "    <rule filter='(&amp; (classifier=osgi.bundle) (format=packed))'" +
+                                                " output='${repoUrl}/plugins/${id}_${version}.jar.pack.gz'/>\n" +
+                                                "    <rule filter='(&amp; (classifier=osgi.bundle))'" +
+                                                " output='${repoUrl}/plugins/${id}_${version}.jar'/>\n" +
+                                                "  </mappings>\n" +
+                                                "  <artifacts size='%d'>\n" +
+                                                "%s" +
+                                                "  </artifacts>\n" +
+                                                "</repository>\n";
+
+    private static final String CONTENT_XML = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+                                              "<?metadataRepository version='1.1.0'?>\n" +
+                                              "<repository name='Test' version='1'>\n" +
+                                              "  <units size='1'>\n" +
+                                              "    <unit id='com.carlspring.bundle' version='1.0.1'>\n" +
+                                              "      <properties size='1'>\n" +
+                                              "        <property name='org.eclipse.equinox.p2.name' value='Bundle'/>\n" +
+                                              "      </properties>\n" +
+                                              "      <provides size='1'>\n" +
+                                              "        <provided namespace='osgi.bundle' name='com.carlspring.bundle' version='1.0.1'/>\n" +
+                                              "      </provides>\n" +
+                                              "    </unit>\n" +
+                                              "  </units>\n" +
+                                              "</repository>\n";
+
+    private Path repositoryBaseDir;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        Path targetDir = Files.createDirectories(Paths.get("target"));
+        repositoryBaseDir = Files.createTempDirectory(targetDir, "p2-metadata");
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileUtils.deleteDirectory(repositoryBaseDir.toFile());
+    }
+
+    @Test
+    public void testJarMetadata()
+            throws IOException
+    {
+        writeJar(repositoryBaseDir.resolve("artifacts.jar"), "artifacts.xml", artifacts("1.0.1"));
+        writeJar(repositoryBaseDir.resolve("content.jar"), "content.xml", CONTENT_XML);
+
+        P2Repository repository = new P2MetadataParser().parse(repositoryBaseDir);
+
+        P2Artifact artifact = repository.getArtifact("com.carlspring.bundle", "1.0.1", "osgi.bundle");
+        assertNotNull(artifact);
+        assertEquals(1, artifact.getProperties().getPropertites().size());
+        assertNull(repository.getArtifact("com.carlspring.bundle", "1.0.1", "binary"));
+        assertEquals(2, repository.getRuleProcessors().size());
+        assertEquals("Bundle",
+                     repository.getUnitProperties("com.carlspring.bundle", "1.0.1").get("org.eclipse.equinox.p2.name"));
+        assertEquals(1, repository.getUnitProperties("com.carlspring.bundle", "1.0.1").size());
+    }
+
+    @Test
+    public void testMetadataIsReadAgainWhenChanged()
+            throws IOException
+    {
+        Path artifactsXml = repositoryBaseDir.resolve("artifacts.xml");
+        Files.write(artifactsXml, artifacts("1.0.1").getBytes(StandardCharsets.UTF_8));
+
+        String baseDir = repositoryBaseDir.toString();
+        P2ArtifactCoordinates artifact = P2ArtifactReader.getArtifact(baseDir, "com.carlspring.bundle/1.0.1/osgi.bundle");
+        assertNotNull(artifact);
+        assertEquals(baseDir + "/plugins/com.carlspring.bundle_1.0.1.jar", artifact.getFilename());
+        assertNull(P2ArtifactReader.getArtifact(baseDir, "com.carlspring.bundle/1.0.2/osgi.bundle"));
+
+        P2Repository repository = P2ArtifactReader.getRepository(repositoryBaseDir);
+        assertSame(repository, P2ArtifactReader.getRepository(repositoryBaseDir));
+
+        Files.write(artifactsXml, artifacts("1.0.1", "1.0.2").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(artifactsXml, FileTime.fromMillis(System.currentTimeMillis() + 60000));
+
+        assertNotNull(P2ArtifactReader.getArtifact(baseDir, "com.carlspring.bundle/1.0.2/osgi.bundle"));
+    }
+
+    @Test
+    public void testRuleMatchesAllFilterProperties()
+    {
+        P2ArtifactRuleProcessor processor = new P2ArtifactRuleProcessor("${id}.jar.pack.gz",
+                                                                        "(& (classifier=osgi.bundle) (format=packed))");
+
+        P2ArtifactCoordinates coordinates = new P2ArtifactCoordinates("bundle", "1.0", "osgi.bundle");
+        coordinates.addProperty("id", "bundle");
+        coordinates.addProperty("classifier", "osgi.bundle");
+        assertFalse(processor.matches(coordinates.getProperties()));
+        assertNull(processor.getOutput(coordinates));
+
+        coordinates.addProperty("format", "packed");
+        assertEquals("bundle.jar.pack.gz", processor.getOutput(coordinates));
+    }
+
+    private String artifacts(String... versions)
+    {
+        StringBuilder artifacts = new StringBuilder();
+        for (String version : versions)
+        {
+            artifacts.append(String.format("    <artifact classifier='osgi.bundle' id='com.carlspring.bundle' version='%s'>\n" +
+                                           "      <properties size='1'>\n" +
+                                           "        <property name='download.size' value='1'/>\n" +
+                                           "      </properties>\n" +
+                                           "    </artifact>\n", version));
+        }
+
+        return String.format(ARTIFACTS_XML, versions.length, artifacts);
+    }
+
+    private void writeJar(Path jar,
+                          String entryName,
+                          String content)
+            throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(jar);
+             ZipOutputStream zos = new ZipOutputStream(os))
+        {
+            zos.putNextEntry(new ZipEntry(entryName));
+            zos.write(content.getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+    }
+
+}
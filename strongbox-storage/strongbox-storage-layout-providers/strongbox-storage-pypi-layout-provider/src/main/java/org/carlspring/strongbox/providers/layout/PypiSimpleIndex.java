@@ -0,0 +1,769 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.PypiArtifactCoordinates;
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.data.criteria.Expression.ExpOperator;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.RestArtifactResolverFactory;
+import org.carlspring.strongbox.storage.cache.ArtifactEventCacheSupport;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Renders the pages of the PyPI simple repository API (PEP 503 and PEP 691) of the hosted, proxy and group PyPI
+ * repositories.
+ * <p>
+ * The project pages of the proxy repositories are those of the remote repository, with the URLs pointing to the
+ * proxy; the cached packages are only listed while the remote repository can't be reached. The group repositories
+ * list the packages of their members, the upstream ones included.
+ * <p>
+ * The pages are rendered once and kept until a package of their project is stored, fetched or deleted, so that the
+ * index polling of the installers costs no database queries. The entries also expire after
+ * {@code strongbox.pypi.simple-index.cache.ttl-seconds}.
+ *
+ * @see ArtifactEventCacheSupport
+ */
+@Component
+public class PypiSimpleIndex
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(PypiSimpleIndex.class);
+
+    public static final String HTML_CONTENT_TYPE = "application/vnd.pypi.simple.v1+html";
+
+    public static final String JSON_CONTENT_TYPE = "application/vnd.pypi.simple.v1+json";
+
+    public static final String API_VERSION = "1.0";
+
+    private static final String DISTRIBUTION_PROPERTY = "artifactCoordinates.coordinates." +
+                                                        PypiArtifactCoordinates.DISTRIBUTION;
+
+    private static final String NORMALIZED_DISTRIBUTION_PROPERTY = DISTRIBUTION_PROPERTY +
+                                                                   ".toLowerCase().replace('_', '-').replace('.', '-')";
+
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[-_.]+");
+
+    private static final Pattern ANCHOR = Pattern.compile("<a\\s([^>]*)>(.*?)</a>",
+                                                          Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final Pattern ATTRIBUTE = Pattern.compile("([\\w-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Inject
+    private RepositoryProviderRegistry repositoryProviderRegistry;
+
+    @Inject
+    private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Inject
+    private RestArtifactResolverFactory restArtifactResolverFactory;
+
+    @Value("${strongbox.pypi.simple-index.cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${strongbox.pypi.simple-index.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private ArtifactEventCacheSupport cacheSupport;
+
+    /**
+     * The project pages, by {@code storageId:repositoryId:project}.
+     */
+    private Cache<String, PypiSimpleIndexPage> projectPages;
+
+    /**
+     * The project list pages, by {@code storageId:repositoryId}.
+     */
+    private Cache<String, PypiSimpleIndexPage> projectListPages;
+
+    @PostConstruct
+    public void init()
+    {
+        cacheSupport = new ArtifactEventCacheSupport(ttlSeconds);
+        projectPages = cacheSupport.newCache(maxEntries);
+        projectListPages = cacheSupport.newCache();
+    }
+
+    /**
+     * @return the project name normalized as defined by PEP 503
+     */
+    public static String normalize(String project)
+    {
+        return NAME_SEPARATORS.matcher(project).replaceAll("-").toLowerCase();
+    }
+
+    public PypiSimpleIndexPage getProjectListPage(Repository repository)
+        throws IOException
+    {
+        String key = repository.getStorage().getId() + ":" + repository.getId();
+
+        PypiSimpleIndexPage page = projectListPages.getIfPresent(key);
+        if (page != null)
+        {
+            return page;
+        }
+
+        long pageGeneration = cacheSupport.getGeneration();
+        page = renderProjectListPage(repository);
+        cacheSupport.put(projectListPages, key, page, pageGeneration);
+
+        return page;
+    }
+
+    /**
+     * @param project the normalized project name
+     * @return the project page, or {@code null} if the repository has no package of the project
+     */
+    public PypiSimpleIndexPage getProjectPage(Repository repository,
+                                              String project)
+        throws IOException
+    {
+        String key = repository.getStorage().getId() + ":" + repository.getId() + ":" + project;
+
+        PypiSimpleIndexPage page = projectPages.getIfPresent(key);
+        if (page != null)
+        {
+            return page;
+        }
+
+        long pageGeneration = cacheSupport.getGeneration();
+        ProjectFiles files = listProjectFiles(repository, project);
+        if (files.name == null)
+        {
+            return null;
+        }
+
+        page = renderProjectPage(project, files);
+        // The cached listing of an unreachable remote repository is rendered again with the next request.
+        if (files.complete)
+        {
+            cacheSupport.put(projectPages, key, page, pageGeneration);
+        }
+
+        return page;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!cacheSupport.isInvalidating(event))
+        {
+            return;
+        }
+
+        boolean deleted = event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType() ||
+                          event.getType() == ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_MOVED.getType();
+
+        invalidate(event.getPath(), deleted);
+        if (event.getTargetPath() != null)
+        {
+            invalidate(event.getTargetPath(), false);
+        }
+    }
+
+    private void invalidate(Path path,
+                            boolean deleted)
+    {
+        if (!(path instanceof RepositoryPath))
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) path;
+        if (!PypiLayoutProvider.ALIAS.equals(repositoryPath.getRepository().getLayout()))
+        {
+            return;
+        }
+
+        String relativePath;
+        try
+        {
+            relativePath = RepositoryFiles.relativizePath(repositoryPath);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to resolve the project of [%s].", repositoryPath), e);
+            invalidateAll();
+
+            return;
+        }
+
+        // The layout is `{distribution}/{version}/{filename}`.
+        String distribution = relativePath.split("/")[0];
+        if (distribution.isEmpty())
+        {
+            invalidateAll();
+
+            return;
+        }
+
+        invalidate(normalize(distribution), deleted);
+    }
+
+    /**
+     * Evicts the pages of the project from all the repositories, as it's cheaper than to find the groups which
+     * include the repository of the event.
+     */
+    public void invalidate(String project,
+                           boolean deleted)
+    {
+        cacheSupport.invalidate(() -> {
+            projectPages.asMap().keySet().removeIf(key -> key.endsWith(":" + project));
+            // A deletion may remove the project, a new package only matters if the project is new.
+            projectListPages.asMap().values().removeIf(page -> deleted || !page.getProjects().contains(project));
+        });
+    }
+
+    public void invalidateAll()
+    {
+        cacheSupport.invalidate(() -> {
+            projectPages.invalidateAll();
+            projectListPages.invalidateAll();
+        });
+    }
+
+    private PypiSimpleIndexPage renderProjectListPage(Repository repository)
+        throws IOException
+    {
+        Map<String, String> projects = new TreeMap<>();
+        for (Path path : searchAll(repository, Predicate.of(ExpOperator.IS_NOT_NULL.of(DISTRIBUTION_PROPERTY))))
+        {
+            ArtifactCoordinates coordinates = getArtifactCoordinates(path);
+            if (coordinates != null)
+            {
+                projects.putIfAbsent(normalize(coordinates.getId()), coordinates.getId());
+            }
+        }
+
+        StringBuilder html = new StringBuilder();
+        appendHtmlHeader(html, "Simple index");
+
+        ObjectNode json = createJsonRoot();
+        ArrayNode jsonProjects = json.putArray("projects");
+
+        for (Map.Entry<String, String> project : projects.entrySet())
+        {
+            html.append(String.format("    <a href=\"%s/\">%s</a><br/>%n",
+                                      escape(project.getKey()),
+                                      escape(project.getValue())));
+
+            jsonProjects.addObject().put("name", project.getValue());
+        }
+        appendHtmlFooter(html);
+
+        return new PypiSimpleIndexPage(html.toString().getBytes(StandardCharsets.UTF_8),
+                                       toJson(json),
+                                       projects.keySet());
+    }
+
+    private ProjectFiles listProjectFiles(Repository repository,
+                                          String project)
+        throws IOException
+    {
+        ProjectFiles result = new ProjectFiles();
+        if (repository.isProxyRepository())
+        {
+            // The cached packages are only listed when the remote repository can't be reached.
+            if (addUpstreamFiles(repository, project, result))
+            {
+                return result;
+            }
+            result.complete = false;
+        }
+        else if (repository.isGroupRepository())
+        {
+            for (Repository member : groupRepositorySetCollector.collect(repository, true))
+            {
+                if (member.isProxyRepository() && !addUpstreamFiles(member, project, result))
+                {
+                    result.complete = false;
+                }
+            }
+        }
+
+        addCachedFiles(repository, project, result);
+
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the remote repository answered, {@code false} if the cached packages should be listed
+     *         instead
+     */
+    private boolean addUpstreamFiles(Repository repository,
+                                     String project,
+                                     ProjectFiles result)
+    {
+        RemoteRepository remoteRepository = repository.getRemoteRepository();
+        if (remoteRepository == null)
+        {
+            return false;
+        }
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+        try
+        {
+            if (!client.isAlive())
+            {
+                return false;
+            }
+
+            long startTime = System.currentTimeMillis();
+            try (CloseableRestResponse closeableRestResponse = client.get("simple/" + project + "/"))
+            {
+                Response response = closeableRestResponse.getResponse();
+                if (response.getStatus() == Response.Status.NOT_FOUND.getStatusCode())
+                {
+                    client.recordSuccess(System.currentTimeMillis() - startTime);
+
+                    return true;
+                }
+                if (response.getStatus() != Response.Status.OK.getStatusCode())
+                {
+                    if (response.getStatus() >= Response.Status.INTERNAL_SERVER_ERROR.getStatusCode())
+                    {
+                        client.recordFailure();
+                    }
+                    logger.warn(String.format("Failed to fetch the page of [%s] from [%s], status [%s].",
+                                              project, remoteRepository.getUrl(), response.getStatus()));
+
+                    return false;
+                }
+
+                String page = response.readEntity(String.class);
+                client.recordSuccess(System.currentTimeMillis() - startTime);
+
+                parseUpstreamPage(project, page).forEach(result::add);
+
+                return true;
+            }
+        }
+        catch (Exception e)
+        {
+            client.recordFailure();
+            logger.warn(String.format("Failed to fetch the page of [%s] from [%s].", project, remoteRepository.getUrl()),
+                        e);
+
+            return false;
+        }
+        finally
+        {
+            client.close();
+        }
+    }
+
+    /**
+     * Reads the files of an upstream project page, in either the HTML or the JSON format, and points their URLs to
+     * this repository. The files which don't belong to the project, or which the layout can't resolve, are left out.
+     */
+    static List<PackageFile> parseUpstreamPage(String project,
+                                               String page)
+        throws IOException
+    {
+        List<PackageFile> result = new ArrayList<>();
+        if (page.trim().startsWith("{"))
+        {
+            for (JsonNode file : OBJECT_MAPPER.readTree(page).path("files"))
+            {
+                JsonNode yanked = file.path("yanked");
+                String filename = file.path("filename").asText();
+                if (filename.isEmpty())
+                {
+                    filename = getFilename(file.path("url").asText());
+                }
+
+                addUpstreamFile(result,
+                                project,
+                                filename,
+                                file.path("hashes").path("sha256").asText(null),
+                                file.path("requires-python").asText(null),
+                                yanked.isTextual() ? yanked.asText() : yanked.asBoolean() ? "" : null);
+            }
+
+            return result;
+        }
+
+        Matcher anchor = ANCHOR.matcher(page);
+        while (anchor.find())
+        {
+            Map<String, String> attributes = new HashMap<>();
+            Matcher attribute = ATTRIBUTE.matcher(anchor.group(1));
+            while (attribute.find())
+            {
+                String value = attribute.group(2) != null ? attribute.group(2) : attribute.group(3);
+                attributes.put(attribute.group(1).toLowerCase(), unescape(value));
+            }
+
+            String href = attributes.get("href");
+            if (href == null)
+            {
+                continue;
+            }
+
+            String sha256 = null;
+            int fragment = href.indexOf('#');
+            if (fragment >= 0)
+            {
+                String hash = href.substring(fragment + 1);
+                sha256 = hash.startsWith("sha256=") ? hash.substring("sha256=".length()) : null;
+                href = href.substring(0, fragment);
+            }
+
+            String filename = unescape(anchor.group(2)).trim();
+            addUpstreamFile(result,
+                            project,
+                            filename.isEmpty() ? getFilename(href) : filename,
+                            sha256,
+                            attributes.get("data-requires-python"),
+                            attributes.get("data-yanked"));
+        }
+
+        return result;
+    }
+
+    private static void addUpstreamFile(List<PackageFile> result,
+                                        String project,
+                                        String filename,
+                                        String sha256,
+                                        String requiresPython,
+                                        String yanked)
+    {
+        PypiArtifactCoordinates coordinates;
+        try
+        {
+            coordinates = PypiArtifactCoordinates.parse(filename);
+        }
+        catch (IllegalArgumentException e)
+        {
+            logger.debug(String.format("Skipping the upstream file [%s] of [%s]: %s", filename, project,
+                                       e.getMessage()));
+
+            return;
+        }
+
+        if (!project.equals(normalize(coordinates.getId())))
+        {
+            return;
+        }
+
+        // The page is served from `simple/{project}/`, the files from the root of the repository.
+        result.add(new PackageFile(coordinates.getId(),
+                                   filename,
+                                   "../../" + coordinates.toPath(),
+                                   sha256,
+                                   requiresPython,
+                                   yanked));
+    }
+
+    private void addCachedFiles(Repository repository,
+                                String project,
+                                ProjectFiles result)
+        throws IOException
+    {
+        // The installers normalize the names, but the packages keep the spelling of their authors, so the names are
+        // normalized on both sides. The query doesn't merge the runs of separators, which no published name has.
+        Predicate predicate = Predicate.of(ExpOperator.EQ.of(NORMALIZED_DISTRIBUTION_PROPERTY, project));
+        for (Path path : searchAll(repository, predicate))
+        {
+            ArtifactCoordinates coordinates = getArtifactCoordinates(path);
+            if (coordinates == null || !project.equals(normalize(coordinates.getId())))
+            {
+                continue;
+            }
+
+            RepositoryPath repositoryPath = (RepositoryPath) path;
+            String relativePath = RepositoryFiles.relativizePath(repositoryPath);
+            String sha256 = repositoryPath.getArtifactEntry().getChecksums().get(MessageDigestAlgorithms.SHA_256);
+
+            result.add(new PackageFile(coordinates.getId(),
+                                       getFilename(relativePath),
+                                       "../../" + relativePath,
+                                       sha256,
+                                       null,
+                                       null));
+        }
+    }
+
+    private PypiSimpleIndexPage renderProjectPage(String project,
+                                                  ProjectFiles files)
+        throws IOException
+    {
+        StringBuilder html = new StringBuilder();
+        appendHtmlHeader(html, "Links for " + files.name);
+
+        ObjectNode json = createJsonRoot();
+        json.put("name", project);
+        ArrayNode jsonFiles = json.putArray("files");
+
+        for (PackageFile file : files.files.values())
+        {
+            StringBuilder attributes = new StringBuilder();
+            if (file.getRequiresPython() != null)
+            {
+                attributes.append(String.format(" data-requires-python=\"%s\"", escape(file.getRequiresPython())));
+            }
+            if (file.getYanked() != null)
+            {
+                attributes.append(String.format(" data-yanked=\"%s\"", escape(file.getYanked())));
+            }
+
+            html.append(String.format("    <a href=\"%s%s\"%s>%s</a><br/>%n",
+                                      escape(file.getUrl()),
+                                      file.getSha256() != null ? "#sha256=" + file.getSha256() : "",
+                                      attributes,
+                                      escape(file.getFilename())));
+
+            ObjectNode jsonFile = jsonFiles.addObject();
+            jsonFile.put("filename", file.getFilename());
+            jsonFile.put("url", file.getUrl());
+            ObjectNode hashes = jsonFile.putObject("hashes");
+            if (file.getSha256() != null)
+            {
+                hashes.put("sha256", file.getSha256());
+            }
+            if (file.getRequiresPython() != null)
+            {
+                jsonFile.put("requires-python", file.getRequiresPython());
+            }
+            if (file.getYanked() != null)
+            {
+                if (file.getYanked().isEmpty())
+                {
+                    jsonFile.put("yanked", true);
+                }
+                else
+                {
+                    jsonFile.put("yanked", file.getYanked());
+                }
+            }
+        }
+        appendHtmlFooter(html);
+
+        return new PypiSimpleIndexPage(html.toString().getBytes(StandardCharsets.UTF_8),
+                                       toJson(json),
+                                       Collections.emptySet());
+    }
+
+    private List<Path> searchAll(Repository repository,
+                                 Predicate predicate)
+    {
+        RepositoryProvider provider = repositoryProviderRegistry.getProvider(repository.getType());
+
+        List<Path> result = new ArrayList<>();
+        for (int skip = 0; ; skip += Paginator.MAX_LIMIT)
+        {
+            Paginator paginator = new Paginator();
+            paginator.setSkip(skip);
+            paginator.setLimit(Paginator.MAX_LIMIT);
+
+            List<Path> page = provider.search(repository.getStorage().getId(), repository.getId(), predicate,
+                                              paginator);
+            result.addAll(page);
+
+            if (page.size() < Paginator.MAX_LIMIT)
+            {
+                return result;
+            }
+        }
+    }
+
+    private ArtifactCoordinates getArtifactCoordinates(Path path)
+        throws IOException
+    {
+        ArtifactEntry artifactEntry = ((RepositoryPath) path).getArtifactEntry();
+
+        return artifactEntry == null ? null : artifactEntry.getArtifactCoordinates();
+    }
+
+    private void appendHtmlHeader(StringBuilder html,
+                                  String title)
+    {
+        html.append(String.format("<!DOCTYPE html>%n"))
+            .append(String.format("<html>%n"))
+            .append(String.format("  <head>%n"))
+            .append(String.format("    <meta name=\"pypi:repository-version\" content=\"%s\">%n", API_VERSION))
+            .append(String.format("    <title>%s</title>%n", escape(title)))
+            .append(String.format("  </head>%n"))
+            .append(String.format("  <body>%n"));
+    }
+
+    private void appendHtmlFooter(StringBuilder html)
+    {
+        html.append(String.format("  </body>%n"))
+            .append(String.format("</html>%n"));
+    }
+
+    private static String escape(String value)
+    {
+        return value.replace("&", "&amp;")
+                    .replace("<", "&lt;")
+                    .replace(">", "&gt;")
+                    .replace("\"", "&quot;")
+                    .replace("'", "&#39;");
+    }
+
+    private static String unescape(String value)
+    {
+        return value.replace("&lt;", "<")
+                    .replace("&gt;", ">")
+                    .replace("&quot;", "\"")
+                    .replace("&#39;", "'")
+                    .replace("&#x27;", "'")
+                    .replace("&amp;", "&");
+    }
+
+    private static String getFilename(String path)
+    {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private ObjectNode createJsonRoot()
+    {
+        ObjectNode json = OBJECT_MAPPER.createObjectNode();
+        json.putObject("meta").put("api-version", API_VERSION);
+
+        return json;
+    }
+
+    private byte[] toJson(ObjectNode json)
+        throws JsonProcessingException
+    {
+        return OBJECT_MAPPER.writeValueAsBytes(json);
+    }
+
+    /**
+     * A file of a project page.
+     */
+    static class PackageFile
+    {
+
+        private final String distribution;
+
+        private final String filename;
+
+        private final String url;
+
+        private final String sha256;
+
+        private final String requiresPython;
+
+        /**
+         * The reason of the yank, empty if none was given, or {@code null} if the file isn't yanked.
+         */
+        private final String yanked;
+
+        PackageFile(String distribution,
+                    String filename,
+                    String url,
+                    String sha256,
+                    String requiresPython,
+                    String yanked)
+        {
+            this.distribution = distribution;
+            this.filename = filename;
+            this.url = url;
+            this.sha256 = sha256;
+            this.requiresPython = requiresPython;
+            this.yanked = yanked;
+        }
+
+        String getDistribution()
+        {
+            return distribution;
+        }
+
+        String getFilename()
+        {
+            return filename;
+        }
+
+        String getUrl()
+        {
+            return url;
+        }
+
+        String getSha256()
+        {
+            return sha256;
+        }
+
+        String getRequiresPython()
+        {
+            return requiresPython;
+        }
+
+        String getYanked()
+        {
+            return yanked;
+        }
+
+    }
+
+    private static class ProjectFiles
+    {
+
+        /**
+         * The name of the project, as spelled by the first file found, or {@code null} if there is none.
+         */
+        private String name;
+
+        /**
+         * The files by filename, the upstream ones are added first and win over the cached ones.
+         */
+        private final Map<String, PackageFile> files = new TreeMap<>();
+
+        /**
+         * {@code false} if the cached packages were listed instead of the upstream ones.
+         */
+        private boolean complete = true;
+
+        void add(PackageFile file)
+        {
+            files.putIfAbsent(file.getFilename(), file);
+            name = name == null ? file.getDistribution() : name;
+        }
+
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.carlspring.strongbox.providers.layout;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * A rendered page of the PyPI simple repository API, in both of its representations.
+ *
+ * @see PypiSimpleIndex
+ */
+public class PypiSimpleIndexPage
+{
+
+    private final byte[] html;
+
+    private final byte[] json;
+
+    private final String htmlETag;
+
+    private final String jsonETag;
+
+    /**
+     * The normalized names of the projects listed by the page, empty for a project page.
+     */
+    private final Set<String> projects;
+
+    PypiSimpleIndexPage(byte[] html,
+                        byte[] json,
+                        Set<String> projects)
+    {
+        this.html = html;
+        this.json = json;
+        this.htmlETag = "\"" + DigestUtils.sha256Hex(html) + "\"";
+        this.jsonETag = "\"" + DigestUtils.sha256Hex(json) + "\"";
+        this.projects = Collections.unmodifiableSet(projects);
+    }
+
+    public byte[] getContent(boolean json)
+    {
+        return json ? this.json : this.html;
+    }
+
+    public String getETag(boolean json)
+    {
+        return json ? this.jsonETag : this.htmlETag;
+    }
+
+    Set<String> getProjects()
+    {
+        return projects;
+    }
+
+}
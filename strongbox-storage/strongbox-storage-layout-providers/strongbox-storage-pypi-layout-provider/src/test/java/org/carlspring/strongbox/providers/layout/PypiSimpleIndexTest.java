@@ -0,0 +1,253 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.client.CloseableRestResponse;
+import org.carlspring.strongbox.client.RestArtifactResolver;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.data.criteria.Predicate;
+import org.carlspring.strongbox.providers.layout.PypiSimpleIndex.PackageFile;
+import org.carlspring.strongbox.providers.repository.RepositoryProvider;
+import org.carlspring.strongbox.providers.repository.RepositoryProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.RestArtifactResolverFactory;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import javax.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PypiSimpleIndexTest
+{
+
+    private static final String PROJECT = "foo-bar";
+
+    private static final String WHEEL = "Foo_Bar-1.0-py3-none-any.whl";
+
+    private static final String SOURCE = "Foo_Bar-1.0.tar.gz";
+
+    private static final String UPSTREAM_HTML = "<!DOCTYPE html>\n" +
+                                                "<html>\n" +
+                                                "  <body>\n" +
+                                                "    <a href=\"https://files.example.org/ab/cd/" + WHEEL +
+                                                "#sha256=0123abcd\" data-requires-python=\"&gt;=3.6\">" + WHEEL +
+                                                "</a><br/>\n" +
+                                                "    <A HREF='https://files.example.org/ef/gh/" + SOURCE +
+                                                "#md5=4567' data-yanked=\"\">" + SOURCE + "</A><br/>\n" +
+                                                "    <a href=\"https://files.example.org/other-1.0.tar.gz\">" +
+                                                "other-1.0.tar.gz</a><br/>\n" +
+                                                "    <a href=\"https://files.example.org/foo-bar-2.0.zip\">" +
+                                                "foo-bar-2.0.zip</a><br/>\n" +
+                                                "  </body>\n" +
+                                                "</html>\n";
+
+    private static final String UPSTREAM_JSON = "{\"meta\": {\"api-version\": \"1.0\"}, \"name\": \"foo-bar\", " +
+                                                "\"files\": [" +
+                                                "{\"filename\": \"" + WHEEL + "\", " +
+                                                "\"url\": \"https://files.example.org/" + WHEEL + "\", " +
+                                                "\"hashes\": {\"sha256\": \"0123abcd\"}, " +
+                                                "\"requires-python\": \">=3.6\", \"yanked\": \"broken\"}, " +
+                                                "{\"url\": \"https://files.example.org/" + SOURCE + "\", " +
+                                                "\"hashes\": {}, \"yanked\": false}]}";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private PypiSimpleIndex pypiSimpleIndex;
+
+    private RepositoryProvider repositoryProvider;
+
+    private RestArtifactResolver client;
+
+    private Response response;
+
+    @BeforeEach
+    public void setUp()
+    {
+        repositoryProvider = Mockito.mock(RepositoryProvider.class);
+        when(repositoryProvider.search(anyString(), anyString(), any(Predicate.class), any(Paginator.class)))
+                .thenReturn(Collections.emptyList());
+
+        RepositoryProviderRegistry repositoryProviderRegistry = Mockito.mock(RepositoryProviderRegistry.class);
+        when(repositoryProviderRegistry.getProvider(anyString())).thenReturn(repositoryProvider);
+
+        response = Mockito.mock(Response.class);
+        client = Mockito.mock(RestArtifactResolver.class);
+        when(client.isAlive()).thenReturn(true);
+        when(client.get(anyString())).thenReturn(new CloseableRestResponse(response));
+
+        RestArtifactResolverFactory restArtifactResolverFactory = Mockito.mock(RestArtifactResolverFactory.class);
+        when(restArtifactResolverFactory.newInstance(any(RemoteRepository.class))).thenReturn(client);
+
+        pypiSimpleIndex = new PypiSimpleIndex();
+        ReflectionTestUtils.setField(pypiSimpleIndex, "repositoryProviderRegistry", repositoryProviderRegistry);
+        ReflectionTestUtils.setField(pypiSimpleIndex, "restArtifactResolverFactory", restArtifactResolverFactory);
+        ReflectionTestUtils.setField(pypiSimpleIndex, "groupRepositorySetCollector",
+                                     Mockito.mock(GroupRepositorySetCollector.class));
+        ReflectionTestUtils.setField(pypiSimpleIndex, "maxEntries", 100L);
+        ReflectionTestUtils.setField(pypiSimpleIndex, "ttlSeconds", 600L);
+        pypiSimpleIndex.init();
+    }
+
+    @Test
+    public void testNormalize()
+    {
+        assertEquals("requests", PypiSimpleIndex.normalize("requests"));
+        assertEquals("django", PypiSimpleIndex.normalize("Django"));
+        assertEquals("zope-interface", PypiSimpleIndex.normalize("zope.interface"));
+        assertEquals("typing-extensions", PypiSimpleIndex.normalize("typing_extensions"));
+        assertEquals("foo-bar-baz", PypiSimpleIndex.normalize("Foo__Bar-._Baz"));
+    }
+
+    @Test
+    public void testUpstreamHtmlPageIsRewritten()
+        throws Exception
+    {
+        List<PackageFile> files = PypiSimpleIndex.parseUpstreamPage(PROJECT, UPSTREAM_HTML);
+
+        // The files of other projects, or which the layout can't resolve, are left out.
+        assertEquals(2, files.size());
+
+        PackageFile wheel = files.get(0);
+        assertEquals(WHEEL, wheel.getFilename());
+        assertEquals("../../Foo_Bar/1.0/" + WHEEL, wheel.getUrl());
+        assertEquals("0123abcd", wheel.getSha256());
+        assertEquals(">=3.6", wheel.getRequiresPython());
+        assertNull(wheel.getYanked());
+
+        PackageFile source = files.get(1);
+        assertEquals(SOURCE, source.getFilename());
+        assertEquals("../../Foo_Bar/1.0/" + SOURCE, source.getUrl());
+        assertNull(source.getSha256());
+        assertEquals("", source.getYanked());
+    }
+
+    @Test
+    public void testUpstreamJsonPageIsRewritten()
+        throws Exception
+    {
+        List<PackageFile> files = PypiSimpleIndex.parseUpstreamPage(PROJECT, UPSTREAM_JSON);
+
+        assertEquals(2, files.size());
+
+        PackageFile wheel = files.get(0);
+        assertEquals("../../Foo_Bar/1.0/" + WHEEL, wheel.getUrl());
+        assertEquals("0123abcd", wheel.getSha256());
+        assertEquals(">=3.6", wheel.getRequiresPython());
+        assertEquals("broken", wheel.getYanked());
+
+        PackageFile source = files.get(1);
+        assertEquals(SOURCE, source.getFilename());
+        assertNull(source.getSha256());
+        assertNull(source.getYanked());
+    }
+
+    @Test
+    public void testProxyProjectPageIsTheUpstreamOne()
+        throws Exception
+    {
+        when(response.getStatus()).thenReturn(Response.Status.OK.getStatusCode());
+        when(response.readEntity(String.class)).thenReturn(UPSTREAM_HTML);
+
+        Repository repository = proxyRepository();
+
+        PypiSimpleIndexPage page = pypiSimpleIndex.getProjectPage(repository, PROJECT);
+        assertNotNull(page);
+
+        JsonNode json = OBJECT_MAPPER.readTree(page.getContent(true));
+        assertEquals(PROJECT, json.path("name").asText());
+        assertEquals(2, json.path("files").size());
+        assertEquals("../../Foo_Bar/1.0/" + WHEEL, json.path("files").get(0).path("url").asText());
+        assertEquals("0123abcd", json.path("files").get(0).path("hashes").path("sha256").asText());
+        assertEquals("../../Foo_Bar/1.0/" + SOURCE, json.path("files").get(1).path("url").asText());
+        assertTrue(json.path("files").get(1).path("yanked").asBoolean());
+
+        String html = new String(page.getContent(false), StandardCharsets.UTF_8);
+        assertTrue(html.contains("href=\"../../Foo_Bar/1.0/" + WHEEL + "#sha256=0123abcd\""));
+        assertTrue(html.contains("data-requires-python=\"&gt;=3.6\""));
+        assertFalse(html.contains("files.example.org"));
+
+        // The upstream page is cached, and the cached packages aren't listed.
+        pypiSimpleIndex.getProjectPage(repository, PROJECT);
+        verify(client, times(1)).get("simple/" + PROJECT + "/");
+        verify(client).recordSuccess(Mockito.anyLong());
+        verify(repositoryProvider, never()).search(anyString(), anyString(), any(Predicate.class),
+                                                   any(Paginator.class));
+    }
+
+    @Test
+    public void testProxyProjectMissingUpstreamIsNotFound()
+        throws Exception
+    {
+        when(response.getStatus()).thenReturn(Response.Status.NOT_FOUND.getStatusCode());
+
+        assertNull(pypiSimpleIndex.getProjectPage(proxyRepository(), PROJECT));
+        verify(repositoryProvider, never()).search(anyString(), anyString(), any(Predicate.class),
+                                                   any(Paginator.class));
+    }
+
+    @Test
+    public void testProxyFallsBackToTheCachedPackagesWhileTheRemoteIsDown()
+        throws Exception
+    {
+        when(client.isAlive()).thenReturn(false);
+
+        Repository repository = proxyRepository();
+
+        assertNull(pypiSimpleIndex.getProjectPage(repository, PROJECT));
+        assertNull(pypiSimpleIndex.getProjectPage(repository, PROJECT));
+
+        // The fallback isn't cached, so that the upstream page is fetched once the remote is back.
+        verify(client, never()).get(anyString());
+        verify(repositoryProvider, times(2)).search(eq("storage0"), eq("pypi-proxy"), any(Predicate.class),
+                                                    any(Paginator.class));
+    }
+
+    @Test
+    public void testProxyFallsBackToTheCachedPackagesOnServerErrors()
+        throws Exception
+    {
+        when(response.getStatus()).thenReturn(Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+
+        assertNull(pypiSimpleIndex.getProjectPage(proxyRepository(), PROJECT));
+
+        verify(client).recordFailure();
+        verify(repositoryProvider).search(eq("storage0"), eq("pypi-proxy"), any(Predicate.class),
+                                          any(Paginator.class));
+    }
+
+    private Repository proxyRepository()
+    {
+        Storage storage = Mockito.mock(Storage.class);
+        when(storage.getId()).thenReturn("storage0");
+
+        Repository repository = Mockito.mock(Repository.class);
+        when(repository.getId()).thenReturn("pypi-proxy");
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getType()).thenReturn("proxy");
+        when(repository.isProxyRepository()).thenReturn(true);
+        when(repository.getRemoteRepository()).thenReturn(Mockito.mock(RemoteRepository.class));
+
+        return repository;
+    }
+
+}
@@ -11,12 +11,19 @@ import org.carlspring.strongbox.services.*;
 import org.carlspring.strongbox.storage.StorageDto;
 import org.carlspring.strongbox.storage.repository.RepositoryDto;
 import org.carlspring.strongbox.testing.TestCaseWithRepository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
 
 import javax.inject.Inject;
 import javax.xml.bind.JAXBException;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Random;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -30,6 +37,8 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -167,6 +176,30 @@ public class RawLayoutProviderTest
         }
     }
 
+    @Test
+    public void testDeployLargeArtifactWithChecksums()
+            throws Exception
+    {
+        String path = "foo/large.bin";
+
+        // Large enough for the digests to be computed apart from the write.
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(STORAGE, REPOSITORY, path);
+        artifactManagementService.validateAndStore(repositoryPath, new ByteArrayInputStream(content));
+
+        Path artifactPath = Paths.get(propertiesBooter.getVaultDirectory(), "storages", STORAGE, REPOSITORY, path);
+        assertArrayEquals(content, Files.readAllBytes(artifactPath));
+
+        assertEquals(MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("MD5").digest(content)),
+                     new String(Files.readAllBytes(artifactPath.resolveSibling("large.bin.md5")),
+                                StandardCharsets.UTF_8));
+        assertEquals(MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("SHA-1").digest(content)),
+                     new String(Files.readAllBytes(artifactPath.resolveSibling("large.bin.sha1")),
+                                StandardCharsets.UTF_8));
+    }
+
     private void createRepository(String storageId, String repositoryId)
             throws IOException, RepositoryManagementStrategyException
     {
@@ -6,9 +6,12 @@ import org.carlspring.strongbox.configuration.MutableConfiguration;
 import org.carlspring.strongbox.controllers.support.ErrorResponseEntityBody;
 import org.carlspring.strongbox.controllers.support.ListEntityBody;
 import org.carlspring.strongbox.controllers.support.ResponseEntityBody;
+import org.carlspring.strongbox.domain.Job;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.services.JobService;
+import org.carlspring.strongbox.services.JobService.JobTask;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
@@ -17,7 +20,9 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.collections4.IteratorUtils;
@@ -28,6 +33,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * Provides common subroutines that will be useful for any backend controllers.
@@ -39,6 +45,12 @@ import org.springframework.http.ResponseEntity;
 public abstract class BaseController
 {
 
+    protected static final String PREFER = "Prefer";
+
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
+    private static final String RESPOND_ASYNC = "respond-async";
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Inject
@@ -56,6 +68,9 @@ public abstract class BaseController
     @Inject
     protected ArtifactResolutionService artifactResolutionService;
 
+    @Inject
+    protected JobService jobService;
+
     protected Configuration getConfiguration()
     {
         return configurationManagementService.getConfiguration();
@@ -206,6 +221,85 @@ public abstract class BaseController
                              .body(getResponseEntityBody(message, acceptHeader));
     }
 
+    /**
+     * @param preferHeader The Prefer header of the request.
+     * @return whether the client asked for the operation to be run in the background (RFC 7240)
+     */
+    protected boolean isRespondAsync(String preferHeader)
+    {
+        return preferHeader != null && preferHeader.toLowerCase().contains(RESPOND_ASYNC);
+    }
+
+    /**
+     * Runs the operation as a job and points the client at its record.
+     *
+     * @param type         The kind of operation.
+     * @param description  What the operation applies to.
+     * @param task         The operation.
+     * @param acceptHeader The Accept header, so that we can return the proper json/plain text response.
+     * @return ResponseEntity 202 with the location of the job, or 503 if too many jobs are queued
+     */
+    protected ResponseEntity getJobAcceptedResponseEntity(String type,
+                                                          String description,
+                                                          JobTask task,
+                                                          String acceptHeader)
+    {
+        Job job;
+        try
+        {
+            job = jobService.submit(type, description, task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            return getJobsUnavailableResponseEntity(acceptHeader);
+        }
+
+        return ResponseEntity.accepted()
+                             .location(getJobLocation(job))
+                             .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                             .body(getJobResponseEntityBody(job, acceptHeader));
+    }
+
+    /**
+     * Points the client at the record of a job which was submitted by the operation itself.
+     *
+     * @param job          The submitted job.
+     * @param acceptHeader The Accept header, so that we can return the proper json/plain text response.
+     * @return ResponseEntity 202 with the location of the job
+     */
+    protected ResponseEntity getJobAcceptedResponseEntity(Job job,
+                                                          String acceptHeader)
+    {
+        return ResponseEntity.accepted()
+                             .location(getJobLocation(job))
+                             .body(getJobResponseEntityBody(job, acceptHeader));
+    }
+
+    /**
+     * @param acceptHeader The Accept header, so that we can return the proper json/plain text response.
+     * @return ResponseEntity 503 because too many jobs are queued
+     */
+    protected ResponseEntity getJobsUnavailableResponseEntity(String acceptHeader)
+    {
+        return getServiceUnavailableResponseEntity("Too many jobs are queued, try again later.", acceptHeader);
+    }
+
+    private URI getJobLocation(Job job)
+    {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                                          .path(JobController.ROOT_CONTEXT + "/{id}")
+                                          .buildAndExpand(job.getId())
+                                          .toUri();
+    }
+
+    private Object getJobResponseEntityBody(Job job,
+                                            String acceptHeader)
+    {
+        return acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE) ?
+               job :
+               getResponseEntityBody(String.format("The job %s was submitted.", job.getId()), acceptHeader);
+    }
+
     /**
      * @param message      Error message to be returned to the client.
      * @param acceptHeader The Accept header, so that we can return the proper json/plain text response.
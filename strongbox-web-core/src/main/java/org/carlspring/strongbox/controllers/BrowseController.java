@@ -3,6 +3,7 @@ package org.carlspring.strongbox.controllers;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.DirectoryListingCache;
 import org.carlspring.strongbox.services.DirectoryListingService;
 import org.carlspring.strongbox.services.DirectoryListingServiceImpl;
 import org.carlspring.strongbox.storage.Storage;
@@ -25,6 +26,7 @@ import io.swagger.annotations.ApiResponses;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -50,13 +52,21 @@ public class BrowseController
     // must be the same as @RequestMapping value on the class definition
     public final static String ROOT_CONTEXT = "/api/browse";
 
+    @Inject
+    private DirectoryListingCache directoryListingCache;
+
+    @Value("${strongbox.browse.max-entries:" + DirectoryListingServiceImpl.DEFAULT_MAX_ENTRIES + "}")
+    private int maxEntries;
+
     private volatile DirectoryListingService directoryListingService;
     
     public DirectoryListingService getDirectoryListingService()
     {
         return Optional.ofNullable(directoryListingService).orElseGet(() -> {
             String baseUrl = StringUtils.chomp(configurationManager.getConfiguration().getBaseUrl(), "/");
-            return directoryListingService = new DirectoryListingServiceImpl(String.format("%s/api/browse", baseUrl));
+            return directoryListingService = new DirectoryListingServiceImpl(String.format("%s/api/browse", baseUrl),
+                                                                             directoryListingCache,
+                                                                             maxEntries);
         });
     }
     
@@ -152,6 +162,10 @@ public class BrowseController
                              MediaType.APPLICATION_JSON_VALUE })
     public Object repositoryContent(@RepositoryMapping Repository repository,
                                     @PathVariable("path") String rawPath,
+                                    @ApiParam(value = "The number of entries to skip")
+                                    @RequestParam(name = "skip", required = false, defaultValue = "0") int skip,
+                                    @ApiParam(value = "The maximum number of entries to list, all of them by default")
+                                    @RequestParam(name = "limit", required = false, defaultValue = "-1") int limit,
                                     HttpServletRequest request,
                                     ModelMap model,
                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String acceptHeader)
@@ -178,7 +192,9 @@ public class BrowseController
                 return getNotFoundResponseEntity("Requested repository doesn't allow browsing.", acceptHeader);
             }
 
-            DirectoryListing directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath);
+            DirectoryListing directoryListing = getDirectoryListingService().fromRepositoryPath(repositoryPath,
+                                                                                                 skip,
+                                                                                                 limit);
 
             if (acceptHeader != null && acceptHeader.contains(MediaType.APPLICATION_JSON_VALUE))
             {
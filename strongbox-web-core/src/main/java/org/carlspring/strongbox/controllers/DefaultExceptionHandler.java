@@ -6,6 +6,7 @@ import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.exception.RepositoryNotFoundException;
 import org.carlspring.strongbox.exception.ServiceUnavailableException;
 import org.carlspring.strongbox.exception.StorageNotFoundException;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
 import org.carlspring.strongbox.validation.RequestBodyValidationError;
 import org.carlspring.strongbox.validation.RequestBodyValidationException;
 
@@ -88,6 +89,15 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler
         return handleExceptionInternal(ex, body, headers, HttpStatus.SERVICE_UNAVAILABLE, request);
     }
 
+    @ExceptionHandler(RepositoryQuotaExceededException.class)
+    protected ResponseEntity<?> handleRepositoryQuotaExceededException(final RepositoryQuotaExceededException ex,
+                                                                      final WebRequest request)
+    {
+        ResponseEntityBody body = new ResponseEntityBody(ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        return handleExceptionInternal(ex, body, headers, HttpStatus.INSUFFICIENT_STORAGE, request);
+    }
+
     @ExceptionHandler(Exception.class)
     protected ResponseEntity<?> handleUnknownError(Exception ex,
                                                    WebRequest request)
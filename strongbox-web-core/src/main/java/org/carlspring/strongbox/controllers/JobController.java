@@ -0,0 +1,105 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.controllers.support.ListEntityBody;
+import org.carlspring.strongbox.domain.Job;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Polls, lists and cancels the jobs of the long-running administrative operations.
+ * <p>
+ * The jobs are submitted through the endpoints of the operations themselves, with a {@code Prefer: respond-async}
+ * header, which answer 202 with the location of the job.
+ */
+@Controller
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequestMapping(JobController.ROOT_CONTEXT)
+@Api(value = JobController.ROOT_CONTEXT)
+public class JobController
+        extends BaseController
+{
+
+    public static final String ROOT_CONTEXT = "/api/jobs";
+
+    @ApiOperation(value = "Lists the jobs, the oldest first.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The jobs were listed.") })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getJobs(@ApiParam(value = "Only list the jobs in this state")
+                                  @RequestParam(name = "state", required = false) Job.State state)
+    {
+        List<Job> jobs = jobService.getJobs()
+                                   .stream()
+                                   .filter(j -> state == null || state == j.getState())
+                                   .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new ListEntityBody("jobs", jobs));
+    }
+
+    @ApiOperation(value = "Gets the state of a job.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The state of the job."),
+                            @ApiResponse(code = 404, message = "The job does not exist.") })
+    @GetMapping(value = "{id}",
+                produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity getJob(@PathVariable("id") String id,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        Job job = jobService.getJob(id);
+        if (job == null)
+        {
+            return getNotFoundResponseEntity("The job does not exist.", accept);
+        }
+
+        if (MediaType.APPLICATION_JSON_VALUE.equals(accept))
+        {
+            return ResponseEntity.ok(job);
+        }
+
+        String message = String.format("The %s job %s is %s (%d%%).",
+                                       job.getType(),
+                                       job.getId(),
+                                       job.getState().name().toLowerCase(),
+                                       job.getProgress());
+        if (job.getResult() != null)
+        {
+            message += " " + job.getResult();
+        }
+        if (job.getError() != null)
+        {
+            message += " " + job.getError();
+        }
+
+        return ResponseEntity.ok(message);
+    }
+
+    @ApiOperation(value = "Cancels a job, a running job is interrupted.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The job was cancelled."),
+                            @ApiResponse(code = 404, message = "The job does not exist.") })
+    @DeleteMapping(value = "{id}",
+                   produces = { MediaType.TEXT_PLAIN_VALUE,
+                                MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity cancel(@PathVariable("id") String id,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        if (!jobService.cancel(id))
+        {
+            return getNotFoundResponseEntity("The job does not exist.", accept);
+        }
+
+        return getSuccessfulResponseEntity("The job was cancelled.", accept);
+    }
+
+}
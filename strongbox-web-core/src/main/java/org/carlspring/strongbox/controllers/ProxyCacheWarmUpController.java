@@ -0,0 +1,81 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.domain.Job;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpManifestParser.Format;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Warms up the cache of the proxy repositories from a list of coordinates or a dependency manifest.
+ * <p>
+ * A warm-up runs as a job, which is polled and cancelled through the {@link JobController}.
+ */
+@Controller
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequestMapping("/api/proxy/warm-up")
+@Api(value = "/api/proxy/warm-up")
+public class ProxyCacheWarmUpController
+        extends BaseController
+{
+
+    @Inject
+    private ProxyCacheWarmUpService proxyCacheWarmUpService;
+
+    @ApiOperation(value = "Starts warming up the cache of a proxy or group repository.",
+                  notes = "The body is one set of coordinates per line (format 'coordinates'), " +
+                          "a Maven pom.xml (format 'pom'), an npm package-lock.json (format 'package-lock') " +
+                          "or a NuGet packages.lock.json (format 'packages-lock').")
+    @ApiResponses(value = { @ApiResponse(code = 202, message = "The warm-up was submitted as a job."),
+                            @ApiResponse(code = 400, message = "The repository or the body can't be warmed up."),
+                            @ApiResponse(code = 404, message = "The specified (storageId/repositoryId) does not exist!"),
+                            @ApiResponse(code = 503, message = "Too many jobs are queued.") })
+    @PostMapping(value = "{storageId}/{repositoryId}",
+                 consumes = MediaType.ALL_VALUE,
+                 produces = { MediaType.TEXT_PLAIN_VALUE,
+                              MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity warmUp(@RepositoryMapping Repository repository,
+                                 @ApiParam(value = "The format of the body", defaultValue = "coordinates")
+                                 @RequestParam(name = "format", defaultValue = "coordinates") String format,
+                                 @RequestBody String content,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        Job job;
+        try
+        {
+            job = proxyCacheWarmUpService.warmUp(repository, Format.ofName(format), content);
+        }
+        catch (IllegalArgumentException | IOException e)
+        {
+            logger.debug("Could not start the warm-up of [{}:{}].",
+                         repository.getStorage().getId(), repository.getId(), e);
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body(getResponseEntityBody(e.getMessage(), accept));
+        }
+        catch (RejectedExecutionException e)
+        {
+            return getJobsUnavailableResponseEntity(accept);
+        }
+
+        return getJobAcceptedResponseEntity(job, accept);
+    }
+
+}
@@ -40,6 +40,8 @@ public class TrashController
     @ApiOperation(value = "Used to delete the trash for a specified repository.")
     @ApiResponses(value = { @ApiResponse(code = 200,
                                          message = "The trash for ${storageId}:${repositoryId}' was removed successfully."),
+                            @ApiResponse(code = 202,
+                                         message = "The removal was submitted as a job."),
                             @ApiResponse(code = 400,
                                          message = "Could not delete the trash for a specified storageId/repositoryId."),
                             @ApiResponse(code = 404,
@@ -49,12 +51,26 @@ public class TrashController
                    produces = { MediaType.TEXT_PLAIN_VALUE,
                                 MediaType.APPLICATION_JSON_VALUE })
     public ResponseEntity delete(@RepositoryMapping Repository repository,
-                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept,
+                                 @RequestHeader(value = PREFER, required = false) String prefer)
             throws IOException
     {
         final String storageId = repository.getStorage().getId();
         final String repositoryId = repository.getId();
 
+        if (isRespondAsync(prefer))
+        {
+            return getJobAcceptedResponseEntity("trash-delete",
+                                                storageId + ":" + repositoryId,
+                                                context -> {
+                                                    repositoryManagementService.deleteTrash(storageId, repositoryId);
+
+                                                    return "The trash for '" + storageId + ":" + repositoryId +
+                                                           "' was removed successfully.";
+                                                },
+                                                accept);
+        }
+
         try
         {
             repositoryManagementService.deleteTrash(storageId, repositoryId);
@@ -77,14 +93,29 @@ public class TrashController
     @ApiOperation(value = "Used to delete the trash for all repositories.")
     @ApiResponses(value = { @ApiResponse(code = 200,
                                          message = "The trash for all repositories was successfully removed."),
+                            @ApiResponse(code = 202,
+                                         message = "The removal was submitted as a job."),
                             @ApiResponse(code = 400,
                                          message = "Could not delete the trash for all repositories.") })
     @PreAuthorize("hasAuthority('MANAGEMENT_DELETE_ALL_TRASHES')")
     @DeleteMapping(produces = { MediaType.TEXT_PLAIN_VALUE,
                                 MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity delete(@RequestHeader(HttpHeaders.ACCEPT) String accept)
+    public ResponseEntity delete(@RequestHeader(HttpHeaders.ACCEPT) String accept,
+                                 @RequestHeader(value = PREFER, required = false) String prefer)
             throws IOException
     {
+        if (isRespondAsync(prefer))
+        {
+            return getJobAcceptedResponseEntity("trash-delete",
+                                                "all repositories",
+                                                context -> {
+                                                    repositoryManagementService.deleteTrash();
+
+                                                    return "The trash for all repositories was successfully removed.";
+                                                },
+                                                accept);
+        }
+
         try
         {
             repositoryManagementService.deleteTrash();
@@ -0,0 +1,283 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.domain.UploadSession;
+import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.UploadOffsetMismatchException;
+import org.carlspring.strongbox.services.UploadSessionService;
+import org.carlspring.strongbox.storage.ArtifactResolutionException;
+import org.carlspring.strongbox.storage.ArtifactStorageException;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.URI;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Resumable uploads, for artifacts which are too large to be deployed in one request:
+ * <ol>
+ * <li>{@code POST /api/uploads/{storageId}/{repositoryId}/{path}} starts the upload, with an optional
+ * {@code Upload-Length} header, and answers its location.</li>
+ * <li>{@code PATCH} on the location appends a chunk, which starts at the {@code Upload-Offset} header and may be
+ * verified with an {@code Upload-Checksum: <algorithm> <checksum>} header. A {@code HEAD} gives the offset at which
+ * an interrupted upload continues.</li>
+ * <li>{@code PUT} on the location, with the {@code Upload-Checksum} of the whole content, deploys the artifact.</li>
+ * </ol>
+ * The headers follow the tus protocol.
+ */
+@Controller
+@PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
+@RequestMapping(UploadController.ROOT_CONTEXT)
+@Api(value = UploadController.ROOT_CONTEXT)
+public class UploadController
+        extends BaseController
+{
+
+    public static final String ROOT_CONTEXT = "/api/uploads";
+
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    public static final String UPLOAD_CHECKSUM = "Upload-Checksum";
+
+    public static final String UPLOAD_EXPIRES = "Upload-Expires";
+
+    @Inject
+    private UploadSessionService uploadSessionService;
+
+    @ApiOperation(value = "Starts a resumable upload of an artifact.")
+    @ApiResponses(value = { @ApiResponse(code = 201, message = "The upload was started."),
+                            @ApiResponse(code = 400, message = "The repository doesn't accept the artifact."),
+                            @ApiResponse(code = 404, message = "The specified (storageId/repositoryId) does not exist!") })
+    @PostMapping(value = "{storageId}/{repositoryId}/{path:.+}",
+                 produces = { MediaType.TEXT_PLAIN_VALUE,
+                              MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity create(@RepositoryMapping Repository repository,
+                                 @PathVariable String path,
+                                 @ApiParam(value = "The size of the artifact, if known")
+                                 @RequestHeader(value = UPLOAD_LENGTH, required = false) Long length,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+        throws IOException
+    {
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+
+        UploadSession session;
+        try
+        {
+            session = uploadSessionService.create(repositoryPath, length);
+        }
+        catch (RepositoryQuotaExceededException e)
+        {
+            return getFailedResponseEntity(HttpStatus.INSUFFICIENT_STORAGE, e.getMessage(), accept);
+        }
+        catch (ArtifactCoordinatesValidationException | ArtifactResolutionException | ArtifactStorageException |
+               ProviderImplementationException | IllegalArgumentException e)
+        {
+            logger.debug("Could not start the upload of [{}].", repositoryPath, e);
+
+            return getBadRequestResponseEntity(e.getMessage(), accept);
+        }
+
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                                                  .path(ROOT_CONTEXT + "/{id}")
+                                                  .buildAndExpand(session.getId())
+                                                  .toUri();
+
+        return ResponseEntity.created(location)
+                             .headers(getUploadHeaders(session))
+                             .body(toResponseEntityBody(session, accept));
+    }
+
+    @ApiOperation(value = "Gets the offset at which an upload continues.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The state of the upload."),
+                            @ApiResponse(code = 404, message = "The upload does not exist or has expired.") })
+    @GetMapping(value = "{id}",
+                produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity getSession(@PathVariable("id") String id,
+                                     @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        UploadSession session = uploadSessionService.getSession(id);
+        if (session == null)
+        {
+            return getNotFoundResponseEntity("The upload does not exist.", accept);
+        }
+
+        return ResponseEntity.ok()
+                             .headers(getUploadHeaders(session))
+                             .body(toResponseEntityBody(session, accept));
+    }
+
+    @ApiOperation(value = "Appends a chunk to an upload.")
+    @ApiResponses(value = { @ApiResponse(code = 204, message = "The chunk was appended."),
+                            @ApiResponse(code = 400, message = "The chunk doesn't match its checksum, or is too long."),
+                            @ApiResponse(code = 404, message = "The upload does not exist or has expired."),
+                            @ApiResponse(code = 409, message = "The chunk doesn't start at the offset of the upload.") })
+    @PatchMapping(value = "{id}",
+                  consumes = MediaType.ALL_VALUE,
+                  produces = { MediaType.TEXT_PLAIN_VALUE,
+                               MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity append(@PathVariable("id") String id,
+                                 @ApiParam(value = "Where the chunk starts", required = true)
+                                 @RequestHeader(UPLOAD_OFFSET) long offset,
+                                 @ApiParam(value = "The checksum of the chunk, as '<algorithm> <checksum>'")
+                                 @RequestHeader(value = UPLOAD_CHECKSUM, required = false) String checksum,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept,
+                                 HttpServletRequest request)
+        throws IOException
+    {
+        UploadSession session;
+        try
+        {
+            String[] algorithmAndChecksum = checksum != null ? parseChecksum(checksum) : new String[2];
+            session = uploadSessionService.append(id,
+                                                  offset,
+                                                  request.getInputStream(),
+                                                  algorithmAndChecksum[0],
+                                                  algorithmAndChecksum[1]);
+        }
+        catch (UploadOffsetMismatchException e)
+        {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                                 .header(UPLOAD_OFFSET, String.valueOf(e.getOffset()))
+                                 .body(getResponseEntityBody(e.getMessage(), accept));
+        }
+        catch (ArtifactStorageException | IllegalArgumentException e)
+        {
+            logger.debug("Rejected a chunk of the upload [{}].", id, e);
+
+            return getBadRequestResponseEntity(e.getMessage(), accept);
+        }
+
+        if (session == null)
+        {
+            return getNotFoundResponseEntity("The upload does not exist.", accept);
+        }
+
+        return ResponseEntity.noContent()
+                             .headers(getUploadHeaders(session))
+                             .build();
+    }
+
+    @ApiOperation(value = "Deploys the uploaded artifact.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The artifact was deployed successfully."),
+                            @ApiResponse(code = 400, message = "The upload is incomplete, doesn't match the " +
+                                                               "checksum or isn't accepted by the repository."),
+                            @ApiResponse(code = 404, message = "The upload does not exist or has expired.") })
+    @PutMapping(value = "{id}",
+                produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity finish(@PathVariable("id") String id,
+                                 @ApiParam(value = "The checksum of the artifact, as '<algorithm> <checksum>'",
+                                           required = true)
+                                 @RequestHeader(UPLOAD_CHECKSUM) String checksum,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+        throws IOException
+    {
+        RepositoryPath repositoryPath;
+        try
+        {
+            String[] algorithmAndChecksum = parseChecksum(checksum);
+            repositoryPath = uploadSessionService.finish(id, algorithmAndChecksum[0], algorithmAndChecksum[1]);
+        }
+        catch (RepositoryQuotaExceededException e)
+        {
+            return getFailedResponseEntity(HttpStatus.INSUFFICIENT_STORAGE, e.getMessage(), accept);
+        }
+        catch (ArtifactCoordinatesValidationException | ArtifactResolutionException | ArtifactStorageException |
+               ProviderImplementationException | IllegalArgumentException e)
+        {
+            logger.debug("Could not finish the upload [{}].", id, e);
+
+            return getBadRequestResponseEntity(e.getMessage(), accept);
+        }
+
+        if (repositoryPath == null)
+        {
+            return getNotFoundResponseEntity("The upload does not exist.", accept);
+        }
+
+        return getSuccessfulResponseEntity("The artifact was deployed successfully.", accept);
+    }
+
+    @ApiOperation(value = "Cancels an upload and deletes what was uploaded.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The upload was cancelled."),
+                            @ApiResponse(code = 404, message = "The upload does not exist or has expired.") })
+    @DeleteMapping(value = "{id}",
+                   produces = { MediaType.TEXT_PLAIN_VALUE,
+                                MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity cancel(@PathVariable("id") String id,
+                                 @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        if (!uploadSessionService.cancel(id))
+        {
+            return getNotFoundResponseEntity("The upload does not exist.", accept);
+        }
+
+        return getSuccessfulResponseEntity("The upload was cancelled.", accept);
+    }
+
+    private String[] parseChecksum(String header)
+    {
+        String[] algorithmAndChecksum = header.trim().split("\\s+");
+        if (algorithmAndChecksum.length != 2)
+        {
+            throw new IllegalArgumentException(String.format("The %s header should be '<algorithm> <checksum>'.",
+                                                             UPLOAD_CHECKSUM));
+        }
+
+        return algorithmAndChecksum;
+    }
+
+    private HttpHeaders getUploadHeaders(UploadSession session)
+    {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(UPLOAD_OFFSET, String.valueOf(session.getOffset()));
+        if (session.getLength() != null)
+        {
+            headers.set(UPLOAD_LENGTH, String.valueOf(session.getLength()));
+        }
+        headers.setDate(UPLOAD_EXPIRES, session.getExpiresAt().getTime());
+        headers.setCacheControl("no-store");
+
+        return headers;
+    }
+
+    private Object toResponseEntityBody(UploadSession session,
+                                        String accept)
+    {
+        if (MediaType.APPLICATION_JSON_VALUE.equals(accept))
+        {
+            return session;
+        }
+
+        return getResponseEntityBody(String.format("The upload %s of %s:%s/%s is at %d of %s bytes.",
+                                                   session.getId(),
+                                                   session.getStorageId(),
+                                                   session.getRepositoryId(),
+                                                   session.getPath(),
+                                                   session.getOffset(),
+                                                   session.getLength() != null ? session.getLength() : "unknown"),
+                                     accept);
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.carlspring.strongbox.controllers.configuration;
+
+import org.carlspring.strongbox.controllers.support.ListEntityBody;
+import org.carlspring.strongbox.controllers.support.RemoteRepositoryHealthEntityBody;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryData;
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+@Controller
+@PreAuthorize("hasAuthority('ADMIN')")
+@RequestMapping("/api/configuration/proxy/health")
+@Api(value = "/api/configuration/proxy/health")
+public class RemoteRepositoryHealthController
+        extends BaseConfigurationController
+{
+
+    private final RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager;
+
+    public RemoteRepositoryHealthController(ConfigurationManagementService configurationManagementService,
+                                            RemoteRepositoryAlivenessCacheManager remoteRepositoryAlivenessCacheManager)
+    {
+        super(configurationManagementService);
+        this.remoteRepositoryAlivenessCacheManager = remoteRepositoryAlivenessCacheManager;
+    }
+
+    @ApiOperation(value = "Get the health of the remote repositories which have been used so far")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The remote repositories health was retrieved.") })
+    @GetMapping(produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity getRemoteRepositoriesHealth(@RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        List<RemoteRepositoryHealthEntityBody> health = remoteRepositoryAlivenessCacheManager.getCircuitBreakers()
+                                                                                             .stream()
+                                                                                             .map(RemoteRepositoryHealthEntityBody::new)
+                                                                                             .sorted(Comparator.comparing(RemoteRepositoryHealthEntityBody::getUrl))
+                                                                                             .collect(Collectors.toList());
+
+        if (MediaType.APPLICATION_JSON_VALUE.equals(accept))
+        {
+            return ResponseEntity.ok(new ListEntityBody("remoteRepositories", health));
+        }
+
+        return ResponseEntity.ok(health.stream()
+                                       .map(String::valueOf)
+                                       .collect(Collectors.joining(System.lineSeparator())));
+    }
+
+    @ApiOperation(value = "Get the health of the remote repository of a proxy repository")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The remote repository health was retrieved."),
+                            @ApiResponse(code = 400, message = "Repository doesn't have remote repository!"),
+                            @ApiResponse(code = 404, message = "The (storage/repository) does not exist!") })
+    @GetMapping(value = "{storageId}/{repositoryId}",
+                produces = { MediaType.TEXT_PLAIN_VALUE,
+                             MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity getRemoteRepositoryHealth(@RepositoryMapping Repository repository,
+                                                    @RequestHeader(HttpHeaders.ACCEPT) String accept)
+    {
+        final RepositoryData immutableRepository = (RepositoryData) repository;
+        if (immutableRepository.getRemoteRepository() == null)
+        {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                 .body(getResponseEntityBody("Repository doesn't have remote repository!", accept));
+        }
+
+        RemoteRepositoryHealthEntityBody health = new RemoteRepositoryHealthEntityBody(
+                remoteRepositoryAlivenessCacheManager.getCircuitBreaker(immutableRepository.getRemoteRepository()));
+
+        if (MediaType.APPLICATION_JSON_VALUE.equals(accept))
+        {
+            return ResponseEntity.ok(health);
+        }
+
+        return ResponseEntity.ok(String.valueOf(health));
+    }
+
+}
@@ -7,6 +7,7 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.repository.RepositoryManagementStrategyException;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.services.RepositoryManagementService;
+import org.carlspring.strongbox.services.RepositoryUsageService;
 import org.carlspring.strongbox.services.StorageManagementService;
 import org.carlspring.strongbox.services.support.ConfigurationException;
 import org.carlspring.strongbox.storage.StorageDto;
@@ -80,10 +81,14 @@ public class StoragesConfigurationController
 
     private static final String FAILED_GET_REPOSITORY = "Failed to get the repository !";
 
+    private static final String FAILED_GET_REPOSITORY_USAGE = "Failed to count the files of the repository !";
+
     private final StorageManagementService storageManagementService;
 
     private final RepositoryManagementService repositoryManagementService;
 
+    private final RepositoryUsageService repositoryUsageService;
+
     private final Optional<RepositoryIndexManager> repositoryIndexManager;
 
     private final ConversionService conversionService;
@@ -91,12 +96,14 @@ public class StoragesConfigurationController
     public StoragesConfigurationController(ConfigurationManagementService configurationManagementService,
                                            StorageManagementService storageManagementService,
                                            RepositoryManagementService repositoryManagementService,
+                                           RepositoryUsageService repositoryUsageService,
                                            ConversionService conversionService,
                                            Optional<RepositoryIndexManager> repositoryIndexManager)
     {
         super(configurationManagementService);
         this.storageManagementService = storageManagementService;
         this.repositoryManagementService = repositoryManagementService;
+        this.repositoryUsageService = repositoryUsageService;
         this.conversionService = conversionService;
         this.repositoryIndexManager = repositoryIndexManager;
     }
@@ -311,6 +318,32 @@ public class StoragesConfigurationController
         return ResponseEntity.ok(repository);
     }
 
+    @ApiOperation(value = "Returns the size and the number of files of a repository, along with its quota.")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = ""),
+                            @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!"),
+                            @ApiResponse(code = 500, message = "Failed to count the files of the repository ${repositoryId}!") })
+    @PreAuthorize("hasAuthority('CONFIGURATION_VIEW_REPOSITORY')")
+    @GetMapping(value = "/{storageId}/{repositoryId}/usage", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity getRepositoryUsage(@RepositoryMapping Repository repository,
+                                             @ApiParam(value = "Whether to count the files again")
+                                             @RequestParam(name = "reconcile", defaultValue = "false") final boolean reconcile)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+        try
+        {
+            return ResponseEntity.ok(reconcile ? repositoryUsageService.reconcile(storageId, repositoryId) :
+                                     repositoryUsageService.getUsage(storageId, repositoryId));
+        }
+        catch (IOException e)
+        {
+            return getExceptionResponseEntity(HttpStatus.INTERNAL_SERVER_ERROR,
+                                              FAILED_GET_REPOSITORY_USAGE,
+                                              e,
+                                              MediaType.APPLICATION_JSON_VALUE);
+        }
+    }
+
     @ApiOperation(value = "Deletes a repository.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The repository was deleted successfully."),
                             @ApiResponse(code = 404, message = "The repository ${storageId}:${repositoryId} was not found!"),
@@ -4,6 +4,7 @@ import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.ArtifactStorageException;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
@@ -75,7 +76,8 @@ public class MavenArtifactController
 
     @ApiOperation(value = "Used to deploy an artifact")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The artifact was deployed successfully."),
-                            @ApiResponse(code = 400, message = "An error occurred.") })
+                            @ApiResponse(code = 400, message = "An error occurred."),
+                            @ApiResponse(code = 507, message = "The repository has reached its quota.") })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     @PutMapping(value = "{storageId}/{repositoryId}/{artifactPath:.+}")
     public ResponseEntity upload(@RepositoryMapping Repository repository,
@@ -92,6 +94,12 @@ public class MavenArtifactController
 
             return ResponseEntity.ok("The artifact was deployed successfully.");
         }
+        catch (RepositoryQuotaExceededException e)
+        {
+            logger.warn(e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(e.getMessage());
+        }
         catch (Exception e)
         {
             logger.error(e.getMessage(), e);
@@ -23,6 +23,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import static org.carlspring.strongbox.util.IndexContextHelper.getContextId;
 
@@ -48,6 +49,7 @@ public class MavenIndexController
 
     @ApiOperation(value = "Used to rebuild the indexes in a repository or for artifact.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The indexes were successfully rebuilt!"),
+                            @ApiResponse(code = 202, message = "The rebuild was submitted as a job."),
                             @ApiResponse(code = 500, message = "An error occurred."),
                             @ApiResponse(code = 404, message = "The specified (storageId/repositoryId/path) does not exist!") })
     @PreAuthorize("hasAuthority('MANAGEMENT_REBUILD_INDEXES')")
@@ -57,7 +59,9 @@ public class MavenIndexController
                                   @ApiParam(value = "The repositoryId", required = true)
                                   @QueryParam("repositoryId") String repositoryId,
                                   @ApiParam(value = "The path")
-                                  @QueryParam("path") String path)
+                                  @QueryParam("path") String path,
+                                  @ApiParam(value = "respond-async to run the rebuild as a job")
+                                  @RequestHeader(value = PREFER, required = false) String prefer)
             throws IOException
     {
         if (storageId != null && getConfiguration().getStorage(storageId) == null)
@@ -71,31 +75,17 @@ public class MavenIndexController
                                  .body("The specified repositoryId does not exist!");
         }
 
-        try
+        if (isRespondAsync(prefer))
         {
-            if (storageId != null && repositoryId != null)
-            {
-                Storage storage = layoutProviderRegistry.getStorage(storageId);
-                Repository repository = storage.getRepository(repositoryId);
-                
-                RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
-                // Rebuild the index for a path under in a repository under a specified storage
-                artifactIndexesService.rebuildIndex(repositoryPath);
-            }
-            if (storageId != null && repositoryId == null)
-            {
-                // Rebuild all the indexes in a storage
-                artifactIndexesService.rebuildIndexes(storageId);
-            }
-            if (storageId == null && repositoryId == null)
-            {
-                // Rebuild all the indexes in all storages
-                artifactIndexesService.rebuildIndexes();
-            }
+            return getJobAcceptedResponseEntity("maven-index-rebuild",
+                                                getContextId(storageId, repositoryId, IndexTypeEnum.LOCAL.getType()),
+                                                context -> rebuildIndexes(storageId, repositoryId, path),
+                                                MediaType.TEXT_PLAIN_VALUE);
+        }
 
-            return ResponseEntity.ok("The index for " +
-                                     getContextId(storageId, repositoryId, IndexTypeEnum.LOCAL.getType()) +
-                                     " was successfully re-built!");
+        try
+        {
+            return ResponseEntity.ok(rebuildIndexes(storageId, repositoryId, path));
         }
         catch (ArtifactStorageException e)
         {
@@ -106,4 +96,34 @@ public class MavenIndexController
         }
     }
 
+    private String rebuildIndexes(String storageId,
+                                  String repositoryId,
+                                  String path)
+            throws IOException
+    {
+        if (storageId != null && repositoryId != null)
+        {
+            Storage storage = layoutProviderRegistry.getStorage(storageId);
+            Repository repository = storage.getRepository(repositoryId);
+
+            RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, path);
+            // Rebuild the index for a path under in a repository under a specified storage
+            artifactIndexesService.rebuildIndex(repositoryPath);
+        }
+        if (storageId != null && repositoryId == null)
+        {
+            // Rebuild all the indexes in a storage
+            artifactIndexesService.rebuildIndexes(storageId);
+        }
+        if (storageId == null && repositoryId == null)
+        {
+            // Rebuild all the indexes in all storages
+            artifactIndexesService.rebuildIndexes();
+        }
+
+        return "The index for " +
+               getContextId(storageId, repositoryId, IndexTypeEnum.LOCAL.getType()) +
+               " was successfully re-built!";
+    }
+
 }
@@ -38,6 +38,7 @@ public class MavenMetadataManagementController
 
     @ApiOperation(value = "Used to rebuild the metadata for a given path.")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The metadata was successfully rebuilt!"),
+                            @ApiResponse(code = 202, message = "The rebuild was submitted as a job."),
                             @ApiResponse(code = 500, message = "An error occurred.") })
     @PreAuthorize("hasAuthority('MANAGEMENT_REBUILD_METADATA')")
     @PostMapping(produces = MediaType.TEXT_PLAIN_VALUE)
@@ -46,23 +47,25 @@ public class MavenMetadataManagementController
                                   @ApiParam(value = "The repositoryId")
                                   @RequestParam(value = "repositoryId", required = false) String repositoryId,
                                   @ApiParam(value = "The path")
-                                  @RequestParam(value = "path", required = false) String path)
+                                  @RequestParam(value = "path", required = false) String path,
+                                  @ApiParam(value = "respond-async to run the rebuild as a job")
+                                  @RequestHeader(value = PREFER, required = false) String prefer)
             throws IOException,
                    NoSuchAlgorithmException,
                    XmlPullParserException
     {
-        try
+        if (isRespondAsync(prefer))
         {
-            if (storageId != null && repositoryId != null)
-            {
-                artifactMetadataService.rebuildMetadata(storageId, repositoryId, path);
-            }
-            else if (storageId != null && repositoryId == null)
-            {
-                artifactMetadataService.rebuildMetadata(storageId, path);
-            }
+            return getJobAcceptedResponseEntity("maven-metadata-rebuild",
+                                                storageId + ":" + (repositoryId != null ? repositoryId : "*") +
+                                                (path != null ? "/" + path : ""),
+                                                context -> rebuildMetadata(storageId, repositoryId, path),
+                                                MediaType.TEXT_PLAIN_VALUE);
+        }
 
-            return ResponseEntity.ok("The metadata was successfully rebuilt!");
+        try
+        {
+            return ResponseEntity.ok(rebuildMetadata(storageId, repositoryId, path));
         }
         catch (ArtifactStorageException e)
         {
@@ -73,6 +76,25 @@ public class MavenMetadataManagementController
         }
     }
 
+    private String rebuildMetadata(String storageId,
+                                   String repositoryId,
+                                   String path)
+            throws IOException,
+                   NoSuchAlgorithmException,
+                   XmlPullParserException
+    {
+        if (storageId != null && repositoryId != null)
+        {
+            artifactMetadataService.rebuildMetadata(storageId, repositoryId, path);
+        }
+        else if (storageId != null && repositoryId == null)
+        {
+            artifactMetadataService.rebuildMetadata(storageId, path);
+        }
+
+        return "The metadata was successfully rebuilt!";
+    }
+
     @ApiOperation(value = "Used to delete metadata entries for an artifact")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Successfully removed metadata entry."),
                             @ApiResponse(code = 500, message = "An error occurred.") })
@@ -25,6 +25,7 @@ import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.EntryProperties;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageEntry;
 import org.carlspring.strongbox.storage.metadata.nuget.rss.PackageFeed;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
@@ -436,6 +437,12 @@ public class NugetArtifactController
 
             resourceUri = storePackage(storageId, repositoryId, packagePartInputStream);
         }
+        catch (RepositoryQuotaExceededException e)
+        {
+            logger.warn(e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(e.getMessage());
+        }
         catch (Exception e)
         {
             logger.error(String.format("Failed to process Nuget push request: %s:%s", storageId, repositoryId), e);
@@ -0,0 +1,315 @@
+package org.carlspring.strongbox.controllers.layout.pypi;
+
+import org.carlspring.strongbox.artifact.coordinates.PypiArtifactCoordinates;
+import org.carlspring.strongbox.controllers.BaseArtifactController;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.PypiSimpleIndex;
+import org.carlspring.strongbox.providers.layout.PypiSimpleIndexPage;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.web.LayoutRequestMapping;
+import org.carlspring.strongbox.web.RepositoryMapping;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Serves the PyPI simple repository API (PEP 503 and its JSON variant, PEP 691) and the {@code twine} uploads.
+ * <p>
+ * The index pages are rendered by {@link PypiSimpleIndex}, which caches them, so the conditional requests of the
+ * installers polling the index are answered without any database query.
+ */
+@RestController
+@LayoutRequestMapping(PypiArtifactCoordinates.LAYOUT_NAME)
+public class PypiArtifactController
+        extends BaseArtifactController
+{
+
+    private static final String FIELD_ACTION = ":action";
+
+    private static final String FIELD_SHA256_DIGEST = "sha256_digest";
+
+    private static final String FIELD_CONTENT = "content";
+
+    private static final String ACTION_FILE_UPLOAD = "file_upload";
+
+    @Inject
+    private PypiSimpleIndex pypiSimpleIndex;
+
+    @ApiOperation(value = "Used to list the projects of the repository")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The project list."),
+                            @ApiResponse(code = 304, message = "The project list didn't change.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
+    @GetMapping(path = { "{storageId}/{repositoryId}/simple", "{storageId}/{repositoryId}/simple/" })
+    public ResponseEntity<byte[]> listProjects(@RepositoryMapping Repository repository,
+                                               @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               HttpServletRequest request)
+        throws Exception
+    {
+        String requestUri = request.getRequestURI();
+        if (!requestUri.endsWith("/"))
+        {
+            // The project links are relative to the index.
+            return redirect(requestUri + "/");
+        }
+
+        return providePage(pypiSimpleIndex.getProjectListPage(repository), accept, ifNoneMatch);
+    }
+
+    @ApiOperation(value = "Used to list the packages of a project, with their hashes")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The package list."),
+                            @ApiResponse(code = 301, message = "The project name isn't normalized."),
+                            @ApiResponse(code = 304, message = "The package list didn't change."),
+                            @ApiResponse(code = 404, message = "The project was not found.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_VIEW')")
+    @GetMapping(path = { "{storageId}/{repositoryId}/simple/{project}", "{storageId}/{repositoryId}/simple/{project}/" })
+    public ResponseEntity<byte[]> listPackages(@RepositoryMapping Repository repository,
+                                               @PathVariable(name = "project") String project,
+                                               @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               HttpServletRequest request)
+        throws Exception
+    {
+        String normalizedProject = PypiSimpleIndex.normalize(project);
+
+        String requestUri = request.getRequestURI();
+        if (!normalizedProject.equals(project) || !requestUri.endsWith("/"))
+        {
+            String indexUri = StringUtils.removeEnd(requestUri, "/");
+            indexUri = indexUri.substring(0, indexUri.lastIndexOf('/') + 1);
+
+            return redirect(indexUri + normalizedProject + "/");
+        }
+
+        PypiSimpleIndexPage page = pypiSimpleIndex.getProjectPage(repository, normalizedProject);
+        if (page == null)
+        {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        return providePage(page, accept, ifNoneMatch);
+    }
+
+    @ApiOperation(value = "Used to download a package")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = ""),
+                            @ApiResponse(code = 404, message = "The package was not found.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_RESOLVE')")
+    @RequestMapping(path = "{storageId}/{repositoryId}/{distribution}/{version}/{filename:.+}",
+                    method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void download(@RepositoryMapping Repository repository,
+                         @PathVariable(name = "distribution") String distribution,
+                         @PathVariable(name = "version") String version,
+                         @PathVariable(name = "filename") String filename,
+                         @RequestHeader HttpHeaders httpHeaders,
+                         HttpServletRequest request,
+                         HttpServletResponse response)
+        throws Exception
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        String path = String.format("%s/%s/%s", distribution, version, filename);
+        logger.debug("Requested /{}/{}/{}.", storageId, repositoryId, path);
+
+        RepositoryPath repositoryPath = artifactResolutionService.resolvePath(storageId, repositoryId, path);
+        provideArtifactDownloadResponse(request, response, httpHeaders, repositoryPath);
+    }
+
+    @ApiOperation(value = "Used to upload a package, as `twine upload` does")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "The package was uploaded successfully."),
+                            @ApiResponse(code = 400, message = "The upload request or the package is invalid."),
+                            @ApiResponse(code = 500, message = "An error occurred.") })
+    @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
+    @PostMapping(path = { "{storageId}/{repositoryId}", "{storageId}/{repositoryId}/" },
+                 consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity upload(@RepositoryMapping Repository repository,
+                                 HttpServletRequest request)
+    {
+        final String storageId = repository.getStorage().getId();
+        final String repositoryId = repository.getId();
+
+        try
+        {
+            // The form is streamed: twine sends the metadata fields first, then the package.
+            Map<String, String> fields = new HashMap<>();
+            FileItemIterator items = new ServletFileUpload().getItemIterator(request);
+            while (items.hasNext())
+            {
+                FileItemStream item = items.next();
+                if (item.isFormField())
+                {
+                    try (InputStream is = item.openStream())
+                    {
+                        fields.put(item.getFieldName(), Streams.asString(is, "UTF-8"));
+                    }
+
+                    continue;
+                }
+                else if (!FIELD_CONTENT.equals(item.getFieldName()))
+                {
+                    continue;
+                }
+
+                if (!ACTION_FILE_UPLOAD.equals(fields.get(FIELD_ACTION)))
+                {
+                    return ResponseEntity.badRequest().body(String.format("Unsupported action [%s].",
+                                                                          fields.get(FIELD_ACTION)));
+                }
+
+                return storePackage(repository, item, fields.get(FIELD_SHA256_DIGEST));
+            }
+
+            return ResponseEntity.badRequest().body("The package is missing.");
+        }
+        catch (RepositoryQuotaExceededException e)
+        {
+            logger.warn(e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(e.getMessage());
+        }
+        catch (Exception e)
+        {
+            logger.error(String.format("Failed to process the PyPI upload request: %s:%s", storageId, repositoryId), e);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity storePackage(Repository repository,
+                                        FileItemStream item,
+                                        String sha256Digest)
+        throws Exception
+    {
+        PypiArtifactCoordinates coordinates;
+        try
+        {
+            coordinates = PypiArtifactCoordinates.parse(item.getName());
+        }
+        catch (IllegalArgumentException e)
+        {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        RepositoryPath repositoryPath = repositoryPathResolver.resolve(repository, coordinates);
+
+        // Verified while the package is written, so a corrupted upload is never committed.
+        Map<String, String> expectedChecksums = StringUtils.isBlank(sha256Digest) ?
+                                                Collections.emptyMap() :
+                                                Collections.singletonMap(MessageDigestAlgorithms.SHA_256,
+                                                                         sha256Digest.trim());
+        try (InputStream is = item.openStream())
+        {
+            artifactManagementService.validateAndStore(repositoryPath, is, expectedChecksums);
+        }
+        catch (ArtifactChecksumMismatchException e)
+        {
+            logger.warn(e.getMessage());
+
+            return ResponseEntity.badRequest().body("The SHA-256 digest of the package doesn't match.");
+        }
+
+        return ResponseEntity.ok("The package was uploaded successfully.");
+    }
+
+    private ResponseEntity<byte[]> providePage(PypiSimpleIndexPage page,
+                                               String accept,
+                                               String ifNoneMatch)
+    {
+        boolean json = acceptsJson(accept);
+        String eTag = page.getETag(json);
+
+        if (ifNoneMatch != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.trim().equals("*")))
+        {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                 .eTag(eTag)
+                                 .varyBy(HttpHeaders.ACCEPT)
+                                 .build();
+        }
+
+        String contentType = json ? PypiSimpleIndex.JSON_CONTENT_TYPE :
+                             accept != null && accept.contains(PypiSimpleIndex.HTML_CONTENT_TYPE) ?
+                             PypiSimpleIndex.HTML_CONTENT_TYPE : MediaType.TEXT_HTML_VALUE;
+
+        return ResponseEntity.ok()
+                             .eTag(eTag)
+                             .varyBy(HttpHeaders.ACCEPT)
+                             .contentType(MediaType.parseMediaType(contentType))
+                             .body(page.getContent(json));
+    }
+
+    /**
+     * @return whether the most preferred of the supported media types is the JSON one
+     */
+    private boolean acceptsJson(String accept)
+    {
+        if (StringUtils.isBlank(accept))
+        {
+            return false;
+        }
+
+        List<MediaType> mediaTypes;
+        try
+        {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        }
+        catch (InvalidMediaTypeException e)
+        {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+        for (MediaType mediaType : mediaTypes)
+        {
+            if (mediaType.getQualityValue() == 0)
+            {
+                continue;
+            }
+
+            String subtype = mediaType.getSubtype();
+            if ("vnd.pypi.simple.v1+json".equals(subtype) || "vnd.pypi.simple.latest+json".equals(subtype))
+            {
+                return true;
+            }
+            else if (subtype.endsWith("+html") || mediaType.includes(MediaType.TEXT_HTML))
+            {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private ResponseEntity<byte[]> redirect(String location)
+    {
+        return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY)
+                             .location(URI.create(location))
+                             .build();
+    }
+
+}
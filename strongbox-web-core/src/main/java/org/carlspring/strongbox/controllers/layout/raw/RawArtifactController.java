@@ -3,6 +3,7 @@ package org.carlspring.strongbox.controllers.layout.raw;
 import org.carlspring.strongbox.controllers.BaseArtifactController;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.RawLayoutProvider;
+import org.carlspring.strongbox.storage.quota.RepositoryQuotaExceededException;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.web.LayoutRequestMapping;
 import org.carlspring.strongbox.web.RepositoryMapping;
@@ -30,7 +31,8 @@ public class RawArtifactController
 
     @ApiOperation(value = "Used to deploy an artifact")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The artifact was deployed successfully."),
-                            @ApiResponse(code = 400, message = "An error occurred.") })
+                            @ApiResponse(code = 400, message = "An error occurred."),
+                            @ApiResponse(code = 507, message = "The repository has reached its quota.") })
     @PreAuthorize("hasAuthority('ARTIFACTS_DEPLOY')")
     @PutMapping(value = "{storageId}/{repositoryId}/{path:.+}")
     public ResponseEntity upload(@RepositoryMapping Repository repository,
@@ -47,6 +49,12 @@ public class RawArtifactController
 
             return ResponseEntity.ok("The artifact was deployed successfully.");
         }
+        catch (RepositoryQuotaExceededException e)
+        {
+            logger.warn(e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body(e.getMessage());
+        }
         catch (Exception e)
         {
             logger.error(e.getMessage(), e);
@@ -0,0 +1,103 @@
+package org.carlspring.strongbox.controllers.support;
+
+import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryCircuitBreaker;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RemoteRepositoryHealthEntityBody
+{
+
+    @JsonProperty("url")
+    private final String url;
+
+    @JsonProperty("state")
+    private final String state;
+
+    @JsonProperty("consecutiveFailures")
+    private final int consecutiveFailures;
+
+    @JsonProperty("successCount")
+    private final long successCount;
+
+    @JsonProperty("failureCount")
+    private final long failureCount;
+
+    @JsonProperty("averageLatencyMillis")
+    private final long averageLatencyMillis;
+
+    @JsonProperty("openPeriodMillis")
+    private final long openPeriodMillis;
+
+    @JsonProperty("lastSuccessAt")
+    private final long lastSuccessAt;
+
+    @JsonProperty("lastFailureAt")
+    private final long lastFailureAt;
+
+    public RemoteRepositoryHealthEntityBody(RemoteRepositoryCircuitBreaker circuitBreaker)
+    {
+        this.url = circuitBreaker.getUrl();
+        this.state = circuitBreaker.getState().name();
+        this.consecutiveFailures = circuitBreaker.getConsecutiveFailures();
+        this.successCount = circuitBreaker.getSuccessCount();
+        this.failureCount = circuitBreaker.getFailureCount();
+        this.averageLatencyMillis = Math.round(circuitBreaker.getAverageLatencyMillis());
+        this.openPeriodMillis = circuitBreaker.getOpenPeriodMillis();
+        this.lastSuccessAt = circuitBreaker.getLastSuccessAt();
+        this.lastFailureAt = circuitBreaker.getLastFailureAt();
+    }
+
+    public String getUrl()
+    {
+        return url;
+    }
+
+    public String getState()
+    {
+        return state;
+    }
+
+    public int getConsecutiveFailures()
+    {
+        return consecutiveFailures;
+    }
+
+    public long getSuccessCount()
+    {
+        return successCount;
+    }
+
+    public long getFailureCount()
+    {
+        return failureCount;
+    }
+
+    public long getAverageLatencyMillis()
+    {
+        return averageLatencyMillis;
+    }
+
+    public long getOpenPeriodMillis()
+    {
+        return openPeriodMillis;
+    }
+
+    public long getLastSuccessAt()
+    {
+        return lastSuccessAt;
+    }
+
+    public long getLastFailureAt()
+    {
+        return lastFailureAt;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s %s (failures=%s, latency=%sms)", url, state, consecutiveFailures,
+                             averageLatencyMillis);
+    }
+}
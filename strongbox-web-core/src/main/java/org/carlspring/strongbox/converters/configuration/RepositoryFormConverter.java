@@ -26,6 +26,8 @@ public enum RepositoryFormConverter
         result.setSecured(source.isSecured());
         result.setStatus(source.getStatus());
         result.setArtifactMaxSize(source.getArtifactMaxSize());
+        result.setRepositoryMaxSize(source.getRepositoryMaxSize());
+        result.setRepositoryMaxFiles(source.getRepositoryMaxFiles());
         result.setTrashEnabled(source.isTrashEnabled());
         result.setAllowsForceDeletion(source.isAllowsForceDeletion());
         result.setAllowsDeployment(source.isAllowsDeployment());
@@ -33,6 +35,7 @@ public enum RepositoryFormConverter
         result.setAllowsDelete(source.isAllowsDelete());
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setChecksumHeadersEnabled(source.isChecksumHeadersEnabled());
+        result.setArchiveListingEnabled(source.isArchiveListingEnabled());
         if (source.getRepositoryConfiguration() != null)
         {
             result.setRepositoryConfiguration(
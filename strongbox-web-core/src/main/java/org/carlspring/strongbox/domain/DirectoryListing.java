@@ -10,6 +10,9 @@ public class DirectoryListing
 
     private List<FileContent> files;
 
+    private int total;
+
+    private boolean truncated;
 
     public List<FileContent> getDirectories()
     {
@@ -41,4 +44,30 @@ public class DirectoryListing
         this.files = files;
     }
 
+    /**
+     * @return the number of entries which can be listed, of which the listing may only hold a page
+     */
+    public int getTotal()
+    {
+        return total;
+    }
+
+    public void setTotal(int total)
+    {
+        this.total = total;
+    }
+
+    /**
+     * @return {@code true} if the directory has more entries than can be listed
+     */
+    public boolean isTruncated()
+    {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated)
+    {
+        this.truncated = truncated;
+    }
+
 }
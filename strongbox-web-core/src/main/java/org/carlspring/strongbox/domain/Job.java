@@ -0,0 +1,174 @@
+package org.carlspring.strongbox.domain;
+
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * The record of a long-running administrative operation, which is run in the background and polled for.
+ */
+public class Job
+{
+
+    public enum State
+    {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    private String id;
+
+    private String type;
+
+    private String description;
+
+    private State state = State.QUEUED;
+
+    private int progress;
+
+    private boolean cancelRequested;
+
+    private Date submittedAt;
+
+    private Date startedAt;
+
+    private Date finishedAt;
+
+    private String result;
+
+    private String error;
+
+
+    public Job()
+    {
+    }
+
+    public Job(String id,
+               String type,
+               String description)
+    {
+        this.id = id;
+        this.type = type;
+        this.description = description;
+        this.submittedAt = new Date();
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public void setId(String id)
+    {
+        this.id = id;
+    }
+
+    public String getType()
+    {
+        return type;
+    }
+
+    public void setType(String type)
+    {
+        this.type = type;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+
+    public void setDescription(String description)
+    {
+        this.description = description;
+    }
+
+    public State getState()
+    {
+        return state;
+    }
+
+    public void setState(State state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * @return the progress in percent, as far as the operation reports it
+     */
+    public int getProgress()
+    {
+        return progress;
+    }
+
+    public void setProgress(int progress)
+    {
+        this.progress = progress;
+    }
+
+    public boolean isCancelRequested()
+    {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(boolean cancelRequested)
+    {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public Date getSubmittedAt()
+    {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Date submittedAt)
+    {
+        this.submittedAt = submittedAt;
+    }
+
+    public Date getStartedAt()
+    {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt)
+    {
+        this.startedAt = startedAt;
+    }
+
+    public Date getFinishedAt()
+    {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt)
+    {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getResult()
+    {
+        return result;
+    }
+
+    public void setResult(String result)
+    {
+        this.result = result;
+    }
+
+    public String getError()
+    {
+        return error;
+    }
+
+    public void setError(String error)
+    {
+        this.error = error;
+    }
+
+    @JsonIgnore
+    public boolean isDone()
+    {
+        return state != State.QUEUED && state != State.RUNNING;
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.carlspring.strongbox.domain;
+
+import java.util.Date;
+
+/**
+ * A resumable upload, whose content is sent in chunks and stored as an artifact once it's finished.
+ */
+public class UploadSession
+{
+
+    private String id;
+
+    private String storageId;
+
+    private String repositoryId;
+
+    private String path;
+
+    /**
+     * The declared size of the content, if known upfront.
+     */
+    private Long length;
+
+    private long offset;
+
+    private Date createdAt;
+
+    private Date expiresAt;
+
+
+    public UploadSession()
+    {
+    }
+
+    public UploadSession(String id,
+                         String storageId,
+                         String repositoryId,
+                         String path,
+                         Long length)
+    {
+        this.id = id;
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.path = path;
+        this.length = length;
+        this.createdAt = new Date();
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public void setId(String id)
+    {
+        this.id = id;
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public void setStorageId(String storageId)
+    {
+        this.storageId = storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId)
+    {
+        this.repositoryId = repositoryId;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    public void setPath(String path)
+    {
+        this.path = path;
+    }
+
+    public Long getLength()
+    {
+        return length;
+    }
+
+    public void setLength(Long length)
+    {
+        this.length = length;
+    }
+
+    /**
+     * @return the number of bytes received so far, which is where the next chunk starts
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    public void setOffset(long offset)
+    {
+        this.offset = offset;
+    }
+
+    public Date getCreatedAt()
+    {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt)
+    {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * @return when the session is dropped, unless another chunk arrives before
+     */
+    public Date getExpiresAt()
+    {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt)
+    {
+        this.expiresAt = expiresAt;
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.carlspring.strongbox.services;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The listed entries of a directory, which may be fewer than the entries in the directory.
+ */
+class DirectoryEntries
+{
+
+    private final List<DirectoryEntry> entries;
+
+    private final int total;
+
+    DirectoryEntries(List<DirectoryEntry> entries,
+                     int total)
+    {
+        this.entries = Collections.unmodifiableList(entries);
+        this.total = total;
+    }
+
+    /**
+     * @return the entries, the directories first, each sorted by name
+     */
+    List<DirectoryEntry> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * @return the number of entries in the directory
+     */
+    int getTotal()
+    {
+        return total;
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.carlspring.strongbox.services;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * The basic attributes of a directory entry, which is all a directory listing renders.
+ */
+class DirectoryEntry
+{
+
+    private final String name;
+
+    private final boolean directory;
+
+    private final long size;
+
+    private final long lastModified;
+
+    DirectoryEntry(Path path,
+                   BasicFileAttributes attributes)
+    {
+        this.name = path.getFileName().toString();
+        this.directory = attributes.isDirectory();
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+    }
+
+    String getName()
+    {
+        return name;
+    }
+
+    boolean isDirectory()
+    {
+        return directory;
+    }
+
+    long getSize()
+    {
+        return size;
+    }
+
+    long getLastModified()
+    {
+        return lastModified;
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.carlspring.strongbox.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.metrics.StrongboxMetrics;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.cache.ArtifactEventCacheSupport;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.cache.Cache;
+
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Caches the entries of the browsed repository directories.
+ * <p>
+ * A listing is evicted when a path in, under or above its directory is stored, updated, moved or deleted, and it
+ * is re-read when the modification time of its directory changed, which catches the entries added or removed
+ * without an event. The listings also expire after {@code strongbox.browse.cache.ttl-seconds}.
+ *
+ * @see ArtifactEventCacheSupport
+ */
+@Component
+public class DirectoryListingCache
+{
+
+    private final ArtifactEventCacheSupport cacheSupport;
+
+    private final Cache<String, CachedListing> cache;
+
+    @Inject
+    public DirectoryListingCache(@Value("${strongbox.browse.cache.max-entries:1000}") long maxEntries,
+                                 @Value("${strongbox.browse.cache.ttl-seconds:300}") long ttlSeconds)
+    {
+        // The directories and the metadata are listed too.
+        this.cacheSupport = new ArtifactEventCacheSupport(ttlSeconds,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_CREATED,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_DIRECTORY_DELETED,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_ARCHIVED,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_DOWNLOADED,
+                                                          ArtifactEventTypeEnum.EVENT_ARTIFACT_CHECKSUM_DOWNLOADED);
+        this.cache = cacheSupport.newCache(maxEntries);
+    }
+
+    DirectoryEntries get(RepositoryPath directory,
+                         Listing listing)
+        throws IOException
+    {
+        String key = calculateKey(directory);
+        FileTime lastModified = Files.readAttributes(directory, BasicFileAttributes.class).lastModifiedTime();
+
+        CachedListing cached = cache.getIfPresent(key);
+        if (cached != null && cached.lastModified.equals(lastModified))
+        {
+            StrongboxMetrics.increment(StrongboxMetrics.BROWSE_CACHE, Tags.of("result", "hit"));
+
+            return cached.entries;
+        }
+        StrongboxMetrics.increment(StrongboxMetrics.BROWSE_CACHE, Tags.of("result", "miss"));
+
+        long listingGeneration = cacheSupport.getGeneration();
+        DirectoryEntries entries = listing.list();
+
+        cacheSupport.put(cache, key, new CachedListing(lastModified, entries), listingGeneration);
+
+        return entries;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (!cacheSupport.isInvalidating(event))
+        {
+            return;
+        }
+
+        invalidate(event.getPath());
+        if (event.getTargetPath() != null)
+        {
+            invalidate(event.getTargetPath());
+        }
+    }
+
+    private void invalidate(Path path)
+    {
+        if (!(path instanceof RepositoryPath))
+        {
+            invalidateAll();
+
+            return;
+        }
+
+        String eventKey;
+        try
+        {
+            eventKey = calculateKey((RepositoryPath) path);
+        }
+        catch (IOException e)
+        {
+            invalidateAll();
+
+            return;
+        }
+
+        cacheSupport.invalidate(() -> cache.asMap().keySet().removeIf(key -> isAffected(key, eventKey)));
+    }
+
+    public void invalidateAll()
+    {
+        cacheSupport.invalidate(cache::invalidateAll);
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * A change to a path affects the listings of its ancestors, which may gain or lose a directory, and of its
+     * descendants, which are gone when a directory is deleted or moved.
+     */
+    static boolean isAffected(String directoryKey,
+                              String pathKey)
+    {
+        return directoryKey.equals(pathKey) || pathKey.startsWith(asPrefix(directoryKey)) ||
+               directoryKey.startsWith(asPrefix(pathKey));
+    }
+
+    private static String asPrefix(String key)
+    {
+        return key.endsWith("/") ? key : key + "/";
+    }
+
+    static String calculateKey(RepositoryPath path)
+        throws IOException
+    {
+        Repository repository = path.getRepository();
+
+        return String.format("%s/%s/%s",
+                             repository.getStorage().getId(),
+                             repository.getId(),
+                             RepositoryFiles.relativizePath(path));
+    }
+
+    @FunctionalInterface
+    interface Listing
+    {
+
+        DirectoryEntries list()
+            throws IOException;
+
+    }
+
+    private static class CachedListing
+    {
+
+        private final FileTime lastModified;
+
+        private final DirectoryEntries entries;
+
+        private CachedListing(FileTime lastModified,
+                              DirectoryEntries entries)
+        {
+            this.lastModified = lastModified;
+            this.entries = entries;
+        }
+
+    }
+
+}
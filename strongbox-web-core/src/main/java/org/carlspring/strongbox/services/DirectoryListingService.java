@@ -18,8 +18,30 @@ public interface DirectoryListingService
 
     DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException;
+
+    /**
+     * Lists a page of the directory entries, the directories first, each sorted by name. Only the first
+     * {@code strongbox.browse.max-entries} entries of a directory are listed, and counted in its total; the listing
+     * of a larger directory is flagged as truncated.
+     *
+     * @param skip  the number of entries to skip
+     * @param limit the maximum number of entries to list, negative for all of them
+     */
+    DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                        int skip,
+                                        int limit)
+        throws IOException;
     
     DirectoryListing fromPath(Path root, Path path)
             throws IOException;
 
+    /**
+     * Lists a page of the directory entries, like {@link #fromRepositoryPath(RepositoryPath, int, int)} does.
+     */
+    DirectoryListing fromPath(Path root,
+                              Path path,
+                              int skip,
+                              int limit)
+            throws IOException;
+
 }
@@ -2,22 +2,24 @@ package org.carlspring.strongbox.services;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URL;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.PriorityQueue;
 
 import org.apache.commons.lang.StringUtils;
 import org.carlspring.strongbox.domain.DirectoryListing;
 import org.carlspring.strongbox.domain.FileContent;
-import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -29,12 +31,40 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
 
     private static final Logger logger = LoggerFactory.getLogger(DirectoryListingService.class);
 
+    /**
+     * The number of entries a listing holds by default.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * The directories first, each sorted by name.
+     */
+    private static final Comparator<DirectoryEntry> ENTRY_ORDER = Comparator.comparing(
+            (DirectoryEntry entry) -> !entry.isDirectory()).thenComparing(DirectoryEntry::getName);
+
     private String baseUrl;
 
+    private DirectoryListingCache directoryListingCache;
+
+    private int maxEntries;
+
     public DirectoryListingServiceImpl(String baseUrl)
+    {
+        this(baseUrl, null, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries the number of entries a listing holds at most, the first ones in the listing order; the
+     *                   rest of the directory is left out, and the listing is flagged as truncated
+     */
+    public DirectoryListingServiceImpl(String baseUrl,
+                                       DirectoryListingCache directoryListingCache,
+                                       int maxEntries)
     {
         super();
         this.baseUrl = StringUtils.chomp(baseUrl.toString(), "/");
+        this.directoryListingCache = directoryListingCache;
+        this.maxEntries = Math.max(maxEntries, 1);
     }
 
     @Override
@@ -51,6 +81,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
             fileContent.setStorageId(storage.getId());
             fileContent.setUrl(calculateDirectoryUrl(fileContent));
         }
+        directoryListing.setTotal(directoryListing.getDirectories().size());
 
         return directoryListing;
     }
@@ -71,6 +102,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
 
             fileContent.setUrl(calculateDirectoryUrl(fileContent));
         }
+        directoryListing.setTotal(directoryListing.getDirectories().size());
 
         return directoryListing;
     }
@@ -79,83 +111,155 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
     public DirectoryListing fromRepositoryPath(RepositoryPath path)
         throws IOException
     {
-        return fromPath(path);
+        return fromRepositoryPath(path, 0, -1);
     }
 
-    private DirectoryListing fromPath(Path path)
+    @Override
+    public DirectoryListing fromRepositoryPath(RepositoryPath path,
+                                               int skip,
+                                               int limit)
         throws IOException
     {
-        path = path.normalize();
+        RepositoryPath directory = path.normalize();
 
-        DirectoryListing directoryListing = new DirectoryListing();
+        DirectoryEntries entries = directoryListingCache != null ?
+                                   directoryListingCache.get(directory, () -> list(directory)) :
+                                   list(directory);
 
-        Map<String, List<FileContent>> content = generateDirectoryListing(path);
+        Repository repository = directory.getRepository();
+        URI rootUri = directory.getFileSystem().getRootDirectory().toUri();
 
-        directoryListing.setDirectories(content.get("directories"));
-        directoryListing.setFiles(content.get("files"));
+        return toDirectoryListing(entries, skip, limit, entry -> {
+            FileContent file = new FileContent(entry.getName());
+            file.setStorageId(repository.getStorage().getId());
+            file.setRepositoryId(repository.getId());
 
-        return directoryListing;
+            RepositoryPath entryPath = directory.resolve(entry.getName());
+            file.setArtifactPath(rootUri.relativize(entryPath.toUri()).toString());
+
+            // The layouts have their own download URLs (npm and NuGet ones are coordinate based), resolved only for
+            // the entries of the page.
+            file.setUrl(entry.isDirectory() ? calculateDirectoryUrl(file) : RepositoryFiles.readResourceUrl(entryPath));
+
+            return file;
+        });
     }
 
-    private Map<String, List<FileContent>> generateDirectoryListing(Path path)
+    private DirectoryListing fromPath(Path path,
+                                      int skip,
+                                      int limit)
         throws IOException
     {
-        List<FileContent> directories = new ArrayList<>();
-        List<FileContent> files = new ArrayList<>();
+        return toDirectoryListing(list(path.normalize()), skip, limit, entry -> {
+            FileContent file = new FileContent(entry.getName());
+            if (entry.isDirectory())
+            {
+                file.setUrl(calculateDirectoryUrl(file));
+            }
 
-        List<Path> contentPaths;
-        try (Stream<Path> pathStream = Files.list(path))
+            return file;
+        });
+    }
+
+    /**
+     * Reads only the basic attributes of the entries, the repository ones (artifact entry, coordinates, resource
+     * URL...) are expensive to resolve and aren't needed for a listing.
+     * <p>
+     * The directory is streamed and only the first {@code maxEntries} entries are kept, so a huge directory neither
+     * holds all of its entries in memory nor has them all sorted.
+     */
+    private DirectoryEntries list(Path directory)
+        throws IOException
+    {
+        // The last of the kept entries is the head, to be dropped for a preceding one.
+        PriorityQueue<DirectoryEntry> kept = new PriorityQueue<>(ENTRY_ORDER.reversed());
+        int total = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory))
         {
-            contentPaths = pathStream
-                                   .filter(p -> !p.toFile().getName().startsWith("."))
-                                   .filter(p -> {
-                                       try
-                                       {
-                                           return !Files.isHidden(p);
-                                       }
-                                       catch (IOException e)
-                                       {
-                                           logger.debug("Error accessing path {}", p);
-                                           return false;
-                                       }
-                                   })
-                                   .sorted()
-                                   .collect(Collectors.toList());
+            for (Path path : stream)
+            {
+                if (path.getFileName().toString().startsWith(".") || isHidden(path))
+                {
+                    continue;
+                }
+
+                BasicFileAttributes attributes;
+                try
+                {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                }
+                catch (NoSuchFileException e)
+                {
+                    // Deleted while listing.
+                    continue;
+                }
+
+                total++;
+                kept.add(new DirectoryEntry(path, attributes));
+                if (kept.size() > maxEntries)
+                {
+                    kept.poll();
+                }
+            }
         }
 
-        for (Path contentPath : contentPaths)
-        {
-            FileContent file = new FileContent(contentPath.getFileName().toString());
+        List<DirectoryEntry> entries = new ArrayList<>(kept);
+        entries.sort(ENTRY_ORDER);
 
-            Map<String, Object> fileAttributes = Files.readAttributes(contentPath, "*");
+        return new DirectoryEntries(entries, total);
+    }
 
-            file.setStorageId((String) fileAttributes.get(RepositoryFileAttributeType.STORAGE_ID.getName()));
-            file.setRepositoryId((String) fileAttributes.get(RepositoryFileAttributeType.REPOSITORY_ID.getName()));
+    private boolean isHidden(Path path)
+    {
+        try
+        {
+            return Files.isHidden(path);
+        }
+        catch (IOException e)
+        {
+            logger.debug("Error accessing path {}", path);
+            return true;
+        }
+    }
 
-            file.setArtifactPath((String) fileAttributes.get("artifactPath"));
+    private DirectoryListing toDirectoryListing(DirectoryEntries directoryEntries,
+                                                int skip,
+                                                int limit,
+                                                FileContentFunction function)
+        throws IOException
+    {
+        List<FileContent> directories = new ArrayList<>();
+        List<FileContent> files = new ArrayList<>();
 
-            if (Boolean.TRUE.equals(fileAttributes.get("isDirectory")))
-            {
-                file.setUrl(calculateDirectoryUrl(file));
+        List<DirectoryEntry> entries = directoryEntries.getEntries();
 
+        int from = Math.min(Math.max(skip, 0), entries.size());
+        int to = limit < 0 ? entries.size() : (int) Math.min((long) from + limit, entries.size());
+        for (DirectoryEntry entry : entries.subList(from, to))
+        {
+            FileContent file = function.apply(entry);
+            if (entry.isDirectory())
+            {
                 directories.add(file);
 
                 continue;
             }
 
-            file.setUrl((URL) fileAttributes.get(RepositoryFileAttributeType.RESOURCE_URL.getName()));
-
-            file.setLastModified(new Date(((FileTime) fileAttributes.get("lastModifiedTime")).toMillis()));
-            file.setSize((Long) fileAttributes.get("size"));
+            file.setLastModified(new Date(entry.getLastModified()));
+            file.setSize(entry.getSize());
 
             files.add(file);
         }
 
-        Map<String, List<FileContent>> listing = new HashMap<>();
-        listing.put("directories", directories);
-        listing.put("files", files);
+        DirectoryListing directoryListing = new DirectoryListing();
+        directoryListing.setDirectories(directories);
+        directoryListing.setFiles(files);
+        // Only the kept entries can be paged through.
+        directoryListing.setTotal(entries.size());
+        directoryListing.setTruncated(directoryEntries.getTotal() > entries.size());
 
-        return listing;
+        return directoryListing;
     }
 
     /**
@@ -172,6 +276,16 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
     public DirectoryListing fromPath(Path rootPath,
                                      Path path)
         throws IOException
+    {
+        return fromPath(rootPath, path, 0, -1);
+    }
+
+    @Override
+    public DirectoryListing fromPath(Path rootPath,
+                                     Path path,
+                                     int skip,
+                                     int limit)
+        throws IOException
     {
         rootPath = rootPath.normalize();
         path = path.normalize();
@@ -185,7 +299,7 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
             throw new RuntimeException(message);
         }
 
-        return fromPath(path);
+        return fromPath(path, skip, limit);
     }
 
     private URL calculateDirectoryUrl(FileContent file)
@@ -209,4 +323,13 @@ public class DirectoryListingServiceImpl implements DirectoryListingService
                                      file.getRepositoryId(), file.getArtifactPath()));
     }
 
+    @FunctionalInterface
+    private interface FileContentFunction
+    {
+
+        FileContent apply(DirectoryEntry entry)
+            throws IOException;
+
+    }
+
 }
@@ -0,0 +1,62 @@
+package org.carlspring.strongbox.services;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.carlspring.strongbox.domain.Job;
+
+/**
+ * Runs the long-running administrative operations in the background, so that they don't hold the request threads,
+ * and keeps their records across restarts.
+ */
+public interface JobService
+{
+
+    /**
+     * Queues the task.
+     *
+     * @param type        the kind of operation, for example {@code maven-index-rebuild}
+     * @param description what the operation applies to
+     * @return the record of the job
+     * @throws RejectedExecutionException if the queue is full
+     */
+    Job submit(String type,
+               String description,
+               JobTask task);
+
+    Job getJob(String id);
+
+    List<Job> getJobs();
+
+    /**
+     * A queued job is cancelled right away, a running one is interrupted and ends up cancelled when its task returns.
+     *
+     * @return {@code false} if there is no such job
+     */
+    boolean cancel(String id);
+
+    @FunctionalInterface
+    interface JobTask
+    {
+
+        /**
+         * @return the result message of the job
+         */
+        String run(JobContext context)
+            throws Exception;
+
+    }
+
+    interface JobContext
+    {
+
+        /**
+         * @param progress the progress in percent
+         */
+        void setProgress(int progress);
+
+        boolean isCancelled();
+
+    }
+
+}
@@ -0,0 +1,383 @@
+package org.carlspring.strongbox.services;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.domain.Job;
+import org.carlspring.strongbox.domain.Job.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the jobs on a pool of {@code strongbox.jobs.parallelism} threads, apart from the cron tasks, with at most
+ * {@code strongbox.jobs.queue-size} jobs waiting.
+ * <p>
+ * Every job is recorded in a JSON file in the {@code jobs} directory of the vault, which is rewritten when the job
+ * changes state and at most once a second while it reports its progress. The jobs which were queued or running when
+ * the server stopped are failed on the next start. The {@code strongbox.jobs.max-records} most recent jobs are kept.
+ */
+@Component
+public class JobServiceImpl
+        implements JobService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(JobServiceImpl.class);
+
+    private static final String EXTENSION = ".json";
+
+    private static final long PROGRESS_SAVE_INTERVAL_MILLIS = 1000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(
+            DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Path directory;
+
+    private final int parallelism;
+
+    private final int queueSize;
+
+    private final int maxRecords;
+
+    /**
+     * The records by submission order.
+     */
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    private final Map<String, Future<?>> futures = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @Inject
+    public JobServiceImpl(PropertiesBooter propertiesBooter,
+                          @Value("${strongbox.jobs.parallelism:2}") int parallelism,
+                          @Value("${strongbox.jobs.queue-size:100}") int queueSize,
+                          @Value("${strongbox.jobs.max-records:1000}") int maxRecords)
+    {
+        this(Paths.get(propertiesBooter.getVaultDirectory(), "jobs"), parallelism, queueSize, maxRecords);
+    }
+
+    JobServiceImpl(Path directory,
+                   int parallelism,
+                   int queueSize,
+                   int maxRecords)
+    {
+        this.directory = directory;
+        this.parallelism = Math.max(parallelism, 1);
+        this.queueSize = Math.max(queueSize, 1);
+        this.maxRecords = Math.max(maxRecords, 1);
+    }
+
+    @PostConstruct
+    public void init()
+        throws IOException
+    {
+        Files.createDirectories(directory);
+        load();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(parallelism,
+                                          parallelism,
+                                          0L,
+                                          TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          r -> {
+                                              Thread thread = new Thread(r, "job-" + threadNumber.incrementAndGet());
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          });
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    private void load()
+        throws IOException
+    {
+        List<Job> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION))
+        {
+            for (Path file : stream)
+            {
+                try
+                {
+                    loaded.add(objectMapper.readValue(file.toFile(), Job.class));
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Skipping the unreadable job record [%s].", file), e);
+                }
+            }
+        }
+
+        loaded.sort(Comparator.comparing(Job::getSubmittedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (Job job : loaded)
+        {
+            if (!job.isDone())
+            {
+                job.setState(State.FAILED);
+                job.setError("Interrupted by a restart.");
+                job.setFinishedAt(new Date());
+                save(job);
+            }
+
+            jobs.put(job.getId(), job);
+        }
+        prune();
+    }
+
+    @Override
+    public Job submit(String type,
+                      String description,
+                      JobTask task)
+    {
+        Job job = new Job(UUID.randomUUID().toString(), type, description);
+
+        synchronized (jobs)
+        {
+            // Throws if the queue is full, before anything is recorded.
+            futures.put(job.getId(), executor.submit(() -> run(job, task)));
+
+            jobs.put(job.getId(), job);
+            prune();
+        }
+        save(job);
+
+        logger.info("Submitted the [{}] job [{}] for [{}].", type, job.getId(), description);
+
+        return job;
+    }
+
+    private void run(Job job,
+                     JobTask task)
+    {
+        synchronized (job)
+        {
+            if (job.isDone())
+            {
+                return;
+            }
+
+            job.setState(State.RUNNING);
+            job.setStartedAt(new Date());
+            save(job);
+        }
+
+        String result = null;
+        Exception error = null;
+        try
+        {
+            result = task.run(new Context(job));
+        }
+        catch (Exception e)
+        {
+            error = e;
+        }
+        finally
+        {
+            futures.remove(job.getId());
+        }
+
+        synchronized (job)
+        {
+            if (job.isCancelRequested())
+            {
+                job.setState(State.CANCELLED);
+            }
+            else if (error != null)
+            {
+                logger.error(String.format("The [%s] job [%s] failed.", job.getType(), job.getId()), error);
+
+                job.setState(State.FAILED);
+                job.setError(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+            }
+            else
+            {
+                job.setState(State.COMPLETED);
+                job.setProgress(100);
+                job.setResult(result);
+            }
+            job.setFinishedAt(new Date());
+            save(job);
+        }
+
+        logger.info("The [{}] job [{}] is {}.", job.getType(), job.getId(), job.getState().name().toLowerCase());
+    }
+
+    @Override
+    public Job getJob(String id)
+    {
+        synchronized (jobs)
+        {
+            return jobs.get(id);
+        }
+    }
+
+    @Override
+    public List<Job> getJobs()
+    {
+        synchronized (jobs)
+        {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    @Override
+    public boolean cancel(String id)
+    {
+        Job job = getJob(id);
+        if (job == null)
+        {
+            return false;
+        }
+
+        synchronized (job)
+        {
+            if (job.isDone())
+            {
+                return true;
+            }
+
+            job.setCancelRequested(true);
+            if (job.getState() == State.QUEUED)
+            {
+                job.setState(State.CANCELLED);
+                job.setFinishedAt(new Date());
+            }
+            save(job);
+        }
+
+        Future<?> future = futures.remove(id);
+        if (future != null)
+        {
+            future.cancel(true);
+        }
+
+        return true;
+    }
+
+    /**
+     * Drops the oldest finished records over the limit.
+     */
+    private void prune()
+    {
+        synchronized (jobs)
+        {
+            int excess = jobs.size() - maxRecords;
+            for (Iterator<Job> i = jobs.values().iterator(); excess > 0 && i.hasNext(); )
+            {
+                Job job = i.next();
+                if (!job.isDone())
+                {
+                    continue;
+                }
+
+                i.remove();
+                futures.remove(job.getId());
+                excess--;
+                try
+                {
+                    Files.deleteIfExists(getFile(job));
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Failed to delete the record of the job [%s].", job.getId()), e);
+                }
+            }
+        }
+    }
+
+    private void save(Job job)
+    {
+        synchronized (job)
+        {
+            Path file = getFile(job);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try
+            {
+                Files.write(temp, objectMapper.writeValueAsBytes(job));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                logger.warn(String.format("Failed to record the job [%s].", job.getId()), e);
+            }
+        }
+    }
+
+    private Path getFile(Job job)
+    {
+        return directory.resolve(job.getId() + EXTENSION);
+    }
+
+    private class Context
+            implements JobContext
+    {
+
+        private final Job job;
+
+        private long lastSaved;
+
+        private Context(Job job)
+        {
+            this.job = job;
+        }
+
+        @Override
+        public void setProgress(int progress)
+        {
+            synchronized (job)
+            {
+                job.setProgress(Math.min(Math.max(progress, 0), 100));
+
+                long now = System.currentTimeMillis();
+                if (now - lastSaved >= PROGRESS_SAVE_INTERVAL_MILLIS)
+                {
+                    lastSaved = now;
+                    save(job);
+                }
+            }
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            synchronized (job)
+            {
+                return job.isCancelRequested() || Thread.currentThread().isInterrupted();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,423 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Turns the input of a proxy cache warm-up into the de-duplicated repository paths of the artifacts to fetch, in the
+ * order of the input.
+ *
+ * @see ProxyCacheWarmUpService
+ */
+public class ProxyCacheWarmUpManifestParser
+{
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("\\$\\{([^}]+)}");
+
+    private static final String NODE_MODULES = "node_modules/";
+
+    public enum Format
+    {
+
+        /**
+         * One artifact per line, in the notation of the repository layout: {@code groupId:artifactId:version[:classifier[:extension]]}
+         * for Maven, {@code [@scope/]name@version} for npm, {@code id:version} for NuGet, or a plain repository path.
+         */
+        COORDINATES("coordinates"),
+
+        /**
+         * The dependencies and the managed dependencies of a Maven {@code pom.xml}.
+         */
+        POM("pom"),
+
+        /**
+         * An npm {@code package-lock.json} or {@code npm-shrinkwrap.json}.
+         */
+        PACKAGE_LOCK("package-lock"),
+
+        /**
+         * A NuGet {@code packages.lock.json}.
+         */
+        PACKAGES_LOCK("packages-lock");
+
+        private final String name;
+
+        Format(String name)
+        {
+            this.name = name;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public static Format ofName(String name)
+        {
+            return Arrays.stream(values())
+                         .filter(f -> f.name.equalsIgnoreCase(name) || f.name().equalsIgnoreCase(name))
+                         .findFirst()
+                         .orElseThrow(() -> new IllegalArgumentException(
+                                 String.format("Unsupported warm-up format [%s].", name)));
+        }
+
+    }
+
+    public Set<String> parse(String layout,
+                             Format format,
+                             String content)
+            throws IOException
+    {
+        switch (format)
+        {
+            case POM:
+                return parsePom(content);
+            case PACKAGE_LOCK:
+                return parsePackageLock(content);
+            case PACKAGES_LOCK:
+                return parsePackagesLock(content);
+            case COORDINATES:
+            default:
+                return parseCoordinates(layout, content);
+        }
+    }
+
+    Set<String> parseCoordinates(String layout,
+                                 String content)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        for (String line : content.split("\\r?\\n"))
+        {
+            String coordinates = line.trim();
+            if (coordinates.isEmpty() || coordinates.startsWith("#"))
+            {
+                continue;
+            }
+
+            result.add(toPath(layout, coordinates));
+        }
+
+        return result;
+    }
+
+    private String toPath(String layout,
+                          String coordinates)
+    {
+        if (coordinates.contains("/") && !coordinates.startsWith("@"))
+        {
+            return StringUtils.removeStart(coordinates, "/");
+        }
+
+        if (MavenArtifactCoordinates.LAYOUT_NAME.equals(layout))
+        {
+            String[] values = coordinates.split(":");
+            if (values.length < 3)
+            {
+                throw new IllegalArgumentException(String.format("Invalid Maven coordinates [%s].", coordinates));
+            }
+
+            return new MavenArtifactCoordinates(Arrays.stream(values)
+                                                      .map(StringUtils::trimToNull)
+                                                      .toArray(String[]::new)).toPath();
+        }
+        else if (NpmArtifactCoordinates.LAYOUT_NAME.equals(layout))
+        {
+            int separator = coordinates.lastIndexOf('@');
+            if (separator <= 0)
+            {
+                throw new IllegalArgumentException(String.format("Invalid npm coordinates [%s].", coordinates));
+            }
+
+            return NpmArtifactCoordinates.of(coordinates.substring(0, separator),
+                                             coordinates.substring(separator + 1))
+                                         .toPath();
+        }
+        else if (NugetArtifactCoordinates.LAYOUT_NAME.equals(layout))
+        {
+            String[] values = coordinates.split(":");
+            if (values.length != 2)
+            {
+                throw new IllegalArgumentException(String.format("Invalid NuGet coordinates [%s].", coordinates));
+            }
+
+            return new NugetArtifactCoordinates(values[0], values[1], "nupkg").toPath();
+        }
+
+        return coordinates;
+    }
+
+    Set<String> parsePom(String content)
+            throws IOException
+    {
+        Model model;
+        try
+        {
+            model = new MavenXpp3Reader().read(new StringReader(content));
+        }
+        catch (XmlPullParserException e)
+        {
+            throw new IOException("Invalid pom.xml: " + e.getMessage(), e);
+        }
+
+        Properties properties = new Properties();
+        properties.putAll(model.getProperties());
+
+        Parent parent = model.getParent();
+        String groupId = model.getGroupId() != null ? model.getGroupId() : parent != null ? parent.getGroupId() : null;
+        String version = model.getVersion() != null ? model.getVersion() : parent != null ? parent.getVersion() : null;
+        putIfNotNull(properties, "project.groupId", groupId);
+        putIfNotNull(properties, "project.artifactId", model.getArtifactId());
+        putIfNotNull(properties, "project.version", version);
+        if (parent != null)
+        {
+            putIfNotNull(properties, "project.parent.groupId", parent.getGroupId());
+            putIfNotNull(properties, "project.parent.version", parent.getVersion());
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        if (parent != null)
+        {
+            addPom(result, parent.getGroupId(), parent.getArtifactId(), parent.getVersion(), properties);
+        }
+
+        DependencyManagement dependencyManagement = model.getDependencyManagement();
+        if (dependencyManagement != null)
+        {
+            addDependencies(result, dependencyManagement.getDependencies(), properties);
+        }
+        addDependencies(result, model.getDependencies(), properties);
+
+        return result;
+    }
+
+    private void addDependencies(Set<String> result,
+                                 List<Dependency> dependencies,
+                                 Properties properties)
+    {
+        for (Dependency dependency : dependencies)
+        {
+            String groupId = resolve(dependency.getGroupId(), properties);
+            String artifactId = resolve(dependency.getArtifactId(), properties);
+            String version = resolve(dependency.getVersion(), properties);
+            if (groupId == null || artifactId == null || version == null || isVersionRange(version))
+            {
+                // Managed elsewhere, or only known to a real build.
+                continue;
+            }
+
+            addPom(result, groupId, artifactId, version, properties);
+
+            String type = StringUtils.defaultIfBlank(resolve(dependency.getType(), properties), "jar");
+            String classifier = resolve(dependency.getClassifier(), properties);
+            if ("pom".equals(type))
+            {
+                continue;
+            }
+            else if ("test-jar".equals(type))
+            {
+                type = "jar";
+                classifier = StringUtils.defaultIfBlank(classifier, "tests");
+            }
+            else if ("maven-plugin".equals(type) || "bundle".equals(type) || "ejb".equals(type))
+            {
+                type = "jar";
+            }
+
+            result.add(new MavenArtifactCoordinates(groupId, artifactId, version, classifier, type).toPath());
+        }
+    }
+
+    private void addPom(Set<String> result,
+                        String groupId,
+                        String artifactId,
+                        String version,
+                        Properties properties)
+    {
+        groupId = resolve(groupId, properties);
+        artifactId = resolve(artifactId, properties);
+        version = resolve(version, properties);
+        if (groupId == null || artifactId == null || version == null || isVersionRange(version))
+        {
+            return;
+        }
+
+        result.add(new MavenArtifactCoordinates(groupId, artifactId, version, null, "pom").toPath());
+    }
+
+    /**
+     * @return the value with its {@code ${property}} references resolved, or {@code null} if some can't be
+     */
+    private String resolve(String value,
+                           Properties properties)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+
+        String result = value.trim();
+        for (int depth = 0; depth < 10 && result.contains("${"); depth++)
+        {
+            Matcher matcher = PROPERTY_PATTERN.matcher(result);
+            StringBuffer sb = new StringBuffer();
+            while (matcher.find())
+            {
+                String property = properties.getProperty(matcher.group(1));
+                if (property == null)
+                {
+                    return null;
+                }
+
+                matcher.appendReplacement(sb, Matcher.quoteReplacement(property.trim()));
+            }
+            matcher.appendTail(sb);
+            result = sb.toString();
+        }
+
+        return result.contains("${") ? null : result;
+    }
+
+    private boolean isVersionRange(String version)
+    {
+        return StringUtils.containsAny(version, '[', '(', ',');
+    }
+
+    private void putIfNotNull(Properties properties,
+                              String key,
+                              String value)
+    {
+        if (value != null)
+        {
+            properties.setProperty(key, value);
+        }
+    }
+
+    Set<String> parsePackageLock(String content)
+            throws IOException
+    {
+        JsonNode root = OBJECT_MAPPER.readTree(content);
+
+        Set<String> result = new LinkedHashSet<>();
+
+        // lockfileVersion 2 and 3
+        JsonNode packages = root.path("packages");
+        for (Iterator<Map.Entry<String, JsonNode>> i = packages.fields(); i.hasNext(); )
+        {
+            Map.Entry<String, JsonNode> entry = i.next();
+
+            int index = entry.getKey().lastIndexOf(NODE_MODULES);
+            JsonNode node = entry.getValue();
+            if (index < 0 || node.path("link").asBoolean(false))
+            {
+                // The root project and the linked workspace packages aren't in the registry.
+                continue;
+            }
+
+            String name = node.path("name").asText(entry.getKey().substring(index + NODE_MODULES.length()));
+            addNpmPackage(result, name, node.path("version").asText(null));
+        }
+
+        // lockfileVersion 1
+        if (!packages.isObject())
+        {
+            addNpmDependencies(result, root.path("dependencies"));
+        }
+
+        return result;
+    }
+
+    private void addNpmDependencies(Set<String> result,
+                                    JsonNode dependencies)
+    {
+        for (Iterator<Map.Entry<String, JsonNode>> i = dependencies.fields(); i.hasNext(); )
+        {
+            Map.Entry<String, JsonNode> entry = i.next();
+
+            addNpmPackage(result, entry.getKey(), entry.getValue().path("version").asText(null));
+            addNpmDependencies(result, entry.getValue().path("dependencies"));
+        }
+    }
+
+    private void addNpmPackage(Set<String> result,
+                               String name,
+                               String version)
+    {
+        if (version == null)
+        {
+            return;
+        }
+
+        if (version.startsWith("npm:"))
+        {
+            // An alias: "npm:<name>@<version>"
+            int separator = version.lastIndexOf('@');
+            if (separator <= "npm:".length())
+            {
+                return;
+            }
+
+            name = version.substring("npm:".length(), separator);
+            version = version.substring(separator + 1);
+        }
+
+        if (version.contains(":") || version.contains("/"))
+        {
+            // A file, git or tarball URL dependency.
+            return;
+        }
+
+        result.add(NpmArtifactCoordinates.of(name, version).toPath());
+    }
+
+    Set<String> parsePackagesLock(String content)
+            throws IOException
+    {
+        JsonNode root = OBJECT_MAPPER.readTree(content);
+
+        Set<String> result = new LinkedHashSet<>();
+        for (JsonNode framework : root.path("dependencies"))
+        {
+            for (Iterator<Map.Entry<String, JsonNode>> i = framework.fields(); i.hasNext(); )
+            {
+                Map.Entry<String, JsonNode> entry = i.next();
+
+                JsonNode node = entry.getValue();
+                String version = node.path("resolved").asText(null);
+                if (version == null || "Project".equalsIgnoreCase(node.path("type").asText()))
+                {
+                    continue;
+                }
+
+                result.add(new NugetArtifactCoordinates(entry.getKey(), version, "nupkg").toPath());
+            }
+        }
+
+        return result;
+    }
+
+}
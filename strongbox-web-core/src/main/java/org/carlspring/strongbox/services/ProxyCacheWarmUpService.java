@@ -0,0 +1,30 @@
+package org.carlspring.strongbox.services;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.carlspring.strongbox.domain.Job;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpManifestParser.Format;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+/**
+ * Fills the cache of a proxy (or group) repository ahead of the builds, from a list of coordinates or a dependency
+ * manifest, so that a cold cache doesn't send all the builds to the remote repositories at once.
+ */
+public interface ProxyCacheWarmUpService
+{
+
+    /**
+     * Parses the content and starts the warm-up as a {@link JobService job}, which is polled and cancelled like the
+     * other jobs.
+     *
+     * @return the record of the job
+     * @throws IllegalArgumentException   if the repository or the content can't be warmed up
+     * @throws RejectedExecutionException if too many jobs are queued
+     */
+    Job warmUp(Repository repository,
+               Format format,
+               String content)
+            throws IOException;
+
+}
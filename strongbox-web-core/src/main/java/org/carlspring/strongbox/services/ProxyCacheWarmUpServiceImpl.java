@@ -0,0 +1,273 @@
+package org.carlspring.strongbox.services;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.carlspring.strongbox.domain.Job;
+import org.carlspring.strongbox.services.JobService.JobContext;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpManifestParser.Format;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the paths of a warm-up through the {@link ArtifactResolutionService}, the same way as the artifact
+ * requests, so the proxy repositories fetch and cache whatever they don't have yet.
+ * <p>
+ * Every warm-up is a {@link JobService job}, which hands its paths to a pool of
+ * {@code strongbox.proxy.warm-up.parallelism} threads shared by the warm-ups, with at most
+ * {@code strongbox.proxy.warm-up.queue-size} paths waiting. A warm-up waits for room in the queue rather than
+ * queueing all of its paths at once, which bounds both the memory and the load on the remote repositories.
+ */
+@Component
+public class ProxyCacheWarmUpServiceImpl
+        implements ProxyCacheWarmUpService
+{
+
+    static final String JOB_TYPE = "proxy-warm-up";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyCacheWarmUpServiceImpl.class);
+
+    /**
+     * The number of failures listed in the result of the job, the rest are only counted.
+     */
+    private static final int MAX_REPORTED_FAILURES = 10;
+
+    private final ProxyCacheWarmUpManifestParser manifestParser = new ProxyCacheWarmUpManifestParser();
+
+    private final ArtifactResolutionService artifactResolutionService;
+
+    private final JobService jobService;
+
+    private final int parallelism;
+
+    private final int queueSize;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * A permit for every path which is being resolved or waits in the queue, so that the executor never rejects one.
+     */
+    private Semaphore permits;
+
+    @Inject
+    public ProxyCacheWarmUpServiceImpl(ArtifactResolutionService artifactResolutionService,
+                                       JobService jobService,
+                                       @Value("${strongbox.proxy.warm-up.parallelism:4}") int parallelism,
+                                       @Value("${strongbox.proxy.warm-up.queue-size:100}") int queueSize)
+    {
+        this.artifactResolutionService = artifactResolutionService;
+        this.jobService = jobService;
+        this.parallelism = Math.max(parallelism, 1);
+        this.queueSize = Math.max(queueSize, 1);
+    }
+
+    @PostConstruct
+    public void init()
+    {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(parallelism,
+                                          parallelism,
+                                          0L,
+                                          TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          r -> {
+                                              Thread thread = new Thread(r, "proxy-warm-up-" +
+                                                                            threadNumber.incrementAndGet());
+                                              thread.setDaemon(true);
+
+                                              return thread;
+                                          });
+        permits = new Semaphore(parallelism + queueSize);
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Job warmUp(Repository repository,
+                      Format format,
+                      String content)
+            throws IOException
+    {
+        if (!RepositoryTypeEnum.PROXY.getType().equals(repository.getType()) &&
+            !RepositoryTypeEnum.GROUP.getType().equals(repository.getType()))
+        {
+            throw new IllegalArgumentException(String.format("Repository [%s] is neither a proxy nor a group.",
+                                                             repository.getId()));
+        }
+
+        Set<String> paths = manifestParser.parse(repository.getLayout(), format, content);
+
+        String storageId = repository.getStorage().getId();
+        String repositoryId = repository.getId();
+
+        return jobService.submit(JOB_TYPE,
+                                 String.format("%s:%s, %d artifacts", storageId, repositoryId, paths.size()),
+                                 context -> warmUp(storageId, repositoryId, paths, context));
+    }
+
+    private String warmUp(String storageId,
+                          String repositoryId,
+                          Set<String> paths,
+                          JobContext context)
+    {
+        Progress progress = new Progress(paths.size(), context);
+        Phaser pending = new Phaser(1);
+        try
+        {
+            for (String path : paths)
+            {
+                if (context.isCancelled())
+                {
+                    break;
+                }
+
+                permits.acquire();
+                pending.register();
+                try
+                {
+                    executor.execute(() -> {
+                        try
+                        {
+                            resolve(storageId, repositoryId, path, progress, context);
+                        }
+                        finally
+                        {
+                            permits.release();
+                            pending.arriveAndDeregister();
+                        }
+                    });
+                }
+                catch (RejectedExecutionException e)
+                {
+                    permits.release();
+                    pending.arriveAndDeregister();
+
+                    throw e;
+                }
+            }
+
+            pending.awaitAdvanceInterruptibly(pending.arrive());
+        }
+        catch (InterruptedException e)
+        {
+            // Cancelled, the paths which are being resolved are still cached.
+            Thread.currentThread().interrupt();
+        }
+
+        return progress.toString();
+    }
+
+    private void resolve(String storageId,
+                         String repositoryId,
+                         String path,
+                         Progress progress,
+                         JobContext context)
+    {
+        if (context.isCancelled())
+        {
+            return;
+        }
+
+        try
+        {
+            if (artifactResolutionService.resolvePath(storageId, repositoryId, path) == null)
+            {
+                progress.onFailed(path, "Not found");
+            }
+            else
+            {
+                progress.onResolved();
+            }
+        }
+        catch (Exception e)
+        {
+            logger.debug("Failed to warm up [{}:{}/{}].", storageId, repositoryId, path, e);
+
+            progress.onFailed(path, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private static class Progress
+    {
+
+        private final int total;
+
+        private final JobContext context;
+
+        private final AtomicInteger resolved = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private final List<String> failures = new ArrayList<>();
+
+        private Progress(int total,
+                         JobContext context)
+        {
+            this.total = total;
+            this.context = context;
+        }
+
+        private void onResolved()
+        {
+            resolved.incrementAndGet();
+            report();
+        }
+
+        private void onFailed(String path,
+                              String reason)
+        {
+            failed.incrementAndGet();
+            synchronized (failures)
+            {
+                if (failures.size() < MAX_REPORTED_FAILURES)
+                {
+                    failures.add(String.format("%s (%s)", path, reason));
+                }
+            }
+            report();
+        }
+
+        private void report()
+        {
+            context.setProgress((resolved.get() + failed.get()) * 100 / total);
+        }
+
+        @Override
+        public String toString()
+        {
+            String result = String.format("%d of %d resolved, %d failed.", resolved.get(), total, failed.get());
+            synchronized (failures)
+            {
+                if (!failures.isEmpty())
+                {
+                    result += " Failed: " + String.join(", ", failures) +
+                              (failed.get() > failures.size() ? ", ..." : "");
+                }
+            }
+
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package org.carlspring.strongbox.services;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a chunk of a resumable upload doesn't start where the content received so far ends.
+ */
+public class UploadOffsetMismatchException
+        extends IOException
+{
+
+    private final long offset;
+
+    public UploadOffsetMismatchException(String sessionId,
+                                         long expectedOffset,
+                                         long offset)
+    {
+        super(String.format("The upload [%s] continues at offset [%s], not [%s].", sessionId, offset, expectedOffset));
+
+        this.offset = offset;
+    }
+
+    /**
+     * @return the offset at which the upload actually continues
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+}
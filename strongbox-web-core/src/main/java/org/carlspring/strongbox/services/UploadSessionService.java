@@ -0,0 +1,75 @@
+package org.carlspring.strongbox.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.carlspring.strongbox.domain.UploadSession;
+import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
+import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+
+/**
+ * Resumable uploads: the content of an artifact is sent in chunks, each of which can be retried, and is only stored
+ * once the whole of it has arrived and matches the expected checksum.
+ */
+public interface UploadSessionService
+{
+
+    /**
+     * Starts an upload, after checking that the repository would accept the artifact.
+     *
+     * @param length the size of the content, or {@code null} if not known upfront
+     */
+    UploadSession create(RepositoryPath repositoryPath,
+                         Long length)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException;
+
+    /**
+     * @return the session, or {@code null} if there is no such session or it has expired
+     */
+    UploadSession getSession(String id);
+
+    /**
+     * Appends a chunk, which is discarded if it doesn't match its checksum.
+     *
+     * @param offset    where the chunk starts, which has to be the offset of the session
+     * @param algorithm the digest algorithm of the checksum of the chunk, or {@code null} if it has no checksum
+     * @return the session, with its new offset, or {@code null} if there is no such session
+     * @throws UploadOffsetMismatchException      if the chunk doesn't start at the offset of the session
+     * @throws ArtifactChecksumMismatchException  if the chunk doesn't match its checksum
+     * @throws IllegalArgumentException           if the chunk goes beyond the declared length, or the algorithm is
+     *                                            unknown
+     */
+    UploadSession append(String id,
+                         long offset,
+                         InputStream chunk,
+                         String algorithm,
+                         String checksum)
+        throws IOException;
+
+    /**
+     * Stores the content as the artifact through {@link ArtifactManagementService#validateAndStore}, if it matches
+     * the checksum. The session ends once the artifact is stored or the content turns out not to match, otherwise the
+     * upload can be finished again.
+     *
+     * @return the stored artifact, or {@code null} if there is no such session
+     * @throws ArtifactChecksumMismatchException if the content doesn't match the checksum
+     * @throws IllegalArgumentException          if the content is shorter than the declared length, or the algorithm
+     *                                           is unknown
+     */
+    RepositoryPath finish(String id,
+                          String algorithm,
+                          String checksum)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException;
+
+    /**
+     * @return {@code false} if there is no such session
+     */
+    boolean cancel(String id);
+
+}
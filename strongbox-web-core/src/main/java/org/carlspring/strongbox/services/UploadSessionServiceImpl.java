@@ -0,0 +1,576 @@
+package org.carlspring.strongbox.services;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.carlspring.strongbox.booters.PropertiesBooter;
+import org.carlspring.strongbox.domain.UploadSession;
+import org.carlspring.strongbox.providers.ProviderImplementationException;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.storage.checksum.ArtifactChecksumMismatchException;
+import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The content of an upload is staged in the {@code .temp/.uploads} directory of its repository, so that it's on the
+ * same volume as the artifact, and is moved into place through the usual commit path once finished. The chunks are
+ * digested as they're written, with the algorithms of the layout, so the content is neither read nor copied again;
+ * only after a restart or a failed chunk is it digested once more. The sessions are recorded in JSON files in the
+ * {@code uploads} directory of the vault, so that an upload can be resumed after a restart.
+ * <p>
+ * A session expires {@code strongbox.uploads.ttl-minutes} after its last chunk, and its content is deleted.
+ */
+@Component
+public class UploadSessionServiceImpl
+        implements UploadSessionService
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionServiceImpl.class);
+
+    private static final String EXTENSION = ".json";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(
+            DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The digests of the content written so far, by session and algorithm.
+     */
+    private final Map<String, Map<String, MessageDigest>> stagedDigests = new ConcurrentHashMap<>();
+
+    @Inject
+    private PropertiesBooter propertiesBooter;
+
+    @Inject
+    private RepositoryPathResolver repositoryPathResolver;
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+    @Value("${strongbox.uploads.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    private Path directory;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init()
+        throws IOException
+    {
+        directory = Paths.get(propertiesBooter.getVaultDirectory(), "uploads");
+        Files.createDirectories(directory);
+        load();
+
+        long interval = Math.min(TimeUnit.MINUTES.toMillis(Math.max(ttlMinutes, 1)), TimeUnit.MINUTES.toMillis(1));
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "upload-session-expiry");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::expire, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        executor.shutdownNow();
+    }
+
+    private void load()
+        throws IOException
+    {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION))
+        {
+            for (Path file : stream)
+            {
+                UploadSession session;
+                try
+                {
+                    session = objectMapper.readValue(file.toFile(), UploadSession.class);
+                }
+                catch (IOException e)
+                {
+                    logger.warn(String.format("Deleting the unreadable upload session record [%s].", file), e);
+                    Files.deleteIfExists(file);
+
+                    continue;
+                }
+
+                Path content = getContentPath(session);
+                if (content == null || !Files.exists(content))
+                {
+                    discard(session);
+
+                    continue;
+                }
+
+                // The content is the authority, the record may be behind the last chunk.
+                session.setOffset(Files.size(content));
+                sessions.put(session.getId(), session);
+            }
+        }
+
+        expire();
+    }
+
+    @Override
+    public UploadSession create(RepositoryPath repositoryPath,
+                                Long length)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        if (length != null && length < 0)
+        {
+            throw new IllegalArgumentException("The length can't be negative.");
+        }
+
+        long maxSize = repositoryPath.getRepository().getArtifactMaxSize();
+        if (length != null && maxSize > 0 && length > maxSize)
+        {
+            throw new IllegalArgumentException(String.format("The size of the artifact exceeds the maximum size " +
+                                                             "accepted by this repository (%s/%s).", length, maxSize));
+        }
+
+        artifactManagementService.validate(repositoryPath);
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(),
+                                                  repositoryPath.getRepository().getStorage().getId(),
+                                                  repositoryPath.getRepository().getId(),
+                                                  RepositoryFiles.relativizePath(repositoryPath),
+                                                  length);
+        session.setExpiresAt(nextExpiry());
+
+        Path content = getContentPath(session);
+        Files.createDirectories(content.getParent());
+        Files.createFile(content);
+
+        save(session);
+        stagedDigests.put(session.getId(), newLayoutDigests(repositoryPath));
+        sessions.put(session.getId(), session);
+
+        logger.info("Started the upload [{}] of [{}].", session.getId(), repositoryPath);
+
+        return session;
+    }
+
+    @Override
+    public UploadSession getSession(String id)
+    {
+        UploadSession session = sessions.get(id);
+        if (session == null || isExpired(session))
+        {
+            return null;
+        }
+
+        return session;
+    }
+
+    @Override
+    public UploadSession append(String id,
+                                long offset,
+                                InputStream chunk,
+                                String algorithm,
+                                String checksum)
+        throws IOException
+    {
+        UploadSession session = getSession(id);
+        if (session == null)
+        {
+            return null;
+        }
+
+        MessageDigest digest = algorithm != null ? newMessageDigest(algorithm) : null;
+
+        synchronized (session)
+        {
+            if (sessions.get(id) != session)
+            {
+                return null;
+            }
+
+            try (FileChannel channel = FileChannel.open(getContentPath(session), StandardOpenOption.WRITE))
+            {
+                long size = channel.size();
+                if (offset != size)
+                {
+                    throw new UploadOffsetMismatchException(id, offset, size);
+                }
+
+                channel.position(size);
+                try
+                {
+                    write(session, digest != null ? new DigestInputStream(chunk, digest) : chunk, channel);
+
+                    if (digest != null)
+                    {
+                        verify(session, digest.digest(), algorithm, checksum);
+                    }
+                }
+                catch (IOException | IllegalArgumentException e)
+                {
+                    // The digests may no longer match the content, which is then digested when finishing.
+                    stagedDigests.remove(id);
+
+                    // Without a checksum the bytes which did arrive are kept, so that the upload resumes after them.
+                    if (digest != null || e instanceof IllegalArgumentException)
+                    {
+                        channel.truncate(size);
+                    }
+
+                    throw e;
+                }
+                finally
+                {
+                    session.setOffset(channel.size());
+                }
+            }
+
+            session.setExpiresAt(nextExpiry());
+            save(session);
+        }
+
+        return session;
+    }
+
+    private void write(UploadSession session,
+                       InputStream is,
+                       FileChannel channel)
+        throws IOException
+    {
+        Long length = session.getLength();
+        long maxSize = resolve(session).getRepository().getArtifactMaxSize();
+        long position = channel.position();
+        Map<String, MessageDigest> digests = stagedDigests.getOrDefault(session.getId(), Collections.emptyMap());
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = is.read(buffer)) != -1)
+        {
+            position += read;
+            if (length != null && position > length)
+            {
+                throw new IllegalArgumentException(String.format("The upload [%s] is longer than [%s] bytes.",
+                                                                 session.getId(), length));
+            }
+            if (maxSize > 0 && position > maxSize)
+            {
+                throw new IllegalArgumentException(String.format("The size of the artifact exceeds the maximum " +
+                                                                 "size accepted by this repository (%s).", maxSize));
+            }
+
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+            while (bytes.hasRemaining())
+            {
+                channel.write(bytes);
+            }
+
+            for (MessageDigest digest : digests.values())
+            {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    @Override
+    public RepositoryPath finish(String id,
+                                 String algorithm,
+                                 String checksum)
+        throws IOException,
+        ProviderImplementationException,
+        ArtifactCoordinatesValidationException
+    {
+        UploadSession session = getSession(id);
+        if (session == null)
+        {
+            return null;
+        }
+
+        MessageDigest digest = newMessageDigest(algorithm);
+
+        synchronized (session)
+        {
+            if (sessions.get(id) != session)
+            {
+                return null;
+            }
+
+            Path content = getContentPath(session);
+            long size = Files.size(content);
+            if (session.getLength() != null && size != session.getLength())
+            {
+                throw new IllegalArgumentException(String.format("The upload [%s] has [%s] of [%s] bytes.",
+                                                                 id, size, session.getLength()));
+            }
+
+            RepositoryPath repositoryPath = resolve(session);
+
+            Map<String, MessageDigest> digests = stagedDigests.remove(id);
+            List<MessageDigest> pending = new ArrayList<>();
+            if (digests == null)
+            {
+                digests = newLayoutDigests(repositoryPath);
+                pending.addAll(digests.values());
+            }
+            if (!digests.containsKey(digest.getAlgorithm()))
+            {
+                pending.add(digest);
+            }
+            digest(content, pending);
+
+            Map<String, byte[]> layoutDigests = new HashMap<>();
+            digests.forEach((name, layoutDigest) -> layoutDigests.put(name, layoutDigest.digest()));
+
+            try
+            {
+                verify(session,
+                       layoutDigests.containsKey(digest.getAlgorithm()) ? layoutDigests.get(digest.getAlgorithm()) :
+                       digest.digest(),
+                       algorithm,
+                       checksum);
+
+                // The staged file is moved into place with its digests. The checksum is passed on too, so that it's
+                // also checked by the store for the algorithms the layout knows.
+                Map<String, String> expectedChecksums = Collections.singletonMap(digest.getAlgorithm(), checksum);
+                artifactManagementService.validateAndStore(repositoryPath, content, layoutDigests, expectedChecksums);
+            }
+            catch (ArtifactChecksumMismatchException e)
+            {
+                discard(session);
+
+                throw e;
+            }
+
+            discard(session);
+
+            logger.info("Finished the upload [{}] of [{}].", id, repositoryPath);
+
+            return repositoryPath;
+        }
+    }
+
+    @Override
+    public boolean cancel(String id)
+    {
+        UploadSession session = sessions.get(id);
+        if (session == null)
+        {
+            return false;
+        }
+
+        synchronized (session)
+        {
+            discard(session);
+        }
+
+        logger.info("Cancelled the upload [{}].", id);
+
+        return true;
+    }
+
+    private void expire()
+    {
+        for (UploadSession session : sessions.values())
+        {
+            if (!isExpired(session))
+            {
+                continue;
+            }
+
+            synchronized (session)
+            {
+                logger.info("The upload [{}] of [{}] has expired.", session.getId(), session.getPath());
+
+                discard(session);
+            }
+        }
+    }
+
+    private boolean isExpired(UploadSession session)
+    {
+        return session.getExpiresAt() != null && session.getExpiresAt().before(new Date());
+    }
+
+    private Date nextExpiry()
+    {
+        return new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes));
+    }
+
+    private void verify(UploadSession session,
+                        byte[] actual,
+                        String algorithm,
+                        String checksum)
+        throws ArtifactChecksumMismatchException
+    {
+        String hex = MessageDigestUtils.convertToHexadecimalString(actual);
+
+        String expected = checksum != null ? checksum.trim() : "";
+        if (hex.equalsIgnoreCase(expected) || Base64.getEncoder().encodeToString(actual).equals(expected))
+        {
+            return;
+        }
+
+        throw new ArtifactChecksumMismatchException(resolve(session).toUri(), algorithm, expected, hex);
+    }
+
+    /**
+     * Accepts both the JDK names of the digest algorithms and their short forms, for example {@code SHA-1} and
+     * {@code sha1}.
+     */
+    private static MessageDigest newMessageDigest(String algorithm)
+    {
+        String name = algorithm != null ? algorithm.trim().toUpperCase(Locale.ENGLISH) : "";
+        if (name.matches("SHA\\d+"))
+        {
+            name = "SHA-" + name.substring(3);
+        }
+
+        try
+        {
+            return MessageDigest.getInstance(name);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalArgumentException(String.format("Unknown digest algorithm [%s].", algorithm), e);
+        }
+    }
+
+    /**
+     * @return the digests of the algorithms of the layout, by their JDK names
+     */
+    private static Map<String, MessageDigest> newLayoutDigests(RepositoryPath repositoryPath)
+    {
+        Map<String, MessageDigest> digests = new HashMap<>();
+        for (String algorithm : repositoryPath.getFileSystem().getDigestAlgorithmSet())
+        {
+            digests.put(algorithm, newMessageDigest(algorithm));
+        }
+
+        return digests;
+    }
+
+    private static void digest(Path content,
+                               List<MessageDigest> digests)
+        throws IOException
+    {
+        if (digests.isEmpty())
+        {
+            return;
+        }
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream is = Files.newInputStream(content))
+        {
+            int read;
+            while ((read = is.read(buffer)) != -1)
+            {
+                for (MessageDigest digest : digests)
+                {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    private RepositoryPath resolve(UploadSession session)
+    {
+        return repositoryPathResolver.resolve(session.getStorageId(), session.getRepositoryId(), session.getPath());
+    }
+
+    /**
+     * @return {@code null} if the repository no longer exists
+     */
+    private Path getContentPath(UploadSession session)
+    {
+        RepositoryPath repositoryPath;
+        try
+        {
+            repositoryPath = resolve(session);
+        }
+        catch (RuntimeException e)
+        {
+            logger.debug("Could not resolve the upload [{}].", session.getId(), e);
+
+            return null;
+        }
+
+        return repositoryPath.getFileSystem().getUploadsPath().resolve(session.getId());
+    }
+
+    private void discard(UploadSession session)
+    {
+        sessions.remove(session.getId());
+        stagedDigests.remove(session.getId());
+        try
+        {
+            Path content = getContentPath(session);
+            if (content != null)
+            {
+                Files.deleteIfExists(content);
+            }
+            Files.deleteIfExists(getRecordPath(session));
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to delete the upload [%s].", session.getId()), e);
+        }
+    }
+
+    private void save(UploadSession session)
+        throws IOException
+    {
+        Path file = getRecordPath(session);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        Files.write(temp, objectMapper.writeValueAsString(session).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path getRecordPath(UploadSession session)
+    {
+        return directory.resolve(session.getId() + EXTENSION);
+    }
+
+}
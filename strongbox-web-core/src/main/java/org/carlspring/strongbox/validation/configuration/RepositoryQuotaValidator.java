@@ -0,0 +1,50 @@
+package org.carlspring.strongbox.validation.configuration;
+
+import org.carlspring.strongbox.forms.configuration.RepositoryForm;
+import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+public class RepositoryQuotaValidator
+        implements ConstraintValidator<RepositoryQuotaValid, RepositoryForm>
+{
+
+    private String message;
+
+    @Override
+    public void initialize(final RepositoryQuotaValid constraintAnnotation)
+    {
+        message = constraintAnnotation.message();
+    }
+
+    @Override
+    public boolean isValid(final RepositoryForm form,
+                           final ConstraintValidatorContext context)
+    {
+        // A missing type is reported by its own constraint.
+        if (form == null || form.getType() == null || RepositoryTypeEnum.HOSTED.getType().equals(form.getType()))
+        {
+            return true;
+        }
+
+        boolean valid = true;
+        context.disableDefaultConstraintViolation();
+        if (form.getRepositoryMaxSize() > 0)
+        {
+            context.buildConstraintViolationWithTemplate(message)
+                   .addPropertyNode("repositoryMaxSize")
+                   .addConstraintViolation();
+            valid = false;
+        }
+        if (form.getRepositoryMaxFiles() > 0)
+        {
+            context.buildConstraintViolationWithTemplate(message)
+                   .addPropertyNode("repositoryMaxFiles")
+                   .addConstraintViolation();
+            valid = false;
+        }
+
+        return valid;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.security.test.context.support.WithUserDetails;
 import javax.inject.Inject;
 
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 
@@ -68,4 +69,18 @@ public class ActuatorEndpointControllerTest
                .statusCode(HttpStatus.OK.value())
                .body("strongbox.revision", equalTo(revision));
     }
+
+    @Test
+    @WithUserDetails("admin")
+    public void testPrometheusMetrics()
+    {
+        String url = getContextBaseUrl() + "/prometheus";
+
+        given().header(HttpHeaders.ACCEPT, MediaType.TEXT_PLAIN_VALUE)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .body(containsString("jvm_memory_used_bytes"));
+    }
 }
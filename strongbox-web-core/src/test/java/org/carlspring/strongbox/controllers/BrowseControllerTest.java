@@ -232,6 +232,26 @@ public class BrowseControllerTest
         assertTrue(htmlResponse.contains(link), "Expected to have found [ " + link + " ] in the response html");
     }
 
+    @Test
+    public void testRepositoryContentsPage()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/" + STORAGE0 + "/" + REPOSITORY
+                     + "/org/carlspring/strongbox/browsing/test-browsing/1.1";
+
+        DirectoryListing returned = given().accept(MediaType.APPLICATION_JSON_VALUE)
+                                           .queryParam("skip", 1)
+                                           .queryParam("limit", 2)
+                                           .when()
+                                           .get(url)
+                                           .prettyPeek()
+                                           .as(DirectoryListing.class);
+
+        assertEquals(6, returned.getTotal());
+        assertEquals(2, returned.getFiles().size());
+        assertEquals("test-browsing-1.1.jar.md5", returned.getFiles().get(0).getName());
+    }
+
     @Test
     public void testRepositoryContentsWithRepositoryNotFound()
     {
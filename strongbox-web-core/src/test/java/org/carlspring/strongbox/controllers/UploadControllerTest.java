@@ -0,0 +1,240 @@
+package org.carlspring.strongbox.controllers;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.layout.RawLayoutProvider;
+import org.carlspring.strongbox.rest.common.RawRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.RawRepositoryFactory;
+import org.carlspring.strongbox.storage.repository.RepositoryDto;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@IntegrationTest
+public class UploadControllerTest
+        extends RawRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_RELEASES = "uct-raw-releases";
+
+    private static final byte[] CONTENT = "The first chunk, the second chunk.".getBytes(StandardCharsets.UTF_8);
+
+    private static final int SPLIT = 16;
+
+    @Inject
+    RawRepositoryFactory rawRepositoryFactory;
+
+
+    @BeforeAll
+    public static void cleanUp()
+            throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    public static Set<RepositoryDto> getRepositoriesToClean()
+    {
+        Set<RepositoryDto> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, RawLayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Override
+    @BeforeEach
+    public void init()
+            throws Exception
+    {
+        super.init();
+
+        RepositoryDto repository = rawRepositoryFactory.createRepository(REPOSITORY_RELEASES);
+        repository.setPolicy(RepositoryPolicyEnum.RELEASE.getPolicy());
+
+        createRepository(STORAGE0, repository);
+    }
+
+    @AfterEach
+    public void removeRepositories()
+            throws IOException, JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    @Test
+    public void testResumableUpload()
+            throws Exception
+    {
+        String location = create("org/foo/bar/resumable.zip");
+        byte[] first = Arrays.copyOfRange(CONTENT, 0, SPLIT);
+        byte[] second = Arrays.copyOfRange(CONTENT, SPLIT, CONTENT.length);
+
+        given().header(UploadController.UPLOAD_OFFSET, 0)
+               .header(UploadController.UPLOAD_CHECKSUM, "sha1 " + sha1(first))
+               .body(first)
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.NO_CONTENT.value())
+               .header(UploadController.UPLOAD_OFFSET, String.valueOf(SPLIT));
+
+        // A retried chunk is rejected with the offset to continue at.
+        given().header(UploadController.UPLOAD_OFFSET, 0)
+               .body(first)
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.CONFLICT.value())
+               .header(UploadController.UPLOAD_OFFSET, String.valueOf(SPLIT));
+
+        // A corrupted chunk is discarded.
+        given().header(UploadController.UPLOAD_OFFSET, SPLIT)
+               .header(UploadController.UPLOAD_CHECKSUM, "sha1 " + sha1(first))
+               .body(second)
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given().accept(MediaType.APPLICATION_JSON_VALUE)
+               .when()
+               .get(location)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header(UploadController.UPLOAD_OFFSET, String.valueOf(SPLIT))
+               .body("offset", equalTo(SPLIT));
+
+        given().header(UploadController.UPLOAD_OFFSET, SPLIT)
+               .body(second)
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.NO_CONTENT.value())
+               .header(UploadController.UPLOAD_OFFSET, String.valueOf(CONTENT.length));
+
+        given().header(UploadController.UPLOAD_CHECKSUM, "sha1 " + sha1(CONTENT))
+               .when()
+               .put(location)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        given().when()
+               .get(location)
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+
+        String artifactUrl = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES +
+                             "/org/foo/bar/resumable.zip";
+        byte[] deployed = given().when()
+                                 .get(artifactUrl)
+                                 .then()
+                                 .statusCode(HttpStatus.OK.value())
+                                 .extract()
+                                 .asByteArray();
+
+        assertThat(deployed).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void testUploadWithWrongChecksumIsNotDeployed()
+            throws Exception
+    {
+        String location = create("org/foo/bar/corrupted.zip");
+
+        given().header(UploadController.UPLOAD_OFFSET, 0)
+               .body(CONTENT)
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.NO_CONTENT.value());
+
+        given().header(UploadController.UPLOAD_CHECKSUM, "sha1 " + sha1("Something else".getBytes()))
+               .when()
+               .put(location)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given().when()
+               .get(location)
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+
+        given().when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES +
+                    "/org/foo/bar/corrupted.zip")
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    public void testIncompleteUploadIsNotDeployed()
+            throws Exception
+    {
+        String location = given().header(UploadController.UPLOAD_LENGTH, CONTENT.length)
+                                 .when()
+                                 .post(getUploadsUrl("org/foo/bar/incomplete.zip"))
+                                 .then()
+                                 .statusCode(HttpStatus.CREATED.value())
+                                 .extract()
+                                 .header("Location");
+
+        given().header(UploadController.UPLOAD_OFFSET, 0)
+               .body(Arrays.copyOfRange(CONTENT, 0, SPLIT))
+               .when()
+               .patch(location)
+               .then()
+               .statusCode(HttpStatus.NO_CONTENT.value());
+
+        given().header(UploadController.UPLOAD_CHECKSUM, "sha1 " + sha1(CONTENT))
+               .when()
+               .put(location)
+               .then()
+               .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        // The session is kept, so that the rest of the content can still be sent.
+        given().when()
+               .delete(location)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
+    private String create(String path)
+    {
+        return given().when()
+                      .post(getUploadsUrl(path))
+                      .then()
+                      .statusCode(HttpStatus.CREATED.value())
+                      .header(UploadController.UPLOAD_OFFSET, "0")
+                      .extract()
+                      .header("Location");
+    }
+
+    private String getUploadsUrl(String path)
+    {
+        return getContextBaseUrl() + UploadController.ROOT_CONTEXT + "/" + STORAGE0 + "/" + REPOSITORY_RELEASES +
+               "/" + path;
+    }
+
+    private static String sha1(byte[] bytes)
+            throws Exception
+    {
+        return MessageDigestUtils.convertToHexadecimalString(MessageDigest.getInstance("SHA-1").digest(bytes));
+    }
+
+}
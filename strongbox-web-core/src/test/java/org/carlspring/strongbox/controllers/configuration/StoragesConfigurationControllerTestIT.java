@@ -408,6 +408,36 @@ public class StoragesConfigurationControllerTestIT
                      .statusCode(404);
     }
 
+    @Test
+    public void testQuotaOfProxyRepositoryIsRejected()
+    {
+        RemoteRepositoryForm remoteRepository = new RemoteRepositoryForm();
+        remoteRepository.setUrl("http://localhost:48080/storages/storage0/releases/");
+        remoteRepository.setCheckIntervalSeconds(1000);
+
+        RepositoryForm form = new RepositoryForm();
+        form.setId("proxy-with-quota");
+        form.setLayout(Maven2LayoutProvider.ALIAS);
+        form.setType("proxy");
+        form.setPolicy("release");
+        form.setImplementation("file-system");
+        form.setStatus("In Service");
+        form.setRemoteRepository(remoteRepository);
+        form.setRepositoryMaxSize(1024);
+
+        String url = getContextBaseUrl() + "/" + EXISTING_STORAGE_ID + "/" + form.getId();
+
+        givenCustom().contentType(MediaType.APPLICATION_JSON_VALUE)
+                     .accept(MediaType.APPLICATION_JSON_VALUE)
+                     .body(form)
+                     .when()
+                     .put(url)
+                     .peek()
+                     .then()
+                     .statusCode(HttpStatus.BAD_REQUEST.value())
+                     .body(containsString("remoteRepository.cacheQuota"));
+    }
+
     private Storage getStorage(String storageId)
     {
         String url = getContextBaseUrl() + "/" + storageId;
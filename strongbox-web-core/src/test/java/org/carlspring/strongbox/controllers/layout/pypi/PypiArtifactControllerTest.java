@@ -0,0 +1,213 @@
+package org.carlspring.strongbox.controllers.layout.pypi;
+
+import org.carlspring.strongbox.config.IntegrationTest;
+import org.carlspring.strongbox.providers.layout.PypiSimpleIndex;
+import org.carlspring.strongbox.rest.common.MavenRestAssuredBaseTest;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.artifact.ArtifactManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.artifact.PypiTestArtifact;
+import org.carlspring.strongbox.testing.repository.PypiTestRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.restassured.module.mockmvc.response.MockMvcResponse;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@IntegrationTest
+public class PypiArtifactControllerTest
+        extends MavenRestAssuredBaseTest
+{
+
+    private static final String REPOSITORY_HTML = "pact-html";
+
+    private static final String REPOSITORY_JSON = "pact-json";
+
+    private static final String REPOSITORY_ETAG = "pact-etag";
+
+    private static final String REPOSITORY_DIGEST_MISMATCH = "pact-digest-mismatch";
+
+    private static final String PROJECT = "pactproject";
+
+    private static final String BOUNDARY = "---------------------------123qwe";
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testProjectListAndPageAsHtml(@PypiTestRepository(repositoryId = REPOSITORY_HTML) Repository repository,
+                                             @PypiTestArtifact(repositoryId = "", id = PROJECT, versions = "1.0") Path packagePath)
+            throws Exception
+    {
+        String digest = sha256(packagePath);
+        upload(REPOSITORY_HTML, packagePath, digest).then().statusCode(HttpStatus.OK.value());
+
+        given().header(HttpHeaders.ACCEPT, MediaType.TEXT_HTML_VALUE)
+               .when()
+               .get(getSimpleIndexUrl(REPOSITORY_HTML))
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .contentType(startsWith(MediaType.TEXT_HTML_VALUE))
+               .header(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT))
+               .body(containsString("href=\"" + PROJECT + "/\""));
+
+        given().header(HttpHeaders.ACCEPT, PypiSimpleIndex.HTML_CONTENT_TYPE)
+               .when()
+               .get(getSimpleIndexUrl(REPOSITORY_HTML) + PROJECT + "/")
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .contentType(startsWith(PypiSimpleIndex.HTML_CONTENT_TYPE))
+               .body(containsString(packagePath.getFileName().toString()))
+               .body(containsString("#sha256=" + digest));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testProjectPageAsJson(@PypiTestRepository(repositoryId = REPOSITORY_JSON) Repository repository,
+                                      @PypiTestArtifact(repositoryId = "", id = PROJECT, versions = "1.0") Path packagePath)
+            throws Exception
+    {
+        String digest = sha256(packagePath);
+        upload(REPOSITORY_JSON, packagePath, digest).then().statusCode(HttpStatus.OK.value());
+
+        given().header(HttpHeaders.ACCEPT, PypiSimpleIndex.JSON_CONTENT_TYPE)
+               .when()
+               .get(getSimpleIndexUrl(REPOSITORY_JSON))
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .contentType(startsWith(PypiSimpleIndex.JSON_CONTENT_TYPE))
+               .body("projects[0].name", equalTo(PROJECT));
+
+        given().header(HttpHeaders.ACCEPT, PypiSimpleIndex.JSON_CONTENT_TYPE + ", text/html;q=0.5")
+               .when()
+               .get(getSimpleIndexUrl(REPOSITORY_JSON) + PROJECT + "/")
+               .peek()
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .contentType(startsWith(PypiSimpleIndex.JSON_CONTENT_TYPE))
+               .body("name", equalTo(PROJECT))
+               .body("files[0].filename", equalTo(packagePath.getFileName().toString()))
+               .body("files[0].hashes.sha256", equalTo(digest));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testUnchangedPageIsNotModified(@PypiTestRepository(repositoryId = REPOSITORY_ETAG) Repository repository,
+                                               @PypiTestArtifact(repositoryId = "", id = PROJECT, versions = "1.0") Path packagePath)
+            throws Exception
+    {
+        upload(REPOSITORY_ETAG, packagePath, sha256(packagePath)).then().statusCode(HttpStatus.OK.value());
+
+        String url = getSimpleIndexUrl(REPOSITORY_ETAG) + PROJECT + "/";
+
+        String htmlETag = given().when()
+                                 .get(url)
+                                 .then()
+                                 .statusCode(HttpStatus.OK.value())
+                                 .extract()
+                                 .header(HttpHeaders.ETAG);
+        assertNotNull(htmlETag);
+
+        given().header(HttpHeaders.IF_NONE_MATCH, htmlETag)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value())
+               .header(HttpHeaders.ETAG, equalTo(htmlETag));
+
+        // The representations differ, so the HTML tag doesn't match the JSON page.
+        given().header(HttpHeaders.ACCEPT, PypiSimpleIndex.JSON_CONTENT_TYPE)
+               .header(HttpHeaders.IF_NONE_MATCH, htmlETag)
+               .when()
+               .get(url)
+               .then()
+               .statusCode(HttpStatus.OK.value())
+               .header(HttpHeaders.ETAG, not(equalTo(htmlETag)));
+    }
+
+    @Test
+    @ExtendWith({ RepositoryManagementTestExecutionListener.class, ArtifactManagementTestExecutionListener.class })
+    public void testUploadWithMismatchingDigestIsRejected(@PypiTestRepository(repositoryId = REPOSITORY_DIGEST_MISMATCH) Repository repository,
+                                                          @PypiTestArtifact(repositoryId = "", id = PROJECT, versions = "1.0") Path packagePath)
+            throws Exception
+    {
+        upload(REPOSITORY_DIGEST_MISMATCH, packagePath, DigestUtils.sha256Hex("not the package"))
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given().when()
+               .get(getSimpleIndexUrl(REPOSITORY_DIGEST_MISMATCH) + PROJECT + "/")
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+
+        given().when()
+               .get(getRepositoryUrl(REPOSITORY_DIGEST_MISMATCH) + "/" + PROJECT + "/1.0/" + packagePath.getFileName())
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    private MockMvcResponse upload(String repositoryId,
+                                   Path packagePath,
+                                   String sha256Digest)
+            throws IOException
+    {
+        ByteArrayOutputStream contentStream = new ByteArrayOutputStream();
+        try (InputStream is = Files.newInputStream(packagePath))
+        {
+            // The metadata fields precede the package, as twine sends them.
+            MultipartEntityBuilder.create()
+                                  .addTextBody(":action", "file_upload")
+                                  .addTextBody("sha256_digest", sha256Digest)
+                                  .addBinaryBody("content",
+                                                 is,
+                                                 ContentType.APPLICATION_OCTET_STREAM,
+                                                 packagePath.getFileName().toString())
+                                  .setBoundary(BOUNDARY)
+                                  .build()
+                                  .writeTo(contentStream);
+        }
+
+        return given().header(HttpHeaders.CONTENT_TYPE, MediaType.MULTIPART_FORM_DATA_VALUE + "; boundary=" + BOUNDARY)
+                      .body(contentStream.toByteArray())
+                      .when()
+                      .post(getRepositoryUrl(repositoryId) + "/");
+    }
+
+    private String sha256(Path packagePath)
+            throws IOException
+    {
+        try (InputStream is = Files.newInputStream(packagePath))
+        {
+            return DigestUtils.sha256Hex(is);
+        }
+    }
+
+    private String getRepositoryUrl(String repositoryId)
+    {
+        return getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + repositoryId;
+    }
+
+    private String getSimpleIndexUrl(String repositoryId)
+    {
+        return getRepositoryUrl(repositoryId) + "/simple/";
+    }
+
+}
@@ -3,6 +3,7 @@ package org.carlspring.strongbox.controllers.layout.raw;
 import org.carlspring.strongbox.config.IntegrationTest;
 import org.carlspring.strongbox.providers.layout.RawLayoutProvider;
 import org.carlspring.strongbox.rest.common.RawRestAssuredBaseTest;
+import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.repository.RepositoryDto;
 import org.carlspring.strongbox.storage.repository.RawRepositoryFactory;
 import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
@@ -24,6 +25,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import static io.restassured.module.mockmvc.RestAssuredMockMvc.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -41,6 +44,9 @@ public class RawArtifactControllerTest
     @Inject
     RawRepositoryFactory rawRepositoryFactory;
 
+    @Inject
+    ConfigurationManagementService configurationManagementService;
+
 
     @BeforeAll
     public static void cleanUp()
@@ -119,6 +125,51 @@ public class RawArtifactControllerTest
         System.out.println("Read '" + new String(baos.toByteArray()) + "'.");
     }
 
+    @Test
+    public void testDeployBeyondQuotaIsRejected()
+            throws Exception
+    {
+        String usageUrl = getContextBaseUrl() + "/api/configuration/strongbox/storages/" + STORAGE0 + "/" +
+                          REPOSITORY_RELEASES + "/usage";
+        int files = given().param("reconcile", true)
+                           .when()
+                           .get(usageUrl)
+                           .then()
+                           .statusCode(HttpStatus.OK.value())
+                           .extract()
+                           .path("files");
+
+        configurationManagementService.setRepositoryQuota(STORAGE0, REPOSITORY_RELEASES, 0, files + 1);
+        try
+        {
+            String repositoryUrl = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES;
+            byte[] content = "This is a test file\n".getBytes();
+
+            given().body(content)
+                   .when()
+                   .put(repositoryUrl + "/org/foo/bar/quota-1.txt")
+                   .then()
+                   .statusCode(HttpStatus.OK.value());
+
+            given().body(content)
+                   .when()
+                   .put(repositoryUrl + "/org/foo/bar/quota-2.txt")
+                   .then()
+                   .statusCode(HttpStatus.INSUFFICIENT_STORAGE.value());
+
+            given().when()
+                   .get(usageUrl)
+                   .then()
+                   .statusCode(HttpStatus.OK.value())
+                   .body("files", greaterThan(files))
+                   .body("maxFiles", equalTo(files + 1));
+        }
+        finally
+        {
+            configurationManagementService.setRepositoryQuota(STORAGE0, REPOSITORY_RELEASES, 0, 0);
+        }
+    }
+
     @Test
     public void testResolveViaHostedRepository()
             throws Exception
@@ -0,0 +1,39 @@
+package org.carlspring.strongbox.services;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectoryListingCacheTest
+{
+
+    @Test
+    public void testChangesAffectTheAncestorListings()
+    {
+        String path = "storage0/releases/org/carlspring/foo/1.0/foo-1.0.jar";
+
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/", path)).isTrue();
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org", path)).isTrue();
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org/carlspring/foo/1.0", path)).isTrue();
+    }
+
+    @Test
+    public void testChangesAffectTheDescendantListings()
+    {
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org/carlspring",
+                                                    "storage0/releases/org")).isTrue();
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org/carlspring",
+                                                    "storage0/releases/")).isTrue();
+    }
+
+    @Test
+    public void testChangesDoNotAffectTheOtherListings()
+    {
+        String path = "storage0/releases/org/carlspring/foo/1.0/foo-1.0.jar";
+
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org/carlspring/foo/1.1", path)).isFalse();
+        assertThat(DirectoryListingCache.isAffected("storage0/releases/org/carlspring/foobar", path)).isFalse();
+        assertThat(DirectoryListingCache.isAffected("storage0/releases-2/", path)).isFalse();
+        assertThat(DirectoryListingCache.isAffected("storage1/releases/", path)).isFalse();
+    }
+
+}
@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.domain.DirectoryListing;
+import org.carlspring.strongbox.domain.FileContent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectoryListingServiceImplTest
+{
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        Path target = Paths.get("target");
+        Files.createDirectories(target);
+        directory = Files.createTempDirectory(target, "listing");
+
+        for (String name : new String[]{ "e.jar", "b.jar", "d.jar", "a.jar", "c.jar" })
+        {
+            Files.createFile(directory.resolve(name));
+        }
+        Files.createDirectory(directory.resolve("z"));
+        Files.createDirectory(directory.resolve("y"));
+        Files.createFile(directory.resolve(".hidden"));
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void testListingIsSorted()
+            throws IOException
+    {
+        DirectoryListing listing = new DirectoryListingServiceImpl("http://localhost/api/logging").fromPath(directory,
+                                                                                                         directory);
+
+        assertThat(listing.getTotal()).isEqualTo(7);
+        assertThat(names(listing.getDirectories())).containsExactly("y", "z");
+        assertThat(names(listing.getFiles())).containsExactly("a.jar", "b.jar", "c.jar", "d.jar", "e.jar");
+    }
+
+    @Test
+    public void testListingHoldsTheFirstEntries()
+            throws IOException
+    {
+        DirectoryListing listing = new DirectoryListingServiceImpl("http://localhost/api/logging", null, 4)
+                                           .fromPath(directory, directory);
+
+        assertThat(listing.getTotal()).isEqualTo(4);
+        assertThat(listing.isTruncated()).isTrue();
+        assertThat(names(listing.getDirectories())).containsExactly("y", "z");
+        assertThat(names(listing.getFiles())).containsExactly("a.jar", "b.jar");
+    }
+
+    @Test
+    public void testPagesPastTheListedEntriesAreEmpty()
+            throws IOException
+    {
+        DirectoryListingService service = new DirectoryListingServiceImpl("http://localhost/api/logging", null, 4);
+
+        DirectoryListing lastPage = service.fromPath(directory, directory, 2, 5);
+        assertThat(lastPage.getTotal()).isEqualTo(4);
+        assertThat(lastPage.getDirectories()).isEmpty();
+        assertThat(names(lastPage.getFiles())).containsExactly("a.jar", "b.jar");
+
+        // The total tells the pages which can be listed, none is past it.
+        DirectoryListing pastPage = service.fromPath(directory, directory, 4, 5);
+        assertThat(pastPage.getTotal()).isEqualTo(4);
+        assertThat(pastPage.isTruncated()).isTrue();
+        assertThat(pastPage.getDirectories()).isEmpty();
+        assertThat(pastPage.getFiles()).isEmpty();
+    }
+
+    @Test
+    public void testSmallDirectoryIsNotTruncated()
+            throws IOException
+    {
+        DirectoryListing listing = new DirectoryListingServiceImpl("http://localhost/api/logging", null, 7)
+                                           .fromPath(directory, directory, 0, 2);
+
+        assertThat(listing.getTotal()).isEqualTo(7);
+        assertThat(listing.isTruncated()).isFalse();
+        assertThat(names(listing.getDirectories())).containsExactly("y", "z");
+        assertThat(listing.getFiles()).isEmpty();
+    }
+
+    private List<String> names(List<FileContent> contents)
+    {
+        return contents.stream().map(FileContent::getName).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.domain.Job;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JobServiceImplTest
+{
+
+    private Path directory;
+
+    private JobServiceImpl jobService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp()
+            throws IOException
+    {
+        Path target = Paths.get("target");
+        Files.createDirectories(target);
+        directory = Files.createTempDirectory(target, "jobs");
+
+        jobService = new JobServiceImpl(directory, 1, 1, 10);
+        jobService.init();
+    }
+
+    @AfterEach
+    public void tearDown()
+            throws IOException
+    {
+        release.countDown();
+        jobService.shutdown();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void testJobsAreRecordedAcrossRestarts()
+            throws Exception
+    {
+        Job job = jobService.submit("test", "completed", context -> "Done.");
+        awaitDone(job);
+
+        assertThat(job.getState()).isEqualTo(Job.State.COMPLETED);
+        assertThat(job.getResult()).isEqualTo("Done.");
+        assertThat(job.getProgress()).isEqualTo(100);
+
+        JobServiceImpl restarted = new JobServiceImpl(directory, 1, 1, 10);
+        restarted.init();
+        try
+        {
+            Job recorded = restarted.getJob(job.getId());
+
+            assertThat(recorded.getState()).isEqualTo(Job.State.COMPLETED);
+            assertThat(recorded.getResult()).isEqualTo("Done.");
+            assertThat(recorded.getFinishedAt()).isEqualTo(job.getFinishedAt());
+        }
+        finally
+        {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnfinishedJobsFailOnRestart()
+            throws Exception
+    {
+        Job running = jobService.submit("test", "running", this::block);
+        Job queued = jobService.submit("test", "queued", context -> "Done.");
+
+        JobServiceImpl restarted = new JobServiceImpl(directory, 1, 1, 10);
+        restarted.init();
+        try
+        {
+            assertThat(restarted.getJob(running.getId()).getState()).isEqualTo(Job.State.FAILED);
+            assertThat(restarted.getJob(queued.getId()).getState()).isEqualTo(Job.State.FAILED);
+            assertThat(restarted.getJob(queued.getId()).getError()).isEqualTo("Interrupted by a restart.");
+        }
+        finally
+        {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedJob()
+            throws Exception
+    {
+        Job job = jobService.submit("test", "failed", context -> {
+            throw new IOException("Disk full.");
+        });
+        awaitDone(job);
+
+        assertThat(job.getState()).isEqualTo(Job.State.FAILED);
+        assertThat(job.getError()).isEqualTo("Disk full.");
+    }
+
+    @Test
+    public void testCancel()
+            throws Exception
+    {
+        Job running = jobService.submit("test", "running", this::block);
+        Job queued = jobService.submit("test", "queued", context -> "Done.");
+
+        assertThat(jobService.cancel(queued.getId())).isTrue();
+        assertThat(queued.getState()).isEqualTo(Job.State.CANCELLED);
+
+        assertThat(jobService.cancel(running.getId())).isTrue();
+        awaitDone(running);
+        assertThat(running.getState()).isEqualTo(Job.State.CANCELLED);
+
+        assertThat(jobService.cancel("missing")).isFalse();
+    }
+
+    @Test
+    public void testTheQueueIsBounded()
+    {
+        jobService.submit("test", "running", this::block);
+        awaitRunning();
+        jobService.submit("test", "queued", context -> "Done.");
+
+        assertThrows(RejectedExecutionException.class,
+                     () -> jobService.submit("test", "rejected", context -> "Done."));
+        assertThat(jobService.getJobs()).hasSize(2);
+    }
+
+    private String block(JobService.JobContext context)
+            throws InterruptedException
+    {
+        release.await(10, TimeUnit.SECONDS);
+
+        return "Released.";
+    }
+
+    private void awaitRunning()
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (jobService.getJobs().stream().noneMatch(j -> j.getState() == Job.State.RUNNING) &&
+               System.currentTimeMillis() < deadline)
+        {
+            Thread.yield();
+        }
+    }
+
+    private void awaitDone(Job job)
+            throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!job.isDone() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NpmArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.NugetArtifactCoordinates;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpManifestParser.Format;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProxyCacheWarmUpManifestParserTest
+{
+
+    private final ProxyCacheWarmUpManifestParser parser = new ProxyCacheWarmUpManifestParser();
+
+    @Test
+    public void testMavenCoordinates()
+            throws IOException
+    {
+        Set<String> paths = parser.parse(MavenArtifactCoordinates.LAYOUT_NAME,
+                                         Format.COORDINATES,
+                                         "# comment\n" +
+                                         "org.carlspring:foo:1.0\n" +
+                                         "\n" +
+                                         "org.carlspring:foo:1.0\n" +
+                                         "org.carlspring:foo:1.0:sources\n" +
+                                         "org.carlspring:bar:2.0::pom\n" +
+                                         "org/carlspring/baz/3.0/baz-3.0.zip\n");
+
+        assertThat(paths).containsExactly(mavenPath("org.carlspring", "foo", "1.0", null, "jar"),
+                                          mavenPath("org.carlspring", "foo", "1.0", "sources", "jar"),
+                                          mavenPath("org.carlspring", "bar", "2.0", null, "pom"),
+                                          "org/carlspring/baz/3.0/baz-3.0.zip");
+    }
+
+    @Test
+    public void testInvalidCoordinates()
+    {
+        assertThrows(IllegalArgumentException.class,
+                     () -> parser.parse(MavenArtifactCoordinates.LAYOUT_NAME, Format.COORDINATES, "foo:bar"));
+        assertThrows(IllegalArgumentException.class,
+                     () -> parser.parse(NpmArtifactCoordinates.LAYOUT_NAME, Format.COORDINATES, "lodash"));
+        assertThrows(IllegalArgumentException.class, () -> Format.ofName("gradle"));
+    }
+
+    @Test
+    public void testNpmAndNugetCoordinates()
+            throws IOException
+    {
+        assertThat(parser.parse(NpmArtifactCoordinates.LAYOUT_NAME,
+                                Format.COORDINATES,
+                                "lodash@4.17.21\n@types/node@18.0.0"))
+                .containsExactly(NpmArtifactCoordinates.of("lodash", "4.17.21").toPath(),
+                                 NpmArtifactCoordinates.of("@types/node", "18.0.0").toPath());
+
+        assertThat(parser.parse(NugetArtifactCoordinates.LAYOUT_NAME,
+                                Format.COORDINATES,
+                                "Newtonsoft.Json:13.0.1"))
+                .containsExactly(new NugetArtifactCoordinates("Newtonsoft.Json", "13.0.1", "nupkg").toPath());
+    }
+
+    @Test
+    public void testPom()
+            throws IOException
+    {
+        String pom = "<project>\n" +
+                     "  <modelVersion>4.0.0</modelVersion>\n" +
+                     "  <parent>\n" +
+                     "    <groupId>org.carlspring</groupId>\n" +
+                     "    <artifactId>parent</artifactId>\n" +
+                     "    <version>1.0</version>\n" +
+                     "  </parent>\n" +
+                     "  <artifactId>app</artifactId>\n" +
+                     "  <properties>\n" +
+                     "    <lib.version>2.0</lib.version>\n" +
+                     "  </properties>\n" +
+                     "  <dependencyManagement>\n" +
+                     "    <dependencies>\n" +
+                     "      <dependency>\n" +
+                     "        <groupId>org.carlspring</groupId>\n" +
+                     "        <artifactId>bom</artifactId>\n" +
+                     "        <version>${project.version}</version>\n" +
+                     "        <type>pom</type>\n" +
+                     "        <scope>import</scope>\n" +
+                     "      </dependency>\n" +
+                     "    </dependencies>\n" +
+                     "  </dependencyManagement>\n" +
+                     "  <dependencies>\n" +
+                     "    <dependency>\n" +
+                     "      <groupId>org.carlspring</groupId>\n" +
+                     "      <artifactId>lib</artifactId>\n" +
+                     "      <version>${lib.version}</version>\n" +
+                     "    </dependency>\n" +
+                     "    <dependency>\n" +
+                     "      <groupId>org.carlspring</groupId>\n" +
+                     "      <artifactId>lib</artifactId>\n" +
+                     "      <version>${lib.version}</version>\n" +
+                     "      <type>test-jar</type>\n" +
+                     "    </dependency>\n" +
+                     "    <dependency>\n" +
+                     "      <groupId>org.carlspring</groupId>\n" +
+                     "      <artifactId>managed</artifactId>\n" +
+                     "    </dependency>\n" +
+                     "    <dependency>\n" +
+                     "      <groupId>org.carlspring</groupId>\n" +
+                     "      <artifactId>unresolved</artifactId>\n" +
+                     "      <version>${missing.version}</version>\n" +
+                     "    </dependency>\n" +
+                     "    <dependency>\n" +
+                     "      <groupId>org.carlspring</groupId>\n" +
+                     "      <artifactId>ranged</artifactId>\n" +
+                     "      <version>[1.0,2.0)</version>\n" +
+                     "    </dependency>\n" +
+                     "  </dependencies>\n" +
+                     "</project>";
+
+        assertThat(parser.parse(MavenArtifactCoordinates.LAYOUT_NAME, Format.POM, pom))
+                .containsExactly(mavenPath("org.carlspring", "parent", "1.0", null, "pom"),
+                                 mavenPath("org.carlspring", "bom", "1.0", null, "pom"),
+                                 mavenPath("org.carlspring", "lib", "2.0", null, "pom"),
+                                 mavenPath("org.carlspring", "lib", "2.0", null, "jar"),
+                                 mavenPath("org.carlspring", "lib", "2.0", "tests", "jar"));
+    }
+
+    @Test
+    public void testInvalidPom()
+    {
+        assertThrows(IOException.class,
+                     () -> parser.parse(MavenArtifactCoordinates.LAYOUT_NAME, Format.POM, "<project>"));
+    }
+
+    @Test
+    public void testPackageLockV1()
+            throws IOException
+    {
+        String packageLock = "{\n" +
+                             "  \"name\": \"app\",\n" +
+                             "  \"lockfileVersion\": 1,\n" +
+                             "  \"dependencies\": {\n" +
+                             "    \"lodash\": { \"version\": \"4.17.21\" },\n" +
+                             "    \"@types/node\": {\n" +
+                             "      \"version\": \"18.0.0\",\n" +
+                             "      \"dependencies\": { \"lodash\": { \"version\": \"4.17.20\" } }\n" +
+                             "    },\n" +
+                             "    \"local\": { \"version\": \"file:../local\" },\n" +
+                             "    \"aliased\": { \"version\": \"npm:left-pad@1.3.0\" }\n" +
+                             "  }\n" +
+                             "}";
+
+        assertThat(parser.parse(NpmArtifactCoordinates.LAYOUT_NAME, Format.PACKAGE_LOCK, packageLock))
+                .containsExactly(NpmArtifactCoordinates.of("lodash", "4.17.21").toPath(),
+                                 NpmArtifactCoordinates.of("@types/node", "18.0.0").toPath(),
+                                 NpmArtifactCoordinates.of("lodash", "4.17.20").toPath(),
+                                 NpmArtifactCoordinates.of("left-pad", "1.3.0").toPath());
+    }
+
+    @Test
+    public void testPackageLockV3()
+            throws IOException
+    {
+        String packageLock = "{\n" +
+                             "  \"name\": \"app\",\n" +
+                             "  \"lockfileVersion\": 3,\n" +
+                             "  \"packages\": {\n" +
+                             "    \"\": { \"name\": \"app\", \"version\": \"1.0.0\" },\n" +
+                             "    \"node_modules/lodash\": { \"version\": \"4.17.21\" },\n" +
+                             "    \"node_modules/@types/node\": { \"version\": \"18.0.0\" },\n" +
+                             "    \"node_modules/a/node_modules/lodash\": { \"version\": \"4.17.20\" },\n" +
+                             "    \"node_modules/b/node_modules/lodash\": { \"version\": \"4.17.20\" },\n" +
+                             "    \"node_modules/workspace\": { \"resolved\": \"packages/workspace\", \"link\": true }\n" +
+                             "  }\n" +
+                             "}";
+
+        assertThat(parser.parse(NpmArtifactCoordinates.LAYOUT_NAME, Format.PACKAGE_LOCK, packageLock))
+                .containsExactly(NpmArtifactCoordinates.of("lodash", "4.17.21").toPath(),
+                                 NpmArtifactCoordinates.of("@types/node", "18.0.0").toPath(),
+                                 NpmArtifactCoordinates.of("lodash", "4.17.20").toPath());
+    }
+
+    @Test
+    public void testPackagesLock()
+            throws IOException
+    {
+        String packagesLock = "{\n" +
+                              "  \"version\": 1,\n" +
+                              "  \"dependencies\": {\n" +
+                              "    \"net6.0\": {\n" +
+                              "      \"Newtonsoft.Json\": { \"type\": \"Direct\", \"requested\": \"[13.0.1, )\", \"resolved\": \"13.0.1\" },\n" +
+                              "      \"Library\": { \"type\": \"Project\" }\n" +
+                              "    },\n" +
+                              "    \"net7.0\": {\n" +
+                              "      \"Newtonsoft.Json\": { \"type\": \"Direct\", \"requested\": \"[13.0.1, )\", \"resolved\": \"13.0.1\" },\n" +
+                              "      \"System.Memory\": { \"type\": \"Transitive\", \"resolved\": \"4.5.5\" }\n" +
+                              "    }\n" +
+                              "  }\n" +
+                              "}";
+
+        assertThat(parser.parse(NugetArtifactCoordinates.LAYOUT_NAME, Format.PACKAGES_LOCK, packagesLock))
+                .containsExactlyElementsOf(Arrays.asList(
+                        new NugetArtifactCoordinates("Newtonsoft.Json", "13.0.1", "nupkg").toPath(),
+                        new NugetArtifactCoordinates("System.Memory", "4.5.5", "nupkg").toPath()));
+    }
+
+    private String mavenPath(String groupId,
+                             String artifactId,
+                             String version,
+                             String classifier,
+                             String extension)
+    {
+        return new MavenArtifactCoordinates(groupId, artifactId, version, classifier, extension).toPath();
+    }
+
+}
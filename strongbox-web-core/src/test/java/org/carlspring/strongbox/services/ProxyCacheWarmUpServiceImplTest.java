@@ -0,0 +1,189 @@
+package org.carlspring.strongbox.services;
+
+import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.domain.Job;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.ArtifactResolverContext;
+import org.carlspring.strongbox.providers.repository.MockedRestArtifactResolverTestBase;
+import org.carlspring.strongbox.services.ProxyCacheWarmUpManifestParser.Format;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.testing.repository.MavenRepository;
+import org.carlspring.strongbox.testing.storage.repository.RepositoryManagementTestExecutionListener;
+import org.carlspring.strongbox.testing.storage.repository.TestRepository.Remote;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Warms up a proxy repository of a mocked remote repository, and checks that the artifacts end up in its cache.
+ */
+public class ProxyCacheWarmUpServiceImplTest
+        extends MockedRestArtifactResolverTestBase
+        implements ArtifactResolverContext
+{
+
+    private static final String REPOSITORY = "pcwusit-repository";
+
+    private static final String PROXY_REPOSITORY_URL = "https://repo.maven.apache.org/maven2/";
+
+    private static final String MISSING_ARTIFACT_ID = "commons-missing";
+
+    private Path jobsDirectory;
+
+    private JobServiceImpl jobService;
+
+    private ProxyCacheWarmUpServiceImpl proxyCacheWarmUpService;
+
+    @BeforeEach
+    public void setUpServices()
+            throws IOException
+    {
+        Path target = Paths.get("target");
+        Files.createDirectories(target);
+        jobsDirectory = Files.createTempDirectory(target, "jobs");
+
+        jobService = new JobServiceImpl(jobsDirectory, 1, 1, 10);
+        jobService.init();
+
+        // A single thread and a queue of one path, so that the warm-up has to wait for room.
+        proxyCacheWarmUpService = new ProxyCacheWarmUpServiceImpl(artifactResolutionService, jobService, 1, 1);
+        proxyCacheWarmUpService.init();
+    }
+
+    @AfterEach
+    public void tearDownServices()
+            throws IOException
+    {
+        proxyCacheWarmUpService.shutdown();
+        jobService.shutdown();
+        FileUtils.deleteDirectory(jobsDirectory.toFile());
+    }
+
+    @Override
+    protected ArtifactResolverContext lookupArtifactResolverContext()
+    {
+        return this;
+    }
+
+    @Override
+    public InputStream getInputStream()
+    {
+        try
+        {
+            return jarArtifact.getInputStream();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isAvailable(String resource)
+    {
+        return !resource.contains(MISSING_ARTIFACT_ID);
+    }
+
+    @Override
+    public byte[] getContent(String resource)
+    {
+        if (!resource.endsWith(".sha1"))
+        {
+            return null;
+        }
+
+        try (InputStream is = jarArtifact.getInputStream())
+        {
+            return DigestUtils.sha1Hex(is).getBytes(StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    @ExtendWith(RepositoryManagementTestExecutionListener.class)
+    public void artifactsShouldBeCachedByTheWarmUp(@MavenRepository(repositoryId = REPOSITORY)
+                                                   @Remote(url = PROXY_REPOSITORY_URL) Repository proxyRepository)
+            throws Exception
+    {
+        // The paths are resolved on the warm-up threads.
+        initBackgroundContext(this);
+        try
+        {
+            MavenArtifactCoordinates[] artifacts = {
+                    new MavenArtifactCoordinates("org.apache.commons", "commons-lang3", "3.2", null, "jar"),
+                    new MavenArtifactCoordinates("org.apache.commons", "commons-text", "1.6", null, "jar"),
+                    new MavenArtifactCoordinates("org.apache.commons", "commons-collections4", "4.2", null, "jar")
+            };
+
+            StringBuilder content = new StringBuilder();
+            for (MavenArtifactCoordinates artifact : artifacts)
+            {
+                content.append(artifact.getGroupId()).append(':')
+                       .append(artifact.getArtifactId()).append(':')
+                       .append(artifact.getVersion()).append('\n');
+            }
+            content.append("org.apache.commons:").append(MISSING_ARTIFACT_ID).append(":1.0\n");
+
+            Job job = proxyCacheWarmUpService.warmUp(proxyRepository, Format.COORDINATES, content.toString());
+
+            assertThat(job.getType()).isEqualTo(ProxyCacheWarmUpServiceImpl.JOB_TYPE);
+            assertThat(jobService.getJob(job.getId())).isSameAs(job);
+
+            awaitDone(job);
+
+            synchronized (job)
+            {
+                assertThat(job.getState()).isEqualTo(Job.State.COMPLETED);
+                assertThat(job.getResult()).startsWith("3 of 4 resolved, 1 failed.")
+                                           .contains(MISSING_ARTIFACT_ID);
+            }
+
+            for (MavenArtifactCoordinates artifact : artifacts)
+            {
+                RepositoryPath artifactPath = repositoryPathResolver.resolve(proxyRepository)
+                                                                    .resolve(artifact.toPath());
+
+                assertThat(Files.exists(artifactPath)).as(artifactPath.toString()).isTrue();
+            }
+        }
+        finally
+        {
+            initBackgroundContext(null);
+        }
+    }
+
+    private void awaitDone(Job job)
+            throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!isDone(job) && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(100);
+        }
+    }
+
+    private boolean isDone(Job job)
+    {
+        synchronized (job)
+        {
+            return job.isDone();
+        }
+    }
+
+}
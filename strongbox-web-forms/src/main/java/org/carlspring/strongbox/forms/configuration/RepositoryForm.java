@@ -6,6 +6,7 @@ import org.carlspring.strongbox.storage.repository.RepositoryStatusEnum;
 import org.carlspring.strongbox.storage.repository.RepositoryTypeEnum;
 import org.carlspring.strongbox.validation.configuration.DescribableEnumValue;
 import org.carlspring.strongbox.validation.configuration.LayoutProviderValue;
+import org.carlspring.strongbox.validation.configuration.RepositoryQuotaValid;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
@@ -19,6 +20,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 /**
  * @author Przemyslaw Fusik
  */
+@RepositoryQuotaValid
 public class RepositoryForm
 {
 
@@ -52,6 +54,10 @@ public class RepositoryForm
 
     private long artifactMaxSize;
 
+    private long repositoryMaxSize;
+
+    private long repositoryMaxFiles;
+
     private boolean trashEnabled = true;
 
     private boolean allowsForceDeletion;
@@ -66,6 +72,8 @@ public class RepositoryForm
 
     private boolean checksumHeadersEnabled;
 
+    private boolean archiveListingEnabled;
+
     @Valid
     private ProxyConfigurationForm proxyConfiguration;
 
@@ -172,6 +180,26 @@ public class RepositoryForm
         this.artifactMaxSize = artifactMaxSize;
     }
 
+    public long getRepositoryMaxSize()
+    {
+        return repositoryMaxSize;
+    }
+
+    public void setRepositoryMaxSize(final long repositoryMaxSize)
+    {
+        this.repositoryMaxSize = repositoryMaxSize;
+    }
+
+    public long getRepositoryMaxFiles()
+    {
+        return repositoryMaxFiles;
+    }
+
+    public void setRepositoryMaxFiles(final long repositoryMaxFiles)
+    {
+        this.repositoryMaxFiles = repositoryMaxFiles;
+    }
+
     public boolean isTrashEnabled()
     {
         return trashEnabled;
@@ -242,6 +270,16 @@ public class RepositoryForm
         this.checksumHeadersEnabled = checksumHeadersEnabled;
     }
 
+    public boolean isArchiveListingEnabled()
+    {
+        return archiveListingEnabled;
+    }
+
+    public void setArchiveListingEnabled(final boolean archiveListingEnabled)
+    {
+        this.archiveListingEnabled = archiveListingEnabled;
+    }
+
     public ProxyConfigurationForm getProxyConfiguration()
     {
         return proxyConfiguration;
@@ -0,0 +1,28 @@
+package org.carlspring.strongbox.validation.configuration;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The {@code repositoryMaxSize} and {@code repositoryMaxFiles} quotas can only be set on hosted repositories. The
+ * cache of a proxy repository is capped by the {@code cacheQuota} of its remote repository instead.
+ */
+@Documented
+@Constraint(validatedBy = {})
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RepositoryQuotaValid
+{
+
+    String message() default "The quota only applies to hosted repositories, " +
+                             "the cache of a proxy repository is capped by remoteRepository.cacheQuota.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}